@@ -0,0 +1,47 @@
+package co.com.validate.license.audit.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "license.audit")
+@Getter
+@Setter
+public class AuditProperties {
+
+    public enum OverflowPolicy {
+        /** Discard the event and count it */
+        DROP,
+        /** Make the request thread wait for space, up to blockTimeoutMillis, then drop */
+        BLOCK
+    }
+
+    private boolean enabled = true;
+
+    /** Directory holding the activations-*.ndjson segments */
+    private String directory = "./data/audit";
+
+    /** Ring buffer slots, rounded up to a power of two */
+    private int bufferCapacity = 8192;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    private long blockTimeoutMillis = 100;
+
+    /** Events written per batch (one write + flush) */
+    private int batchSize = 512;
+
+    /** Longest time a published event waits before its batch is written */
+    private long flushIntervalMillis = 200;
+
+    /** A segment is closed and a new one started past this size or age */
+    private long segmentMaxBytes = 64L * 1024 * 1024;
+
+    private long segmentMaxAgeMinutes = 60;
+
+    /** Segments that ended longer ago than this are deleted */
+    private int retentionDays = 365;
+}
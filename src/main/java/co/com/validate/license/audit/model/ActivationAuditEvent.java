@@ -0,0 +1,9 @@
+package co.com.validate.license.audit.model;
+
+import java.time.Instant;
+
+/**
+ * One activation attempt, as written to the audit segments
+ */
+public record ActivationAuditEvent(Instant time, String licenseKey, String hwid, String outcome, String ip) {
+}
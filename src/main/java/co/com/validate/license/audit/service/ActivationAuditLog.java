@@ -0,0 +1,282 @@
+package co.com.validate.license.audit.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.com.validate.license.audit.config.AuditProperties;
+import co.com.validate.license.audit.model.ActivationAuditEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only history of activation attempts.
+ *
+ * Request threads only publish into a {@link RingBuffer}; a single writer thread drains it and
+ * appends each batch as NDJSON lines to the current segment (activations-&lt;first event
+ * millis&gt;.ndjson), with one flush per batch. Segments roll by size and age and are deleted
+ * after the retention period. When the buffer is full the overflow policy either drops the event
+ * (counted) or makes the caller wait briefly for space.
+ */
+@Slf4j
+@Service
+public class ActivationAuditLog {
+
+    static final String SEGMENT_PREFIX = "activations-";
+    static final String SEGMENT_SUFFIX = ".ndjson";
+
+    // Events of one batch may be a little older than the segment's first event
+    private static final long SEGMENT_SKEW_MILLIS = 60_000;
+
+    public record Stats(long published, long written, long dropped, long failed, int pending, int segments) {
+    }
+
+    private final AuditProperties properties;
+    private final ObjectMapper objectMapper;
+    private final RingBuffer<ActivationAuditEvent> buffer;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private Path directory;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Writer thread only
+    private OutputStream segment;
+    private long segmentBytes;
+    private long segmentStartMillis;
+
+    public ActivationAuditLog(AuditProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.buffer = new RingBuffer<>(properties.getBufferCapacity());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        running = true;
+        writer = new Thread(this::writeLoop, "activation-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Activation audit log writing to {} (buffer {}, overflow {})",
+                directory.toAbsolutePath(), buffer.capacity(), properties.getOverflowPolicy());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Publishes an event without touching the disk
+     */
+    public void record(ActivationAuditEvent event) {
+        if (!running) {
+            return;
+        }
+        if (buffer.offer(event)) {
+            published.incrementAndGet();
+            return;
+        }
+        if (properties.getOverflowPolicy() == AuditProperties.OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getBlockTimeoutMillis());
+            while (running && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(50_000);
+                if (buffer.offer(event)) {
+                    published.incrementAndGet();
+                    return;
+                }
+            }
+        }
+        dropped.incrementAndGet();
+    }
+
+    public Stats getStats() {
+        return new Stats(published.get(), written.get(), dropped.get(), failed.get(), buffer.size(),
+                listSegments().size());
+    }
+
+    /**
+     * Streams the events with from &lt;= time &lt; to that match the filter, oldest segment
+     * first. Segments entirely outside the range are skipped without being read.
+     */
+    public void query(Instant from, Instant to, Predicate<ActivationAuditEvent> filter,
+                      Consumer<ActivationAuditEvent> sink) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        List<Segment> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            long start = segments.get(i).startMillis();
+            long end = i + 1 < segments.size() ? segments.get(i + 1).startMillis() : Long.MAX_VALUE;
+            if (start - SEGMENT_SKEW_MILLIS >= to.toEpochMilli() || end <= from.toEpochMilli()) {
+                continue;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(segments.get(i).path(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    ActivationAuditEvent event = objectMapper.readValue(line, ActivationAuditEvent.class);
+                    if (!event.time().isBefore(from) && event.time().isBefore(to) && filter.test(event)) {
+                        sink.accept(event);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until everything published so far is on disk (tests and shutdown checks)
+     */
+    boolean awaitWritten(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (written.get() + failed.get() < published.get() && System.currentTimeMillis() < deadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        return written.get() + failed.get() >= published.get();
+    }
+
+    private void writeLoop() {
+        List<ActivationAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        while (running || buffer.size() > 0) {
+            batch.clear();
+            buffer.drainTo(batch, properties.getBatchSize());
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            // A full batch means more is waiting; otherwise let events accumulate
+            if (batch.size() < properties.getBatchSize() && running) {
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+        closeSegment();
+    }
+
+    private void write(List<ActivationAuditEvent> batch) {
+        try {
+            rollIfNeeded(batch.get(0).time().toEpochMilli());
+            for (ActivationAuditEvent event : batch) {
+                byte[] line = objectMapper.writeValueAsBytes(event);
+                segment.write(line);
+                segment.write('\n');
+                segmentBytes += line.length + 1;
+            }
+            segment.flush();
+            written.addAndGet(batch.size());
+        } catch (IOException e) {
+            log.warn("Could not write {} audit event(s): {}", batch.size(), e.getMessage());
+            failed.addAndGet(batch.size());
+            closeSegment();
+        }
+    }
+
+    private void rollIfNeeded(long firstEventMillis) throws IOException {
+        long maxAgeMillis = TimeUnit.MINUTES.toMillis(properties.getSegmentMaxAgeMinutes());
+        if (segment != null
+                && segmentBytes < properties.getSegmentMaxBytes()
+                && firstEventMillis - segmentStartMillis < maxAgeMillis) {
+            return;
+        }
+        closeSegment();
+        // Never go back in time, so segment names stay ordered like their contents
+        segmentStartMillis = Math.max(firstEventMillis, segmentStartMillis + 1);
+        Path path = directory.resolve(SEGMENT_PREFIX + segmentStartMillis + SEGMENT_SUFFIX);
+        segment = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        segmentBytes = Files.size(path);
+        purgeExpiredSegments();
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close audit segment: {}", e.getMessage());
+        }
+        segment = null;
+    }
+
+    /**
+     * Deletes segments whose successor started before the retention cutoff, i.e. whose events
+     * are all older than it. The current segment is always kept.
+     */
+    private void purgeExpiredSegments() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(properties.getRetentionDays());
+        List<Segment> segments = listSegments();
+        for (int i = 0; i + 1 < segments.size() && segments.get(i + 1).startMillis() < cutoff; i++) {
+            try {
+                Files.deleteIfExists(segments.get(i).path());
+            } catch (IOException e) {
+                log.warn("Could not delete audit segment {}: {}", segments.get(i).path(), e.getMessage());
+            }
+        }
+    }
+
+    private List<Segment> listSegments() {
+        if (directory == null) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Segment::of)
+                    .filter(segment -> segment != null)
+                    .sorted((a, b) -> Long.compare(a.startMillis(), b.startMillis()))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Could not list audit segments: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private record Segment(Path path, long startMillis) {
+
+        static Segment of(Path path) {
+            String name = path.getFileName().toString();
+            if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+                return null;
+            }
+            try {
+                return new Segment(path, Long.parseLong(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
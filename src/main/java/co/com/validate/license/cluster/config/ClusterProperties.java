@@ -0,0 +1,46 @@
+package co.com.validate.license.cluster.config;
+
+import java.util.UUID;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "license.cluster")
+@Getter
+@Setter
+public class ClusterProperties {
+
+    /** Several instances share one database; in-memory copies are refreshed from cluster_change */
+    private boolean enabled = false;
+
+    /**
+     * Name of this instance, unique within the cluster. Blank means "local" when running alone and
+     * a random id per start in cluster mode (its seat leases are then not restored after a restart)
+     */
+    private String instanceId = "";
+
+    /** How often cluster_change is polled; bounds how long another instance's change stays unseen */
+    private long pollIntervalMs = 1000;
+
+    /** Changes are read again for this long after their timestamp, so slow commits are not skipped */
+    private long overlapMs = 5000;
+
+    /** cluster_change rows older than this are deleted */
+    private long retentionMs = 86_400_000;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final String randomInstanceId = UUID.randomUUID().toString();
+
+    public String getInstanceId() {
+        if (instanceId != null && !instanceId.isBlank()) {
+            return instanceId;
+        }
+        return enabled ? randomInstanceId : "local";
+    }
+}
@@ -0,0 +1,47 @@
+package co.com.validate.license.cluster.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import co.com.validate.license.security.ActivationSigningProperties;
+import co.com.validate.license.security.JweProperties;
+import co.com.validate.license.security.TokenMode;
+
+/**
+ * Refuses to start cluster mode with settings that only hold within one instance: licenses in a
+ * local MVStore file or outside the shared license table (the shared seat count locks the license
+ * row there), and Ed25519 keys generated per instance, whose tokens and activation
+ * signatures would not verify on the other instances
+ */
+@Component
+@ConditionalOnProperty(name = "license.cluster.enabled", havingValue = "true")
+public class ClusterRequirements {
+
+    public ClusterRequirements(JweProperties jweProperties, ActivationSigningProperties signingProperties,
+                               @Value("${license.store.backend:jpa}") String storeBackend) {
+        if ("mvstore".equals(storeBackend)) {
+            throw new IllegalStateException(
+                    "license.store.backend=mvstore keeps licenses in a local file and cannot run with license.cluster.enabled");
+        }
+        if ("sharded".equals(storeBackend)) {
+            throw new IllegalStateException(
+                    "license.store.backend=sharded keeps licenses outside the shared license table and cannot run with "
+                    + "license.cluster.enabled");
+        }
+        if (jweProperties.getAcceptedModes().contains(TokenMode.EDDSA)
+                && (isBlank(jweProperties.getEd25519PrivateKey()) || isBlank(jweProperties.getEd25519PublicKey()))) {
+            throw new IllegalStateException("EDDSA tokens need security.jwe.ed25519-private-key and "
+                    + "ed25519-public-key with license.cluster.enabled: every instance must share the key pair");
+        }
+        if (signingProperties.isEnabled()
+                && (isBlank(signingProperties.getPrivateKey()) || isBlank(signingProperties.getPublicKey()))) {
+            throw new IllegalStateException("Activation signing needs security.signing.private-key and public-key "
+                    + "with license.cluster.enabled: every instance must share the key pair");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,53 @@
+package co.com.validate.license.cluster.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import co.com.validate.license.cluster.config.ClusterProperties;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writer side of the cluster invalidation channel. Callers record a change inside the transaction
+ * that makes it, so the row becomes visible to the other instances exactly when the change does.
+ * Does nothing unless license.cluster.enabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClusterChangeLog {
+
+    public enum Kind {
+        /** item is a license key whose seats, expiration or revocation changed, or that was removed */
+        LICENSE,
+        /** item is the jti of a revoked token */
+        TOKEN
+    }
+
+    private static final String INSERT = "INSERT INTO cluster_change (id, changed_at, kind, origin, item) "
+            + "VALUES (NEXT VALUE FOR cluster_change_seq, CURRENT_TIMESTAMP, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterProperties properties;
+
+    public void recordLicenses(Collection<String> licenseKeys) {
+        record(Kind.LICENSE, licenseKeys);
+    }
+
+    public void recordRevokedToken(String jti) {
+        record(Kind.TOKEN, List.of(jti));
+    }
+
+    private void record(Kind kind, Collection<String> items) {
+        if (!properties.isEnabled() || items.isEmpty()) {
+            return;
+        }
+        String origin = properties.getInstanceId();
+        jdbcTemplate.batchUpdate(INSERT, items, 500, (ps, item) -> {
+            ps.setString(1, kind.name());
+            ps.setString(2, origin);
+            ps.setString(3, item);
+        });
+    }
+}
@@ -0,0 +1,164 @@
+package co.com.validate.license.cluster.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import co.com.validate.license.cluster.config.ClusterProperties;
+import co.com.validate.license.model.RevokedToken;
+import co.com.validate.license.repository.RevokedTokenRepository;
+import co.com.validate.license.security.TokenDenylist;
+import co.com.validate.license.service.LicenseChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reader side of the cluster invalidation channel: every poll-interval-ms the cluster_change rows
+ * written by other instances are applied locally. License changes are republished as a
+ * {@link LicenseChangedEvent}, so the same listeners that handle local bulk changes refresh their
+ * copies; token revocations are loaded from revoked_token into the {@link TokenDenylist}.
+ *
+ * Each poll reads the rows stamped after the previous poll's database time minus overlap-ms, so a
+ * transaction that commits up to overlap-ms after it started is still seen; ids already applied
+ * inside that window are skipped. A change made elsewhere is therefore applied here at most one
+ * poll interval (plus the poll itself) after its commit.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "license.cluster.enabled", havingValue = "true")
+public class ClusterChangePoller {
+
+    private static final long PRUNE_INTERVAL_MILLIS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenDenylist tokenDenylist;
+
+    // Applied ids still inside the overlap window, with their timestamp
+    private final Map<Long, Long> applied = new HashMap<>();
+    private long sinceMillis;
+    private long lastPruneMillis;
+
+    private long polls;
+    private long failures;
+    private long licenseChanges;
+    private long tokenRevocations;
+    private long lastLagMillis;
+    private long maxLagMillis;
+    private long lastPollMillis;
+
+    public ClusterChangePoller(JdbcTemplate jdbcTemplate, ClusterProperties properties,
+                               ApplicationEventPublisher eventPublisher,
+                               RevokedTokenRepository revokedTokenRepository, TokenDenylist tokenDenylist) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenDenylist = tokenDenylist;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        // Nothing is cached yet, older changes are already in the database
+        sinceMillis = databaseNow() - properties.getOverlapMs();
+        lastPollMillis = System.currentTimeMillis();
+        log.info("Cluster mode: instance {} polls cluster_change every {} ms",
+                properties.getInstanceId(), properties.getPollIntervalMs());
+    }
+
+    @Scheduled(fixedDelayString = "${license.cluster.poll-interval-ms:1000}",
+               initialDelayString = "${license.cluster.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        try {
+            long now = databaseNow();
+            List<Change> changes = jdbcTemplate.query(
+                    "SELECT id, changed_at, kind, item FROM cluster_change WHERE changed_at >= ? AND origin <> ? ORDER BY id",
+                    (rs, rowNum) -> new Change(rs.getLong(1), rs.getTimestamp(2).getTime(),
+                            ClusterChangeLog.Kind.valueOf(rs.getString(3)), rs.getString(4)),
+                    new Timestamp(sinceMillis), properties.getInstanceId());
+            apply(changes, now);
+
+            sinceMillis = now - properties.getOverlapMs();
+            applied.values().removeIf(changedAt -> changedAt < sinceMillis);
+            if (now - lastPruneMillis >= PRUNE_INTERVAL_MILLIS) {
+                jdbcTemplate.update("DELETE FROM cluster_change WHERE changed_at < ?",
+                        new Timestamp(now - properties.getRetentionMs()));
+                lastPruneMillis = now;
+            }
+            polls++;
+            lastPollMillis = System.currentTimeMillis();
+        } catch (Exception e) {
+            // The window is not moved, the next successful poll reads everything missed
+            failures++;
+            log.error("Cluster change poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void apply(List<Change> changes, long now) {
+        Set<String> licenseKeys = new LinkedHashSet<>();
+        List<String> jtis = new ArrayList<>();
+        for (Change change : changes) {
+            if (applied.putIfAbsent(change.id(), change.changedAt()) != null) {
+                continue;
+            }
+            switch (change.kind()) {
+                case LICENSE -> licenseKeys.add(change.item());
+                case TOKEN -> jtis.add(change.item());
+            }
+            lastLagMillis = Math.max(0, now - change.changedAt());
+            maxLagMillis = Math.max(maxLagMillis, lastLagMillis);
+        }
+        if (!licenseKeys.isEmpty()) {
+            eventPublisher.publishEvent(new LicenseChangedEvent(licenseKeys));
+            licenseChanges += licenseKeys.size();
+        }
+        if (!jtis.isEmpty()) {
+            for (RevokedToken revoked : revokedTokenRepository.findAllById(jtis)) {
+                tokenDenylist.add(revoked.getJti(), Date.from(revoked.getExpiresAt()));
+                tokenRevocations++;
+            }
+        }
+        if (!licenseKeys.isEmpty() || !jtis.isEmpty()) {
+            log.debug("Applied {} license change(s) and {} revocation(s) from other instances",
+                    licenseKeys.size(), jtis.size());
+        }
+    }
+
+    private long databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", Timestamp.class).getTime();
+    }
+
+    /**
+     * Poll counters and the observed delay between a change's transaction and its local application
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("instanceId", properties.getInstanceId());
+        stats.put("pollIntervalMs", properties.getPollIntervalMs());
+        stats.put("polls", polls);
+        stats.put("failures", failures);
+        stats.put("millisSinceLastPoll", System.currentTimeMillis() - lastPollMillis);
+        stats.put("licenseChangesApplied", licenseChanges);
+        stats.put("tokenRevocationsApplied", tokenRevocations);
+        stats.put("lastLagMillis", lastLagMillis);
+        stats.put("maxLagMillis", maxLagMillis);
+        return stats;
+    }
+
+    private record Change(long id, long changedAt, ClusterChangeLog.Kind kind, String item) {
+    }
+}
@@ -0,0 +1,24 @@
+package co.com.validate.license.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "email.outbox")
+@Getter
+@Setter
+public class EmailOutboxProperties {
+
+    private int workerThreads = 4;
+    // Claimed rows waiting for a worker, on top of the ones being sent
+    private int queueCapacity = 200;
+    private long pollIntervalMs = 1000;
+    private int maxAttempts = 6;
+    private long initialBackoffMs = 30_000;
+    private long maxBackoffMs = 3_600_000;
+    // SENDING rows claimed longer ago are returned to PENDING by any instance (their owner is gone)
+    private long claimTimeoutMs = 600_000;
+}
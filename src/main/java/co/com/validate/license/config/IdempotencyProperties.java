@@ -0,0 +1,25 @@
+package co.com.validate.license.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "license.idempotency")
+@Getter
+@Setter
+public class IdempotencyProperties {
+
+    private Duration ttl = Duration.ofHours(24);
+    // In-memory LRU in front of the idempotency_record table
+    private int maxEntries = 10_000;
+    // How long a concurrent duplicate waits for the first request to finish
+    private long waitTimeoutMs = 30_000;
+    // How long the placeholder of a running request blocks the key if its instance dies
+    private long pendingTimeoutMs = 60_000;
+    private long purgeIntervalMs = 600_000;
+}
@@ -0,0 +1,53 @@
+package co.com.validate.license.config;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import co.com.validate.license.model.License;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills license.key_hash and license.hwid_hash for rows created before the columns existed
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LicenseKeyHashBackfill implements ApplicationRunner {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill("key_hash",
+                "SELECT id, COALESCE(license_key, UPPER(CAST(key_uuid AS VARCHAR))) AS hashed FROM license "
+                        + "WHERE key_hash IS NULL",
+                License::sha256);
+        backfill("hwid_hash", "SELECT id, hwid AS hashed FROM license WHERE hwid IS NOT NULL AND hwid_hash IS NULL",
+                License::hwidHash);
+    }
+
+    private void backfill(String column, String select, Function<String, byte[]> hash) {
+        int total = 0;
+        List<Object[]> chunk;
+        do {
+            chunk = jdbcTemplate.query(select + " FETCH FIRST " + CHUNK_SIZE + " ROWS ONLY",
+                    (rs, rowNum) -> new Object[] { hash.apply(rs.getString("hashed")), rs.getLong("id") });
+            if (!chunk.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE license SET " + column + " = ? WHERE id = ?", chunk);
+                total += chunk.size();
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+
+        if (total > 0) {
+            log.info("Backfilled {} for {} license(s)", column, total);
+        }
+    }
+}
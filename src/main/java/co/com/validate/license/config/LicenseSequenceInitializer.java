@@ -0,0 +1,60 @@
+package co.com.validate.license.config;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import co.com.validate.license.model.License;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves license_seq past the ids assigned while License used IDENTITY generation, so the pooled
+ * sequence never hands out an id that already exists. The sequence only ever moves forward: with
+ * several instances on one database, the others may already hold blocks past the highest id.
+ *
+ * Runs as a Flyway afterMigrate callback, i.e. before JPA, the JDBC templates and therefore any
+ * request or scheduled job can insert a license. It uses Flyway's connection: the JdbcTemplate
+ * bean itself waits for Flyway.
+ */
+@Slf4j
+@Component
+public class LicenseSequenceInitializer implements Callback {
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        align(new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true)));
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "licenseSequenceInitializer";
+    }
+
+    void align(JdbcTemplate jdbcTemplate) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM license", Long.class);
+        if (maxId == null || maxId == 0) {
+            return;
+        }
+        // Pooled optimizer hands out (value - allocationSize, value]
+        long restart = maxId + License.ID_ALLOCATION_SIZE;
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR license_seq", Long.class);
+        if (next != null && next >= restart) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE license_seq RESTART WITH " + restart);
+        log.info("license_seq restarted at {} (max id {})", restart, maxId);
+    }
+}
@@ -0,0 +1,36 @@
+package co.com.validate.license.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * H2 databases of the sharded license store (license.store.backend=sharded)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "license.store.shards")
+@Getter
+@Setter
+public class LicenseShardProperties {
+
+    /**
+     * Number of shards; fixed once licenses are stored (ids and routing depend on it)
+     */
+    private int count = 4;
+
+    /**
+     * JDBC URL with %d for the shard index
+     */
+    private String urlPattern = "jdbc:h2:file:./data/licenses-shard-%d;DB_CLOSE_ON_EXIT=FALSE";
+
+    private String username = "sa";
+
+    private String password = "";
+
+    /**
+     * Connections per shard
+     */
+    private int poolSize = 4;
+}
@@ -0,0 +1,26 @@
+package co.com.validate.license.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "license.seats")
+@Getter
+@Setter
+public class SeatLeaseProperties {
+
+    /** Lease lifetime granted by checkout and renewed by every heartbeat */
+    private long leaseSeconds = 300;
+
+    /** Resolution of the expiry timing wheel */
+    private long tickMillis = 1000;
+
+    /** Number of buckets in the timing wheel (rounded up to a power of two) */
+    private int wheelSize = 512;
+
+    /** How often live leases are written to H2; must stay below the lease lifetime */
+    private long checkpointIntervalMs = 30000;
+}
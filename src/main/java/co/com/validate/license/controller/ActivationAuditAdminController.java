@@ -0,0 +1,83 @@
+package co.com.validate.license.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.com.validate.license.audit.model.ActivationAuditEvent;
+import co.com.validate.license.audit.service.ActivationAuditLog;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read side of the activation audit log, for support and fraud investigations
+ */
+@RestController
+@RequestMapping("/api/admin/audit")
+@RequiredArgsConstructor
+public class ActivationAuditAdminController {
+
+    private final ActivationAuditLog activationAuditLog;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Activation attempts in [from, to) as NDJSON, optionally for one license key, hwid or IP.
+     * Defaults to the last 24 hours.
+     */
+    @GetMapping(value = "/activations", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> activations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String licenseKey,
+            @RequestParam(required = false) String hwid,
+            @RequestParam(required = false) String ip) {
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(Duration.ofDays(1)) : from;
+
+        StreamingResponseBody body = out -> {
+            try {
+                activationAuditLog.query(start, end,
+                        event -> matches(licenseKey, event.licenseKey())
+                                && matches(hwid, event.hwid())
+                                && matches(ip, event.ip()),
+                        event -> writeLine(out, event));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Events published, written, dropped on overflow and still buffered
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Object> stats() {
+        return ResponseEntity.ok(activationAuditLog.getStats());
+    }
+
+    private static boolean matches(String expected, String actual) {
+        return expected == null || expected.equals(actual);
+    }
+
+    private void writeLine(OutputStream out, ActivationAuditEvent event) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package co.com.validate.license.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
 import jakarta.validation.Valid;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.JWTClaimsSet;
 
+import co.com.validate.license.model.RevokeTokenRequest;
+import co.com.validate.license.model.TokenBatchRequest;
 import co.com.validate.license.model.TokenRequest;
 import co.com.validate.license.model.TokenResponse;
 import co.com.validate.license.security.JweService;
+import co.com.validate.license.service.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,7 +36,15 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class AuthController {
 
+    // Tokens minted per parallel chunk before the chunk is written and flushed
+    private static final int BATCH_CHUNK_SIZE = 256;
+
     private final JweService jweService;
+    private final TokenRevocationService tokenRevocationService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${security.jwe.max-batch-size:1000}")
+    private int maxBatchSize;
 
     /**
      * Generates a JWE token for testing purposes
@@ -46,4 +68,67 @@ public class AuthController {
         }
     }
 
+    /**
+     * Generates tokens for many subjects (fleet provisioning), streamed as NDJSON: one
+     * {@link TokenResponse} per line, in the order of the subjects
+     */
+    @PostMapping(value = "/token/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> generateTokenBatch(@Valid @RequestBody TokenBatchRequest request) {
+        List<String> subjects = request.getSubjects();
+        if (subjects.size() > maxBatchSize) {
+            byte[] message = ("Máximo " + maxBatchSize + " subjects por lote").getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .body(out -> out.write(message));
+        }
+        log.info("Generating {} tokens in batch", subjects.size());
+
+        StreamingResponseBody body = out -> {
+            for (int from = 0; from < subjects.size(); from += BATCH_CHUNK_SIZE) {
+                List<String> chunk = subjects.subList(from, Math.min(from + BATCH_CHUNK_SIZE, subjects.size()));
+                writeTokens(out, chunk);
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeTokens(OutputStream out, List<String> subjects) throws IOException {
+        List<String> tokens;
+        try {
+            tokens = jweService.generateTokens(subjects);
+        } catch (JOSEException e) {
+            log.error("Error generating token batch", e);
+            throw new IOException("Token generation failed", e);
+        }
+        for (int i = 0; i < subjects.size(); i++) {
+            TokenResponse response = new TokenResponse();
+            response.setToken(tokens.get(i));
+            response.setType("Bearer");
+            response.setSubject(subjects.get(i));
+            out.write(objectMapper.writeValueAsBytes(response));
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Revokes a token before its expiration; holding the token is enough to revoke it
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<Object> revokeToken(@Valid @RequestBody RevokeTokenRequest request) {
+        JWTClaimsSet claims;
+        try {
+            claims = jweService.validateToken(request.getToken());
+        } catch (Exception e) {
+            log.debug("Token to revoke is not valid: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Token inválido, expirado o ya revocado");
+        }
+        try {
+            tokenRevocationService.revoke(claims);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.ok(Map.of("revoked", true, "jti", claims.getJWTID()));
+    }
+
 }
@@ -0,0 +1,27 @@
+package co.com.validate.license.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.com.validate.license.cluster.service.ClusterChangePoller;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/cluster")
+@ConditionalOnProperty(name = "license.cluster.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ClusterAdminController {
+
+    private final ClusterChangePoller clusterChangePoller;
+
+    /**
+     * Change-log polling of this instance and how late changes from other instances arrived
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Object> stats() {
+        return ResponseEntity.ok(clusterChangePoller.getStats());
+    }
+}
@@ -0,0 +1,54 @@
+package co.com.validate.license.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.com.validate.license.model.EmailOutbox;
+import co.com.validate.license.service.EmailOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inspection and replay of the notification email outbox
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/email-outbox")
+@RequiredArgsConstructor
+public class EmailOutboxAdminController {
+
+    private final EmailOutboxService emailOutboxService;
+
+    @GetMapping
+    public ResponseEntity<Object> list(@RequestParam(defaultValue = "DEAD") EmailOutbox.Status status,
+                                       @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(emailOutboxService.list(status, limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Object> stats() {
+        return ResponseEntity.ok(emailOutboxService.stats());
+    }
+
+    @PostMapping("/{id}/replay")
+    public ResponseEntity<Object> replay(@PathVariable Long id) {
+        log.info("replay email outbox: {}", id);
+        return emailOutboxService.replay(id)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(409).body("El email no existe o no está en estado DEAD"));
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<Object> replayAllDead() {
+        int replayed = emailOutboxService.replayAllDead();
+        log.info("replay all dead emails: {}", replayed);
+        return ResponseEntity.ok(Map.of("replayed", replayed));
+    }
+}
@@ -0,0 +1,25 @@
+package co.com.validate.license.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.com.validate.license.service.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/idempotency")
+@RequiredArgsConstructor
+public class IdempotencyAdminController {
+
+    private final IdempotencyStore idempotencyStore;
+
+    /**
+     * Hit rates of the Idempotency-Key store (memory LRU vs H2 table)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Object> stats() {
+        return ResponseEntity.ok(idempotencyStore.getStats());
+    }
+}
@@ -0,0 +1,52 @@
+package co.com.validate.license.controller;
+
+import jakarta.validation.Valid;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.com.validate.license.model.BulkMutationRequest;
+import co.com.validate.license.service.LicenseBulkMutationService;
+import co.com.validate.license.service.LicenseBulkMutationService.Operation;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bulk admin operations over a set of licenses (explicit keys and/or email/expiration filter)
+ */
+@RestController
+@RequestMapping("/api/admin/licenses")
+@RequiredArgsConstructor
+public class LicenseAdminController {
+
+    private final LicenseBulkMutationService licenseBulkMutationService;
+
+    @PostMapping("/extend")
+    public ResponseEntity<Object> extend(@Valid @RequestBody BulkMutationRequest request) {
+        if (request.getDays() == null) {
+            return ResponseEntity.badRequest().body("days requerido");
+        }
+        return apply(Operation.EXTEND, request);
+    }
+
+    @PostMapping("/deactivate")
+    public ResponseEntity<Object> deactivate(@Valid @RequestBody BulkMutationRequest request) {
+        return apply(Operation.DEACTIVATE, request);
+    }
+
+    @PostMapping("/reset-hwid")
+    public ResponseEntity<Object> resetHwid(@Valid @RequestBody BulkMutationRequest request) {
+        return apply(Operation.RESET_HWID, request);
+    }
+
+    private ResponseEntity<Object> apply(Operation operation, BulkMutationRequest request) {
+        if (!licenseBulkMutationService.isSupported()) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body("Operación masiva no disponible con license.store.backend="
+                    + licenseBulkMutationService.getStoreBackend());
+        }
+        return ResponseEntity.ok(licenseBulkMutationService.apply(operation, request));
+    }
+}
@@ -1,24 +1,54 @@
 package co.com.validate.license.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.Map;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.com.validate.license.audit.model.ActivationAuditEvent;
+import co.com.validate.license.audit.service.ActivationAuditLog;
+import co.com.validate.license.model.BulkCreateResponse;
 import co.com.validate.license.model.CreateLicenseRequest;
+import co.com.validate.license.model.HwidLookupRequest;
 import co.com.validate.license.model.License;
 import co.com.validate.license.model.LicenseRequest;
 import co.com.validate.license.model.LicenseResponse;
-import co.com.validate.license.repository.LicenseRepository;
-import co.com.validate.license.service.EmailService;
+import co.com.validate.license.model.LicenseSearchCriteria;
+import co.com.validate.license.security.ActivationSignatureVerifier;
+import co.com.validate.license.security.ActivationSigner;
+import co.com.validate.license.service.IdempotencyStore;
+import co.com.validate.license.service.LicenseBulkService;
+import co.com.validate.license.service.LicenseCreationService;
+import co.com.validate.license.service.LicenseExportService;
+import co.com.validate.license.service.LicenseSearchService;
+import co.com.validate.license.service.LicenseStatsService;
+import co.com.validate.license.service.LicenseValidationService;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -27,79 +57,237 @@ import lombok.extern.slf4j.Slf4j;
 @CrossOrigin(origins = "*")
 public class LicenseRestController {
 
-    private final LicenseRepository licenseRepository;
-    private final EmailService emailService;
+    private final LicenseCreationService licenseCreationService;
+    private final ActivationSigner activationSigner;
+    private final LicenseValidationService licenseValidationService;
+    private final LicenseBulkService licenseBulkService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final LicenseSearchService licenseSearchService;
+    private final LicenseExportService licenseExportService;
+    private final ActivationAuditLog activationAuditLog;
+    private final LicenseStatsService licenseStatsService;
+
+    @Value("${license.search.max-hwid-batch:1000}")
+    private int maxHwidBatch;
 
     @Autowired
-    public LicenseRestController(LicenseRepository licenseRepository, EmailService emailService) {
-        this.licenseRepository = licenseRepository;
-        this.emailService = emailService;
+    public LicenseRestController(LicenseCreationService licenseCreationService,
+                                 ActivationSigner activationSigner, LicenseValidationService licenseValidationService,
+                                 LicenseBulkService licenseBulkService, ObjectMapper objectMapper,
+                                 IdempotencyStore idempotencyStore, LicenseSearchService licenseSearchService,
+                                 LicenseExportService licenseExportService, ActivationAuditLog activationAuditLog,
+                                 LicenseStatsService licenseStatsService) {
+        this.licenseCreationService = licenseCreationService;
+        this.activationSigner = activationSigner;
+        this.licenseValidationService = licenseValidationService;
+        this.licenseBulkService = licenseBulkService;
+        this.objectMapper = objectMapper;
+        this.idempotencyStore = idempotencyStore;
+        this.licenseSearchService = licenseSearchService;
+        this.licenseExportService = licenseExportService;
+        this.activationAuditLog = activationAuditLog;
+        this.licenseStatsService = licenseStatsService;
+    }
+
+    /**
+     * Lists licenses matching the optional filters, ordered by id. Pages are requested with
+     * {@code after=<nextCursor>}; {@code limit} is capped at license.search.max-page-size.
+     */
+    @GetMapping
+    public ResponseEntity<Object> search(@Valid @ModelAttribute LicenseSearchCriteria criteria) {
+        if (!licenseSearchService.isSupported()) {
+            return searchUnavailable();
+        }
+        return ResponseEntity.ok(licenseSearchService.search(criteria));
+    }
+
+    /**
+     * Licenses bound to a hardware id (whitespace and case are ignored)
+     */
+    @GetMapping("/by-hwid/{hwid}")
+    public ResponseEntity<Object> findByHwid(@PathVariable String hwid) {
+        if (!licenseSearchService.isSupported()) {
+            return searchUnavailable();
+        }
+        return ResponseEntity.ok(licenseSearchService.findByHwid(hwid));
+    }
+
+    /**
+     * Bulk form of {@link #findByHwid}: the licenses of each hwid, keyed by the hwid as sent
+     */
+    @PostMapping("/by-hwid")
+    public ResponseEntity<Object> findByHwids(@Valid @RequestBody HwidLookupRequest request) {
+        if (request.getHwids().size() > maxHwidBatch) {
+            return ResponseEntity.badRequest().body("Máximo " + maxHwidBatch + " hwids por consulta");
+        }
+        if (!licenseSearchService.isSupported()) {
+            return searchUnavailable();
+        }
+        return ResponseEntity.ok(licenseSearchService.findByHwids(request.getHwids()));
+    }
+
+    private ResponseEntity<Object> searchUnavailable() {
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body("Búsqueda no disponible con license.store.backend="
+                + licenseSearchService.getStoreBackend());
+    }
+
+    /**
+     * License counts by status, expirations per week for the next quarter and activations per
+     * day, read from counters kept up to date in memory (or recounted, see LicenseStatsService)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Object> stats() {
+        if (!licenseStatsService.isSupported()) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body("Estadísticas no disponibles con license.store.backend="
+                    + licenseStatsService.getStoreBackend());
+        }
+        return ResponseEntity.ok(licenseStatsService.getStats());
+    }
+
+    /**
+     * Streams every license as NDJSON or CSV, optionally gzip-compressed (the download is then a
+     * .gz file, not a Content-Encoding)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "NDJSON") LicenseExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        String fileName = "licenses." + format.getExtension() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8");
+
+        StreamingResponseBody body = out -> licenseExportService.export(format, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
     }
     
+    /**
+     * Creates a license. With an Idempotency-Key header, retries of the same request get the
+     * original response instead of a duplicate license or a "ya existe" error.
+     */
     @PostMapping("/create")
     public ResponseEntity<Object> create(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CreateLicenseRequest createLicenseRequest) {
 
-        // Validar duplicado
-        if (licenseRepository.existsByLicenseKey(createLicenseRequest.getLicenseKey())) {
-            return ResponseEntity
-                    .badRequest()
-                    .body("La licencia ya existe");
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createLicense(createLicenseRequest);
+        }
+        if (idempotencyKey.length() > IdempotencyStore.MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body("Idempotency-Key demasiado larga");
         }
+        return idempotencyStore.execute(idempotencyKey, createLicenseRequest, () -> createLicense(createLicenseRequest));
+    }
 
+    private ResponseEntity<Object> createLicense(CreateLicenseRequest createLicenseRequest) {
         License license = new License();
-        license.setLicenseKey(createLicenseRequest.getLicenseKey());
         license.setEmail(createLicenseRequest.getEmail());
         license.setExpirationDate(LocalDate.now().plusDays(createLicenseRequest.getValidDays()));
         license.setActive(false);
+        license.setSeats(createLicenseRequest.getSeats());
 
-        licenseRepository.save(license);
+        // The notification email is queued in the same transaction and sent asynchronously
+        if (!createLicenseRequest.hasLicenseKey()) {
+            return ResponseEntity.ok(licenseCreationService.createGenerated(license));
+        }
 
-        // Send email notification
-        emailService.sendLicenseCreationEmail(
-            license.getEmail(),
-            license.getLicenseKey(),
-            license.getExpirationDate()
-        );
+        license.setLicenseKey(createLicenseRequest.getLicenseKey());
+        try {
+            return ResponseEntity.ok(licenseCreationService.create(license));
+        } catch (DataIntegrityViolationException e) {
+            // Validar duplicado: the unique constraint is the only check
+            return ResponseEntity
+                    .badRequest()
+                    .body("La licencia ya existe");
+        }
+    }
 
-        return ResponseEntity.ok(license);
-    }    
+    /**
+     * Creates licenses from a JSON array or an NDJSON stream (one request per line). The body is
+     * read incrementally; the response has one result per row, in order.
+     */
+    @PostMapping(value = "/create/bulk",
+            consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<Object> createBulk(InputStream body) {
+        try (MappingIterator<CreateLicenseRequest> rows =
+                     objectMapper.readerFor(CreateLicenseRequest.class).readValues(body)) {
+            BulkCreateResponse response = licenseBulkService.createAll(rows);
+            log.info("createBulk: {} rows, {} created, {} failed",
+                    response.getReceived(), response.getCreated(), response.getFailed());
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            return malformedBulkBody(e);
+        } catch (RuntimeException e) {
+            // MappingIterator wraps parse errors in unchecked exceptions
+            if (!(e.getCause() instanceof IOException)) {
+                throw e;
+            }
+            return malformedBulkBody(e);
+        }
+    }
+
+    private ResponseEntity<Object> malformedBulkBody(Exception e) {
+        log.warn("createBulk: malformed body: {}", e.getMessage());
+        return ResponseEntity.badRequest().body("Cuerpo JSON/NDJSON inválido");
+    }
     
     @PostMapping("/activate")
-    public ResponseEntity<Object> activate(@RequestBody LicenseRequest licenseRequest) {
+    public ResponseEntity<Object> activate(@RequestBody LicenseRequest licenseRequest, HttpServletRequest request) {
     	log.info("activate: {}", licenseRequest);
-    	
-        Optional<License> licOptional = licenseRepository.findByLicenseKey(licenseRequest.getLicenseKey());
 
-        License lic;
+        LicenseValidationService.Result result =
+                licenseValidationService.activate(licenseRequest.getLicenseKey(), licenseRequest.getHwid());
+        activationAuditLog.record(new ActivationAuditEvent(Instant.now(), licenseRequest.getLicenseKey(),
+                licenseRequest.getHwid(), result.getOutcome().name(), request.getRemoteAddr()));
         LicenseResponse licenseResponse = new LicenseResponse();
-    	
-        if(licOptional.isPresent()) {
-        	lic = licOptional.get();	
-        }else {
-        	licenseResponse.setDescription("Licencia no existe");
-        	return ResponseEntity.status(403).body(licenseResponse);	
-        }
-        
-        // Primera activación
-        if (lic.getHwid() == null) {
-            lic.setHwid(licenseRequest.getHwid());
-            lic.setActive(true);
-            licenseRepository.save(lic);
-        }
 
-        if (!lic.getHwid().equals(licenseRequest.getHwid())) {
-        	licenseResponse.setDescription("Licencia usada en otro PC");
-            return ResponseEntity.status(403).body(licenseResponse);
+        switch (result.getOutcome()) {
+            case NOT_FOUND -> {
+                licenseResponse.setDescription("Licencia no existe");
+                return activationResponse(403, licenseRequest, licenseResponse);
+            }
+            case OTHER_HWID -> {
+                licenseResponse.setDescription("Licencia usada en otro PC");
+                return activationResponse(403, licenseRequest, licenseResponse);
+            }
+            case EXPIRED -> {
+                licenseResponse.setDescription("Licencia vencida");
+                return activationResponse(403, licenseRequest, licenseResponse);
+            }
+            case REVOKED -> {
+                licenseResponse.setDescription("Licencia revocada");
+                return activationResponse(403, licenseRequest, licenseResponse);
+            }
+            default -> {
+                licenseResponse.setDescription("LICENCIA_OK");
+                licenseResponse.setExpirationDate(result.getLicense().getExpirationDate());
+                return activationResponse(200, licenseRequest, licenseResponse);
+            }
         }
+    }
 
-        if (LocalDate.now().isAfter(lic.getExpirationDate())) {
-        	licenseResponse.setDescription("Licencia vencida");
-            return ResponseEntity.status(403).body(licenseResponse);
-        }
+    /**
+     * Public key clients use to verify signed activation responses
+     */
+    @GetMapping("/signing-key")
+    public ResponseEntity<Object> signingKey() {
+        return ResponseEntity.ok(Map.of(
+                "algorithm", ActivationSignatureVerifier.ALGORITHM,
+                "publicKey", activationSigner.getPublicKeyBase64(),
+                "enabled", activationSigner.isEnabled()));
+    }
 
-        licenseResponse.setDescription("LICENCIA_OK");
-        licenseResponse.setExpirationDate(lic.getExpirationDate());
-        return ResponseEntity.ok(licenseResponse);
+    private ResponseEntity<Object> activationResponse(int status, LicenseRequest licenseRequest, LicenseResponse licenseResponse) {
+        if (activationSigner.isEnabled()) {
+            long issuedAt = System.currentTimeMillis();
+            byte[] payload = ActivationSignatureVerifier.canonicalPayload(licenseRequest.getLicenseKey(),
+                    licenseRequest.getHwid(), licenseResponse.getDescription(), licenseResponse.getExpirationDate(), issuedAt);
+            licenseResponse.setSignature(activationSigner.sign(payload, issuedAt));
+        }
+        return ResponseEntity.status(status).body(licenseResponse);
     }
 }
@@ -0,0 +1,100 @@
+package co.com.validate.license.controller;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import jakarta.validation.Valid;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.com.validate.license.model.SeatRequest;
+import co.com.validate.license.model.SeatResponse;
+import co.com.validate.license.service.SeatLeaseService;
+import co.com.validate.license.service.SeatLeaseTable.Lease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Floating (multi-seat) license leases: checkout a seat, keep it alive with heartbeats and
+ * release it when the client closes
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/license/seat")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class LicenseSeatController {
+
+    private final SeatLeaseService seatLeaseService;
+
+    @PostMapping("/checkout")
+    public ResponseEntity<SeatResponse> checkout(@Valid @RequestBody SeatRequest seatRequest) {
+        log.debug("seat checkout: {}", seatRequest);
+
+        SeatResponse response = new SeatResponse();
+        if (seatRequest.getHwid() == null || seatRequest.getHwid().isBlank()) {
+            response.setDescription("hwid requerido");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        SeatLeaseService.Checkout checkout = seatLeaseService.checkout(seatRequest.getLicenseKey(), seatRequest.getHwid());
+        if (checkout.getPool() != null) {
+            response.setSeats(checkout.getPool().getCapacity());
+            response.setSeatsInUse(checkout.getPool().getSeatsInUse());
+        }
+
+        switch (checkout.getStatus()) {
+            case NOT_FOUND -> {
+                response.setDescription("Licencia no existe");
+                return ResponseEntity.status(403).body(response);
+            }
+            case EXPIRED -> {
+                response.setDescription("Licencia vencida");
+                return ResponseEntity.status(403).body(response);
+            }
+            case NO_SEATS_AVAILABLE -> {
+                response.setDescription("Sin asientos disponibles");
+                return ResponseEntity.status(409).body(response);
+            }
+            default -> {
+                fillLease(response, checkout.getLease());
+                response.setDescription("LICENCIA_OK");
+                return ResponseEntity.ok(response);
+            }
+        }
+    }
+
+    @PostMapping("/heartbeat")
+    public ResponseEntity<SeatResponse> heartbeat(@Valid @RequestBody SeatRequest seatRequest) {
+        SeatResponse response = new SeatResponse();
+        Optional<Lease> lease = seatLeaseService.heartbeat(seatRequest.getLicenseKey(), seatRequest.getLeaseId());
+        if (lease.isEmpty()) {
+            response.setDescription("Lease expirado o inexistente");
+            return ResponseEntity.status(410).body(response);
+        }
+
+        fillLease(response, lease.get());
+        response.setDescription("LICENCIA_OK");
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/release")
+    public ResponseEntity<SeatResponse> release(@Valid @RequestBody SeatRequest seatRequest) {
+        SeatResponse response = new SeatResponse();
+        boolean released = seatLeaseService.release(seatRequest.getLicenseKey(), seatRequest.getLeaseId());
+        response.setDescription(released ? "Lease liberado" : "Lease expirado o inexistente");
+        return ResponseEntity.ok(response);
+    }
+
+    private void fillLease(SeatResponse response, Lease lease) {
+        response.setLeaseId(lease.getLeaseId());
+        response.setExpiresAt(Instant.ofEpochMilli(lease.getDeadlineMillis()));
+        response.setSeats(lease.getPool().getCapacity());
+        response.setSeatsInUse(lease.getPool().getSeatsInUse());
+    }
+}
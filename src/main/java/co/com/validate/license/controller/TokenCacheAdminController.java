@@ -0,0 +1,25 @@
+package co.com.validate.license.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import co.com.validate.license.security.JweService;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/token-cache")
+@RequiredArgsConstructor
+public class TokenCacheAdminController {
+
+    private final JweService jweService;
+
+    /**
+     * Hit rate of the validated bearer-token cache and the decryption time it saved
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Object> stats() {
+        return ResponseEntity.ok(jweService.getTokenCacheStats());
+    }
+}
@@ -0,0 +1,39 @@
+package co.com.validate.license.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Signature attached to an activation response. The server signs one Merkle root per batch of
+ * responses; {@link #proof} is the path from this response's leaf up to {@link #root}.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivationSignature {
+
+    private String algorithm;
+    private long issuedAt;
+    private String root;
+    private String signature;
+    private List<ProofStep> proof;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProofStep {
+
+        /** "L" when the sibling hash is on the left of the running hash, "R" otherwise */
+        private String side;
+        private String hash;
+    }
+}
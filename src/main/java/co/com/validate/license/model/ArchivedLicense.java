@@ -0,0 +1,64 @@
+package co.com.validate.license.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * License moved out of the hot table by the archiver, read only on a hot-table miss
+ */
+@Entity
+@Table(name = "license_archive")
+@Getter
+@Setter
+public class ArchivedLicense {
+
+    @Id
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String licenseKey;
+
+    @Column(nullable = false)
+    private String email;
+
+    private String hwid;
+    private LocalDate expirationDate;
+    private boolean active;
+
+    @Column(nullable = false)
+    private int seats;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @Column(length = 32)
+    private byte[] keyHash;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    /**
+     * Detached License with the archived values, for the validation rules. Never saved.
+     */
+    public License toLicense() {
+        License license = new License();
+        license.setId(id);
+        license.setLicenseKey(licenseKey);
+        license.setEmail(email);
+        license.setHwid(hwid);
+        license.setExpirationDate(expirationDate);
+        license.setActive(active);
+        license.setSeats(seats);
+        license.setRevoked(revoked);
+        license.setKeyHash(keyHash);
+        return license;
+    }
+}
@@ -0,0 +1,30 @@
+package co.com.validate.license.model;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkCreateResponse {
+
+    private int received;
+    private int created;
+    private int failed;
+    private List<BulkCreateResult> results;
+
+    /**
+     * True when the upload had more rows than license.bulk.max-rows; the rest were not read
+     */
+    private boolean truncated;
+
+    public BulkCreateResponse(int received, int created, int failed, List<BulkCreateResult> results) {
+        this.received = received;
+        this.created = created;
+        this.failed = failed;
+        this.results = results;
+    }
+}
@@ -0,0 +1,41 @@
+package co.com.validate.license.model;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Outcome of one row of a bulk license creation, in request order
+ */
+@Getter
+@Setter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkCreateResult {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    private int index;
+    private String licenseKey;
+    private Status status;
+    private Long id;
+    private LocalDate expirationDate;
+    private String message;
+
+    public static BulkCreateResult of(int index, String licenseKey, Status status, String message) {
+        BulkCreateResult result = new BulkCreateResult();
+        result.setIndex(index);
+        result.setLicenseKey(licenseKey);
+        result.setStatus(status);
+        result.setMessage(message);
+        return result;
+    }
+}
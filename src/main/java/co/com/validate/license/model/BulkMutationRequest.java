@@ -0,0 +1,42 @@
+package co.com.validate.license.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Target set of a bulk license mutation: explicit keys, a filter, or both (intersection)
+ */
+@Getter
+@Setter
+public class BulkMutationRequest {
+
+    private List<String> licenseKeys;
+
+    private String email;
+
+    private LocalDate expiresFrom;
+
+    private LocalDate expiresTo;
+
+    /**
+     * Only for extend
+     */
+    @Min(1)
+    @Max(3650)
+    private Integer days;
+
+    @AssertTrue(message = "Indique licenseKeys o un filtro (email, expiresFrom, expiresTo)")
+    public boolean isSelectorPresent() {
+        return (licenseKeys != null && !licenseKeys.isEmpty())
+                || (email != null && !email.isBlank())
+                || expiresFrom != null
+                || expiresTo != null;
+    }
+}
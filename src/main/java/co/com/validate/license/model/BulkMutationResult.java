@@ -0,0 +1,18 @@
+package co.com.validate.license.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMutationResult {
+
+    private String operation;
+    private long affected;
+    private int chunks;
+    private long elapsedMs;
+}
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -13,7 +14,10 @@ import lombok.Setter;
 @Setter
 public class CreateLicenseRequest {
 
-    @NotBlank
+    /**
+     * Optional: generated server-side when absent
+     */
+    @Size(max = 255)
     private String licenseKey;
 
     @NotBlank
@@ -24,6 +28,14 @@ public class CreateLicenseRequest {
     @Max(360)
     private int validDays;
 
+    @Min(1)
+    @Max(1000)
+    private int seats = 1;
+
+    public boolean hasLicenseKey() {
+        return licenseKey != null && !licenseKey.isBlank();
+    }
+
     @AssertTrue(message = "validDays debe ser un múltiplo de 30 (1 mes = 30 días, máximo 12 meses = 360 días)")
     public boolean isValidDaysMultipleOf30() {
         return validDays % 30 == 0;
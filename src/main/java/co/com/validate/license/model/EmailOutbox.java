@@ -0,0 +1,119 @@
+package co.com.validate.license.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Pending or delivered notification email. Rows are written in the same transaction as the
+ * change that triggers them and delivered later by the outbox workers.
+ */
+@Entity
+@Table(name = "email_outbox")
+@Getter
+@Setter
+public class EmailOutbox {
+
+    public enum Type {
+        // Lower priority value is delivered first
+        LICENSE_CREATION(0),
+        EXPIRATION_WARNING(1);
+
+        private final int priority;
+
+        Type(int priority) {
+            this.priority = priority;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+    }
+
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+
+    @Column(nullable = false)
+    private int priority;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String licenseKey;
+
+    private LocalDate expirationDate;
+
+    /**
+     * Same email to the same recipient is only queued once
+     */
+    @Column(nullable = false)
+    private String dedupKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant sentAt;
+
+    // license.cluster.instance-id of the instance that moved the row to SENDING, and when
+    private String claimedBy;
+
+    private Instant claimedAt;
+
+    public static EmailOutbox of(Type type, License license) {
+        EmailOutbox email = new EmailOutbox();
+        email.setType(type);
+        email.setPriority(type.getPriority());
+        email.setRecipient(license.getEmail());
+        email.setLicenseKey(license.getLicenseKey());
+        email.setExpirationDate(license.getExpirationDate());
+        email.setDedupKey(dedupKey(type, license));
+        Instant now = Instant.now();
+        email.setCreatedAt(now);
+        email.setNextAttemptAt(now);
+        return email;
+    }
+
+    static String dedupKey(Type type, License license) {
+        String key = type + ":" + license.getEmail().trim().toLowerCase() + ":" + license.getLicenseKey();
+        // A renewed license gets a new warning for its new expiration date
+        return type == Type.EXPIRATION_WARNING ? key + ":" + license.getExpirationDate() : key;
+    }
+}
@@ -0,0 +1,17 @@
+package co.com.validate.license.model;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HwidLookupRequest {
+
+    @NotEmpty(message = "Indique al menos un hwid")
+    private List<@NotBlank(message = "hwid vacío") String> hwids;
+}
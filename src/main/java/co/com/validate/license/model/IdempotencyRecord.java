@@ -0,0 +1,59 @@
+package co.com.validate.license.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Response stored for an Idempotency-Key, replayed when the same key is sent again
+ */
+@Entity
+@Table(name = "idempotency_record")
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+    /**
+     * Status of the placeholder inserted before the request runs, replaced by the HTTP status
+     * of its response
+     */
+    public static final int PENDING = 0;
+
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 (hex) of the request body, a reused key with another body is rejected
+     */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private int status;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Lob
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * For a placeholder: when another node may take the key over from a request that died
+     */
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    public boolean isPending() {
+        return status == PENDING;
+    }
+}
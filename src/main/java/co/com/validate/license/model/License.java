@@ -1,13 +1,26 @@
 package co.com.validate.license.model;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.Locale;
+import java.util.UUID;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -16,12 +29,30 @@ import lombok.Setter;
 @Setter
 public class License {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Pooled sequence (instead of IDENTITY) so Hibernate can batch inserts
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "license_seq")
+    @SequenceGenerator(name = "license_seq", sequenceName = "license_seq", allocationSize = License.ID_ALLOCATION_SIZE)
     private Long id;
 
-    @Column(unique = true, nullable = false)
-    private String licenseKey;
+    /**
+     * Free-form (legacy) keys only. Keys in canonical upper-case UUID form, the format generated
+     * by the server, are kept in keyUuid as 16 bytes and leave this column null.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "license_key", unique = true)
+    private String legacyKey;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(unique = true)
+    private UUID keyUuid;
 
     @Column(nullable = false)
     private String email;
@@ -30,4 +61,97 @@ public class License {
     private LocalDate expirationDate;
     private boolean active;
 
+    /**
+     * Day the current hwid was bound; cleared together with it
+     */
+    private LocalDate activatedAt;
+
+    /**
+     * Number of concurrent seats. 1 keeps the classic hwid-bound behaviour,
+     * more than 1 enables floating leases through /api/license/seat
+     */
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private int seats = 1;
+
+    /**
+     * Set by an admin deactivation; a revoked license fails validation even on its bound hwid
+     */
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean revoked;
+
+    /**
+     * SHA-256 of licenseKey, lets compact protocols look a license up without sending the key
+     */
+    @JsonIgnore
+    @Column(length = 32)
+    private byte[] keyHash;
+
+    /**
+     * SHA-256 of the normalized hwid ({@link #hwidHash(String)}), a fixed-width index for
+     * "which license is bound to this PC" lookups
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(length = 32)
+    private byte[] hwidHash;
+
+    public String getLicenseKey() {
+        return keyUuid != null ? formatUuidKey(keyUuid) : legacyKey;
+    }
+
+    public void setLicenseKey(String licenseKey) {
+        keyUuid = parseUuidKey(licenseKey);
+        legacyKey = keyUuid == null ? licenseKey : null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void computeHashes() {
+        String licenseKey = getLicenseKey();
+        if (licenseKey != null) {
+            keyHash = sha256(licenseKey);
+        }
+        hwidHash = hwid == null ? null : hwidHash(hwid);
+    }
+
+    /**
+     * Lookup hash of a hwid: whitespace removed and upper-cased first, so "ab cd-12" and
+     * "ABCD-12" find the same license. Activation itself still compares the hwid exactly.
+     */
+    public static byte[] hwidHash(String hwid) {
+        return sha256(hwid.replaceAll("\\s+", "").toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the UUID of a key written as an upper-case canonical UUID, or null for any other
+     *         key. Lower-case or unhyphenated forms stay free-form, so every key round-trips exactly.
+     */
+    public static UUID parseUuidKey(String licenseKey) {
+        if (licenseKey == null || licenseKey.length() != 36) {
+            return null;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = licenseKey.charAt(i);
+            boolean hyphen = i == 8 || i == 13 || i == 18 || i == 23;
+            if (hyphen ? c != '-' : !((c >= '0' && c <= '9') || (c >= 'A' && c <= 'F'))) {
+                return null;
+            }
+        }
+        return UUID.fromString(licenseKey);
+    }
+
+    public static String formatUuidKey(UUID uuid) {
+        return uuid.toString().toUpperCase(Locale.ROOT);
+    }
+
+    public static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
 }
\ No newline at end of file
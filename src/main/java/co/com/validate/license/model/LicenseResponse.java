@@ -2,6 +2,8 @@ package co.com.validate.license.model;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -13,4 +15,7 @@ public class LicenseResponse {
 	
 	private LocalDate expirationDate;
 	private String description;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private ActivationSignature signature;
 }
\ No newline at end of file
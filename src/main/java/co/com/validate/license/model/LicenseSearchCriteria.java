@@ -0,0 +1,47 @@
+package co.com.validate.license.model;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.Min;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Query parameters of GET /api/license. Every filter is optional; {@code after} is the
+ * {@code nextCursor} of the previous page.
+ */
+@Getter
+@Setter
+public class LicenseSearchCriteria {
+
+    public enum Status {
+        /** Bound to a hwid, not revoked and not expired */
+        ACTIVE,
+        /** Not yet bound to a hwid */
+        NOT_ACTIVATED,
+        /** Past its expiration date and not revoked */
+        EXPIRED,
+        REVOKED
+    }
+
+    private String email;
+
+    private Status status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiresFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate expiresTo;
+
+    private Boolean hwidPresent;
+
+    @Min(0)
+    private Long after;
+
+    @Min(1)
+    private Integer limit;
+}
@@ -0,0 +1,23 @@
+package co.com.validate.license.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One page of a license search. nextCursor is the value to pass as {@code after} for the
+ * following page, or null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LicenseSearchPage {
+
+    private List<LicenseSummary> items;
+    private Long nextCursor;
+    private int limit;
+}
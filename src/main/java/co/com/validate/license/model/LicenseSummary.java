@@ -0,0 +1,27 @@
+package co.com.validate.license.model;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Read-only projection of a license row for listings
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LicenseSummary {
+
+    private long id;
+    private String licenseKey;
+    private String email;
+    private String hwid;
+    private LocalDate expirationDate;
+    private boolean active;
+    private boolean revoked;
+    private int seats;
+}
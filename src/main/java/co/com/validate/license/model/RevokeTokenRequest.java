@@ -0,0 +1,18 @@
+package co.com.validate.license.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RevokeTokenRequest {
+
+    @NotBlank(message = "Token is required")
+    private String token;
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+}
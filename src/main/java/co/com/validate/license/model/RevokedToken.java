@@ -0,0 +1,34 @@
+package co.com.validate.license.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Id (jti) of a token revoked before its expiration, kept until the token would have expired
+ */
+@Entity
+@Table(name = "revoked_token")
+@Getter
+@Setter
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    @Column(length = 255)
+    private String subject;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+}
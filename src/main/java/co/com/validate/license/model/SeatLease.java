@@ -0,0 +1,38 @@
+package co.com.validate.license.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Checkpoint row of a live floating seat lease. On a single instance the authoritative lease
+ * state lives in memory and this table is only rewritten periodically so leases survive a
+ * restart. In cluster mode rows are written through and counted by every instance's checkout;
+ * each instance owns and restores only its own rows.
+ */
+@Entity
+@Getter
+@Setter
+public class SeatLease {
+
+    @Id
+    private String leaseId;
+
+    @Column(nullable = false)
+    private String licenseKey;
+
+    @Column(nullable = false)
+    private String hwid;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // license.cluster.instance-id of the instance holding the lease, null for rows written before V7
+    private String owner;
+
+}
@@ -0,0 +1,23 @@
+package co.com.validate.license.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+public class SeatRequest {
+
+    @NotBlank
+    private String licenseKey;
+
+    /** Required on checkout */
+    private String hwid;
+
+    /** Required on heartbeat and release */
+    private String leaseId;
+
+}
@@ -0,0 +1,22 @@
+package co.com.validate.license.model;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SeatResponse {
+
+    private String leaseId;
+    private Instant expiresAt;
+    private Integer seatsInUse;
+    private Integer seats;
+    private String description;
+}
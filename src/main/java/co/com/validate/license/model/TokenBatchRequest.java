@@ -0,0 +1,21 @@
+package co.com.validate.license.model;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+public class TokenBatchRequest {
+
+    @NotEmpty(message = "Subjects are required")
+    private List<@NotBlank(message = "Subject is required") String> subjects;
+
+    public List<String> getSubjects() {
+        return subjects;
+    }
+
+    public void setSubjects(List<String> subjects) {
+        this.subjects = subjects;
+    }
+
+}
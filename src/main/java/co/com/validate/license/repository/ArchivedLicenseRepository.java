@@ -0,0 +1,14 @@
+package co.com.validate.license.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import co.com.validate.license.model.ArchivedLicense;
+
+public interface ArchivedLicenseRepository extends JpaRepository<ArchivedLicense, Long> {
+
+    Optional<ArchivedLicense> findByLicenseKey(String licenseKey);
+
+    Optional<ArchivedLicense> findByKeyHash(byte[] keyHash);
+}
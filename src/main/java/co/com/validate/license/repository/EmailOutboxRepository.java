@@ -0,0 +1,50 @@
+package co.com.validate.license.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.com.validate.license.model.EmailOutbox;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.dedupKey FROM EmailOutbox e WHERE e.dedupKey IN :keys")
+    List<String> findExistingDedupKeys(@Param("keys") Collection<String> keys);
+
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.priority, e.id")
+    List<EmailOutbox> findDue(@Param("status") EmailOutbox.Status status, @Param("now") Instant now, Pageable pageable);
+
+    List<EmailOutbox> findByStatusOrderByIdDesc(EmailOutbox.Status status, Pageable pageable);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    /**
+     * Moves a PENDING row to SENDING for one instance, only if nobody changed it in between
+     *
+     * @return 1 if this caller won the row
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = co.com.validate.license.model.EmailOutbox.Status.SENDING, "
+            + "e.claimedBy = :instanceId, e.claimedAt = :now "
+            + "WHERE e.id = :id AND e.status = co.com.validate.license.model.EmailOutbox.Status.PENDING")
+    int claim(@Param("id") Long id, @Param("instanceId") String instanceId, @Param("now") Instant now);
+
+    /**
+     * Returns SENDING rows to PENDING: those claimed by the given instance, by nobody recorded, or
+     * before claimedBefore
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = co.com.validate.license.model.EmailOutbox.Status.PENDING "
+            + "WHERE e.status = co.com.validate.license.model.EmailOutbox.Status.SENDING "
+            + "AND (e.claimedBy = :instanceId OR e.claimedBy IS NULL OR e.claimedAt < :claimedBefore)")
+    int recover(@Param("instanceId") String instanceId, @Param("claimedBefore") Instant claimedBefore);
+}
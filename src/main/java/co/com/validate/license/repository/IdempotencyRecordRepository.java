@@ -0,0 +1,57 @@
+package co.com.validate.license.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.com.validate.license.model.IdempotencyRecord;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    /**
+     * Claims a key before its request runs; a unique violation means another request holds it
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_record (idempotency_key, request_hash, status, created_at, expires_at) "
+            + "VALUES (:key, :requestHash, 0, :now, :expiresAt)", nativeQuery = true)
+    int insertPending(@Param("key") String key, @Param("requestHash") String requestHash, @Param("now") Instant now,
+                      @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Frees a key whose record or placeholder has expired, so it can be claimed again
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.expiresAt < :now")
+    int deleteExpired(@Param("key") String key, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.status = 0")
+    int deletePending(@Param("key") String key);
+
+    /**
+     * Replaces this request's placeholder by its response
+     *
+     * @return 0 if the placeholder expired and was taken over meanwhile
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, "
+            + "r.responseBody = :responseBody, r.createdAt = :createdAt, r.expiresAt = :expiresAt "
+            + "WHERE r.idempotencyKey = :key AND r.requestHash = :requestHash AND r.status = 0")
+    int completePending(@Param("key") String key, @Param("requestHash") String requestHash,
+                        @Param("status") int status, @Param("contentType") String contentType,
+                        @Param("responseBody") String responseBody, @Param("createdAt") Instant createdAt,
+                        @Param("expiresAt") Instant expiresAt);
+}
@@ -0,0 +1,160 @@
+package co.com.validate.license.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import co.com.validate.license.model.License;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link LicenseStore} in plain SQL on the license table: no persistence context, dirty
+ * checking or entity proxies on the hot path
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "license.store.backend", havingValue = "jdbc")
+public class JdbcLicenseStore implements LicenseStore {
+
+    private static final String SELECT = "SELECT id, " + LicenseKeySql.KEY_EXPRESSION
+            + " AS license_key, email, hwid, expiration_date, active, revoked, seats, key_hash FROM license ";
+
+    private static final String INSERT = "INSERT INTO license (id, license_key, key_uuid, email, hwid, hwid_hash, "
+            + "expiration_date, active, revoked, seats, key_hash) VALUES (:id, :legacyKey, :keyUuid, :email, :hwid, "
+            + ":hwidHash, :expirationDate, :active, :revoked, :seats, :keyHash)";
+
+    private static final RowMapper<License> LICENSE_MAPPER = (rs, rowNum) -> {
+        License license = new License();
+        license.setId(rs.getLong("id"));
+        license.setLicenseKey(rs.getString("license_key"));
+        license.setEmail(rs.getString("email"));
+        license.setHwid(rs.getString("hwid"));
+        Date expiration = rs.getDate("expiration_date");
+        license.setExpirationDate(expiration == null ? null : expiration.toLocalDate());
+        license.setActive(rs.getBoolean("active"));
+        license.setRevoked(rs.getBoolean("revoked"));
+        license.setSeats(rs.getInt("seats"));
+        license.setKeyHash(rs.getBytes("key_hash"));
+        return license;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<License> findByLicenseKey(String licenseKey) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String condition = LicenseKeySql.inCondition(List.of(licenseKey), params);
+        return jdbcTemplate.query(SELECT + "WHERE " + condition, params, LICENSE_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public List<License> findByLicenseKeys(Collection<String> licenseKeys) {
+        if (licenseKeys.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String condition = LicenseKeySql.inCondition(licenseKeys, params);
+        return jdbcTemplate.query(SELECT + "WHERE " + condition, params, LICENSE_MAPPER);
+    }
+
+    @Override
+    public Optional<License> findByKeyHash(byte[] keyHash) {
+        return jdbcTemplate.query(SELECT + "WHERE key_hash = :keyHash LIMIT 1",
+                new MapSqlParameterSource("keyHash", keyHash), LICENSE_MAPPER).stream().findFirst();
+    }
+
+    @Override
+    public boolean bindHwid(long id, String hwid) {
+        return jdbcTemplate.update("UPDATE license SET hwid = :hwid, hwid_hash = :hwidHash, active = TRUE, activated_at = :today "
+                        + "WHERE id = :id AND hwid IS NULL AND revoked = FALSE",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("hwid", hwid)
+                        .addValue("hwidHash", License.hwidHash(hwid))
+                        .addValue("today", LocalDate.now())) == 1;
+    }
+
+    /**
+     * Takes one value of the pooled license_seq: Hibernate treats each value as the top of a
+     * block of {@link License#ID_ALLOCATION_SIZE} ids, so the id cannot clash with JPA inserts
+     */
+    @Override
+    public License insert(License license) {
+        Long id = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT NEXT VALUE FOR license_seq", Long.class);
+        jdbcTemplate.update(INSERT, row(id, license));
+        return license;
+    }
+
+    /**
+     * One JDBC batch after a single IN query for existing keys; one license_seq value per row as
+     * in {@link #insert}
+     */
+    @Override
+    public List<License> insertAll(List<License> licenses) {
+        if (licenses.isEmpty()) {
+            return licenses;
+        }
+        List<String> existing = findExistingKeys(licenses.stream().map(License::getLicenseKey).toList());
+        if (!existing.isEmpty()) {
+            throw new DuplicateKeyException("License keys already exist: " + existing);
+        }
+        List<Long> ids = jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT NEXT VALUE FOR license_seq FROM SYSTEM_RANGE(1, ?)", Long.class, licenses.size());
+        MapSqlParameterSource[] rows = new MapSqlParameterSource[licenses.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = row(ids.get(i), licenses.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        return licenses;
+    }
+
+    @Override
+    public List<String> findExistingKeys(Collection<String> licenseKeys) {
+        if (licenseKeys.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String condition = LicenseKeySql.inCondition(licenseKeys, params);
+        return jdbcTemplate.queryForList("SELECT " + LicenseKeySql.KEY_EXPRESSION + " FROM license WHERE " + condition,
+                params, String.class);
+    }
+
+    /**
+     * Assigns the id and key hash and binds the license as INSERT parameters
+     */
+    private static MapSqlParameterSource row(long id, License license) {
+        String key = license.getLicenseKey();
+        UUID keyUuid = License.parseUuidKey(key);
+        license.setId(id);
+        license.setKeyHash(License.sha256(key));
+        return new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("legacyKey", keyUuid == null ? key : null)
+                .addValue("keyUuid", keyUuid)
+                .addValue("email", license.getEmail())
+                .addValue("hwid", license.getHwid())
+                .addValue("hwidHash", license.getHwid() == null ? null : License.hwidHash(license.getHwid()))
+                .addValue("expirationDate", license.getExpirationDate())
+                .addValue("active", license.isActive())
+                .addValue("revoked", license.isRevoked())
+                .addValue("seats", license.getSeats())
+                .addValue("keyHash", license.getKeyHash());
+    }
+
+    @Override
+    public List<License> findActiveExpiringBetween(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(SELECT + "WHERE expiration_date BETWEEN :from AND :to AND active = TRUE "
+                        + "ORDER BY expiration_date, id",
+                new MapSqlParameterSource().addValue("from", from).addValue("to", to), LICENSE_MAPPER);
+    }
+}
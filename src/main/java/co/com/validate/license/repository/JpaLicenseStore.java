@@ -0,0 +1,67 @@
+package co.com.validate.license.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.com.validate.license.model.License;
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "license.store.backend", havingValue = "jpa", matchIfMissing = true)
+public class JpaLicenseStore implements LicenseStore {
+
+    private final LicenseRepository licenseRepository;
+
+    @Override
+    public Optional<License> findByLicenseKey(String licenseKey) {
+        return licenseRepository.findByLicenseKey(licenseKey);
+    }
+
+    @Override
+    public List<License> findByLicenseKeys(Collection<String> licenseKeys) {
+        return licenseRepository.findByLicenseKeyIn(licenseKeys);
+    }
+
+    @Override
+    public List<String> findExistingKeys(Collection<String> licenseKeys) {
+        return licenseRepository.findExistingLicenseKeys(licenseKeys);
+    }
+
+    @Override
+    public Optional<License> findByKeyHash(byte[] keyHash) {
+        return licenseRepository.findByKeyHash(keyHash);
+    }
+
+    @Override
+    @Transactional
+    public boolean bindHwid(long id, String hwid) {
+        return licenseRepository.bindHwid(id, hwid, License.hwidHash(hwid), LocalDate.now()) == 1;
+    }
+
+    /**
+     * Flushed so a duplicate key fails here rather than at commit
+     */
+    @Override
+    @Transactional
+    public License insert(License license) {
+        return licenseRepository.saveAndFlush(license);
+    }
+
+    @Override
+    @Transactional
+    public List<License> insertAll(List<License> licenses) {
+        return licenseRepository.saveAllAndFlush(licenses);
+    }
+
+    @Override
+    public List<License> findActiveExpiringBetween(LocalDate from, LocalDate to) {
+        return licenseRepository.findActiveExpiringBetween(from, to);
+    }
+}
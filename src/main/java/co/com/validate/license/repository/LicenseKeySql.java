@@ -0,0 +1,55 @@
+package co.com.validate.license.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import co.com.validate.license.model.License;
+
+/**
+ * SQL fragments for the two license key columns: key_uuid for keys in canonical UUID form and
+ * license_key for free-form ones (see {@link License#parseUuidKey})
+ */
+public final class LicenseKeySql {
+
+    /**
+     * The key as text, whichever column holds it
+     */
+    public static final String KEY_EXPRESSION = "COALESCE(license_key, UPPER(CAST(key_uuid AS VARCHAR)))";
+
+    private LicenseKeySql() {
+    }
+
+    /**
+     * Condition matching any of the given keys, each through the index of its own column. The
+     * parameters are added as keyUuids / legacyKeys.
+     */
+    public static String inCondition(Collection<String> keys, MapSqlParameterSource params) {
+        List<UUID> uuids = new ArrayList<>();
+        List<String> legacy = new ArrayList<>();
+        for (String key : keys) {
+            UUID uuid = License.parseUuidKey(key);
+            if (uuid != null) {
+                uuids.add(uuid);
+            } else {
+                legacy.add(key);
+            }
+        }
+        List<String> conditions = new ArrayList<>(2);
+        if (!uuids.isEmpty()) {
+            conditions.add("key_uuid IN (:keyUuids)");
+            params.addValue("keyUuids", uuids);
+        }
+        if (!legacy.isEmpty()) {
+            conditions.add("license_key IN (:legacyKeys)");
+            params.addValue("legacyKeys", legacy);
+        }
+        if (conditions.isEmpty()) {
+            return "1 = 0";
+        }
+        return conditions.size() == 1 ? conditions.get(0) : "(" + String.join(" OR ", conditions) + ")";
+    }
+}
@@ -1,24 +1,114 @@
 package co.com.validate.license.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import co.com.validate.license.model.License;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * License keys live in one of two columns (see {@link License#parseUuidKey}); the key-based
+ * methods pick the UUID or the legacy lookup per key so callers keep passing plain strings.
+ */
 public interface LicenseRepository extends JpaRepository<License, Long> {
 
-    Optional<License> findByLicenseKey(String licenseKey);
+    default Optional<License> findByLicenseKey(String licenseKey) {
+        UUID uuid = License.parseUuidKey(licenseKey);
+        return uuid != null ? findByKeyUuid(uuid) : findByLegacyKey(licenseKey);
+    }
 
-    boolean existsByLicenseKey(String licenseKey);
+    default boolean existsByLicenseKey(String licenseKey) {
+        UUID uuid = License.parseUuidKey(licenseKey);
+        return uuid != null ? existsByKeyUuid(uuid) : existsByLegacyKey(licenseKey);
+    }
 
     /**
-     * Find all active licenses that expire on the given date
+     * Subset of the given keys that already exist (callers chunk the collection)
      */
-    @Query("SELECT l FROM License l WHERE l.expirationDate = :date AND l.active = true")
-    List<License> findByExpirationDateAndActiveTrue(@Param("date") LocalDate date);
+    default List<License> findByLicenseKeyIn(Collection<String> licenseKeys) {
+        KeySplit split = KeySplit.of(licenseKeys);
+        List<License> found = new ArrayList<>();
+        if (!split.uuids().isEmpty()) {
+            found.addAll(findByKeyUuidIn(split.uuids()));
+        }
+        if (!split.legacy().isEmpty()) {
+            found.addAll(findByLegacyKeyIn(split.legacy()));
+        }
+        return found;
+    }
+
+    default List<String> findExistingLicenseKeys(Collection<String> keys) {
+        KeySplit split = KeySplit.of(keys);
+        List<String> existing = new ArrayList<>();
+        if (!split.uuids().isEmpty()) {
+            findExistingKeyUuids(split.uuids()).forEach(uuid -> existing.add(License.formatUuidKey(uuid)));
+        }
+        if (!split.legacy().isEmpty()) {
+            existing.addAll(findExistingLegacyKeys(split.legacy()));
+        }
+        return existing;
+    }
+
+    Optional<License> findByKeyUuid(UUID keyUuid);
+
+    Optional<License> findByLegacyKey(String legacyKey);
+
+    boolean existsByKeyUuid(UUID keyUuid);
+
+    boolean existsByLegacyKey(String legacyKey);
+
+    List<License> findByKeyUuidIn(Collection<UUID> keyUuids);
+
+    List<License> findByLegacyKeyIn(Collection<String> legacyKeys);
+
+    @Query("SELECT l.keyUuid FROM License l WHERE l.keyUuid IN :uuids")
+    List<UUID> findExistingKeyUuids(@Param("uuids") Collection<UUID> uuids);
+
+    @Query("SELECT l.legacyKey FROM License l WHERE l.legacyKey IN :keys")
+    List<String> findExistingLegacyKeys(@Param("keys") Collection<String> keys);
+
+    Optional<License> findByKeyHash(byte[] keyHash);
+
+    /**
+     * Active licenses expiring between from and to, both inclusive
+     */
+    @Query("SELECT l FROM License l WHERE l.expirationDate BETWEEN :from AND :to AND l.active = true"
+            + " ORDER BY l.expirationDate, l.id")
+    List<License> findActiveExpiringBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Binds the hwid only if the license is still unbound and not revoked
+     *
+     * @return 1 if bound, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE License l SET l.hwid = :hwid, l.hwidHash = :hwidHash, l.active = true, l.activatedAt = :today"
+            + " WHERE l.id = :id AND l.hwid IS NULL AND l.revoked = false")
+    int bindHwid(@Param("id") long id, @Param("hwid") String hwid, @Param("hwidHash") byte[] hwidHash,
+                 @Param("today") LocalDate today);
+
+    record KeySplit(List<UUID> uuids, List<String> legacy) {
+
+        static KeySplit of(Collection<String> keys) {
+            List<UUID> uuids = new ArrayList<>();
+            List<String> legacy = new ArrayList<>();
+            for (String key : keys) {
+                UUID uuid = License.parseUuidKey(key);
+                if (uuid != null) {
+                    uuids.add(uuid);
+                } else {
+                    legacy.add(key);
+                }
+            }
+            return new KeySplit(uuids, legacy);
+        }
+    }
 }
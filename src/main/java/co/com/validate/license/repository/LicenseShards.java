@@ -0,0 +1,157 @@
+package co.com.validate.license.repository;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import javax.sql.DataSource;
+
+import jakarta.annotation.PreDestroy;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import co.com.validate.license.config.LicenseShardProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The H2 databases of the sharded license store, each with its own connection pool and the
+ * same Flyway schema as the main database.
+ *
+ * A license lives in the shard picked by the SHA-256 of its key, so lookups by key and by key
+ * hash (UDP) route the same way. Each shard's license_seq starts at count + shard and steps by
+ * count, so an id also tells its shard (id mod count) and ids stay unique across shards.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "license.store.backend", havingValue = "sharded")
+public class LicenseShards {
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<NamedParameterJdbcTemplate> jdbcTemplates = new ArrayList<>();
+    private final ExecutorService fanOut;
+
+    public LicenseShards(LicenseShardProperties properties) {
+        int count = properties.getCount();
+        if (count < 1) {
+            throw new IllegalArgumentException("license.store.shards.count must be at least 1");
+        }
+        fanOut = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "license-shard-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int shard = 0; shard < count; shard++) {
+                HikariConfig config = new HikariConfig();
+                config.setJdbcUrl(String.format(properties.getUrlPattern(), shard));
+                config.setUsername(properties.getUsername());
+                config.setPassword(properties.getPassword());
+                config.setMaximumPoolSize(properties.getPoolSize());
+                config.setPoolName("license-shard-" + shard);
+                HikariDataSource dataSource = new HikariDataSource(config);
+                dataSources.add(dataSource);
+
+                Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+                alignSequence(new JdbcTemplate(dataSource), shard, count);
+                jdbcTemplates.add(new NamedParameterJdbcTemplate(dataSource));
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        log.info("Sharded license store on {} H2 databases ({})", count, properties.getUrlPattern());
+    }
+
+    private static void alignSequence(JdbcTemplate jdbcTemplate, int shard, int count) {
+        Map<String, Object> sequence = jdbcTemplate.queryForMap("SELECT START_VALUE, INCREMENT "
+                + "FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'LICENSE_SEQ'");
+        long start = ((Number) sequence.get("START_VALUE")).longValue();
+        long increment = ((Number) sequence.get("INCREMENT")).longValue();
+        if (start == count + shard && increment == count) {
+            return;
+        }
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM license", Long.class);
+        if (rows != null && rows > 0) {
+            throw new IllegalStateException("Shard " + shard + " holds licenses numbered for another shard count; "
+                    + "resharding is not supported");
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE license_seq START WITH " + (count + shard) + " RESTART INCREMENT BY " + count);
+    }
+
+    @PreDestroy
+    public void close() {
+        fanOut.shutdownNow();
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public int shardOfKeyHash(byte[] keyHash) {
+        return Math.floorMod(ByteBuffer.wrap(keyHash).getInt(), count());
+    }
+
+    public int shardOfId(long id) {
+        return (int) Math.floorMod(id, (long) count());
+    }
+
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public NamedParameterJdbcTemplate jdbcTemplate(int shard) {
+        return jdbcTemplates.get(shard);
+    }
+
+    /**
+     * Runs the task on every shard in parallel
+     *
+     * @return the results in shard order
+     */
+    public <T> List<T> fanOut(IntFunction<T> task) {
+        List<Future<T>> futures = new ArrayList<>(count());
+        for (int shard = 0; shard < count(); shard++) {
+            int index = shard;
+            futures.add(fanOut.submit(() -> task.apply(index)));
+        }
+        List<T> results = new ArrayList<>(count());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted waiting for shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Starts a long-running per-shard task (e.g. a streaming producer) on the fan-out threads
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return fanOut.submit(task);
+    }
+}
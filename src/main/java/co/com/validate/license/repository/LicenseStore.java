@@ -0,0 +1,73 @@
+package co.com.validate.license.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import co.com.validate.license.model.License;
+
+/**
+ * Persistence of the license hot path: activation and UDP checks, creation (REST and Telegram
+ * bot) and the expiration scheduler. The backend is chosen per deployment with
+ * license.store.backend:
+ * <ul>
+ * <li>jpa (default): {@link JpaLicenseStore}, through {@link LicenseRepository}</li>
+ * <li>jdbc: {@link JdbcLicenseStore}, plain SQL on the same license table</li>
+ * <li>mvstore: {@link MvStoreLicenseStore}, an embedded key-value file outside the SQL schema</li>
+ * <li>sharded: {@link ShardedLicenseStore}, hash-partitioned over several H2 databases</li>
+ * </ul>
+ * Search, archiving and bulk mutations keep querying the main license table directly, so they
+ * only see licenses of the jpa and jdbc backends (export and backups also cover the shards).
+ * Search, hwid lookups and bulk mutations are refused on the other backends rather than
+ * matching nothing.
+ */
+public interface LicenseStore {
+
+    Optional<License> findByLicenseKey(String licenseKey);
+
+    /**
+     * The licenses of the given keys that exist, in no particular order
+     */
+    List<License> findByLicenseKeys(Collection<String> licenseKeys);
+
+    /**
+     * The given keys that already exist, in no particular order
+     */
+    List<String> findExistingKeys(Collection<String> licenseKeys);
+
+    /**
+     * @param keyHash SHA-256 of the license key
+     */
+    Optional<License> findByKeyHash(byte[] keyHash);
+
+    /**
+     * Binds the hwid and activates the license, only if it is not bound to any hwid yet and not
+     * revoked. Two first activations racing on different PCs cannot both win.
+     *
+     * @return false if the license is already bound, revoked or missing
+     */
+    boolean bindHwid(long id, String hwid);
+
+    /**
+     * Stores a new license and assigns its id
+     *
+     * @throws DataIntegrityViolationException if the license key already exists
+     */
+    License insert(License license);
+
+    /**
+     * Stores new licenses and assigns their ids: all of them, or none if one of the keys already
+     * exists. Used by bulk creation, which has already dropped keys repeated within the list.
+     *
+     * @throws DataIntegrityViolationException if one of the license keys already exists
+     */
+    List<License> insertAll(List<License> licenses);
+
+    /**
+     * Active licenses expiring between from and to, both inclusive, by expiration date then id
+     */
+    List<License> findActiveExpiringBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,249 @@
+package co.com.validate.license.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PreDestroy;
+
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import co.com.validate.license.model.License;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link LicenseStore} on H2's MVStore used directly as an embedded key-value store, without
+ * SQL parsing, planning or JDBC. Maps:
+ * <ul>
+ * <li>licenses: id -> encoded license</li>
+ * <li>byKey: license key -> id</li>
+ * <li>byKeyHash: hex SHA-256 of the key -> id</li>
+ * <li>byExpiry: "yyyy-MM-dd/id" -> id, ordered for the expiry range scan</li>
+ * </ul>
+ * Reads are lock-free (MVStore is multi-version); writes are serialized on the store and each
+ * one is committed before returning. The file is separate from the SQL database, so licenses
+ * stored here are not visible to the SQL-based features (see {@link LicenseStore}).
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "license.store.backend", havingValue = "mvstore")
+public class MvStoreLicenseStore implements LicenseStore {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final MVStore store;
+    private final MVMap<Long, byte[]> licenses;
+    private final MVMap<String, Long> byKey;
+    private final MVMap<String, Long> byKeyHash;
+    private final MVMap<String, Long> byExpiry;
+    private final AtomicLong lastId;
+
+    public MvStoreLicenseStore(@Value("${license.store.mvstore.file:./data/license-store.mv.db}") String file) {
+        this(open(file));
+        log.info("License store on MVStore file {} ({} licenses)", file, licenses.size());
+    }
+
+    MvStoreLicenseStore(MVStore store) {
+        this.store = store;
+        this.licenses = store.openMap("licenses");
+        this.byKey = store.openMap("byKey");
+        this.byKeyHash = store.openMap("byKeyHash");
+        this.byExpiry = store.openMap("byExpiry");
+        Long last = licenses.lastKey();
+        this.lastId = new AtomicLong(last == null ? 0 : last);
+    }
+
+    private static MVStore open(String file) {
+        try {
+            Path parent = Path.of(file).toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create directory for " + file, e);
+        }
+        return new MVStore.Builder().fileName(file).compress().open();
+    }
+
+    @PreDestroy
+    public void close() {
+        store.close();
+    }
+
+    @Override
+    public Optional<License> findByLicenseKey(String licenseKey) {
+        return get(byKey.get(licenseKey));
+    }
+
+    @Override
+    public List<License> findByLicenseKeys(Collection<String> licenseKeys) {
+        List<License> found = new ArrayList<>();
+        licenseKeys.forEach(key -> findByLicenseKey(key).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public List<String> findExistingKeys(Collection<String> licenseKeys) {
+        return licenseKeys.stream().filter(byKey::containsKey).toList();
+    }
+
+    @Override
+    public Optional<License> findByKeyHash(byte[] keyHash) {
+        return get(byKeyHash.get(HEX.formatHex(keyHash)));
+    }
+
+    private Optional<License> get(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        byte[] value = licenses.get(id);
+        return value == null ? Optional.empty() : Optional.of(decode(id, value));
+    }
+
+    @Override
+    public synchronized boolean bindHwid(long id, String hwid) {
+        byte[] value = licenses.get(id);
+        if (value == null) {
+            return false;
+        }
+        License license = decode(id, value);
+        if (license.getHwid() != null || license.isRevoked()) {
+            return false;
+        }
+        license.setHwid(hwid);
+        license.setActive(true);
+        licenses.put(id, encode(license));
+        store.commit();
+        return true;
+    }
+
+    @Override
+    public synchronized License insert(License license) {
+        String key = license.getLicenseKey();
+        if (byKey.containsKey(key)) {
+            throw new DuplicateKeyException("License key already exists: " + key);
+        }
+        put(license);
+        store.commit();
+        return license;
+    }
+
+    /**
+     * Every key is checked before the first write, and the batch is committed once
+     */
+    @Override
+    public synchronized List<License> insertAll(List<License> licenses) {
+        List<String> existing = findExistingKeys(licenses.stream().map(License::getLicenseKey).toList());
+        if (!existing.isEmpty()) {
+            throw new DuplicateKeyException("License keys already exist: " + existing);
+        }
+        licenses.forEach(this::put);
+        store.commit();
+        return licenses;
+    }
+
+    private void put(License license) {
+        String key = license.getLicenseKey();
+        long id = lastId.incrementAndGet();
+        license.setId(id);
+        license.setKeyHash(License.sha256(key));
+        licenses.put(id, encode(license));
+        byKey.put(key, id);
+        byKeyHash.put(HEX.formatHex(license.getKeyHash()), id);
+        if (license.getExpirationDate() != null) {
+            byExpiry.put(expiryKey(license.getExpirationDate(), id), id);
+        }
+    }
+
+    @Override
+    public List<License> findActiveExpiringBetween(LocalDate from, LocalDate to) {
+        // "/" sorts before the digits of any id, "0" after it: [from/, (to+1)/) covers both days
+        String end = expiryKey(to.plusDays(1), null);
+        List<License> found = new ArrayList<>();
+        Cursor<String, Long> cursor = byExpiry.cursor(expiryKey(from, null));
+        while (cursor.hasNext() && cursor.next().compareTo(end) < 0) {
+            get(cursor.getValue()).filter(License::isActive).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * Ids zero-padded so they sort numerically within a day
+     */
+    private static String expiryKey(LocalDate date, Long id) {
+        return id == null ? date + "/" : date + "/" + String.format("%019d", id);
+    }
+
+    private static byte[] encode(License license) {
+        byte[] key = license.getLicenseKey().getBytes(StandardCharsets.UTF_8);
+        byte[] email = bytes(license.getEmail());
+        byte[] hwid = bytes(license.getHwid());
+        ByteBuffer buffer = ByteBuffer.allocate(length(key) + length(email) + length(hwid) + 8 + 4 + 2);
+        putBytes(buffer, key);
+        putBytes(buffer, email);
+        putBytes(buffer, hwid);
+        buffer.putLong(license.getExpirationDate() == null ? Long.MIN_VALUE : license.getExpirationDate().toEpochDay());
+        buffer.putInt(license.getSeats());
+        buffer.put((byte) (license.isActive() ? 1 : 0));
+        buffer.put((byte) (license.isRevoked() ? 1 : 0));
+        return buffer.array();
+    }
+
+    private static License decode(long id, byte[] value) {
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        License license = new License();
+        license.setId(id);
+        license.setLicenseKey(getString(buffer));
+        license.setEmail(getString(buffer));
+        license.setHwid(getString(buffer));
+        long epochDay = buffer.getLong();
+        license.setExpirationDate(epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay));
+        license.setSeats(buffer.getInt());
+        license.setActive(buffer.get() == 1);
+        license.setRevoked(buffer.get() == 1);
+        license.setKeyHash(License.sha256(license.getLicenseKey()));
+        return license;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return 4 + (value == null ? 0 : value.length);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
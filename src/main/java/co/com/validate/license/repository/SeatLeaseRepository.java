@@ -0,0 +1,21 @@
+package co.com.validate.license.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import co.com.validate.license.model.SeatLease;
+
+public interface SeatLeaseRepository extends JpaRepository<SeatLease, String> {
+
+    /**
+     * Live leases checkpointed by the given instance, plus those written before leases had an owner,
+     * most recently renewed first
+     */
+    @Query("SELECT s FROM SeatLease s WHERE s.expiresAt > :now AND (s.owner = :owner OR s.owner IS NULL) "
+            + "ORDER BY s.expiresAt DESC")
+    List<SeatLease> findLiveOwnedBy(@Param("owner") String owner, @Param("now") Instant now);
+}
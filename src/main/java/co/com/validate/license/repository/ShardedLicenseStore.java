@@ -0,0 +1,118 @@
+package co.com.validate.license.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import co.com.validate.license.model.License;
+
+/**
+ * {@link LicenseStore} hash-partitioned over the {@link LicenseShards}: one {@link JdbcLicenseStore}
+ * per shard. Key and id operations touch a single shard, so writes to different shards never
+ * contend; the expiry scan runs on every shard in parallel and merges the results.
+ */
+@Repository
+@ConditionalOnProperty(name = "license.store.backend", havingValue = "sharded")
+public class ShardedLicenseStore implements LicenseStore {
+
+    private static final Comparator<License> EXPIRY_ORDER =
+            Comparator.comparing(License::getExpirationDate).thenComparing(License::getId);
+
+    private final LicenseShards shards;
+    private final List<JdbcLicenseStore> stores = new ArrayList<>();
+
+    public ShardedLicenseStore(LicenseShards shards) {
+        this.shards = shards;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            stores.add(new JdbcLicenseStore(shards.jdbcTemplate(shard)));
+        }
+    }
+
+    private int shardOf(String licenseKey) {
+        return shards.shardOfKeyHash(License.sha256(licenseKey));
+    }
+
+    private JdbcLicenseStore byKey(String licenseKey) {
+        return stores.get(shardOf(licenseKey));
+    }
+
+    private Map<Integer, List<String>> groupByShard(Collection<String> licenseKeys) {
+        Map<Integer, List<String>> byShard = new TreeMap<>();
+        for (String licenseKey : licenseKeys) {
+            byShard.computeIfAbsent(shardOf(licenseKey), shard -> new ArrayList<>()).add(licenseKey);
+        }
+        return byShard;
+    }
+
+    @Override
+    public Optional<License> findByLicenseKey(String licenseKey) {
+        return byKey(licenseKey).findByLicenseKey(licenseKey);
+    }
+
+    @Override
+    public List<License> findByLicenseKeys(Collection<String> licenseKeys) {
+        List<License> found = new ArrayList<>();
+        groupByShard(licenseKeys).forEach((shard, keys) -> found.addAll(stores.get(shard).findByLicenseKeys(keys)));
+        return found;
+    }
+
+    @Override
+    public List<String> findExistingKeys(Collection<String> licenseKeys) {
+        List<String> existing = new ArrayList<>();
+        groupByShard(licenseKeys).forEach((shard, keys) -> existing.addAll(stores.get(shard).findExistingKeys(keys)));
+        return existing;
+    }
+
+    @Override
+    public Optional<License> findByKeyHash(byte[] keyHash) {
+        return stores.get(shards.shardOfKeyHash(keyHash)).findByKeyHash(keyHash);
+    }
+
+    @Override
+    public boolean bindHwid(long id, String hwid) {
+        return stores.get(shards.shardOfId(id)).bindHwid(id, hwid);
+    }
+
+    @Override
+    public License insert(License license) {
+        return byKey(license.getLicenseKey()).insert(license);
+    }
+
+    /**
+     * Checks the keys on every shard involved before inserting each shard's part as one batch.
+     * The shards commit independently: a key inserted concurrently between the check and the
+     * batches can leave the other shards' part stored.
+     */
+    @Override
+    public List<License> insertAll(List<License> licenses) {
+        Map<Integer, List<License>> byShard = new TreeMap<>();
+        for (License license : licenses) {
+            byShard.computeIfAbsent(shardOf(license.getLicenseKey()), shard -> new ArrayList<>()).add(license);
+        }
+        List<String> existing = new ArrayList<>();
+        byShard.forEach((shard, part) -> existing.addAll(
+                stores.get(shard).findExistingKeys(part.stream().map(License::getLicenseKey).toList())));
+        if (!existing.isEmpty()) {
+            throw new DuplicateKeyException("License keys already exist: " + existing);
+        }
+        byShard.forEach((shard, part) -> stores.get(shard).insertAll(part));
+        return licenses;
+    }
+
+    @Override
+    public List<License> findActiveExpiringBetween(LocalDate from, LocalDate to) {
+        List<License> merged = new ArrayList<>();
+        shards.fanOut(shard -> stores.get(shard).findActiveExpiringBetween(from, to)).forEach(merged::addAll);
+        merged.sort(EXPIRY_ORDER);
+        return merged;
+    }
+}
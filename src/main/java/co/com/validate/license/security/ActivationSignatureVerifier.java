@@ -0,0 +1,92 @@
+package co.com.validate.license.security;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+import co.com.validate.license.model.ActivationSignature;
+
+/**
+ * Client-side verification of signed activation responses. Only needs the JDK, {@link MerkleTree}
+ * and {@link ActivationSignature}, so clients can embed it without the server dependencies.
+ *
+ * <pre>
+ * PublicKey key = ActivationSignatureVerifier.publicKey(base64FromSigningKeyEndpoint);
+ * byte[] payload = ActivationSignatureVerifier.canonicalPayload(licenseKey, hwid,
+ *         response.getDescription(), response.getExpirationDate(), response.getSignature().getIssuedAt());
+ * boolean valid = ActivationSignatureVerifier.verify(key, payload, response.getSignature());
+ * </pre>
+ */
+public final class ActivationSignatureVerifier {
+
+    public static final String ALGORITHM = "Ed25519";
+
+    private static final byte[] VERSION = "v2".getBytes(StandardCharsets.US_ASCII);
+
+    private ActivationSignatureVerifier() {
+    }
+
+    /**
+     * Bytes covered by the signature of an activation response: the version tag "v2", then each
+     * text field as a 4-byte big-endian length (-1 for null) followed by its UTF-8 bytes, then
+     * issuedAt as an 8-byte big-endian long. Field boundaries never depend on the field contents.
+     */
+    public static byte[] canonicalPayload(String licenseKey, String hwid, String description,
+                                          LocalDate expirationDate, long issuedAt) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.writeBytes(VERSION);
+        writeField(out, licenseKey);
+        writeField(out, hwid);
+        writeField(out, description);
+        writeField(out, expirationDate == null ? null : expirationDate.toString());
+        out.writeBytes(ByteBuffer.allocate(Long.BYTES).putLong(issuedAt).array());
+        return out.toByteArray();
+    }
+
+    public static PublicKey publicKey(String base64X509) throws GeneralSecurityException {
+        byte[] encoded = Base64.getDecoder().decode(base64X509);
+        return KeyFactory.getInstance(ALGORITHM).generatePublic(new X509EncodedKeySpec(encoded));
+    }
+
+    /**
+     * Checks that {@code payload} is a leaf of the signed Merkle root and that the root signature is valid
+     */
+    public static boolean verify(PublicKey publicKey, byte[] payload, ActivationSignature signature) {
+        if (signature == null || signature.getRoot() == null || signature.getSignature() == null) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] root = decoder.decode(signature.getRoot());
+            byte[] computed = MerkleTree.rootFromProof(MerkleTree.leafHash(payload),
+                    signature.getProof() == null ? List.of() : signature.getProof());
+            if (!MessageDigest.isEqual(root, computed)) {
+                return false;
+            }
+
+            Signature verifier = Signature.getInstance(ALGORITHM);
+            verifier.initVerify(publicKey);
+            verifier.update(root);
+            return verifier.verify(decoder.decode(signature.getSignature()));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void writeField(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(bytes == null ? -1 : bytes.length).array());
+        if (bytes != null) {
+            out.writeBytes(bytes);
+        }
+    }
+}
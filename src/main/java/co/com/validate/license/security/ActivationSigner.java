@@ -0,0 +1,213 @@
+package co.com.validate.license.security;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import co.com.validate.license.model.ActivationSignature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Signs activation responses with Ed25519, amortising the signature over micro-batches.
+ *
+ * Concurrent callers enqueue the hash of their response; a single batcher thread collects hashes
+ * for up to {@code batchWindowMillis} (or {@code maxBatchSize} entries), builds a Merkle tree and
+ * signs only its root. Each caller gets the root signature plus the proof for its own leaf.
+ * A caller that waits longer than {@code maxLatencyMillis} signs its response on its own instead.
+ */
+@Slf4j
+@Service
+public class ActivationSigner {
+
+    private static final Base64.Encoder B64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final ActivationSigningProperties properties;
+    private final LinkedBlockingQueue<PendingLeaf> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong batchesSigned = new AtomicLong();
+    private final AtomicLong leavesSigned = new AtomicLong();
+
+    private KeyPair keyPair;
+    private Thread batcher;
+    private volatile boolean running;
+
+    public ActivationSigner(ActivationSigningProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        keyPair = loadOrGenerateKeyPair();
+        if (properties.isEnabled()) {
+            running = true;
+            batcher = new Thread(this::runBatcher, "activation-signer");
+            batcher.setDaemon(true);
+            batcher.start();
+            log.info("Activation response signing enabled (window {} ms, max batch {})",
+                    properties.getBatchWindowMillis(), properties.getMaxBatchSize());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (batcher != null) {
+            batcher.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public PublicKey getPublicKey() {
+        return keyPair.getPublic();
+    }
+
+    public String getPublicKeyBase64() {
+        return Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+    }
+
+    public long getBatchesSigned() {
+        return batchesSigned.get();
+    }
+
+    public long getLeavesSigned() {
+        return leavesSigned.get();
+    }
+
+    /**
+     * Signs a canonical activation payload (see {@link ActivationSignatureVerifier#canonicalPayload}),
+     * batching it with concurrent callers
+     */
+    public ActivationSignature sign(byte[] payload, long issuedAt) {
+        PendingLeaf pending = new PendingLeaf(MerkleTree.leafHash(payload), issuedAt);
+        if (running) {
+            queue.add(pending);
+            try {
+                return pending.future.get(properties.getMaxLatencyMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.debug("Batch signature not ready within {} ms, signing individually", properties.getMaxLatencyMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.warn("Batch signature failed, signing individually: {}", e.getCause().getMessage());
+            }
+        }
+        return signBatch(List.of(pending)).get(0);
+    }
+
+    /**
+     * Plain Ed25519 signature over raw bytes with the same key (used by compact protocols)
+     */
+    public byte[] signDirect(byte[] data) {
+        try {
+            Signature signature = Signature.getInstance(ActivationSignatureVerifier.ALGORITHM);
+            signature.initSign(keyPair.getPrivate());
+            signature.update(data);
+            return signature.sign();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 signing failed", e);
+        }
+    }
+
+    private void runBatcher() {
+        List<PendingLeaf> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running) {
+            try {
+                PendingLeaf first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getBatchWindowMillis());
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingLeaf next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                List<ActivationSignature> signatures = signBatch(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future.complete(signatures.get(i));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Activation signing batch failed: {}", e.getMessage(), e);
+                batch.forEach(p -> p.future.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private List<ActivationSignature> signBatch(List<PendingLeaf> batch) {
+        List<byte[]> leaves = new ArrayList<>(batch.size());
+        for (PendingLeaf pending : batch) {
+            leaves.add(pending.leafHash);
+        }
+
+        MerkleTree tree = MerkleTree.build(leaves);
+        byte[] root = tree.getRoot();
+        String rootB64 = B64URL.encodeToString(root);
+        String signatureB64 = B64URL.encodeToString(signDirect(root));
+
+        List<ActivationSignature> signatures = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            signatures.add(new ActivationSignature(ActivationSignatureVerifier.ALGORITHM,
+                    batch.get(i).issuedAt, rootB64, signatureB64, tree.getProof(i)));
+        }
+        batchesSigned.incrementAndGet();
+        leavesSigned.addAndGet(batch.size());
+        return signatures;
+    }
+
+    private KeyPair loadOrGenerateKeyPair() throws GeneralSecurityException {
+        String privateKey = properties.getPrivateKey();
+        String publicKey = properties.getPublicKey();
+        if (privateKey != null && !privateKey.isBlank() && publicKey != null && !publicKey.isBlank()) {
+            KeyFactory factory = KeyFactory.getInstance(ActivationSignatureVerifier.ALGORITHM);
+            PrivateKey priv = factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey)));
+            return new KeyPair(ActivationSignatureVerifier.publicKey(publicKey), priv);
+        }
+
+        if (properties.isEnabled()) {
+            log.warn("No Ed25519 signing key configured (security.signing.private-key/public-key); "
+                    + "using an ephemeral key pair, signatures will not verify after a restart");
+        }
+        return KeyPairGenerator.getInstance(ActivationSignatureVerifier.ALGORITHM).generateKeyPair();
+    }
+
+    private static final class PendingLeaf {
+        private final byte[] leafHash;
+        private final long issuedAt;
+        private final CompletableFuture<ActivationSignature> future = new CompletableFuture<>();
+
+        private PendingLeaf(byte[] leafHash, long issuedAt) {
+            this.leafHash = leafHash;
+            this.issuedAt = issuedAt;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package co.com.validate.license.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "security.signing")
+@Getter
+@Setter
+public class ActivationSigningProperties {
+
+    /**
+     * Sign activation responses (opt-in)
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long the first response of a batch waits for more responses to join it
+     */
+    private long batchWindowMillis = 5;
+
+    /**
+     * Maximum number of responses covered by one signed Merkle root
+     */
+    private int maxBatchSize = 256;
+
+    /**
+     * Maximum extra latency a response accepts; past it the response is signed on its own
+     */
+    private long maxLatencyMillis = 50;
+
+    /**
+     * Ed25519 private key, Base64 PKCS#8. When empty an ephemeral key pair is generated at startup
+     */
+    private String privateKey;
+
+    /**
+     * Ed25519 public key, Base64 X.509, matching {@link #privateKey}
+     */
+    private String publicKey;
+
+}
@@ -0,0 +1,197 @@
+package co.com.validate.license.security;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cheap handling of requests that fail authentication, so floods of bad tokens cost little:
+ * token shape is checked before any parsing, sources sending invalid tokens are throttled
+ * (token bucket per client address, refilled lazily), and rejections are counted and logged as
+ * one summary line per interval instead of once per request.
+ *
+ * Past max-tracked-sources the table drops the buckets that have refilled completely, which
+ * hold no state a new bucket would not, and then the least recently seen ones. Rotating through
+ * new sources therefore cannot reset the bucket of a source that is still sending.
+ */
+@Slf4j
+@Component
+public class AuthRejectionGuard {
+
+    public enum Reason {
+        MISSING_TOKEN,
+        MALFORMED_TOKEN,
+        INVALID_TOKEN,
+        THROTTLED
+    }
+
+    /**
+     * Request attribute carrying the {@link Reason} from the filter to the entry point
+     */
+    public static final String REASON_ATTRIBUTE = AuthRejectionGuard.class.getName() + ".reason";
+
+    private final AuthRejectionProperties properties;
+    private final double tokensPerNano;
+    private final Set<String> trustedProxies;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Map<Reason, AtomicLong> interval = new EnumMap<>(Reason.class);
+    private final Map<Reason, AtomicLong> totals = new EnumMap<>(Reason.class);
+
+    public AuthRejectionGuard(AuthRejectionProperties properties) {
+        this.properties = properties;
+        this.tokensPerNano = properties.getInvalidTokensPerMinute() / 60_000_000_000d;
+        this.trustedProxies = Set.copyOf(properties.getTrustedProxies());
+        for (Reason reason : Reason.values()) {
+            interval.put(reason, new AtomicLong());
+            totals.put(reason, new AtomicLong());
+        }
+    }
+
+    /**
+     * Compact JWE (5 segments) or JWS (3 segments) made of base64url characters, within the size limit
+     */
+    public boolean hasTokenShape(String token) {
+        int length = token.length();
+        if (length == 0 || length > properties.getMaxTokenLength() || token.charAt(0) == '.') {
+            return false;
+        }
+        int dots = 0;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                dots++;
+            } else if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return dots == 2 || dots == 4;
+    }
+
+    /**
+     * The client address of the request: the remote address, or when that is a trusted proxy,
+     * the last X-Forwarded-For entry that is not one (entries left of it can be forged)
+     */
+    public String sourceOf(HttpServletRequest request) {
+        String remote = String.valueOf(request.getRemoteAddr());
+        String forwarded = trustedProxies.contains(remote) ? request.getHeader("X-Forwarded-For") : null;
+        if (forwarded == null) {
+            return remote;
+        }
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return remote;
+    }
+
+    /**
+     * @return true when the source has used up its allowance of invalid tokens
+     */
+    public boolean isThrottled(String source, long nowNanos) {
+        Bucket bucket = buckets.get(source);
+        if (bucket == null) {
+            return false;
+        }
+        synchronized (bucket) {
+            bucket.refill(nowNanos, tokensPerNano, properties.getInvalidTokenBurst());
+            return bucket.tokens < 1;
+        }
+    }
+
+    /**
+     * Charges an invalid or malformed token to its source
+     */
+    public void recordInvalid(String source, long nowNanos) {
+        if (buckets.size() > properties.getMaxTrackedSources()) {
+            evict(nowNanos);
+        }
+        Bucket bucket = buckets.computeIfAbsent(source, s -> new Bucket(properties.getInvalidTokenBurst(), nowNanos));
+        synchronized (bucket) {
+            bucket.refill(nowNanos, tokensPerNano, properties.getInvalidTokenBurst());
+            bucket.tokens = Math.max(0, bucket.tokens - 1);
+        }
+    }
+
+    /**
+     * Brings the table back to 90% of its bound: full buckets first, then least recently seen
+     */
+    private synchronized void evict(long nowNanos) {
+        int bound = properties.getMaxTrackedSources();
+        if (buckets.size() <= bound) {
+            return;
+        }
+        int burst = properties.getInvalidTokenBurst();
+        List<Map.Entry<String, Long>> lastSeen = new ArrayList<>();
+        buckets.forEach((source, bucket) -> {
+            synchronized (bucket) {
+                // lastRefill is also when the source was last seen: not refilled here
+                if (bucket.tokens + (nowNanos - bucket.lastRefill) * tokensPerNano >= burst) {
+                    buckets.remove(source, bucket);
+                } else {
+                    lastSeen.add(Map.entry(source, bucket.lastRefill));
+                }
+            }
+        });
+        int excess = buckets.size() - bound * 9 / 10;
+        if (excess > 0) {
+            lastSeen.sort(Map.Entry.comparingByValue());
+            lastSeen.subList(0, Math.min(excess, lastSeen.size())).forEach(entry -> buckets.remove(entry.getKey()));
+        }
+    }
+
+    public void count(Reason reason) {
+        interval.get(reason).incrementAndGet();
+        totals.get(reason).incrementAndGet();
+    }
+
+    public long getTotal(Reason reason) {
+        return totals.get(reason).get();
+    }
+
+    @Scheduled(fixedDelayString = "${security.rejection.summary-interval-ms:60000}")
+    public void logSummary() {
+        Map<Reason, Long> counts = new EnumMap<>(Reason.class);
+        long sum = 0;
+        for (Reason reason : Reason.values()) {
+            long count = interval.get(reason).getAndSet(0);
+            if (count > 0) {
+                counts.put(reason, count);
+                sum += count;
+            }
+        }
+        if (sum > 0) {
+            log.warn("Rejected {} unauthorized requests in the last {} ms: {} ({} sources tracked)",
+                    sum, properties.getSummaryIntervalMs(), counts, buckets.size());
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+
+        private void refill(long nowNanos, double tokensPerNano, int burst) {
+            tokens = Math.min(burst, tokens + (nowNanos - lastRefill) * tokensPerNano);
+            lastRefill = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package co.com.validate.license.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Component
+@ConfigurationProperties(prefix = "security.rejection")
+@Getter
+@Setter
+public class AuthRejectionProperties {
+
+    /**
+     * Longer bearer tokens are rejected without parsing
+     */
+    private int maxTokenLength = 4096;
+
+    /**
+     * Invalid tokens a source may send in a burst before it is throttled
+     */
+    private int invalidTokenBurst = 20;
+
+    /**
+     * Rate at which a throttled source regains invalid-token allowance
+     */
+    private double invalidTokensPerMinute = 10;
+
+    /**
+     * Sources tracked at once; past this, idle and then least recently seen sources are dropped
+     */
+    private int maxTrackedSources = 10_000;
+
+    /**
+     * Addresses of reverse proxies in front of the application. Requests they forward are
+     * charged to the client address in X-Forwarded-For instead of the proxy's.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * Interval of the aggregated rejection log line
+     */
+    private long summaryIntervalMs = 60_000;
+}
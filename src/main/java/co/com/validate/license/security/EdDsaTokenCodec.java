@@ -0,0 +1,108 @@
+package co.com.validate.license.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.text.ParseException;
+import java.util.Base64;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EdDSA (Ed25519) tokens signed with the JDK provider, so no extra crypto library is needed.
+ * A Signature instance per thread is initialised once with the key and reused.
+ */
+@Slf4j
+class EdDsaTokenCodec implements TokenCodec {
+
+    private final Base64URL encodedHeader;
+    private final ThreadLocal<Signature> signers;
+    private final ThreadLocal<Signature> verifiers;
+
+    EdDsaTokenCodec(JweProperties properties) {
+        KeyPair keyPair;
+        try {
+            keyPair = loadOrGenerateKeyPair(properties);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid Ed25519 token key: " + e.getMessage(), e);
+        }
+        this.encodedHeader = new JWSHeader(JWSAlgorithm.EdDSA).toBase64URL();
+        this.signers = ThreadLocal.withInitial(() -> {
+            try {
+                Signature signature = Signature.getInstance(ActivationSignatureVerifier.ALGORITHM);
+                signature.initSign(keyPair.getPrivate());
+                return signature;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        this.verifiers = ThreadLocal.withInitial(() -> {
+            try {
+                Signature signature = Signature.getInstance(ActivationSignatureVerifier.ALGORITHM);
+                signature.initVerify(keyPair.getPublic());
+                return signature;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static KeyPair loadOrGenerateKeyPair(JweProperties properties) throws GeneralSecurityException {
+        String privateKey = properties.getEd25519PrivateKey();
+        String publicKey = properties.getEd25519PublicKey();
+        if (privateKey != null && !privateKey.isBlank() && publicKey != null && !publicKey.isBlank()) {
+            KeyFactory factory = KeyFactory.getInstance(ActivationSignatureVerifier.ALGORITHM);
+            return new KeyPair(ActivationSignatureVerifier.publicKey(publicKey),
+                    factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey))));
+        }
+        log.warn("No Ed25519 token key configured (security.jwe.ed25519-private-key/public-key); "
+                + "using an ephemeral key pair, issued tokens will not verify after a restart");
+        return KeyPairGenerator.getInstance(ActivationSignatureVerifier.ALGORITHM).generateKeyPair();
+    }
+
+    @Override
+    public TokenMode getMode() {
+        return TokenMode.EDDSA;
+    }
+
+    @Override
+    public String issue(JWTClaimsSet claims) throws JOSEException {
+        String signingInput = encodedHeader + "." + Base64URL.encode(claims.toString());
+        try {
+            Signature signer = signers.get();
+            signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + Base64URL.encode(signer.sign());
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Ed25519 signing failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public JWTClaimsSet read(JOSEObject token) throws ParseException, JOSEException {
+        JWSObject jwsObject = (JWSObject) token;
+        try {
+            Signature verifier = verifiers.get();
+            verifier.update(jwsObject.getSigningInput());
+            if (!verifier.verify(jwsObject.getSignature().decode())) {
+                throw new SecurityException("Invalid token signature");
+            }
+        } catch (GeneralSecurityException e) {
+            // Start the next verification on this thread from a clean instance
+            verifiers.remove();
+            throw new SecurityException("Invalid token signature");
+        }
+        return JWTClaimsSet.parse(jwsObject.getPayload().toJSONObject());
+    }
+}
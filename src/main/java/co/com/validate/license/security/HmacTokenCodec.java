@@ -0,0 +1,92 @@
+package co.com.validate.license.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+/**
+ * HS256 tokens signed with keys of the JWE mode's key ring. Each secret is not used as is: its
+ * HMAC key is derived with HKDF-SHA256 (RFC 5869), so the same secret never serves as both an
+ * AES-256-GCM key and an HMAC key, also while both modes are accepted.
+ */
+class HmacTokenCodec implements TokenCodec {
+
+    private static final byte[] HKDF_INFO = "lib-validate-license HS256 token key".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, MACVerifier> verifiers = new LinkedHashMap<>();
+    private final MACVerifier defaultVerifier;
+    private final MACSigner signer;
+    private final JWSHeader header;
+
+    HmacTokenCodec(JweProperties properties) {
+        try {
+            for (Map.Entry<String, String> key : properties.getKeyRing().entrySet()) {
+                verifiers.put(key.getKey(), new MACVerifier(deriveKey(JweProperties.keyBytes(key.getKey(), key.getValue()))));
+            }
+            String activeKid = properties.getActiveKeyId();
+            this.signer = new MACSigner(deriveKey(JweProperties.keyBytes(activeKid, properties.getKeyRing().get(activeKid))));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Invalid HS256 key: " + e.getMessage(), e);
+        }
+        this.defaultVerifier = verifiers.get(properties.getKeyId());
+        this.header = new JWSHeader.Builder(JWSAlgorithm.HS256).keyID(properties.getActiveKeyId()).build();
+    }
+
+    @Override
+    public TokenMode getMode() {
+        return TokenMode.HS256;
+    }
+
+    @Override
+    public String issue(JWTClaimsSet claims) throws JOSEException {
+        JWSObject jwsObject = new JWSObject(header, new Payload(claims.toJSONObject()));
+        jwsObject.sign(signer);
+        return jwsObject.serialize();
+    }
+
+    @Override
+    public JWTClaimsSet read(JOSEObject token) throws ParseException, JOSEException {
+        JWSObject jwsObject = (JWSObject) token;
+        String kid = jwsObject.getHeader().getKeyID();
+        MACVerifier verifier = kid == null ? defaultVerifier : verifiers.get(kid);
+        if (verifier == null) {
+            throw new SecurityException("Unknown token key id");
+        }
+        if (!jwsObject.verify(verifier)) {
+            throw new SecurityException("Invalid token signature");
+        }
+        return JWTClaimsSet.parse(jwsObject.getPayload().toJSONObject());
+    }
+
+    /**
+     * HKDF-SHA256 with an all-zero salt, expanded to one 32-byte block
+     */
+    static byte[] deriveKey(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(new byte[32], "HmacSHA256"));
+            byte[] pseudoRandomKey = mac.doFinal(secret);
+            mac.init(new SecretKeySpec(pseudoRandomKey, "HmacSHA256"));
+            mac.update(HKDF_INFO);
+            mac.update((byte) 1);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package co.com.validate.license.security;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
 
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -11,41 +13,62 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Writes the 401 response. The body is serialized once at startup, only the timestamp (epoch
+ * millis, as Jackson writes a Date) is filled in per response; rejections are counted by
+ * {@link AuthRejectionGuard} instead of being logged one by one.
+ */
 @Slf4j
 @Component
 public class JweAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    private final AuthRejectionGuard authRejectionGuard;
+    private final byte[] bodyPrefix;
+    private final byte[] bodySuffix;
+
+    public JweAuthenticationEntryPoint(AuthRejectionGuard authRejectionGuard) throws JsonProcessingException {
+        this.authRejectionGuard = authRejectionGuard;
+        ObjectMapper mapper = new ObjectMapper();
+        this.bodyPrefix = "{\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+        this.bodySuffix = (",\"mensaje\":" + mapper.writeValueAsString("No autorizado - Token JWE requerido")
+                + ",\"detalles\":" + mapper.writeValueAsString(
+                        "Debe proporcionar un token JWE válido en el header Authorization: Bearer <token>")
+                + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException, ServletException {
 
-        log.error("Unauthorized error: {}", authException.getMessage());
+        Object reason = request.getAttribute(AuthRejectionGuard.REASON_ATTRIBUTE);
+        authRejectionGuard.count(reason instanceof AuthRejectionGuard.Reason r ? r : AuthRejectionGuard.Reason.MISSING_TOKEN);
+        log.debug("Unauthorized error: {}", authException.getMessage());
 
-        response.setContentType("application/json;charset=UTF-8");
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-
-        ErrorResponse errorResponse = new ErrorResponse(
-            new Date(),
-            "No autorizado - Token JWE requerido",
-            "Debe proporcionar un token JWE válido en el header Authorization: Bearer <token>"
-        );
-
-        ObjectMapper mapper = new ObjectMapper();
-        response.getWriter().write(mapper.writeValueAsString(errorResponse));
+        writeUnauthorized(response);
     }
 
-    @Getter
-    @AllArgsConstructor
-    private static class ErrorResponse {
-        private final Date timestamp;
-        private final String mensaje;
-        private final String detalles;
+    /**
+     * Writes the 401 status and body
+     */
+    public void writeUnauthorized(HttpServletResponse response) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(bodyPrefix.length + 13 + bodySuffix.length);
+        body.writeBytes(bodyPrefix);
+        body.writeBytes(Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(bodySuffix);
+
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(body.size());
+        ServletOutputStream out = response.getOutputStream();
+        body.writeTo(out);
+        out.flush();
     }
 
 }
@@ -24,34 +24,54 @@ import lombok.extern.slf4j.Slf4j;
 public class JweAuthenticationFilter extends OncePerRequestFilter {
 
     private final JweService jweService;
+    private final AuthRejectionGuard authRejectionGuard;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        try {
-            String token = extractTokenFromRequest(request);
+        String token = extractTokenFromRequest(request);
 
-            if (token != null) {
-                // Validate and decrypt the token
-                JWTClaimsSet claimsSet = jweService.validateToken(token);
-                String subject = claimsSet.getSubject();
+        if (token != null) {
+            String source = authRejectionGuard.sourceOf(request);
+            long now = System.nanoTime();
+            JWTClaimsSet claimsSet = null;
 
-                if (subject != null) {
-                    // Create authentication object
-                    UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(subject, null, null);
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (authRejectionGuard.isThrottled(source, now)) {
+                // Source keeps sending bad tokens: only tokens validated before are still accepted,
+                // others are not validated and the request goes on unauthenticated (public routes
+                // such as /api/auth/token still work)
+                claimsSet = jweService.getCachedClaims(token);
+                if (claimsSet == null) {
+                    request.setAttribute(AuthRejectionGuard.REASON_ATTRIBUTE, AuthRejectionGuard.Reason.THROTTLED);
+                }
+            } else if (!authRejectionGuard.hasTokenShape(token)) {
+                authRejectionGuard.recordInvalid(source, now);
+                request.setAttribute(AuthRejectionGuard.REASON_ATTRIBUTE, AuthRejectionGuard.Reason.MALFORMED_TOKEN);
+            } else {
+                try {
+                    // Validate the token (JWE or JWS, depending on the accepted modes)
+                    claimsSet = jweService.validateToken(token);
+                } catch (Exception e) {
+                    log.debug("Cannot set user authentication: {}", e.getMessage());
+                    authRejectionGuard.recordInvalid(source, now);
+                    request.setAttribute(AuthRejectionGuard.REASON_ATTRIBUTE, AuthRejectionGuard.Reason.INVALID_TOKEN);
+                    // Don't set authentication - let security config handle the response
+                }
+            }
 
-                    // Set authentication in security context
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+            String subject = claimsSet != null ? claimsSet.getSubject() : null;
+            if (subject != null) {
+                // Create authentication object
+                UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(subject, null, null);
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    log.debug("Successfully authenticated request for subject: {}", subject);
-                }
+                // Set authentication in security context
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+
+                log.debug("Successfully authenticated request for subject: {}", subject);
             }
-        } catch (Exception e) {
-            log.error("Cannot set user authentication: {}", e.getMessage());
-            // Don't set authentication - let security config handle the response
         }
 
         filterChain.doFilter(request, response);
@@ -1,6 +1,12 @@
 package co.com.validate.license.security;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -16,9 +22,68 @@ import lombok.Setter;
 public class JweProperties {
 
     /**
-     * Secret key for JWE encryption (must be at least 256 bits / 32 characters for AES256)
+     * AES-256-GCM direct encryption needs a key of exactly 256 bits
      */
-    private String secretKey = "default-secret-key-change-this-in-production-min32chars";
+    public static final int KEY_LENGTH_BYTES = 32;
+
+    /**
+     * Format of issued tokens
+     */
+    private TokenMode mode = TokenMode.JWE;
+
+    /**
+     * Additional formats still accepted, e.g. JWE while switching to HS256 (the issuing mode is
+     * always accepted)
+     */
+    private List<TokenMode> acceptModes = new ArrayList<>();
+
+    /**
+     * Secret key for JWE encryption (must be 256 bits / 32 characters for AES256)
+     */
+    private String secretKey = "default-secret-change-me-32chars";
+
+    /**
+     * Key id ("kid" header) under which {@link #secretKey} is registered. Tokens issued without a
+     * kid are decrypted with this key.
+     */
+    private String keyId = "primary";
+
+    /**
+     * Additional keys by kid, e.g. the previous key during a rotation so tokens it issued keep
+     * validating until they expire, or the next key before it becomes active
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * Kid of the key used to issue new tokens (default: {@link #keyId})
+     */
+    private String activeKeyId;
+
+    /**
+     * Ed25519 private key for EDDSA tokens, Base64 PKCS#8. When empty an ephemeral key pair is
+     * generated at startup
+     */
+    private String ed25519PrivateKey;
+
+    /**
+     * Ed25519 public key, Base64 X.509, matching {@link #ed25519PrivateKey}
+     */
+    private String ed25519PublicKey;
+
+    /**
+     * Validated tokens kept in memory so repeated bearer tokens skip decryption (0 disables)
+     */
+    private int tokenCacheSize = 10_000;
+
+    /**
+     * Width of the expiry buckets of the revocation denylist
+     */
+    private long revocationBucketSeconds = 60;
+
+    /**
+     * Revoked tokens the denylist's Bloom filter is sized for (it grows on cleanup if exceeded)
+     */
+    private int revocationExpectedEntries = 100_000;
 
     /**
      * Token expiration time in seconds (default: 1 hour)
@@ -36,10 +101,52 @@ public class JweProperties {
             throw new IllegalStateException(
                 "JWE secret key is not configured. Set the JWE_SECRET_KEY environment variable (minimum 32 characters).");
         }
-        if (secretKey.getBytes(StandardCharsets.UTF_8).length < 32) {
+        if (secretKey.getBytes(StandardCharsets.UTF_8).length < KEY_LENGTH_BYTES) {
             throw new IllegalStateException(
                 "JWE secret key is too short. Minimum 32 characters required for AES-256-GCM. Set JWE_SECRET_KEY.");
         }
+        if (!getKeyRing().containsKey(getActiveKeyId())) {
+            throw new IllegalStateException("JWE active key id '" + getActiveKeyId() + "' is not configured.");
+        }
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId == null || activeKeyId.isBlank() ? keyId : activeKeyId;
+    }
+
+    /**
+     * Formats accepted by token validation
+     */
+    public Set<TokenMode> getAcceptedModes() {
+        Set<TokenMode> accepted = EnumSet.of(mode);
+        if (acceptModes != null) {
+            accepted.addAll(acceptModes);
+        }
+        return accepted;
+    }
+
+    /**
+     * Bytes of a key ring secret, which must be exactly 256 bits
+     */
+    public static byte[] keyBytes(String kid, String secret) {
+        byte[] bytes = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length != KEY_LENGTH_BYTES) {
+            throw new IllegalStateException("JWE key '" + kid + "' must be exactly "
+                    + KEY_LENGTH_BYTES + " bytes for AES-256-GCM.");
+        }
+        return bytes;
+    }
+
+    /**
+     * All configured secrets by kid, {@link #secretKey} first
+     */
+    public Map<String, String> getKeyRing() {
+        Map<String, String> ring = new LinkedHashMap<>();
+        ring.put(keyId, secretKey);
+        if (keys != null) {
+            keys.forEach(ring::putIfAbsent);
+        }
+        return ring;
     }
 
 }
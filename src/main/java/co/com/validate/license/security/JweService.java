@@ -1,37 +1,79 @@
 package co.com.validate.license.security;
 
-import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.springframework.stereotype.Service;
 
-import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JWEAlgorithm;
-import com.nimbusds.jose.JWEHeader;
-import com.nimbusds.jose.JWEObject;
-import com.nimbusds.jose.Payload;
-import com.nimbusds.jose.crypto.DirectDecrypter;
-import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.JOSEObject;
 import com.nimbusds.jwt.JWTClaimsSet;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Issues and validates the API's bearer tokens in the configured {@link TokenMode}: encrypted JWE
+ * (dir + A256GCM, the default) or signed JWS (HS256 or EdDSA). Validation detects the format of
+ * each token and accepts every mode listed in security.jwe.accept-modes, so the issuing mode can be
+ * switched without invalidating tokens already handed out.
+ *
+ * Keys form a ring identified by the "kid" header. The crypto objects of every key are built once
+ * at startup and shared between requests, so a request only pays for the cryptographic operation
+ * itself. Rotating a key is a configuration change: add the new key, make it active, and drop the
+ * old one once the tokens it issued have expired.
+ * Tokens that passed validation are kept in a {@link ValidatedTokenCache} until they expire.
+ * Every token carries a jti; revoked ids are looked up in the {@link TokenDenylist} on each
+ * validation, cached or not.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class JweService {
 
     private final JweProperties jweProperties;
+    private final Map<TokenMode, TokenCodec> codecs = new EnumMap<>(TokenMode.class);
+    private final TokenCodec issuingCodec;
+    private final ValidatedTokenCache tokenCache;
+    private final TokenDenylist tokenDenylist;
+
+    // Batch minting; workers start on demand and idle ones are retired by the pool
+    private final ForkJoinPool mintPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public JweService(JweProperties jweProperties, TokenDenylist tokenDenylist) {
+        this.jweProperties = jweProperties;
+        this.tokenDenylist = tokenDenylist;
+        if (!jweProperties.getKeyRing().containsKey(jweProperties.getActiveKeyId())) {
+            throw new IllegalStateException("JWE active key id '" + jweProperties.getActiveKeyId() + "' is not configured.");
+        }
+
+        Set<TokenMode> accepted = jweProperties.getAcceptedModes();
+        for (TokenMode mode : accepted) {
+            codecs.put(mode, switch (mode) {
+                case JWE -> new JweTokenCodec(jweProperties);
+                case HS256 -> new HmacTokenCodec(jweProperties);
+                case EDDSA -> new EdDsaTokenCodec(jweProperties);
+            });
+        }
+        this.issuingCodec = codecs.get(jweProperties.getMode());
+        this.tokenCache = new ValidatedTokenCache(jweProperties.getTokenCacheSize());
+        log.info("Token mode {} (accepting {}), key ring: {} (active: {})", jweProperties.getMode(), accepted,
+                jweProperties.getKeyRing().keySet(), jweProperties.getActiveKeyId());
+    }
 
     /**
-     * Generates a JWE token with the given subject
+     * Generates a token in the configured mode with the given subject
      *
      * @param subject The subject (typically username or client identifier)
-     * @return JWE token string
-     * @throws JOSEException if encryption fails
+     * @return token string
+     * @throws JOSEException if encryption or signing fails
      */
     public String generateToken(String subject) throws JOSEException {
         Date now = new Date();
@@ -39,46 +81,102 @@ public class JweService {
 
         // Create JWT claims
         JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .jwtID(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuer(jweProperties.getIssuer())
                 .issueTime(now)
                 .expirationTime(expirationDate)
                 .build();
 
-        // Create JWE header with direct encryption algorithm and AES-256-GCM
-        JWEHeader header = new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM);
+        return issuingCodec.issue(claimsSet);
+    }
 
-        // Create JWE object
-        JWEObject jweObject = new JWEObject(header, new Payload(claimsSet.toJSONObject()));
+    /**
+     * Generates one token per subject, split across cores. All tokens are issued with the same
+     * pre-built encrypter or signer.
+     *
+     * @return tokens in the order of the subjects
+     * @throws JOSEException if encryption or signing fails for any subject
+     */
+    public List<String> generateTokens(List<String> subjects) throws JOSEException {
+        String[] tokens = new String[subjects.size()];
+        try {
+            mintPool.invoke(new MintTask(subjects, tokens, 0, tokens.length));
+        } catch (RuntimeException e) {
+            // The pool may rethrow a copy of the worker's exception, look for the original cause
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof JOSEException joseException) {
+                    throw joseException;
+                }
+            }
+            throw e;
+        }
+        return Arrays.asList(tokens);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mintPool.shutdown();
+    }
 
-        // Encrypt with direct encryption
-        byte[] secretKeyBytes = jweProperties.getSecretKey().getBytes(StandardCharsets.UTF_8);
-        DirectEncrypter encrypter = new DirectEncrypter(secretKeyBytes);
-        jweObject.encrypt(encrypter);
+    private final class MintTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 16;
 
-        return jweObject.serialize();
+        private final transient List<String> subjects;
+        private final String[] tokens;
+        private final int from;
+        private final int to;
+
+        private MintTask(List<String> subjects, String[] tokens, int from, int to) {
+            this.subjects = subjects;
+            this.tokens = tokens;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        tokens[i] = generateToken(subjects.get(i));
+                    } catch (JOSEException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MintTask(subjects, tokens, from, middle), new MintTask(subjects, tokens, middle, to));
+        }
     }
 
     /**
-     * Validates and decrypts a JWE token
+     * Validates a token in any accepted mode, decrypting or verifying it
      *
-     * @param token JWE token string
+     * @param token token string
      * @return JWTClaimsSet if valid
      * @throws ParseException 
      * @throws JOSEException 
      * @throws Exception if validation fails
      */
     public JWTClaimsSet validateToken(String token) throws SecurityException, ParseException, JOSEException {
-        // Parse the JWE string
-        JWEObject jweObject = JWEObject.parse(token);
-
-        // Decrypt with direct decryption
-        byte[] secretKeyBytes = jweProperties.getSecretKey().getBytes(StandardCharsets.UTF_8);
-        DirectDecrypter decrypter = new DirectDecrypter(secretKeyBytes);
-        jweObject.decrypt(decrypter);
+        // Tokens validated before are served from the cache until they expire
+        JWTClaimsSet cached = tokenCache.get(token, System.currentTimeMillis());
+        if (cached != null) {
+            ensureNotRevoked(cached);
+            return cached;
+        }
+        long start = System.nanoTime();
 
-        // Extract claims
-        JWTClaimsSet claimsSet = JWTClaimsSet.parse(jweObject.getPayload().toJSONObject());
+        // Parse the token and pick the codec from its header
+        JOSEObject parsed = JOSEObject.parse(token);
+        TokenCodec codec = codecs.get(TokenMode.of(parsed));
+        if (codec == null) {
+            throw new SecurityException("Token format not accepted");
+        }
+        JWTClaimsSet claimsSet = codec.read(parsed);
 
         // Validate expiration
         Date expirationTime = claimsSet.getExpirationTime();
@@ -92,13 +190,42 @@ public class JweService {
             throw new SecurityException("Invalid token issuer");
         }
 
+        ensureNotRevoked(claimsSet);
+        tokenCache.put(token, claimsSet, System.nanoTime() - start);
         return claimsSet;
     }
 
+    /**
+     * Claims of a token that was validated before and has not expired, without any crypto work
+     *
+     * @return the cached claims or null
+     */
+    public JWTClaimsSet getCachedClaims(String token) {
+        JWTClaimsSet cached = tokenCache.get(token, System.currentTimeMillis());
+        return cached == null || isRevoked(cached) ? null : cached;
+    }
+
+    public boolean isRevoked(JWTClaimsSet claimsSet) {
+        return tokenDenylist.isRevoked(claimsSet.getJWTID(), claimsSet.getExpirationTime());
+    }
+
+    private void ensureNotRevoked(JWTClaimsSet claimsSet) {
+        if (isRevoked(claimsSet)) {
+            throw new SecurityException("Token has been revoked");
+        }
+    }
+
+    /**
+     * Hit rate of the validated-token cache and the validation time it saved
+     */
+    public Map<String, Object> getTokenCacheStats() {
+        return tokenCache.getStats();
+    }
+
     /**
      * Extracts subject from token without full validation (use with caution)
      *
-     * @param token JWE token string
+     * @param token token string
      * @return subject string or null if invalid
      */
     public String getSubjectFromToken(String token) {
@@ -0,0 +1,71 @@
+package co.com.validate.license.security;
+
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObject;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+/**
+ * dir + A256GCM tokens. Tokens issued without a kid are decrypted with the default key.
+ */
+class JweTokenCodec implements TokenCodec {
+
+    private record KeyEntry(JWEHeader header, DirectEncrypter encrypter, DirectDecrypter decrypter) {
+    }
+
+    private final Map<String, KeyEntry> keyRing = new LinkedHashMap<>();
+    private final KeyEntry activeKey;
+    private final KeyEntry defaultKey;
+
+    JweTokenCodec(JweProperties properties) {
+        properties.getKeyRing().forEach((kid, secret) -> keyRing.put(kid, buildKey(kid, JweProperties.keyBytes(kid, secret))));
+        this.activeKey = keyRing.get(properties.getActiveKeyId());
+        this.defaultKey = keyRing.get(properties.getKeyId());
+    }
+
+    private static KeyEntry buildKey(String kid, byte[] secretKeyBytes) {
+        try {
+            // Create JWE header with direct encryption algorithm and AES-256-GCM
+            JWEHeader header = new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A256GCM)
+                    .keyID(kid)
+                    .build();
+            return new KeyEntry(header, new DirectEncrypter(secretKeyBytes), new DirectDecrypter(secretKeyBytes));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Invalid JWE key '" + kid + "': " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public TokenMode getMode() {
+        return TokenMode.JWE;
+    }
+
+    @Override
+    public String issue(JWTClaimsSet claims) throws JOSEException {
+        JWEObject jweObject = new JWEObject(activeKey.header(), new Payload(claims.toJSONObject()));
+        jweObject.encrypt(activeKey.encrypter());
+        return jweObject.serialize();
+    }
+
+    @Override
+    public JWTClaimsSet read(JOSEObject token) throws ParseException, JOSEException {
+        JWEObject jweObject = (JWEObject) token;
+        String kid = jweObject.getHeader().getKeyID();
+        KeyEntry key = kid == null ? defaultKey : keyRing.get(kid);
+        if (key == null) {
+            throw new SecurityException("Unknown token key id");
+        }
+        jweObject.decrypt(key.decrypter());
+        return JWTClaimsSet.parse(jweObject.getPayload().toJSONObject());
+    }
+}
@@ -0,0 +1,110 @@
+package co.com.validate.license.security;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import co.com.validate.license.model.ActivationSignature.ProofStep;
+
+/**
+ * SHA-256 Merkle tree over a batch of activation responses.
+ *
+ * Leaves and inner nodes use distinct prefixes (0x00 / 0x01) so a leaf can never be passed off as
+ * a node. A node without a sibling is promoted unchanged to the next level instead of being
+ * duplicated, which keeps proofs unambiguous.
+ */
+public final class MerkleTree {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final byte NODE_PREFIX = 0x01;
+
+    private final byte[] root;
+    private final List<List<ProofStep>> proofs;
+
+    private MerkleTree(byte[] root, List<List<ProofStep>> proofs) {
+        this.root = root;
+        this.proofs = proofs;
+    }
+
+    public static byte[] leafHash(byte[] payload) {
+        MessageDigest digest = sha256();
+        digest.update(LEAF_PREFIX);
+        return digest.digest(payload);
+    }
+
+    public static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest digest = sha256();
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        return digest.digest(right);
+    }
+
+    /**
+     * Builds the tree for the given leaf hashes and records the proof of every leaf
+     */
+    public static MerkleTree build(List<byte[]> leafHashes) {
+        if (leafHashes.isEmpty()) {
+            throw new IllegalArgumentException("Merkle tree needs at least one leaf");
+        }
+
+        int size = leafHashes.size();
+        List<List<ProofStep>> proofs = new ArrayList<>(size);
+        int[] position = new int[size];
+        for (int i = 0; i < size; i++) {
+            proofs.add(new ArrayList<>());
+            position[i] = i;
+        }
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        List<byte[]> level = leafHashes;
+        while (level.size() > 1) {
+            for (int leaf = 0; leaf < size; leaf++) {
+                int index = position[leaf];
+                int sibling = index ^ 1;
+                if (sibling < level.size()) {
+                    String side = (index & 1) == 0 ? "R" : "L";
+                    proofs.get(leaf).add(new ProofStep(side, encoder.encodeToString(level.get(sibling))));
+                }
+                position[leaf] = index >> 1;
+            }
+
+            List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                next.add(i + 1 < level.size() ? nodeHash(level.get(i), level.get(i + 1)) : level.get(i));
+            }
+            level = next;
+        }
+        return new MerkleTree(level.get(0), proofs);
+    }
+
+    /**
+     * Folds a proof from a leaf hash up to the root it commits to
+     */
+    public static byte[] rootFromProof(byte[] leafHash, List<ProofStep> proof) {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        byte[] current = leafHash;
+        for (ProofStep step : proof) {
+            byte[] sibling = decoder.decode(step.getHash());
+            current = "L".equals(step.getSide()) ? nodeHash(sibling, current) : nodeHash(current, sibling);
+        }
+        return current;
+    }
+
+    public byte[] getRoot() {
+        return root.clone();
+    }
+
+    public List<ProofStep> getProof(int leafIndex) {
+        return proofs.get(leafIndex);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package co.com.validate.license.security;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -51,12 +53,19 @@ public class SecurityConfig {
 
             // Set permissions on endpoints
             .authorizeHttpRequests(auth -> auth
+                // Streaming responses (StreamingResponseBody) finish on an async dispatch of a
+                // request that was already authorized; the JWE filter does not run again there
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Allow H2 console access (disable in production)
                 .requestMatchers(new AntPathRequestMatcher("/h2-console/**")).permitAll()
+                // Batch minting costs a key operation per subject: only for authenticated callers
+                .requestMatchers(new AntPathRequestMatcher("/api/auth/token/batch")).authenticated()
                 // Allow token generation endpoint (for testing/development)
                 .requestMatchers(new AntPathRequestMatcher("/api/auth/**")).permitAll()
                 // Require authentication for all /api/license endpoints
                 .requestMatchers(new AntPathRequestMatcher("/api/license/**")).authenticated()
+                // Admin endpoints (email outbox, ...) also require a token
+                .requestMatchers(new AntPathRequestMatcher("/api/admin/**")).authenticated()
                 // Allow all other requests (if any)
                 .anyRequest().permitAll()
             );
@@ -0,0 +1,26 @@
+package co.com.validate.license.security;
+
+import java.text.ParseException;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObject;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+/**
+ * Issues and reads tokens of one {@link TokenMode}. Implementations build their keys once and are
+ * shared by all requests. Expiration and issuer are checked by {@link JweService}.
+ */
+interface TokenCodec {
+
+    TokenMode getMode();
+
+    String issue(JWTClaimsSet claims) throws JOSEException;
+
+    /**
+     * Decrypts or verifies a parsed token of this codec's mode
+     *
+     * @return the claims it carries
+     * @throws SecurityException if the key id is unknown or the signature does not verify
+     */
+    JWTClaimsSet read(JOSEObject token) throws ParseException, JOSEException;
+}
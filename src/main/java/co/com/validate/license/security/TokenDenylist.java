@@ -0,0 +1,146 @@
+package co.com.validate.license.security;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory set of revoked token ids (jti), checked on every authenticated request.
+ *
+ * Revoked ids are grouped in buckets by the expiry time of their token, so the bucket of a token
+ * is known from its exp claim and the exact check is a single hash lookup. Once a bucket's time has
+ * passed, every token in it has expired anyway and the whole bucket is dropped without scanning.
+ * A Bloom filter in front answers "not revoked" for almost every token without touching the
+ * buckets; it cannot forget ids, so it is rebuilt from the remaining buckets after a drop.
+ *
+ * Lookups are lock-free; revocations and cleanup (both rare) are serialized.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final int HASHES = 7;
+
+    private final long bucketMillis;
+    private final int expectedEntries;
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile BloomFilter bloom;
+
+    public TokenDenylist(JweProperties properties) {
+        this.bucketMillis = Math.max(1, properties.getRevocationBucketSeconds()) * 1000L;
+        this.expectedEntries = Math.max(1_000, properties.getRevocationExpectedEntries());
+        this.bloom = new BloomFilter(expectedEntries);
+    }
+
+    /**
+     * @param expiresAt expiration of the revoked token, the id is forgotten after it
+     */
+    public synchronized void add(String jti, Date expiresAt) {
+        if (buckets.computeIfAbsent(bucketOf(expiresAt), b -> ConcurrentHashMap.newKeySet()).add(jti)) {
+            size.incrementAndGet();
+            bloom.put(jti);
+        }
+    }
+
+    public boolean isRevoked(String jti, Date expiresAt) {
+        if (jti == null || size.get() == 0 || !bloom.mightContain(jti)) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(expiresAt));
+        return bucket != null && bucket.contains(jti);
+    }
+
+    /**
+     * Drops the buckets whose tokens have all expired and rebuilds the Bloom filter
+     *
+     * @return number of ids removed
+     */
+    public synchronized int dropExpired(long nowMillis) {
+        int removed = 0;
+        Iterator<Map.Entry<Long, Set<String>>> expired = buckets.headMap(nowMillis / bucketMillis).entrySet().iterator();
+        while (expired.hasNext()) {
+            removed += expired.next().getValue().size();
+            expired.remove();
+        }
+        if (removed > 0) {
+            size.addAndGet(-removed);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, size.get() * 2));
+            buckets.values().forEach(bucket -> bucket.forEach(rebuilt::put));
+            bloom = rebuilt;
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Tokens without exp share one bucket that is never dropped
+     */
+    private long bucketOf(Date expiresAt) {
+        return expiresAt == null ? Long.MAX_VALUE : Math.floorDiv(expiresAt.getTime(), bucketMillis);
+    }
+
+    /**
+     * Bloom filter sized for a 1% false-positive rate, double hashing over a 64-bit FNV-1a hash
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        private BloomFilter(int expectedEntries) {
+            long words = Math.max(1, (long) Math.ceil(expectedEntries * 9.6 / 64));
+            this.bits = new AtomicLongArray((int) words);
+            this.bitCount = words * 64;
+        }
+
+        private void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package co.com.validate.license.security;
+
+import com.nimbusds.jose.JOSEObject;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSObject;
+
+/**
+ * Formats of the API bearer token
+ */
+public enum TokenMode {
+    /** Encrypted token, dir + A256GCM with the shared key ring */
+    JWE,
+    /** Signed token, HMAC-SHA256 with the shared key ring */
+    HS256,
+    /** Signed token, Ed25519 */
+    EDDSA;
+
+    /**
+     * @return the mode of a parsed token, or null for unsupported algorithms and unsecured tokens
+     */
+    public static TokenMode of(JOSEObject token) {
+        if (token instanceof JWEObject) {
+            return JWE;
+        }
+        if (token instanceof JWSObject jws) {
+            JWSAlgorithm algorithm = jws.getHeader().getAlgorithm();
+            if (JWSAlgorithm.HS256.equals(algorithm)) {
+                return HS256;
+            }
+            if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+                return EDDSA;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package co.com.validate.license.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+/**
+ * Bounded cache of tokens that already passed {@link JweService#validateToken}, so a client reusing
+ * its bearer token skips parsing and AES-GCM decryption until the token expires.
+ *
+ * Direct-mapped and lock-free: the token's hash picks one slot, a newer token with the same slot
+ * replaces the older one. A hit requires the full token string to match, so a hash collision is
+ * only a miss. Entries stop matching at the token's expiration time. The cache belongs to one key
+ * ring, so loading new keys starts with an empty cache.
+ */
+public class ValidatedTokenCache {
+
+    private record Entry(String token, JWTClaimsSet claims, long expiresAtMillis) {
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong validations = new AtomicLong();
+    private final AtomicLong validationNanos = new AtomicLong();
+
+    /**
+     * @param maxEntries upper bound of cached tokens, rounded up to a power of two (0 disables the cache)
+     */
+    public ValidatedTokenCache(int maxEntries) {
+        int size = maxEntries <= 0 ? 0 : Integer.highestOneBit(Math.min(maxEntries, 1 << 20) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public boolean isEnabled() {
+        return slots.length() > 0;
+    }
+
+    /**
+     * @return the cached claims, or null when the token has not been validated or has expired
+     */
+    public JWTClaimsSet get(String token, long nowMillis) {
+        if (!isEnabled()) {
+            return null;
+        }
+        int index = index(token);
+        Entry entry = slots.get(index);
+        if (entry == null || !entry.token().equals(token)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (nowMillis >= entry.expiresAtMillis()) {
+            slots.compareAndSet(index, entry, null);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.claims();
+    }
+
+    /**
+     * Caches a validated token until its expiration time
+     *
+     * @param elapsedNanos time the full validation took, used to estimate the time saved by hits
+     */
+    public void put(String token, JWTClaimsSet claims, long elapsedNanos) {
+        validations.incrementAndGet();
+        validationNanos.addAndGet(elapsedNanos);
+        if (!isEnabled() || claims.getExpirationTime() == null) {
+            return;
+        }
+        slots.set(index(token), new Entry(token, claims, claims.getExpirationTime().getTime()));
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private int index(String token) {
+        int h = token.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    public Map<String, Object> getStats() {
+        long hit = hits.get();
+        long miss = misses.get();
+        long total = hit + miss;
+        long validated = validations.get();
+        long averageValidationNanos = validated == 0 ? 0 : validationNanos.get() / validated;
+        int cached = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                cached++;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("capacity", slots.length());
+        stats.put("cachedTokens", cached);
+        stats.put("hits", hit);
+        stats.put("misses", miss);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hit / total);
+        stats.put("averageValidationMicros", averageValidationNanos / 1_000.0);
+        stats.put("estimatedCpuSavedMillis", hit * averageValidationNanos / 1_000_000);
+        return stats;
+    }
+}
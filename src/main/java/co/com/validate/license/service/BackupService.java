@@ -14,6 +14,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import co.com.validate.license.config.BackupProperties;
+import co.com.validate.license.repository.LicenseShards;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.core.sync.RequestBody;
@@ -35,6 +36,9 @@ public class BackupService {
     @Autowired(required = false)
     private S3Client s3Client;
 
+    @Autowired(required = false)
+    private LicenseShards licenseShards;
+
     @Scheduled(cron = "${backup.cron:0 0 2 * * ?}")
     public void performBackup() {
         if (!backupProperties.isEnabled()) {
@@ -43,7 +47,19 @@ public class BackupService {
         }
 
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String fileName = "licenses-" + timestamp + ".zip";
+        backup(jdbcTemplate, "licenses-", timestamp);
+
+        // Modo sharded: un backup por shard, en paralelo
+        if (licenseShards != null) {
+            licenseShards.fanOut(shard -> {
+                backup(new JdbcTemplate(licenseShards.dataSource(shard)), "license-shard-" + shard + "-", timestamp);
+                return null;
+            });
+        }
+    }
+
+    private void backup(JdbcTemplate database, String prefix, String timestamp) {
+        String fileName = prefix + timestamp + ".zip";
         Path backupDir = Path.of(backupProperties.getLocalDir());
         Path backupFile = backupDir.resolve(fileName);
 
@@ -52,7 +68,7 @@ public class BackupService {
 
             // Snapshot consistente de H2 mientras la base de datos está en ejecución
             String backupPath = backupFile.toAbsolutePath().toString().replace('\\', '/');
-            jdbcTemplate.execute("BACKUP TO '" + backupPath + "'");
+            database.execute("BACKUP TO '" + backupPath + "'");
             log.info("Backup H2 creado: {}", backupFile);
 
             // Subir a Cloudflare R2 (best-effort)
@@ -68,7 +84,7 @@ public class BackupService {
 
             // Limpiar backups antiguos en R2 (best-effort)
             try {
-                cleanOldBackups();
+                cleanOldBackups(prefix);
             } catch (Exception e) {
                 log.error("Error al limpiar backups antiguos en R2: {}", e.getMessage(), e);
             }
@@ -95,12 +111,12 @@ public class BackupService {
         log.info("Backup subido a Cloudflare R2: {}", fileName);
     }
 
-    private void cleanOldBackups() {
+    private void cleanOldBackups(String prefix) {
         if (s3Client == null) return;
 
         ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
                 .bucket(backupProperties.getR2().getBucketName())
-                .prefix("licenses-")
+                .prefix(prefix)
                 .build();
 
         ListObjectsV2Response response = s3Client.listObjectsV2(listRequest);
@@ -0,0 +1,256 @@
+package co.com.validate.license.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.com.validate.license.cluster.config.ClusterProperties;
+import co.com.validate.license.config.EmailOutboxProperties;
+import co.com.validate.license.model.EmailOutbox;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transactional outbox for notification emails.
+ *
+ * Callers enqueue rows inside their own transaction, so an email exists if and only if the change
+ * that triggered it was committed. A poller claims due rows (creation emails before expiry
+ * warnings) and hands them to a bounded worker pool; failed deliveries are retried with
+ * exponential backoff and end up DEAD after email.outbox.max-attempts, where an admin can replay them.
+ */
+@Slf4j
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final EmailOutboxProperties properties;
+    private final String instanceId;
+    private final ThreadPoolExecutor workers;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository, EmailService emailService,
+                              EmailOutboxProperties properties, ClusterProperties clusterProperties) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.properties = properties;
+        this.instanceId = clusterProperties.getInstanceId();
+        int threads = Math.max(1, properties.getWorkerThreads());
+        // Unbounded type, but dispatch() never claims more than queueCapacity rows ahead of the workers
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "email-outbox-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Returns to PENDING the rows claimed by a previous run of this instance that never finished,
+     * and those whose claim is older than email.outbox.claim-timeout-ms. Rows another live
+     * instance is sending are left alone. Also runs periodically, for instances that never come
+     * back (a blank instance id is random per start in cluster mode).
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${email.outbox.claim-timeout-ms:600000}",
+            fixedDelayString = "${email.outbox.claim-timeout-ms:600000}")
+    public void recoverInFlight() {
+        int recovered = emailOutboxRepository.recover(instanceId,
+                Instant.now().minusMillis(properties.getClaimTimeoutMs()));
+        if (recovered > 0) {
+            log.info("Email outbox: {} in-flight emails returned to PENDING", recovered);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues the creation email of a license in the caller's transaction
+     */
+    @Transactional
+    public void enqueueLicenseCreation(List<License> licenses) {
+        enqueue(licenses.stream()
+                .map(license -> EmailOutbox.of(EmailOutbox.Type.LICENSE_CREATION, license))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * @return false when the same warning was already queued for this recipient
+     */
+    @Transactional
+    public boolean enqueueExpirationWarning(License license) {
+        return enqueue(List.of(EmailOutbox.of(EmailOutbox.Type.EXPIRATION_WARNING, license))) == 1;
+    }
+
+    private int enqueue(List<EmailOutbox> emails) {
+        if (emails.isEmpty()) {
+            return 0;
+        }
+        Set<String> existing = new HashSet<>(emailOutboxRepository.findExistingDedupKeys(
+                emails.stream().map(EmailOutbox::getDedupKey).collect(Collectors.toList())));
+        List<EmailOutbox> fresh = new ArrayList<>(emails.size());
+        for (EmailOutbox email : emails) {
+            // add() also drops repeats within the same call
+            if (existing.add(email.getDedupKey())) {
+                fresh.add(email);
+            } else {
+                log.debug("Email outbox: {} already queued", email.getDedupKey());
+            }
+        }
+        emailOutboxRepository.saveAll(fresh);
+        return fresh.size();
+    }
+
+    /**
+     * Claims due rows up to the free worker capacity and submits them
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        int free = properties.getQueueCapacity() - workers.getQueue().size();
+        if (free <= 0) {
+            return;
+        }
+        List<EmailOutbox> due = emailOutboxRepository.findDue(EmailOutbox.Status.PENDING, Instant.now(),
+                PageRequest.of(0, free));
+        for (EmailOutbox email : due) {
+            Instant now = Instant.now();
+            if (emailOutboxRepository.claim(email.getId(), instanceId, now) == 1) {
+                email.setStatus(EmailOutbox.Status.SENDING);
+                email.setClaimedBy(instanceId);
+                email.setClaimedAt(now);
+                workers.execute(new Delivery(email));
+            }
+        }
+    }
+
+    void deliver(EmailOutbox email) {
+        try {
+            switch (email.getType()) {
+                case LICENSE_CREATION -> emailService.deliverLicenseCreationEmail(
+                        email.getRecipient(), email.getLicenseKey(), email.getExpirationDate());
+                case EXPIRATION_WARNING -> emailService.deliverLicenseExpirationWarning(
+                        email.getRecipient(), email.getLicenseKey(), email.getExpirationDate());
+            }
+            email.setStatus(EmailOutbox.Status.SENT);
+            email.setSentAt(Instant.now());
+            email.setLastError(null);
+        } catch (Exception e) {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(truncate(e.getMessage()));
+            if (email.getAttempts() >= properties.getMaxAttempts()) {
+                email.setStatus(EmailOutbox.Status.DEAD);
+                log.error("Email outbox: {} to {} is DEAD after {} attempts: {}",
+                        email.getType(), email.getRecipient(), email.getAttempts(), e.getMessage());
+            } else {
+                email.setStatus(EmailOutbox.Status.PENDING);
+                email.setNextAttemptAt(Instant.now().plusMillis(backoffMillis(email.getAttempts())));
+                log.warn("Email outbox: {} to {} failed (attempt {}), retry at {}",
+                        email.getType(), email.getRecipient(), email.getAttempts(), email.getNextAttemptAt());
+            }
+        }
+        emailOutboxRepository.save(email);
+    }
+
+    long backoffMillis(int attempts) {
+        long base = properties.getInitialBackoffMs() << Math.min(attempts - 1, 20);
+        long capped = Math.min(properties.getMaxBackoffMs(), base);
+        // Up to 20% jitter so a provider outage does not end in a synchronized retry burst
+        return capped + ThreadLocalRandom.current().nextLong(capped / 5 + 1);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    public List<EmailOutbox> list(EmailOutbox.Status status, int limit) {
+        return emailOutboxRepository.findByStatusOrderByIdDesc(status, PageRequest.of(0, Math.max(1, Math.min(limit, 500))));
+    }
+
+    public Map<EmailOutbox.Status, Long> stats() {
+        Map<EmailOutbox.Status, Long> stats = new EnumMap<>(EmailOutbox.Status.class);
+        for (EmailOutbox.Status status : EmailOutbox.Status.values()) {
+            stats.put(status, emailOutboxRepository.countByStatus(status));
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Puts a DEAD email back in the queue with a fresh attempt budget
+     *
+     * @return the replayed row, empty if it does not exist or is not DEAD
+     */
+    @Transactional
+    public Optional<EmailOutbox> replay(Long id) {
+        return emailOutboxRepository.findById(id)
+                .filter(email -> email.getStatus() == EmailOutbox.Status.DEAD)
+                .map(email -> {
+                    email.setStatus(EmailOutbox.Status.PENDING);
+                    email.setAttempts(0);
+                    email.setNextAttemptAt(Instant.now());
+                    return emailOutboxRepository.save(email);
+                });
+    }
+
+    @Transactional
+    public int replayAllDead() {
+        List<EmailOutbox> dead = emailOutboxRepository.findByStatusOrderByIdDesc(EmailOutbox.Status.DEAD, PageRequest.of(0, 10_000));
+        Instant now = Instant.now();
+        for (EmailOutbox email : dead) {
+            email.setStatus(EmailOutbox.Status.PENDING);
+            email.setAttempts(0);
+            email.setNextAttemptAt(now);
+        }
+        emailOutboxRepository.saveAll(dead);
+        return dead.size();
+    }
+
+    /**
+     * Worker task ordered like the claim query, so creation emails overtake queued warnings
+     */
+    private final class Delivery implements Runnable, Comparable<Delivery> {
+        private final EmailOutbox email;
+
+        private Delivery(EmailOutbox email) {
+            this.email = email;
+        }
+
+        @Override
+        public void run() {
+            deliver(email);
+        }
+
+        @Override
+        public int compareTo(Delivery other) {
+            int byPriority = Integer.compare(email.getPriority(), other.email.getPriority());
+            return byPriority != 0 ? byPriority : Long.compare(email.getId(), other.email.getId());
+        }
+    }
+}
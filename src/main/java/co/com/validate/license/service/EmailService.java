@@ -38,23 +38,31 @@ public class EmailService {
      * @param expirationDate The license expiration date
      */
     public void sendLicenseCreationEmail(String email, String licenseKey, LocalDate expirationDate) {
-        if (!emailEnabled) {
-            log.info("Email notifications are disabled. Skipping email to: {}", email);
-            return;
-        }
-
         try {
-            String htmlContent = buildEmailContent(email, licenseKey, expirationDate);
-            Map<String, Object> payload = buildPayload(email, "License Created Successfully - " + licenseKey, htmlContent);
-
-            mailerSendRestClient.post().body(payload).retrieve().toBodilessEntity();
-            log.info("License creation email (HTML) sent successfully to: {}", email);
+            deliverLicenseCreationEmail(email, licenseKey, expirationDate);
         } catch (Exception e) {
             log.error("Failed to send license creation email to: {}. Error: {}", email, e.getMessage(), e);
             // Don't throw exception - email failure should not block license creation
         }
     }
 
+    /**
+     * Same as {@link #sendLicenseCreationEmail} but reports failures, so the outbox can retry
+     *
+     * @throws EmailException if the email could not be sent
+     */
+    public void deliverLicenseCreationEmail(String email, String licenseKey, LocalDate expirationDate) {
+        if (!emailEnabled) {
+            log.info("Email notifications are disabled. Skipping email to: {}", email);
+            return;
+        }
+
+        String htmlContent = buildEmailContent(email, licenseKey, expirationDate);
+        Map<String, Object> payload = buildPayload(email, "License Created Successfully - " + licenseKey, htmlContent);
+        post(payload);
+        log.info("License creation email (HTML) sent successfully to: {}", email);
+    }
+
     /**
      * Sends a license expiration warning email (1 day before expiration) using HTML template
      *
@@ -63,19 +71,35 @@ public class EmailService {
      * @param expirationDate The license expiration date
      */
     public void sendLicenseExpirationWarning(String email, String licenseKey, LocalDate expirationDate) {
+        try {
+            deliverLicenseExpirationWarning(email, licenseKey, expirationDate);
+        } catch (Exception e) {
+            log.error("Failed to send expiration warning to: {}. Error: {}", email, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Same as {@link #sendLicenseExpirationWarning} but reports failures, so the outbox can retry
+     *
+     * @throws EmailException if the email could not be sent
+     */
+    public void deliverLicenseExpirationWarning(String email, String licenseKey, LocalDate expirationDate) {
         if (!emailEnabled) {
             log.info("Email notifications are disabled. Skipping expiration warning to: {}", email);
             return;
         }
 
-        try {
-            String htmlContent = buildExpirationWarningContent(email, licenseKey, expirationDate);
-            Map<String, Object> payload = buildPayload(email, "License Expiration Warning - " + licenseKey, htmlContent);
+        String htmlContent = buildExpirationWarningContent(email, licenseKey, expirationDate);
+        Map<String, Object> payload = buildPayload(email, "License Expiration Warning - " + licenseKey, htmlContent);
+        post(payload);
+        log.info("License expiration warning (HTML) sent successfully to: {}", email);
+    }
 
+    private void post(Map<String, Object> payload) {
+        try {
             mailerSendRestClient.post().body(payload).retrieve().toBodilessEntity();
-            log.info("License expiration warning (HTML) sent successfully to: {}", email);
-        } catch (Exception e) {
-            log.error("Failed to send expiration warning to: {}. Error: {}", email, e.getMessage(), e);
+        } catch (RuntimeException e) {
+            throw new EmailException("Error enviando email: " + e.getMessage(), e);
         }
     }
 
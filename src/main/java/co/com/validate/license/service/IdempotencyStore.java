@@ -0,0 +1,301 @@
+package co.com.validate.license.service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.com.validate.license.config.IdempotencyProperties;
+import co.com.validate.license.model.IdempotencyRecord;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotency-Key support: the first response for a key is stored (bounded in-memory LRU in front
+ * of the idempotency_record table) and replayed for later requests with the same key until it
+ * expires. Server errors (5xx) are not stored, so they can be retried.
+ *
+ * Before the action runs, a PENDING placeholder row claims the key; the primary key makes that
+ * claim exclusive across instances and restarts. Concurrent requests on this instance wait for
+ * the first one in memory; requests that find another instance's placeholder poll the table
+ * until it is completed. A placeholder left by an instance that died mid-request blocks the key
+ * for pending-timeout-ms, then the next request takes it over.
+ */
+@Slf4j
+@Service
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, IdempotencyRecord> recent;
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository, IdempotencyProperties properties,
+                            ObjectMapper objectMapper) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        int maxEntries = Math.max(1, properties.getMaxEntries());
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Runs the action once per key and replays its response for repeated keys
+     *
+     * @param request request body, its hash must match for a replay
+     */
+    public ResponseEntity<Object> execute(String key, Object request, Supplier<ResponseEntity<Object>> action) {
+        String requestHash = hash(request);
+        long deadline = System.currentTimeMillis() + properties.getWaitTimeoutMs();
+        while (true) {
+            IdempotencyRecord stored = lookup(key, true);
+            if (stored != null && !stored.isPending()) {
+                return replay(stored, requestHash);
+            }
+            if (stored != null && !stored.getRequestHash().equals(requestHash)) {
+                conflicts.incrementAndGet();
+                return ResponseEntity.status(422).body("Idempotency-Key ya usada con otra solicitud");
+            }
+
+            CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+            CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                joined.incrementAndGet();
+                try {
+                    IdempotencyRecord result = running.get(properties.getWaitTimeoutMs(), TimeUnit.MILLISECONDS);
+                    if (result != null) {
+                        return replay(result, requestHash);
+                    }
+                    // The first request was not stored (error) or is running elsewhere: look again
+                    continue;
+                } catch (TimeoutException e) {
+                    return inProgress();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return inProgress();
+                } catch (ExecutionException e) {
+                    continue;
+                }
+            }
+
+            boolean claimed = false;
+            try {
+                // A live placeholder here belongs to a request running on another instance
+                claimed = stored == null && claim(key, requestHash);
+                if (claimed) {
+                    misses.incrementAndGet();
+                    ResponseEntity<Object> response = action.get();
+                    mine.complete(complete(key, requestHash, response));
+                    return response;
+                }
+            } catch (RuntimeException e) {
+                if (claimed) {
+                    idempotencyRecordRepository.deletePending(key);
+                }
+                mine.complete(null);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+
+            // Held by another instance, or stored between the lookup and the claim
+            mine.complete(null);
+            joined.incrementAndGet();
+            if (System.currentTimeMillis() >= deadline || !pause()) {
+                return inProgress();
+            }
+        }
+    }
+
+    private static ResponseEntity<Object> inProgress() {
+        return ResponseEntity.status(409).body("Solicitud con la misma Idempotency-Key en curso");
+    }
+
+    /**
+     * Inserts the placeholder; an expired record or placeholder under the key is replaced
+     */
+    private boolean claim(String key, String requestHash) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusMillis(properties.getPendingTimeoutMs());
+        try {
+            idempotencyRecordRepository.insertPending(key, requestHash, now, expiresAt);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyRecordRepository.deleteExpired(key, now) == 0) {
+                return false;
+            }
+            log.warn("Idempotency-Key {}: expired placeholder taken over", key);
+        }
+        try {
+            idempotencyRecordRepository.insertPending(key, requestHash, now, expiresAt);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private static boolean pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * A stored response, or the placeholder of a request still running (never cached)
+     */
+    private IdempotencyRecord lookup(String key, boolean count) {
+        Instant now = Instant.now();
+        IdempotencyRecord record = recent.get(key);
+        if (record != null) {
+            if (record.getExpiresAt().isAfter(now)) {
+                if (count) {
+                    memoryHits.incrementAndGet();
+                }
+                return record;
+            }
+            recent.remove(key);
+        }
+        record = idempotencyRecordRepository.findById(key).orElse(null);
+        if (record == null || !record.getExpiresAt().isAfter(now)) {
+            return null;
+        }
+        if (record.isPending()) {
+            return record;
+        }
+        if (count) {
+            storeHits.incrementAndGet();
+        }
+        recent.put(key, record);
+        return record;
+    }
+
+    /**
+     * Replaces the placeholder by the response, or drops it when the response is not stored
+     */
+    private IdempotencyRecord complete(String key, String requestHash, ResponseEntity<Object> response) {
+        int status = response.getStatusCode().value();
+        if (status >= 500) {
+            idempotencyRecordRepository.deletePending(key);
+            return null;
+        }
+        Object body = response.getBody();
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setStatus(status);
+        if (body instanceof String text) {
+            record.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            record.setResponseBody(text);
+        } else if (body != null) {
+            record.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try {
+                record.setResponseBody(objectMapper.writeValueAsString(body));
+            } catch (JsonProcessingException e) {
+                log.warn("Idempotency-Key {}: response not serializable, not stored: {}", key, e.getMessage());
+                idempotencyRecordRepository.deletePending(key);
+                return null;
+            }
+        }
+        Instant now = Instant.now();
+        record.setCreatedAt(now);
+        record.setExpiresAt(now.plus(properties.getTtl()));
+
+        if (idempotencyRecordRepository.completePending(key, requestHash, status, record.getContentType(),
+                record.getResponseBody(), record.getCreatedAt(), record.getExpiresAt()) == 0) {
+            log.warn("Idempotency-Key {}: placeholder expired before the response was stored", key);
+        }
+        recent.put(key, record);
+        return record;
+    }
+
+    private ResponseEntity<Object> replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            conflicts.incrementAndGet();
+            return ResponseEntity.status(422).body("Idempotency-Key ya usada con otra solicitud");
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(record.getStatus()).header(REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            builder.contentType(MediaType.parseMediaType(record.getContentType()));
+        }
+        return builder.body(record.getResponseBody());
+    }
+
+    private String hash(Object request) {
+        try {
+            return HexFormat.of().formatHex(License.sha256(objectMapper.writeValueAsString(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request not serializable", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${license.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        synchronized (recent) {
+            recent.values().removeIf(record -> !record.getExpiresAt().isAfter(now));
+        }
+        int purged = idempotencyRecordRepository.deleteExpired(now);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long memory = memoryHits.get();
+        long store = storeHits.get();
+        long miss = misses.get();
+        long total = memory + store + miss;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memoryHits", memory);
+        stats.put("storeHits", store);
+        stats.put("misses", miss);
+        stats.put("joinedInFlight", joined.get());
+        stats.put("conflicts", conflicts.get());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) (memory + store) / total);
+        stats.put("cachedEntries", recent.size());
+        return stats;
+    }
+}
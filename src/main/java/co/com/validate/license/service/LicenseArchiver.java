@@ -0,0 +1,153 @@
+package co.com.validate.license.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.com.validate.license.cluster.service.ClusterChangeLog;
+import co.com.validate.license.repository.LicenseKeySql;
+import co.com.validate.license.service.LicenseStats.State;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves licenses expired for more than license.archive.retention-days from license to
+ * license_archive, keeping the hot table (its unique key index, the expiry scan and the nightly
+ * backup) proportional to the licenses still in use.
+ *
+ * Each chunk (copy + delete of at most chunk-size rows) is its own short transaction followed
+ * by a pause, so validation never waits long on the rows being moved. Lookups that miss the hot
+ * table fall back to the archive (see {@link LicenseValidationService}).
+ */
+@Slf4j
+@Service
+public class LicenseArchiver {
+
+    private static final String ARCHIVE_COLUMNS =
+            "id, license_key, email, hwid, expiration_date, active, revoked, seats, key_hash";
+
+    // The archive keeps every key as text
+    private static final String HOT_COLUMNS =
+            "id, " + LicenseKeySql.KEY_EXPRESSION + ", email, hwid, expiration_date, active, revoked, seats, key_hash";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterChangeLog clusterChangeLog;
+    private final LicenseStatsService licenseStatsService;
+
+    @Value("${license.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${license.archive.retention-days:365}")
+    private int retentionDays;
+
+    @Value("${license.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${license.archive.pause-ms:200}")
+    private long pauseMillis;
+
+    public LicenseArchiver(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           ApplicationEventPublisher eventPublisher, ClusterChangeLog clusterChangeLog,
+                           LicenseStatsService licenseStatsService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.clusterChangeLog = clusterChangeLog;
+        this.licenseStatsService = licenseStatsService;
+    }
+
+    @Scheduled(cron = "${license.archive.cron:0 30 3 * * ?}")
+    public void archiveExpired() {
+        if (!enabled) {
+            log.debug("License archiver is disabled");
+            return;
+        }
+        try {
+            archiveExpiredBefore(LocalDate.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            log.error("License archiving failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archives every license whose expiration date is before the cutoff
+     *
+     * @return number of licenses moved
+     */
+    public long archiveExpiredBefore(LocalDate cutoff) {
+        long start = System.currentTimeMillis();
+        long moved = 0;
+        int chunks = 0;
+        while (true) {
+            List<String> keys = moveChunk(cutoff);
+            if (keys.isEmpty()) {
+                break;
+            }
+            eventPublisher.publishEvent(new LicenseChangedEvent(keys));
+            moved += keys.size();
+            chunks++;
+            if (keys.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} license(s) expired before {} in {} chunk(s), {} ms",
+                    moved, cutoff, chunks, System.currentTimeMillis() - start);
+        }
+        return moved;
+    }
+
+    private List<String> moveChunk(LocalDate cutoff) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("limit", chunkSize);
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>(chunkSize);
+            List<String> keys = new ArrayList<>(chunkSize);
+            List<State> states = new ArrayList<>(chunkSize);
+            // Rows leave the table as they are moved, so no cursor is needed between chunks
+            jdbcTemplate.query("SELECT id, " + LicenseKeySql.KEY_EXPRESSION
+                            + ", expiration_date, hwid IS NOT NULL, revoked, activated_at"
+                            + " FROM license WHERE expiration_date < :cutoff LIMIT :limit",
+                    params, rs -> {
+                        ids.add(rs.getLong(1));
+                        keys.add(rs.getString(2));
+                        states.add(LicenseStatsService.stateOf(rs, 3));
+                    });
+            if (ids.isEmpty()) {
+                return keys;
+            }
+            MapSqlParameterSource chunk = new MapSqlParameterSource("ids", ids).addValue("keys", keys);
+            // A key reused after its first license was archived replaces the older archived copy
+            jdbcTemplate.update("DELETE FROM license_archive WHERE license_key IN (:keys)", chunk);
+            jdbcTemplate.update("INSERT INTO license_archive (" + ARCHIVE_COLUMNS + ", archived_at) SELECT "
+                    + HOT_COLUMNS + ", CURRENT_TIMESTAMP FROM license WHERE id IN (:ids)", chunk);
+            jdbcTemplate.update("DELETE FROM license WHERE id IN (:ids)", chunk);
+            clusterChangeLog.recordLicenses(keys);
+            licenseStatsService.onRemoved(states);
+            return keys;
+        });
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package co.com.validate.license.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.com.validate.license.cluster.service.ClusterChangeLog;
+import co.com.validate.license.model.BulkMutationRequest;
+import co.com.validate.license.model.BulkMutationResult;
+import co.com.validate.license.repository.LicenseKeySql;
+import co.com.validate.license.service.LicenseStats.State;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Set-based admin mutations (extend, deactivate, reset hwid) over a list of keys and/or a filter.
+ *
+ * Each chunk locks its rows with SELECT ... FOR UPDATE and changes them with one
+ * UPDATE ... WHERE id IN (...) (extend: one batched UPDATE per row, with the new date computed
+ * from the date just read), in its own short transaction: explicit keys are chunked as given,
+ * filters are walked by id (keyset), so rows whose expiration moves during an extend are never
+ * visited twice. After each commit a {@link LicenseChangedEvent} is published with the chunk's
+ * keys so in-memory copies are refreshed, and {@link LicenseStatsService} moves the rows from
+ * their state as read to their new one; in cluster mode the keys are also written to the
+ * {@link ClusterChangeLog} inside the chunk's transaction for the other instances.
+ *
+ * Only the jpa and jdbc license stores keep licenses in the license table; with the others
+ * nothing would match, so the operations are refused (see {@link #isSupported}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LicenseBulkMutationService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String STATE_COLUMNS = "id, " + LicenseKeySql.KEY_EXPRESSION
+            + ", expiration_date, hwid IS NOT NULL, revoked, activated_at";
+
+    public enum Operation {
+        // Each row's new date is computed here and batch-updated: date arithmetic is not portable SQL
+        EXTEND(null),
+        DEACTIVATE("active = FALSE, revoked = TRUE"),
+        RESET_HWID("hwid = NULL, hwid_hash = NULL, activated_at = NULL");
+
+        private final String setClause;
+
+        Operation(String setClause) {
+            this.setClause = setClause;
+        }
+
+        /**
+         * Same change as {@link #setClause} (for EXTEND, the change itself), on the counted state
+         * of a row
+         */
+        State apply(State before, Integer days) {
+            return switch (this) {
+                case EXTEND -> new State(before.expirationDate() == null ? null : before.expirationDate().plusDays(days),
+                        before.bound(), before.revoked(), before.activatedAt());
+                case DEACTIVATE -> new State(before.expirationDate(), before.bound(), true, before.activatedAt());
+                case RESET_HWID -> new State(before.expirationDate(), false, before.revoked(), null);
+            };
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterChangeLog clusterChangeLog;
+    private final LicenseStatsService licenseStatsService;
+
+    @Value("${license.store.backend:jpa}")
+    private String storeBackend;
+
+    public boolean isSupported() {
+        return "jpa".equals(storeBackend) || "jdbc".equals(storeBackend);
+    }
+
+    public String getStoreBackend() {
+        return storeBackend;
+    }
+
+    /**
+     * @throws IllegalStateException if the configured license store is not the license table
+     */
+    public BulkMutationResult apply(Operation operation, BulkMutationRequest request) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Bulk " + operation + " is not supported with license.store.backend="
+                    + storeBackend);
+        }
+        long start = System.currentTimeMillis();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> filters = new ArrayList<>();
+        if (request.getEmail() != null && !request.getEmail().isBlank()) {
+            filters.add("email = :email");
+            params.addValue("email", request.getEmail().trim());
+        }
+        if (request.getExpiresFrom() != null) {
+            filters.add("expiration_date >= :expiresFrom");
+            params.addValue("expiresFrom", request.getExpiresFrom());
+        }
+        if (request.getExpiresTo() != null) {
+            filters.add("expiration_date <= :expiresTo");
+            params.addValue("expiresTo", request.getExpiresTo());
+        }
+        if (operation == Operation.EXTEND) {
+            params.addValue("days", request.getDays());
+        }
+
+        long affected = 0;
+        int chunks = 0;
+        if (request.getLicenseKeys() != null && !request.getLicenseKeys().isEmpty()) {
+            List<String> keys = request.getLicenseKeys().stream().distinct().toList();
+            for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+                affected += updateKeys(operation, keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size())),
+                        filters, params);
+                chunks++;
+            }
+        } else {
+            long lastId = 0;
+            while (true) {
+                Chunk chunk = updateNextByFilter(operation, lastId, filters, params);
+                if (chunk == null) {
+                    break;
+                }
+                affected += chunk.affected;
+                lastId = chunk.lastId;
+                chunks++;
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Bulk {}: {} license(s) in {} chunk(s), {} ms", operation, affected, chunks, elapsed);
+        return new BulkMutationResult(operation.name(), affected, chunks, elapsed);
+    }
+
+    private int updateKeys(Operation operation, List<String> keys, List<String> filters, MapSqlParameterSource params) {
+        MapSqlParameterSource chunkParams = new MapSqlParameterSource(params.getValues());
+        List<String> conditions = new ArrayList<>(filters);
+        conditions.add(LicenseKeySql.inCondition(keys, chunkParams));
+        String select = "SELECT " + STATE_COLUMNS + " FROM license WHERE " + String.join(" AND ", conditions)
+                + " FOR UPDATE";
+
+        Chunk chunk = transactionTemplate.execute(status -> update(operation, select, chunkParams, params));
+        eventPublisher.publishEvent(new LicenseChangedEvent(keys));
+        return chunk == null ? 0 : chunk.affected;
+    }
+
+    private Chunk updateNextByFilter(Operation operation, long lastId, List<String> filters, MapSqlParameterSource params) {
+        MapSqlParameterSource chunkParams = new MapSqlParameterSource(params.getValues())
+                .addValue("lastId", lastId)
+                .addValue("limit", CHUNK_SIZE);
+        List<String> conditions = new ArrayList<>(filters);
+        conditions.add("id > :lastId");
+        String select = "SELECT " + STATE_COLUMNS + " FROM license WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY id LIMIT :limit FOR UPDATE";
+
+        Chunk chunk = transactionTemplate.execute(status -> update(operation, select, chunkParams, params));
+        if (chunk != null) {
+            eventPublisher.publishEvent(new LicenseChangedEvent(chunk.keys));
+        }
+        return chunk;
+    }
+
+    /**
+     * Locks the selected rows, updates them and records the change for the other instances
+     *
+     * @return null if no row matched
+     */
+    private Chunk update(Operation operation, String select, MapSqlParameterSource selectParams,
+                         MapSqlParameterSource params) {
+        List<Long> ids = new ArrayList<>(CHUNK_SIZE);
+        List<String> keys = new ArrayList<>(CHUNK_SIZE);
+        List<State> before = new ArrayList<>(CHUNK_SIZE);
+        jdbcTemplate.query(select, selectParams, rs -> {
+            ids.add(rs.getLong(1));
+            keys.add(rs.getString(2));
+            before.add(LicenseStatsService.stateOf(rs, 3));
+        });
+        if (ids.isEmpty()) {
+            return null;
+        }
+        Integer days = (Integer) params.getValues().get("days");
+        List<State> after = before.stream().map(state -> operation.apply(state, days)).toList();
+        int updated;
+        if (operation == Operation.EXTEND) {
+            MapSqlParameterSource[] rows = new MapSqlParameterSource[ids.size()];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new MapSqlParameterSource()
+                        .addValue("id", ids.get(i))
+                        .addValue("expirationDate", after.get(i).expirationDate());
+            }
+            updated = IntStream.of(jdbcTemplate.batchUpdate(
+                    "UPDATE license SET expiration_date = :expirationDate WHERE id = :id", rows)).sum();
+        } else {
+            updated = jdbcTemplate.update("UPDATE license SET " + operation.setClause + " WHERE id IN (:ids)",
+                    new MapSqlParameterSource(params.getValues()).addValue("ids", ids));
+        }
+        clusterChangeLog.recordLicenses(keys);
+        licenseStatsService.onChanged(before, after);
+        return new Chunk(updated, ids.get(ids.size() - 1), keys);
+    }
+
+    private record Chunk(int affected, long lastId, List<String> keys) {
+    }
+}
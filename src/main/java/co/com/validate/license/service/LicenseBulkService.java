@@ -0,0 +1,207 @@
+package co.com.validate.license.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.com.validate.license.model.BulkCreateResponse;
+import co.com.validate.license.model.BulkCreateResult;
+import co.com.validate.license.model.CreateLicenseRequest;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.LicenseStore;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates many licenses in one request. Rows are consumed in chunks as they are read: each chunk
+ * is validated, its supplied keys are checked for duplicates with one lookup in the
+ * {@link LicenseStore}, and it is inserted in batches inside one transaction together with the
+ * creation emails' outbox rows.
+ */
+@Slf4j
+@Service
+public class LicenseBulkService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final LicenseStore licenseStore;
+    private final LicenseCreationService licenseCreationService;
+    private final LicenseKeyGenerator licenseKeyGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    @Value("${license.bulk.max-rows:10000}")
+    private int maxRows;
+
+    public LicenseBulkService(LicenseStore licenseStore, LicenseCreationService licenseCreationService,
+                              LicenseKeyGenerator licenseKeyGenerator,
+                              TransactionTemplate transactionTemplate, EntityManager entityManager, Validator validator) {
+        this.licenseStore = licenseStore;
+        this.licenseCreationService = licenseCreationService;
+        this.licenseKeyGenerator = licenseKeyGenerator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.validator = validator;
+    }
+
+    /**
+     * @param rows requests in upload order; rows past license.bulk.max-rows are not read
+     */
+    public BulkCreateResponse createAll(Iterator<CreateLicenseRequest> rows) {
+        List<BulkCreateResult> results = new ArrayList<>();
+        Set<String> seenKeys = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        int index = 0;
+
+        while (index < maxRows && rows.hasNext()) {
+            chunk.add(new Row(index++, rows.next()));
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(chunk, seenKeys, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, seenKeys, results);
+        }
+
+        int created = (int) results.stream().filter(r -> r.getStatus() == BulkCreateResult.Status.CREATED).count();
+        BulkCreateResponse response = new BulkCreateResponse(index, created, index - created, results);
+        response.setTruncated(rows.hasNext());
+        return response;
+    }
+
+    private void processChunk(List<Row> chunk, Set<String> seenKeys, List<BulkCreateResult> results) {
+        BulkCreateResult[] chunkResults = new BulkCreateResult[chunk.size()];
+        List<Row> candidates = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            String violations = violations(row.request);
+            if (violations == null && !row.request.hasLicenseKey()) {
+                row.request.setLicenseKey(licenseKeyGenerator.nextKey());
+                row.generated = true;
+            }
+            String licenseKey = row.request == null ? null : row.request.getLicenseKey();
+            if (violations != null) {
+                chunkResults[i] = BulkCreateResult.of(row.index, licenseKey, BulkCreateResult.Status.INVALID, violations);
+            } else if (!seenKeys.add(licenseKey)) {
+                chunkResults[i] = BulkCreateResult.of(row.index, licenseKey, BulkCreateResult.Status.DUPLICATE,
+                        "Licencia repetida en la solicitud");
+            } else {
+                row.position = i;
+                candidates.add(row);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            // Generated keys are random: a clash is left to the unique constraint
+            Set<String> existing = new HashSet<>(licenseStore.findExistingKeys(candidates.stream()
+                    .filter(r -> !r.generated).map(r -> r.request.getLicenseKey()).collect(Collectors.toList())));
+            List<Row> toInsert = new ArrayList<>();
+            for (Row row : candidates) {
+                if (existing.contains(row.request.getLicenseKey())) {
+                    chunkResults[row.position] = BulkCreateResult.of(row.index, row.request.getLicenseKey(),
+                            BulkCreateResult.Status.DUPLICATE, "La licencia ya existe");
+                } else {
+                    toInsert.add(row);
+                }
+            }
+            insert(toInsert, chunkResults);
+        }
+
+        for (BulkCreateResult result : chunkResults) {
+            results.add(result);
+        }
+    }
+
+    private void insert(List<Row> rows, BulkCreateResult[] chunkResults) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<License> licenses = rows.stream().map(r -> toLicense(r.request)).collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                licenseCreationService.createAll(licenses);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request inserted one of the keys after the IN check: retry row by row
+            log.warn("Bulk chunk of {} rows hit a constraint violation, inserting individually", rows.size());
+            insertIndividually(rows, chunkResults);
+            return;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            created(rows.get(i), licenses.get(i), chunkResults);
+        }
+    }
+
+    private void insertIndividually(List<Row> rows, BulkCreateResult[] chunkResults) {
+        for (Row row : rows) {
+            License license = toLicense(row.request);
+            try {
+                created(row, row.generated ? licenseCreationService.createGenerated(license)
+                        : licenseCreationService.create(license), chunkResults);
+            } catch (DataIntegrityViolationException e) {
+                chunkResults[row.position] = BulkCreateResult.of(row.index, row.request.getLicenseKey(),
+                        BulkCreateResult.Status.DUPLICATE, "La licencia ya existe");
+            }
+        }
+    }
+
+    private void created(Row row, License license, BulkCreateResult[] chunkResults) {
+        BulkCreateResult result = BulkCreateResult.of(row.index, license.getLicenseKey(),
+                BulkCreateResult.Status.CREATED, null);
+        result.setId(license.getId());
+        result.setExpirationDate(license.getExpirationDate());
+        chunkResults[row.position] = result;
+    }
+
+    private String violations(CreateLicenseRequest request) {
+        if (request == null) {
+            return "Fila vacía";
+        }
+        Set<ConstraintViolation<CreateLicenseRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static License toLicense(CreateLicenseRequest request) {
+        License license = new License();
+        license.setLicenseKey(request.getLicenseKey());
+        license.setEmail(request.getEmail());
+        license.setExpirationDate(LocalDate.now().plusDays(request.getValidDays()));
+        license.setActive(false);
+        license.setSeats(request.getSeats());
+        return license;
+    }
+
+    private static final class Row {
+        private final int index;
+        private final CreateLicenseRequest request;
+        private int position;
+        private boolean generated;
+
+        private Row(int index, CreateLicenseRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package co.com.validate.license.service;
+
+import java.util.Collection;
+
+/**
+ * Published after a committed change to licenses outside the JPA entity lifecycle (set-based
+ * updates), so in-memory copies of those licenses can be refreshed or dropped
+ */
+public record LicenseChangedEvent(Collection<String> licenseKeys) {
+}
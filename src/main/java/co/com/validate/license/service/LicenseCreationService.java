@@ -0,0 +1,70 @@
+package co.com.validate.license.service;
+
+import java.util.List;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.LicenseStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single write path for new licenses: the insert and its creation email (outbox row) commit
+ * together, and the email is sent later off the request thread
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LicenseCreationService {
+
+    static final int MAX_KEY_ATTEMPTS = 3;
+
+    private final LicenseStore licenseStore;
+    private final EmailOutboxService emailOutboxService;
+    private final LicenseKeyGenerator licenseKeyGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final LicenseStatsService licenseStatsService;
+
+    @Transactional
+    public License create(License license) {
+        License saved = licenseStore.insert(license);
+        emailOutboxService.enqueueLicenseCreation(List.of(saved));
+        licenseStatsService.onCreated(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Creates the license with a server-generated key. There is no existence pre-check: a key
+     * collision surfaces as a unique constraint violation and is retried with a new key.
+     */
+    public License createGenerated(License license) {
+        for (int attempt = 1; ; attempt++) {
+            license.setId(null);
+            license.setLicenseKey(licenseKeyGenerator.nextKey());
+            try {
+                return transactionTemplate.execute(status -> create(license));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_KEY_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Generated license key collided (attempt {}), retrying", attempt);
+            }
+        }
+    }
+
+    /**
+     * Batch variant used by bulk creation, through {@link LicenseStore#insertAll}: nothing is
+     * stored if one of the keys exists. Callers flush/clear the persistence context as needed.
+     */
+    @Transactional
+    public List<License> createAll(List<License> licenses) {
+        List<License> saved = licenseStore.insertAll(licenses);
+        emailOutboxService.enqueueLicenseCreation(saved);
+        licenseStatsService.onCreated(saved);
+        return saved;
+    }
+}
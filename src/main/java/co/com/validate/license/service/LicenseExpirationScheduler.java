@@ -8,7 +8,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import co.com.validate.license.model.License;
-import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.repository.LicenseStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,8 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class LicenseExpirationScheduler {
 
-    private final LicenseRepository licenseRepository;
-    private final EmailService emailService;
+    private final LicenseStore licenseStore;
+    private final EmailOutboxService emailOutboxService;
 
     @Value("${scheduler.expiration-warning.enabled:true}")
     private boolean schedulerEnabled;
@@ -40,7 +40,7 @@ public class LicenseExpirationScheduler {
 
         try {
             LocalDate tomorrow = LocalDate.now().plusDays(1);
-            List<License> expiringLicenses = licenseRepository.findByExpirationDateAndActiveTrue(tomorrow);
+            List<License> expiringLicenses = licenseStore.findActiveExpiringBetween(tomorrow, tomorrow);
 
             if (expiringLicenses.isEmpty()) {
                 log.info("No licenses expiring tomorrow");
@@ -49,34 +49,33 @@ public class LicenseExpirationScheduler {
 
             log.info("Found {} license(s) expiring tomorrow ({})", expiringLicenses.size(), tomorrow);
 
-            int successCount = 0;
+            int queuedCount = 0;
             int failureCount = 0;
 
             for (License license : expiringLicenses) {
-                if (sendExpirationWarning(license)) {
-                    successCount++;
+                if (queueExpirationWarning(license)) {
+                    queuedCount++;
                 } else {
                     failureCount++;
                 }
             }
 
-            log.info("Scheduled task completed. Success: {}, Failures: {}", successCount, failureCount);
+            log.info("Scheduled task completed. Queued: {}, Failures: {}", queuedCount, failureCount);
 
         } catch (Exception e) {
             log.error("Error executing scheduled task for license expiration check", e);
         }
     }
 
-    private boolean sendExpirationWarning(License license) {
+    private boolean queueExpirationWarning(License license) {
         try {
-            log.info("Sending expiration warning for license: {} to email: {}",
+            log.info("Queueing expiration warning for license: {} to email: {}",
                     license.getLicenseKey(), license.getEmail());
 
-            emailService.sendLicenseExpirationWarning(
-                license.getEmail(),
-                license.getLicenseKey(),
-                license.getExpirationDate()
-            );
+            // Delivered by the email outbox; a warning already queued for this expiration is skipped
+            if (!emailOutboxService.enqueueExpirationWarning(license)) {
+                log.info("Expiration warning for license {} was already queued", license.getLicenseKey());
+            }
 
             return true;
         } catch (Exception e) {
@@ -0,0 +1,319 @@
+package co.com.validate.license.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.com.validate.license.model.LicenseSummary;
+import co.com.validate.license.repository.LicenseShards;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Full license dump for reconciliation, written row by row to an output stream.
+ *
+ * Rows are read with a forward-only JDBC cursor (fetch size license.export.fetch-size) inside a
+ * read-only transaction, since drivers such as PostgreSQL only stream with auto-commit off. Each
+ * row is mapped to a {@link LicenseSummary} and written immediately, so memory use does not
+ * grow with the table and no entity is attached to a persistence context.
+ *
+ * With the sharded license store every shard is read in parallel by its own producer into a
+ * small bounded queue, and the rows are merged by id as they are written.
+ */
+@Slf4j
+@Service
+public class LicenseExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SHARD_QUEUE_SIZE = 1024;
+    private static final LicenseSummary END_OF_SHARD = new LicenseSummary();
+    private static final String CSV_HEADER = "id,licenseKey,email,hwid,expirationDate,active,revoked,seats\n";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final boolean isH2;
+    private final int fetchSize;
+    private final LicenseShards licenseShards;
+
+    public LicenseExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper, ObjectProvider<LicenseShards> licenseShards,
+                                @Value("${license.export.fetch-size:1000}") int fetchSize) {
+        this.fetchSize = fetchSize;
+        this.licenseShards = licenseShards.getIfAvailable();
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.isH2 = "H2".equals(cursorTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+    }
+
+    /**
+     * Writes every license, ordered by id, in the given format
+     *
+     * @return number of rows written
+     */
+    public long export(Format format, boolean gzip, OutputStream target) throws IOException {
+        long start = System.nanoTime();
+        OutputStream compressed = gzip ? new GZIPOutputStream(target, BUFFER_SIZE) : target;
+        OutputStream out = new BufferedOutputStream(compressed, BUFFER_SIZE);
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long rows = licenseShards != null ? writeShards(format, out) : writeTable(format, out);
+
+        out.flush();
+        if (gzip) {
+            ((GZIPOutputStream) compressed).finish();
+        }
+        target.flush();
+
+        long elapsedNanos = System.nanoTime() - start;
+        log.info("License export {}{}: {} rows in {} ms ({} rows/s)", format, gzip ? " (gzip)" : "", rows,
+                elapsedNanos / 1_000_000, elapsedNanos == 0 ? 0 : rows * 1_000_000_000L / elapsedNanos);
+        return rows;
+    }
+
+    private long writeTable(Format format, OutputStream out) throws IOException {
+        long[] rows = new long[1];
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                boolean lazy = enableH2LazyResults(true);
+                try {
+                    cursorTemplate.query("SELECT " + LicenseSearchService.COLUMNS + " FROM license ORDER BY id", rs -> {
+                        LicenseSummary summary = LicenseSearchService.SUMMARY_MAPPER.mapRow(rs, 0);
+                        try {
+                            writeRow(format, summary, out);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    });
+                } finally {
+                    if (lazy) {
+                        enableH2LazyResults(false);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away mid-download
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    /**
+     * K-way merge of the shards by id: each shard is already ordered by id, so the smallest head
+     * is always the next row overall
+     */
+    private long writeShards(Format format, OutputStream out) throws IOException {
+        List<ShardCursor> cursors = new ArrayList<>(licenseShards.count());
+        long rows = 0;
+        try {
+            PriorityQueue<ShardCursor> heads = new PriorityQueue<>(Comparator.comparingLong(cursor -> cursor.head.getId()));
+            for (int shard = 0; shard < licenseShards.count(); shard++) {
+                ShardCursor cursor = new ShardCursor(licenseShards.dataSource(shard));
+                cursor.producer = licenseShards.submit(cursor);
+                cursors.add(cursor);
+            }
+            for (ShardCursor cursor : cursors) {
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            while (!heads.isEmpty()) {
+                ShardCursor cursor = heads.poll();
+                writeRow(format, cursor.head, out);
+                rows++;
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+        } finally {
+            // Stops producers blocked on a full queue when the client went away
+            cursors.forEach(ShardCursor::cancel);
+        }
+        return rows;
+    }
+
+    /**
+     * Streams one shard into a bounded queue; on its own connection since the shards are not
+     * part of the Spring-managed transaction
+     */
+    private final class ShardCursor implements Callable<Void> {
+
+        private final DataSource dataSource;
+        private final BlockingQueue<LicenseSummary> queue = new ArrayBlockingQueue<>(SHARD_QUEUE_SIZE);
+        private volatile Exception failure;
+        private volatile boolean cancelled;
+        private Future<Void> producer;
+        private LicenseSummary head;
+
+        ShardCursor(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public Void call() throws InterruptedException {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LAZY_QUERY_EXECUTION TRUE");
+                }
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT " + LicenseSearchService.COLUMNS + " FROM license ORDER BY id")) {
+                    select.setFetchSize(fetchSize);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            queue.put(LicenseSearchService.SUMMARY_MAPPER.mapRow(rs, 0));
+                        }
+                    }
+                } finally {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                    }
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (InterruptedException e) {
+                // Cancelled while the queue was full: nobody will read the end marker
+                return null;
+            } catch (Exception e) {
+                if (cancelled) {
+                    // The interrupt surfaced from the driver instead
+                    return null;
+                }
+                failure = e;
+            }
+            queue.put(END_OF_SHARD);
+            return null;
+        }
+
+        /**
+         * Flagged before the interrupt, so a producer that sees either one stops without putting
+         */
+        void cancel() {
+            cancelled = true;
+            producer.cancel(true);
+        }
+
+        /**
+         * @return false once the shard is exhausted
+         */
+        boolean advance() throws IOException {
+            try {
+                head = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while exporting shards");
+            }
+            if (head != END_OF_SHARD) {
+                return true;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Export of a license shard failed", failure);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * H2 buffers a whole result set (spilling to disk past MAX_MEMORY_ROWS) unless the session is
+     * in lazy mode, in which rows are produced as the cursor advances. The setting is per
+     * connection, so it is switched back off before the pooled connection is returned.
+     *
+     * @return whether the connection is H2 and the setting was applied
+     */
+    private boolean enableH2LazyResults(boolean enabled) {
+        if (!isH2) {
+            return false;
+        }
+        cursorTemplate.execute("SET LAZY_QUERY_EXECUTION " + (enabled ? "TRUE" : "FALSE"));
+        return true;
+    }
+
+    private void writeRow(Format format, LicenseSummary summary, OutputStream out) throws IOException {
+        if (format == Format.NDJSON) {
+            out.write(objectMapper.writeValueAsBytes(summary));
+            out.write('\n');
+            return;
+        }
+        StringBuilder line = new StringBuilder(128)
+                .append(summary.getId()).append(',')
+                .append(csv(summary.getLicenseKey())).append(',')
+                .append(csv(summary.getEmail())).append(',')
+                .append(csv(summary.getHwid())).append(',')
+                .append(summary.getExpirationDate() == null ? "" : summary.getExpirationDate()).append(',')
+                .append(summary.isActive()).append(',')
+                .append(summary.isRevoked()).append(',')
+                .append(summary.getSeats()).append('\n');
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * RFC 4180 quoting: only fields containing a comma, quote or line break are quoted
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,148 @@
+package co.com.validate.license.service;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-side license keys: 122 random bits formatted like an upper-case UUID v4, the format the
+ * Telegram bot has always produced.
+ *
+ * Each thread draws from its own buffered DRBG instance, so concurrent callers do not serialize on
+ * one shared SecureRandom as with UUID.randomUUID(). A background thread keeps a pool of generated
+ * keys; callers take from the pool and only generate inline when it runs dry. Keys are not checked
+ * against the license table: with 122 random bits a clash is negligible, and uniqueness comes from
+ * the unique constraint, callers retrying with a new key on a violation (see
+ * {@link LicenseCreationService#createGenerated}).
+ */
+@Service
+public class LicenseKeyGenerator {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<Entropy> ENTROPY = ThreadLocal.withInitial(Entropy::new);
+
+    private final BlockingQueue<String> pool;
+
+    private final AtomicLong poolHits = new AtomicLong();
+    private final AtomicLong poolMisses = new AtomicLong();
+
+    private Thread refiller;
+
+    @Autowired
+    public LicenseKeyGenerator(@Value("${license.keys.pool-size:4096}") int poolSize) {
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    @PostConstruct
+    public void start() {
+        refiller = new Thread(this::refillLoop, "license-key-refiller");
+        refiller.setDaemon(true);
+        refiller.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refiller != null) {
+            refiller.interrupt();
+        }
+    }
+
+    /**
+     * @return a key from the pre-generated pool, or a freshly generated one if the pool is empty
+     */
+    public String nextKey() {
+        String key = pool.poll();
+        if (key != null) {
+            poolHits.incrementAndGet();
+            return key;
+        }
+        poolMisses.incrementAndGet();
+        return generate();
+    }
+
+    /**
+     * Generates a key from the calling thread's entropy source, without touching the pool
+     */
+    public String generate() {
+        byte[] bytes = new byte[16];
+        ENTROPY.get().next(bytes);
+        bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x40);
+        bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80);
+
+        char[] chars = new char[36];
+        int c = 0;
+        for (int i = 0; i < 16; i++) {
+            if (i == 4 || i == 6 || i == 8 || i == 10) {
+                chars[c++] = '-';
+            }
+            chars[c++] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[c++] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+
+    public int getPoolSize() {
+        return pool.size();
+    }
+
+    public long getPoolHits() {
+        return poolHits.get();
+    }
+
+    public long getPoolMisses() {
+        return poolMisses.get();
+    }
+
+    private void refillLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // Blocks while the pool is full
+                pool.put(generate());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Per-thread DRBG read in 4 KiB blocks, so the generator's per-call cost is paid once every
+     * 256 keys instead of on every key
+     */
+    private static final class Entropy {
+        private final SecureRandom random;
+        private final byte[] buffer = new byte[4096];
+        private int position = buffer.length;
+
+        private Entropy() {
+            SecureRandom drbg;
+            try {
+                drbg = SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                drbg = new SecureRandom();
+            }
+            this.random = drbg;
+        }
+
+        private void next(byte[] out) {
+            if (position + out.length > buffer.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            System.arraycopy(buffer, position, out, 0, out.length);
+            // Never hand out the same bytes twice
+            Arrays.fill(buffer, position, position + out.length, (byte) 0);
+            position += out.length;
+        }
+    }
+}
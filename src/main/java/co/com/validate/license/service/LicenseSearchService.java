@@ -0,0 +1,180 @@
+package co.com.validate.license.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import co.com.validate.license.model.License;
+import co.com.validate.license.model.LicenseSearchCriteria;
+import co.com.validate.license.model.LicenseSearchPage;
+import co.com.validate.license.model.LicenseSummary;
+import co.com.validate.license.repository.LicenseKeySql;
+
+/**
+ * Filtered license listing with keyset pagination on id.
+ *
+ * Each page is one {@code WHERE ... AND id > :after ORDER BY id LIMIT n+1} query selecting only
+ * the summary columns, so the cost of a page does not depend on how deep it is (no OFFSET) and
+ * no entity is loaded into the persistence context. The extra row only tells whether there is a
+ * next page.
+ *
+ * Hwid lookups go through the indexed hash of the normalized hwid ({@link License#hwidHash}).
+ *
+ * Both query the main license table, which the mvstore and sharded store backends leave empty:
+ * there the lookups are refused rather than answering with no matches (see {@link #isSupported}).
+ */
+@Service
+public class LicenseSearchService {
+
+    static final String COLUMNS = "id, " + LicenseKeySql.KEY_EXPRESSION
+            + " AS license_key, email, hwid, expiration_date, active, revoked, seats";
+
+    static final RowMapper<LicenseSummary> SUMMARY_MAPPER = (rs, rowNum) -> {
+        Date expiration = rs.getDate("expiration_date");
+        return new LicenseSummary(
+                rs.getLong("id"),
+                rs.getString("license_key"),
+                rs.getString("email"),
+                rs.getString("hwid"),
+                expiration == null ? null : expiration.toLocalDate(),
+                rs.getBoolean("active"),
+                rs.getBoolean("revoked"),
+                rs.getInt("seats"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final String storeBackend;
+
+    public LicenseSearchService(NamedParameterJdbcTemplate jdbcTemplate,
+                                @Value("${license.search.default-page-size:50}") int defaultPageSize,
+                                @Value("${license.search.max-page-size:500}") int maxPageSize,
+                                @Value("${license.store.backend:jpa}") String storeBackend) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storeBackend = storeBackend;
+        this.maxPageSize = Math.max(1, maxPageSize);
+        this.defaultPageSize = Math.min(Math.max(1, defaultPageSize), this.maxPageSize);
+    }
+
+    /**
+     * Whether the configured store keeps its licenses in the license table
+     */
+    public boolean isSupported() {
+        return "jpa".equals(storeBackend) || "jdbc".equals(storeBackend);
+    }
+
+    public String getStoreBackend() {
+        return storeBackend;
+    }
+
+    /**
+     * @throws IllegalStateException if the configured store keeps its licenses elsewhere
+     */
+    public LicenseSearchPage search(LicenseSearchCriteria criteria) {
+        return search(criteria, LocalDate.now());
+    }
+
+    LicenseSearchPage search(LicenseSearchCriteria criteria, LocalDate today) {
+        requireSupported();
+        int limit = criteria.getLimit() == null ? defaultPageSize : Math.min(criteria.getLimit(), maxPageSize);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("after", criteria.getAfter() == null ? 0L : criteria.getAfter())
+                .addValue("fetch", limit + 1);
+        List<String> conditions = new ArrayList<>();
+        conditions.add("id > :after");
+        if (criteria.getEmail() != null && !criteria.getEmail().isBlank()) {
+            conditions.add("email = :email");
+            params.addValue("email", criteria.getEmail().trim());
+        }
+        if (criteria.getExpiresFrom() != null) {
+            conditions.add("expiration_date >= :expiresFrom");
+            params.addValue("expiresFrom", criteria.getExpiresFrom());
+        }
+        if (criteria.getExpiresTo() != null) {
+            conditions.add("expiration_date <= :expiresTo");
+            params.addValue("expiresTo", criteria.getExpiresTo());
+        }
+        if (criteria.getHwidPresent() != null) {
+            conditions.add(criteria.getHwidPresent() ? "hwid IS NOT NULL" : "hwid IS NULL");
+        }
+        if (criteria.getStatus() != null) {
+            conditions.add(statusCondition(criteria.getStatus()));
+            params.addValue("today", today);
+        }
+
+        String sql = "SELECT " + COLUMNS + " FROM license WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY id LIMIT :fetch";
+        List<LicenseSummary> rows = jdbcTemplate.query(sql, params, SUMMARY_MAPPER);
+
+        Long nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = rows.get(limit - 1).getId();
+        }
+        return new LicenseSearchPage(rows, nextCursor, limit);
+    }
+
+    /**
+     * @return licenses bound to the hwid, ordered by id
+     */
+    public List<LicenseSummary> findByHwid(String hwid) {
+        return findByHwids(List.of(hwid)).get(hwid);
+    }
+
+    /**
+     * @return for each requested hwid, in request order, the licenses bound to it (possibly none)
+     * @throws IllegalStateException if the configured store keeps its licenses elsewhere
+     */
+    public Map<String, List<LicenseSummary>> findByHwids(Collection<String> hwids) {
+        requireSupported();
+        HexFormat hex = HexFormat.of();
+        Map<String, List<LicenseSummary>> byHash = new HashMap<>();
+        Map<String, List<LicenseSummary>> result = new LinkedHashMap<>();
+        List<byte[]> hashes = new ArrayList<>();
+        for (String hwid : hwids) {
+            byte[] hash = License.hwidHash(hwid);
+            result.put(hwid, byHash.computeIfAbsent(hex.formatHex(hash), h -> {
+                hashes.add(hash);
+                return new ArrayList<>();
+            }));
+        }
+        if (hashes.isEmpty()) {
+            return result;
+        }
+
+        String sql = "SELECT " + COLUMNS + ", hwid_hash FROM license WHERE hwid_hash IN (:hashes) ORDER BY id";
+        jdbcTemplate.query(sql, new MapSqlParameterSource("hashes", hashes), (RowCallbackHandler) rs ->
+                byHash.get(hex.formatHex(rs.getBytes("hwid_hash"))).add(SUMMARY_MAPPER.mapRow(rs, rs.getRow())));
+        return result;
+    }
+
+    private void requireSupported() {
+        if (!isSupported()) {
+            throw new IllegalStateException("License search is not supported with license.store.backend=" + storeBackend);
+        }
+    }
+
+    private static String statusCondition(LicenseSearchCriteria.Status status) {
+        return switch (status) {
+            case ACTIVE -> "revoked = FALSE AND hwid IS NOT NULL AND expiration_date >= :today";
+            case NOT_ACTIVATED -> "revoked = FALSE AND hwid IS NULL";
+            case EXPIRED -> "revoked = FALSE AND expiration_date < :today";
+            case REVOKED -> "revoked = TRUE";
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package co.com.validate.license.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * License counters kept up to date by applying each change as "remove the old state, add the new
+ * one", so no read ever scans the license table.
+ *
+ * Every non-revoked license is either active (hwid bound), inactive (unbound) or expired,
+ * the same partition as the search statuses. Licenses not yet expired are also counted in a
+ * bucket per expiration epoch day; when the day rolls over, the buckets that fell behind move
+ * to expired and are dropped. Activations are counted in a bucket per epoch day for the last
+ * activation-days days. All counters are {@link LongAdder}s, so concurrent activations update
+ * separate cells instead of contending on one value.
+ */
+final class LicenseStats {
+
+    static final int WEEKS_AHEAD = 13;
+
+    /**
+     * The attributes of one license that the counters depend on
+     */
+    record State(LocalDate expirationDate, boolean bound, boolean revoked, LocalDate activatedAt) {
+    }
+
+    private static final class DayBucket {
+        private final LongAdder bound = new LongAdder();
+        private final LongAdder unbound = new LongAdder();
+
+        long sum() {
+            return bound.sum() + unbound.sum();
+        }
+    }
+
+    private final int activationDays;
+    private final LongAdder active = new LongAdder();
+    private final LongAdder inactive = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder revoked = new LongAdder();
+    private final ConcurrentHashMap<Long, DayBucket> expiring = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> activations = new ConcurrentHashMap<>();
+    private volatile long today;
+
+    LicenseStats(LocalDate today, int activationDays) {
+        this.today = today.toEpochDay();
+        this.activationDays = Math.max(1, activationDays);
+    }
+
+    void add(State state) {
+        apply(state, 1);
+    }
+
+    void remove(State state) {
+        apply(state, -1);
+    }
+
+    /**
+     * Bulk-loads a group of identical licenses, as counted by a GROUP BY
+     */
+    void add(State state, long count) {
+        apply(state, count);
+    }
+
+    /**
+     * Bulk-loads the activation count of one day
+     */
+    void addActivations(LocalDate day, long count) {
+        if (day.toEpochDay() > today - activationDays) {
+            activations.computeIfAbsent(day.toEpochDay(), d -> new LongAdder()).add(count);
+        }
+    }
+
+    private void apply(State state, long delta) {
+        if (state.revoked()) {
+            revoked.add(delta);
+        } else if (state.expirationDate() != null && state.expirationDate().toEpochDay() < today) {
+            expired.add(delta);
+        } else {
+            (state.bound() ? active : inactive).add(delta);
+            if (state.expirationDate() != null) {
+                DayBucket bucket = expiring.computeIfAbsent(state.expirationDate().toEpochDay(), day -> new DayBucket());
+                (state.bound() ? bucket.bound : bucket.unbound).add(delta);
+            }
+        }
+        if (state.activatedAt() != null) {
+            long day = state.activatedAt().toEpochDay();
+            if (day > today - activationDays) {
+                activations.computeIfAbsent(day, d -> new LongAdder()).add(delta);
+            }
+        }
+    }
+
+    /**
+     * Moves the licenses that expired before the new day to expired and drops the activation
+     * buckets that left the window. A change applied while the day rolls over can land in a
+     * bucket that was just drained; reconciliation corrects it.
+     */
+    synchronized void rollover(LocalDate newDay) {
+        long day = newDay.toEpochDay();
+        if (day <= today) {
+            return;
+        }
+        for (Long bucketDay : new ArrayList<>(expiring.keySet())) {
+            if (bucketDay < day) {
+                DayBucket bucket = expiring.remove(bucketDay);
+                long bound = bucket.bound.sum();
+                long unbound = bucket.unbound.sum();
+                active.add(-bound);
+                inactive.add(-unbound);
+                expired.add(bound + unbound);
+            }
+        }
+        activations.keySet().removeIf(activationDay -> activationDay <= day - activationDays);
+        today = day;
+    }
+
+    LocalDate today() {
+        return LocalDate.ofEpochDay(today);
+    }
+
+    long active() {
+        return active.sum();
+    }
+
+    long inactive() {
+        return inactive.sum();
+    }
+
+    long expired() {
+        return expired.sum();
+    }
+
+    long revoked() {
+        return revoked.sum();
+    }
+
+    long total() {
+        return active() + inactive() + expired() + revoked();
+    }
+
+    /**
+     * Non-revoked licenses expiring in each of the next {@link #WEEKS_AHEAD} weeks, the first
+     * week starting today
+     */
+    List<Long> expirationsPerWeek() {
+        List<Long> weeks = new ArrayList<>(WEEKS_AHEAD);
+        for (int week = 0; week < WEEKS_AHEAD; week++) {
+            long count = 0;
+            for (int day = 0; day < 7; day++) {
+                DayBucket bucket = expiring.get(today + week * 7L + day);
+                if (bucket != null) {
+                    count += bucket.sum();
+                }
+            }
+            weeks.add(count);
+        }
+        return weeks;
+    }
+
+    /**
+     * Activations of each of the last activation-days days, oldest first and ending today
+     */
+    List<Long> activationsPerDay() {
+        List<Long> days = new ArrayList<>(activationDays);
+        for (long day = today - activationDays + 1; day <= today; day++) {
+            LongAdder count = activations.get(day);
+            days.add(count == null ? 0 : count.sum());
+        }
+        return days;
+    }
+
+    int activationDays() {
+        return activationDays;
+    }
+}
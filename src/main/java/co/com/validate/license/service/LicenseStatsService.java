@@ -0,0 +1,319 @@
+package co.com.validate.license.service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import co.com.validate.license.cluster.config.ClusterProperties;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.LicenseShards;
+import co.com.validate.license.service.LicenseStats.State;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * License counts for GET /api/license/stats, served from {@link LicenseStats} instead of
+ * aggregating the license table on every request.
+ *
+ * The counters are loaded with two GROUP BY queries at startup; after that every creation,
+ * activation, bulk mutation and archived chunk is applied once its transaction has committed,
+ * and the daily expiry happens when the first access of a new day rolls the counters over. Every
+ * reconcile-interval-ms the queries run again: differences are logged as drift and the counters
+ * are replaced by the database values.
+ *
+ * The counters only see this instance's writes to the license table. In cluster mode, and with
+ * the sharded store, the queries are run instead (on every shard) and their result is served
+ * for query-cache-ms. The mvstore backend has no SQL to count with, so stats are unavailable.
+ */
+@Slf4j
+@Service
+public class LicenseStatsService {
+
+    private static final String STATUS_COUNTS = "SELECT revoked, bound, bucket_day, COUNT(*) FROM ("
+            + "SELECT revoked, hwid IS NOT NULL AS bound, "
+            + "CASE WHEN revoked = TRUE THEN NULL WHEN expiration_date < :today THEN :yesterday ELSE expiration_date END AS bucket_day "
+            + "FROM license) t GROUP BY revoked, bound, bucket_day";
+
+    private static final String ACTIVATION_COUNTS =
+            "SELECT activated_at, COUNT(*) FROM license WHERE activated_at >= :from GROUP BY activated_at";
+
+    private record Reconciliation(Instant at, long elapsedMillis, long drift) {
+    }
+
+    private final List<NamedParameterJdbcTemplate> jdbcTemplates;
+    private final int activationDays;
+    private final String storeBackend;
+    // False when other writers can change the counted rows: the counters are not maintained
+    private final boolean counting;
+    private final long queryCacheMillis;
+
+    private volatile LicenseStats stats;
+    private volatile long queriedAtMillis;
+    private volatile Reconciliation lastReconciliation;
+
+    public LicenseStatsService(NamedParameterJdbcTemplate jdbcTemplate, ObjectProvider<LicenseShards> licenseShards,
+                               ClusterProperties clusterProperties,
+                               @Value("${license.store.backend:jpa}") String storeBackend,
+                               @Value("${license.stats.activation-days:30}") int activationDays,
+                               @Value("${license.stats.query-cache-ms:10000}") long queryCacheMillis) {
+        LicenseShards shards = licenseShards.getIfAvailable();
+        List<NamedParameterJdbcTemplate> templates = new ArrayList<>();
+        if (shards != null) {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                templates.add(shards.jdbcTemplate(shard));
+            }
+        } else {
+            templates.add(jdbcTemplate);
+        }
+        this.jdbcTemplates = templates;
+        this.activationDays = activationDays;
+        this.storeBackend = storeBackend;
+        this.counting = ("jpa".equals(storeBackend) || "jdbc".equals(storeBackend)) && !clusterProperties.isEnabled();
+        this.queryCacheMillis = queryCacheMillis;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!isSupported()) {
+            log.info("License stats unavailable with license.store.backend={}", storeBackend);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        stats = query(LocalDate.now());
+        queriedAtMillis = start;
+        log.info("License stats loaded: {} license(s) in {} ms{}", stats.total(), System.currentTimeMillis() - start,
+                counting ? "" : ", recounted on request");
+    }
+
+    public boolean isSupported() {
+        return !"mvstore".equals(storeBackend);
+    }
+
+    public String getStoreBackend() {
+        return storeBackend;
+    }
+
+    void onCreated(Collection<License> licenses) {
+        if (!counting) {
+            return;
+        }
+        List<State> created = licenses.stream().map(LicenseStatsService::stateOf).toList();
+        afterCommit(() -> created.forEach(current()::add));
+    }
+
+    /**
+     * A first activation: the license as read before its hwid was bound
+     */
+    void onActivated(License before) {
+        if (!counting) {
+            return;
+        }
+        State previous = stateOf(before);
+        LicenseStats current = current();
+        current.remove(previous);
+        current.add(new State(previous.expirationDate(), true, previous.revoked(), current.today()));
+    }
+
+    void onChanged(List<State> before, List<State> after) {
+        if (!counting) {
+            return;
+        }
+        afterCommit(() -> {
+            LicenseStats current = current();
+            before.forEach(current::remove);
+            after.forEach(current::add);
+        });
+    }
+
+    void onRemoved(List<State> removed) {
+        if (!counting) {
+            return;
+        }
+        afterCommit(() -> removed.forEach(current()::remove));
+    }
+
+    static State stateOf(License license) {
+        return new State(license.getExpirationDate(), license.getHwid() != null, license.isRevoked(),
+                license.getActivatedAt());
+    }
+
+    /**
+     * Row of a SELECT ... expiration_date, hwid IS NOT NULL, revoked, activated_at starting at column
+     */
+    static State stateOf(ResultSet rs, int column) throws SQLException {
+        Date expiration = rs.getDate(column);
+        Date activatedAt = rs.getDate(column + 3);
+        return new State(expiration == null ? null : expiration.toLocalDate(), rs.getBoolean(column + 1),
+                rs.getBoolean(column + 2), activatedAt == null ? null : activatedAt.toLocalDate());
+    }
+
+    /**
+     * Counts of a rolled-back transaction must not be applied, so changes made inside one wait
+     * for its commit
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private LicenseStats current() {
+        if (!counting && System.currentTimeMillis() - queriedAtMillis >= queryCacheMillis) {
+            refresh();
+        }
+        LicenseStats current = stats;
+        LocalDate today = LocalDate.now();
+        if (!today.equals(current.today())) {
+            current.rollover(today);
+        }
+        return current;
+    }
+
+    /**
+     * Recounts from the database and replaces the counters. A change committed while the queries
+     * run can be counted twice or missed; the next reconciliation corrects it.
+     *
+     * @return the absolute difference summed over every counter
+     */
+    @Scheduled(fixedDelayString = "${license.stats.reconcile-interval-ms:3600000}",
+               initialDelayString = "${license.stats.reconcile-interval-ms:3600000}")
+    public synchronized long reconcile() {
+        if (!counting) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        LicenseStats current = current();
+        LicenseStats loaded = query(current.today());
+        long drift = Math.abs(current.active() - loaded.active())
+                + Math.abs(current.inactive() - loaded.inactive())
+                + Math.abs(current.expired() - loaded.expired())
+                + Math.abs(current.revoked() - loaded.revoked())
+                + difference(current.expirationsPerWeek(), loaded.expirationsPerWeek())
+                + difference(current.activationsPerDay(), loaded.activationsPerDay());
+        stats = loaded;
+        lastReconciliation = new Reconciliation(Instant.now(), System.currentTimeMillis() - start, drift);
+        if (drift > 0) {
+            log.warn("License stats drifted by {} from the database (counted {} active, {} inactive, {} expired, "
+                            + "{} revoked; database {}, {}, {}, {}), reset to the database values",
+                    drift, current.active(), current.inactive(), current.expired(), current.revoked(),
+                    loaded.active(), loaded.inactive(), loaded.expired(), loaded.revoked());
+        } else {
+            log.debug("License stats match the database ({} ms)", lastReconciliation.elapsedMillis());
+        }
+        return drift;
+    }
+
+    private static long difference(List<Long> counted, List<Long> expected) {
+        long difference = 0;
+        for (int i = 0; i < counted.size(); i++) {
+            difference += Math.abs(counted.get(i) - expected.get(i));
+        }
+        return difference;
+    }
+
+    private synchronized void refresh() {
+        if (System.currentTimeMillis() - queriedAtMillis < queryCacheMillis) {
+            // Another request refreshed while this one waited
+            return;
+        }
+        long start = System.currentTimeMillis();
+        stats = query(LocalDate.now());
+        queriedAtMillis = start;
+    }
+
+    /**
+     * Sums the counts of every database holding licenses
+     */
+    private LicenseStats query(LocalDate today) {
+        LicenseStats loaded = new LicenseStats(today, activationDays);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("today", today)
+                .addValue("yesterday", today.minusDays(1))
+                .addValue("from", today.minusDays(loaded.activationDays() - 1L));
+        for (NamedParameterJdbcTemplate jdbcTemplate : jdbcTemplates) {
+            jdbcTemplate.query(STATUS_COUNTS, params, rs -> {
+                Date day = rs.getDate(3);
+                loaded.add(new State(day == null ? null : day.toLocalDate(), rs.getBoolean(2), rs.getBoolean(1), null),
+                        rs.getLong(4));
+            });
+            jdbcTemplate.query(ACTIVATION_COUNTS, params, rs -> {
+                loaded.addActivations(rs.getDate(1).toLocalDate(), rs.getLong(2));
+            });
+        }
+        return loaded;
+    }
+
+    /**
+     * Counts by status, expirations per week for the next quarter and activations per day
+     *
+     * @throws IllegalStateException if the configured license store cannot be counted
+     */
+    public Map<String, Object> getStats() {
+        if (!isSupported()) {
+            throw new IllegalStateException("License stats are not available with license.store.backend=" + storeBackend);
+        }
+        LicenseStats current = current();
+        LocalDate today = current.today();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("date", today);
+        result.put("total", current.total());
+        result.put("active", current.active());
+        result.put("inactive", current.inactive());
+        result.put("expired", current.expired());
+        result.put("revoked", current.revoked());
+
+        List<Long> weeks = current.expirationsPerWeek();
+        List<Map<String, Object>> expirations = new ArrayList<>(weeks.size());
+        for (int week = 0; week < weeks.size(); week++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("weekStart", today.plusWeeks(week));
+            entry.put("licenses", weeks.get(week));
+            expirations.add(entry);
+        }
+        result.put("expirationsPerWeek", expirations);
+
+        List<Long> days = current.activationsPerDay();
+        List<Map<String, Object>> activations = new ArrayList<>(days.size());
+        LocalDate first = today.minusDays(days.size() - 1L);
+        for (int day = 0; day < days.size(); day++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("date", first.plusDays(day));
+            entry.put("activations", days.get(day));
+            activations.add(entry);
+        }
+        result.put("activationsPerDay", activations);
+
+        Reconciliation reconciliation = lastReconciliation;
+        if (reconciliation != null) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("at", reconciliation.at());
+            entry.put("elapsedMillis", reconciliation.elapsedMillis());
+            entry.put("drift", reconciliation.drift());
+            result.put("lastReconciliation", entry);
+        }
+        return result;
+    }
+}
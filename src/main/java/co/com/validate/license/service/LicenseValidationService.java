@@ -0,0 +1,140 @@
+package co.com.validate.license.service;
+
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Service;
+
+import co.com.validate.license.model.ArchivedLicense;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.ArchivedLicenseRepository;
+import co.com.validate.license.repository.LicenseStore;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * License validation rules shared by every channel (REST activation and UDP checks).
+ * A key missing from the hot table is looked up in license_archive before answering NOT_FOUND.
+ */
+@Service
+@RequiredArgsConstructor
+public class LicenseValidationService {
+
+    public enum Outcome {
+        OK,
+        NOT_FOUND,
+        OTHER_HWID,
+        EXPIRED,
+        NOT_ACTIVATED,
+        REVOKED
+    }
+
+    @Getter
+    public static final class Result {
+        private final Outcome outcome;
+        private final License license;
+
+        Result(Outcome outcome, License license) {
+            this.outcome = outcome;
+            this.license = license;
+        }
+    }
+
+    private final LicenseStore licenseStore;
+    private final ArchivedLicenseRepository archivedLicenseRepository;
+    private final LicenseStatsService licenseStatsService;
+
+    /**
+     * Validates a license for a hardware id, binding the hwid on first activation
+     */
+    public Result activate(String licenseKey, String hwid) {
+        Optional<License> licOptional = licenseStore.findByLicenseKey(licenseKey);
+        if (licOptional.isEmpty()) {
+            return checkArchived(archivedLicenseRepository.findByLicenseKey(licenseKey),
+                    archivedHwid -> archivedHwid.equals(hwid));
+        }
+        License lic = licOptional.get();
+        if (lic.isRevoked()) {
+            return new Result(Outcome.REVOKED, lic);
+        }
+
+        // Primera activación
+        if (lic.getHwid() == null) {
+            if (licenseStore.bindHwid(lic.getId(), hwid)) {
+                licenseStatsService.onActivated(lic);
+                lic.setHwid(hwid);
+                lic.setActive(true);
+                lic.setActivatedAt(LocalDate.now());
+            } else {
+                // Another PC won a concurrent first activation, or it was revoked meanwhile
+                Optional<License> current = licenseStore.findByLicenseKey(licenseKey);
+                if (current.isEmpty()) {
+                    return new Result(Outcome.NOT_FOUND, null);
+                }
+                lic = current.get();
+                if (lic.isRevoked() || lic.getHwid() == null) {
+                    return new Result(Outcome.REVOKED, lic);
+                }
+            }
+        }
+
+        if (!lic.getHwid().equals(hwid)) {
+            return new Result(Outcome.OTHER_HWID, lic);
+        }
+        return checkExpiration(lic);
+    }
+
+    /**
+     * Read-only validation by SHA-256 hashes of the license key and hwid. A license that was
+     * never activated cannot be bound this way since only the hwid hash is known.
+     */
+    public Result check(byte[] licenseKeyHash, byte[] hwidHash) {
+        Optional<License> licOptional = licenseStore.findByKeyHash(licenseKeyHash);
+        if (licOptional.isEmpty()) {
+            return checkArchived(archivedLicenseRepository.findByKeyHash(licenseKeyHash),
+                    archivedHwid -> MessageDigest.isEqual(License.sha256(archivedHwid), hwidHash));
+        }
+        License lic = licOptional.get();
+
+        if (lic.isRevoked()) {
+            return new Result(Outcome.REVOKED, lic);
+        }
+        if (lic.getHwid() == null) {
+            return new Result(Outcome.NOT_ACTIVATED, lic);
+        }
+        if (!MessageDigest.isEqual(License.sha256(lic.getHwid()), hwidHash)) {
+            return new Result(Outcome.OTHER_HWID, lic);
+        }
+        return checkExpiration(lic);
+    }
+
+    /**
+     * Same rules for an archived license, except that one never activated is not bound anymore:
+     * it was only archived long after expiring, so it is reported as expired
+     */
+    private Result checkArchived(Optional<ArchivedLicense> archived, Predicate<String> boundTo) {
+        if (archived.isEmpty()) {
+            return new Result(Outcome.NOT_FOUND, null);
+        }
+        License lic = archived.get().toLicense();
+        if (lic.isRevoked()) {
+            return new Result(Outcome.REVOKED, lic);
+        }
+        if (lic.getHwid() == null) {
+            return new Result(Outcome.EXPIRED, lic);
+        }
+        if (!boundTo.test(lic.getHwid())) {
+            return new Result(Outcome.OTHER_HWID, lic);
+        }
+        return checkExpiration(lic);
+    }
+
+    private Result checkExpiration(License lic) {
+        if (LocalDate.now().isAfter(lic.getExpirationDate())) {
+            return new Result(Outcome.EXPIRED, lic);
+        }
+        return new Result(Outcome.OK, lic);
+    }
+}
@@ -0,0 +1,304 @@
+package co.com.validate.license.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.com.validate.license.cluster.config.ClusterProperties;
+import co.com.validate.license.config.SeatLeaseProperties;
+import co.com.validate.license.model.License;
+import co.com.validate.license.model.SeatLease;
+import co.com.validate.license.repository.LicenseKeySql;
+import co.com.validate.license.repository.LicenseStore;
+import co.com.validate.license.repository.SeatLeaseRepository;
+import co.com.validate.license.service.SeatLeaseTable.Grant;
+import co.com.validate.license.service.SeatLeaseTable.Lease;
+import co.com.validate.license.service.SeatLeaseTable.SeatPool;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Floating seat checkout, heartbeat and release.
+ *
+ * The license is read from the {@link LicenseStore} once per license to prime its
+ * {@link SeatPool}, so seats work on every store backend; after that every seat operation is
+ * served from {@link SeatLeaseTable}. Live leases are checkpointed to the
+ * {@code seat_lease} table on a fixed delay and reloaded at startup; each row carries the
+ * instance id, so instances sharing the database only rewrite and reload their own leases.
+ *
+ * In cluster mode the in-memory pool only holds this instance's leases, so the seat count is
+ * enforced in {@code seat_lease} instead: checkout counts the live rows of every instance under a
+ * lock on the license row and inserts its own, heartbeat and release write through, and the
+ * checkpoint only deletes expired rows.
+ */
+@Slf4j
+@Service
+public class SeatLeaseService {
+
+    public enum Status {
+        GRANTED,
+        NOT_FOUND,
+        EXPIRED,
+        NO_SEATS_AVAILABLE
+    }
+
+    @Getter
+    public static final class Checkout {
+        private final Status status;
+        private final Lease lease;
+        private final SeatPool pool;
+
+        Checkout(Status status, Lease lease, SeatPool pool) {
+            this.status = status;
+            this.lease = lease;
+            this.pool = pool;
+        }
+    }
+
+    private final LicenseStore licenseStore;
+    private final SeatLeaseRepository seatLeaseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SeatLeaseProperties properties;
+    private final String owner;
+    private final boolean shared;
+    private final TimingWheel wheel;
+    private final SeatLeaseTable table;
+
+    public SeatLeaseService(LicenseStore licenseStore,
+                            SeatLeaseRepository seatLeaseRepository,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            SeatLeaseProperties properties,
+                            ClusterProperties clusterProperties) {
+        this.licenseStore = licenseStore;
+        this.seatLeaseRepository = seatLeaseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.owner = clusterProperties.getInstanceId();
+        this.shared = clusterProperties.isEnabled();
+        this.wheel = new TimingWheel(properties.getTickMillis(), properties.getWheelSize(), System.currentTimeMillis());
+        this.table = new SeatLeaseTable(wheel);
+    }
+
+    @PostConstruct
+    public void start() {
+        restore();
+        wheel.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.close();
+        checkpoint();
+    }
+
+    public Checkout checkout(String licenseKey, String hwid) {
+        SeatPool pool = resolvePool(licenseKey);
+        if (pool == null) {
+            return new Checkout(Status.NOT_FOUND, null, null);
+        }
+        if (pool.getExpirationDate() != null && LocalDate.now().isAfter(pool.getExpirationDate())) {
+            return new Checkout(Status.EXPIRED, null, pool);
+        }
+
+        Grant grant = table.grant(pool, hwid, nextDeadline());
+        if (grant == null) {
+            return new Checkout(Status.NO_SEATS_AVAILABLE, null, pool);
+        }
+        if (shared && !claimSharedSeat(grant.lease())) {
+            // A lease the hwid already held stays: only this call's own seat is given back
+            if (grant.created()) {
+                grant.lease().release();
+            }
+            return new Checkout(Status.NO_SEATS_AVAILABLE, null, pool);
+        }
+        return new Checkout(Status.GRANTED, grant.lease(), pool);
+    }
+
+    /**
+     * Extends a live lease by one lease interval
+     */
+    public Optional<Lease> heartbeat(String licenseKey, String leaseId) {
+        Lease lease = table.findLease(licenseKey, leaseId);
+        if (lease == null || !lease.renew(nextDeadline())) {
+            return Optional.empty();
+        }
+        if (shared && jdbcTemplate.update("UPDATE seat_lease SET expires_at = ? WHERE lease_id = ?",
+                Timestamp.from(Instant.ofEpochMilli(lease.getDeadlineMillis())), lease.getLeaseId()) == 0
+                && !claimSharedSeat(lease)) {
+            lease.release();
+            return Optional.empty();
+        }
+        return Optional.of(lease);
+    }
+
+    public boolean release(String licenseKey, String leaseId) {
+        Lease lease = table.findLease(licenseKey, leaseId);
+        if (lease == null || !lease.release()) {
+            return false;
+        }
+        if (shared) {
+            jdbcTemplate.update("DELETE FROM seat_lease WHERE lease_id = ?", leaseId);
+        }
+        return true;
+    }
+
+    /**
+     * Takes the lease's seat in seat_lease, or renews its row. The license row is locked while the
+     * live leases of every instance are counted; a hwid that already holds a lease on another
+     * instance keeps its seat.
+     *
+     * @return false when every seat is taken cluster-wide or the license row is gone
+     */
+    private boolean claimSharedSeat(Lease lease) {
+        String licenseKey = lease.getPool().getLicenseKey();
+        Timestamp expiresAt = Timestamp.from(Instant.ofEpochMilli(lease.getDeadlineMillis()));
+        Boolean claimed = transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            String condition = LicenseKeySql.inCondition(List.of(licenseKey), params);
+            if (namedJdbcTemplate.queryForList("SELECT id FROM license WHERE " + condition + " FOR UPDATE",
+                    params, Long.class).isEmpty()) {
+                return false;
+            }
+            if (jdbcTemplate.update("UPDATE seat_lease SET expires_at = ? WHERE lease_id = ?",
+                    expiresAt, lease.getLeaseId()) == 1) {
+                return true;
+            }
+            List<String> hwids = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT hwid FROM seat_lease WHERE license_key = ? AND expires_at > ?",
+                    String.class, licenseKey, Timestamp.from(Instant.now()));
+            if (!hwids.contains(lease.getHwid()) && hwids.size() >= lease.getPool().getCapacity()) {
+                return false;
+            }
+            jdbcTemplate.update("INSERT INTO seat_lease (lease_id, license_key, hwid, expires_at, owner) VALUES (?, ?, ?, ?, ?)",
+                    lease.getLeaseId(), licenseKey, lease.getHwid(), expiresAt, owner);
+            return true;
+        });
+        return Boolean.TRUE.equals(claimed);
+    }
+
+    /**
+     * Drops the cached pool of a license, e.g. after its seats or expiration changed
+     */
+    public void evict(String licenseKey) {
+        table.removePool(licenseKey);
+    }
+
+    /**
+     * Refreshes the cached pools of changed licenses; revoked or deleted ones are dropped
+     * together with their leases, others keep their leases and pick up the new seats/expiration
+     */
+    @EventListener
+    public void onLicenseChanged(LicenseChangedEvent event) {
+        List<String> cached = event.licenseKeys().stream()
+                .filter(key -> table.getPool(key) != null)
+                .collect(Collectors.toList());
+        if (cached.isEmpty()) {
+            return;
+        }
+        Map<String, License> current = licenseStore.findByLicenseKeys(cached).stream()
+                .collect(Collectors.toMap(License::getLicenseKey, Function.identity()));
+        for (String licenseKey : cached) {
+            License license = current.get(licenseKey);
+            if (license == null || license.isRevoked()) {
+                table.removePool(licenseKey);
+            } else {
+                table.registerPool(licenseKey, license.getSeats(), license.getExpirationDate());
+            }
+        }
+    }
+
+    /**
+     * Rewrites the checkpoint table with the current live leases
+     */
+    @Scheduled(fixedDelayString = "${license.seats.checkpoint-interval-ms:30000}",
+               initialDelayString = "${license.seats.checkpoint-interval-ms:30000}")
+    public void checkpoint() {
+        if (shared) {
+            // Rows are written through; leases that were never released just expire
+            int deleted = jdbcTemplate.update("DELETE FROM seat_lease WHERE expires_at < ?", Timestamp.from(Instant.now()));
+            log.debug("Seat lease cleanup: {} expired lease(s) deleted", deleted);
+            return;
+        }
+        List<Lease> leases = table.snapshot();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM seat_lease WHERE owner = ? OR owner IS NULL", owner);
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO seat_lease (lease_id, license_key, hwid, expires_at, owner) VALUES (?, ?, ?, ?, ?)",
+                        leases, 500, (ps, lease) -> {
+                            ps.setString(1, lease.getLeaseId());
+                            ps.setString(2, lease.getPool().getLicenseKey());
+                            ps.setString(3, lease.getHwid());
+                            ps.setTimestamp(4, Timestamp.from(Instant.ofEpochMilli(lease.getDeadlineMillis())));
+                            ps.setString(5, owner);
+                        });
+            });
+            log.debug("Seat lease checkpoint written: {} lease(s)", leases.size());
+        } catch (Exception e) {
+            log.error("Seat lease checkpoint failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reloads this instance's checkpointed leases, the most recently renewed first, up to each
+     * license's current seat count
+     */
+    void restore() {
+        List<SeatLease> stored = seatLeaseRepository.findLiveOwnedBy(owner, Instant.now());
+        int restored = 0;
+        for (SeatLease row : stored) {
+            SeatPool pool = resolvePool(row.getLicenseKey());
+            if (pool != null && table.restore(pool, row.getLeaseId(), row.getHwid(),
+                    row.getExpiresAt().toEpochMilli()) != null) {
+                restored++;
+            }
+        }
+        if (restored > 0) {
+            log.info("Restored {} seat lease(s) from checkpoint", restored);
+        }
+        if (restored < stored.size()) {
+            // Licenses gone or revoked, or seats lowered while the instance was down
+            log.info("Dropped {} checkpointed seat lease(s) that no longer fit their license", stored.size() - restored);
+        }
+    }
+
+    private SeatPool resolvePool(String licenseKey) {
+        SeatPool pool = table.getPool(licenseKey);
+        if (pool != null) {
+            return pool;
+        }
+        Optional<License> license = licenseStore.findByLicenseKey(licenseKey);
+        return license
+                .filter(l -> !l.isRevoked())
+                .map(l -> table.registerPool(l.getLicenseKey(), l.getSeats(), l.getExpirationDate()))
+                .orElse(null);
+    }
+
+    private long nextDeadline() {
+        return System.currentTimeMillis() + properties.getLeaseSeconds() * 1000;
+    }
+
+    SeatLeaseTable getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,220 @@
+package co.com.validate.license.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+/**
+ * In-memory table of live floating seat leases.
+ *
+ * Every license gets a {@link SeatPool} holding its cached seat count and expiration date. Seat
+ * accounting is a CAS on an {@link AtomicInteger}, lookups are hash map reads and expiry is
+ * driven by a {@link TimingWheel}, so checkout, heartbeat and release never lock or hit the database.
+ */
+public class SeatLeaseTable {
+
+    private final ConcurrentHashMap<String, SeatPool> pools = new ConcurrentHashMap<>();
+    private final TimingWheel wheel;
+
+    public SeatLeaseTable(TimingWheel wheel) {
+        this.wheel = wheel;
+    }
+
+    public SeatPool getPool(String licenseKey) {
+        return pools.get(licenseKey);
+    }
+
+    /**
+     * Registers (or refreshes) the cached license attributes used by the seat checks
+     */
+    public SeatPool registerPool(String licenseKey, int seats, LocalDate expirationDate) {
+        SeatPool pool = pools.computeIfAbsent(licenseKey, SeatPool::new);
+        pool.capacity = seats;
+        pool.expirationDate = expirationDate;
+        return pool;
+    }
+
+    /**
+     * Drops the pool of a license and releases all of its leases
+     */
+    public void removePool(String licenseKey) {
+        SeatPool pool = pools.remove(licenseKey);
+        if (pool != null) {
+            pool.byId.values().forEach(Lease::release);
+        }
+    }
+
+    /**
+     * Grants a seat to {@code hwid}, or renews the lease it already holds.
+     *
+     * @return the lease, or null when every seat is taken
+     */
+    public Lease checkout(SeatPool pool, String hwid, long deadlineMillis) {
+        Grant grant = grant(pool, hwid, deadlineMillis);
+        return grant == null ? null : grant.lease();
+    }
+
+    /**
+     * {@link #checkout}, telling whether the lease was created by this call or was already held
+     *
+     * @return null when every seat is taken
+     */
+    public Grant grant(SeatPool pool, String hwid, long deadlineMillis) {
+        Lease existing = pool.byHwid.get(hwid);
+        if (existing != null && existing.renew(deadlineMillis)) {
+            return new Grant(existing, false);
+        }
+
+        if (!pool.tryReserve()) {
+            return null;
+        }
+
+        Lease lease = new Lease(pool, UUID.randomUUID().toString(), hwid, deadlineMillis);
+        Lease raced = pool.byHwid.putIfAbsent(hwid, lease);
+        if (raced != null) {
+            pool.inUse.decrementAndGet();
+            return raced.renew(deadlineMillis) ? new Grant(raced, false) : null;
+        }
+        pool.byId.put(lease.leaseId, lease);
+        wheel.schedule(lease);
+        return new Grant(lease, true);
+    }
+
+    /**
+     * Re-inserts a lease loaded from a checkpoint, within the pool's current capacity: seats
+     * lowered while the instance was down drop the leases that no longer fit.
+     *
+     * @return the lease, or null when the hwid already holds one or every seat is taken
+     */
+    public Lease restore(SeatPool pool, String leaseId, String hwid, long deadlineMillis) {
+        if (pool.byHwid.containsKey(hwid) || !pool.tryReserve()) {
+            return null;
+        }
+        Lease lease = new Lease(pool, leaseId, hwid, deadlineMillis);
+        if (pool.byHwid.putIfAbsent(hwid, lease) != null) {
+            pool.inUse.decrementAndGet();
+            return null;
+        }
+        pool.byId.put(leaseId, lease);
+        wheel.schedule(lease);
+        return lease;
+    }
+
+    public Lease findLease(String licenseKey, String leaseId) {
+        SeatPool pool = pools.get(licenseKey);
+        return pool == null ? null : pool.byId.get(leaseId);
+    }
+
+    /**
+     * Point-in-time copy of every live lease, used by the checkpoint
+     */
+    public List<Lease> snapshot() {
+        List<Lease> leases = new ArrayList<>();
+        for (SeatPool pool : pools.values()) {
+            for (Lease lease : pool.byId.values()) {
+                if (!lease.isDone()) {
+                    leases.add(lease);
+                }
+            }
+        }
+        return leases;
+    }
+
+    /**
+     * @param created false when the hwid already held the lease and it was renewed
+     */
+    public record Grant(Lease lease, boolean created) {
+    }
+
+    @Getter
+    public static final class SeatPool {
+
+        private final String licenseKey;
+        private volatile int capacity;
+        private volatile LocalDate expirationDate;
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final ConcurrentHashMap<String, Lease> byId = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Lease> byHwid = new ConcurrentHashMap<>();
+
+        SeatPool(String licenseKey) {
+            this.licenseKey = licenseKey;
+        }
+
+        public int getSeatsInUse() {
+            return inUse.get();
+        }
+
+        private boolean tryReserve() {
+            while (true) {
+                int used = inUse.get();
+                if (used >= capacity) {
+                    return false;
+                }
+                if (inUse.compareAndSet(used, used + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    @Getter
+    public static final class Lease implements TimingWheel.Entry {
+
+        private final SeatPool pool;
+        private final String leaseId;
+        private final String hwid;
+        private volatile long deadlineMillis;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Lease(SeatPool pool, String leaseId, String hwid, long deadlineMillis) {
+            this.pool = pool;
+            this.leaseId = leaseId;
+            this.hwid = hwid;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        /**
+         * Moves the deadline forward; the timing wheel picks the new deadline up lazily
+         *
+         * @return false if the lease was already released or expired
+         */
+        public boolean renew(long newDeadlineMillis) {
+            if (released.get()) {
+                return false;
+            }
+            deadlineMillis = newDeadlineMillis;
+            return !released.get();
+        }
+
+        /**
+         * Frees the seat held by this lease
+         *
+         * @return false if the lease had already been released
+         */
+        public boolean release() {
+            if (!released.compareAndSet(false, true)) {
+                return false;
+            }
+            pool.byId.remove(leaseId, this);
+            pool.byHwid.remove(hwid, this);
+            pool.inUse.decrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean isDone() {
+            return released.get();
+        }
+
+        @Override
+        public void expire() {
+            release();
+        }
+    }
+}
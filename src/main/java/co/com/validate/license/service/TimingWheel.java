@@ -0,0 +1,117 @@
+package co.com.validate.license.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashed timing wheel that expires entries without scanning every live entry.
+ *
+ * Entries are bucketed by the tick of their deadline and a single ticker thread walks one bucket
+ * per tick. Renewals only move the deadline of an entry; when the ticker reaches an entry whose
+ * deadline moved forward it is re-bucketed lazily, so renewals never touch the wheel.
+ */
+@Slf4j
+public class TimingWheel implements AutoCloseable {
+
+    public interface Entry {
+
+        long getDeadlineMillis();
+
+        boolean isDone();
+
+        /** Called by the ticker thread once the deadline has passed */
+        void expire();
+    }
+
+    private final long tickMillis;
+    private final ConcurrentLinkedQueue<Entry>[] buckets;
+    private final int mask;
+    private volatile long currentTick;
+    private ScheduledExecutorService ticker;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.buckets = new ConcurrentLinkedQueue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Starts the background ticker thread
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "timing-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance(System.currentTimeMillis());
+            } catch (Exception e) {
+                log.error("Timing wheel tick failed: {}", e.getMessage(), e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void schedule(Entry entry) {
+        // Never add to the bucket being drained; an entry lands at most one tick late
+        long tick = Math.max(entry.getDeadlineMillis() / tickMillis, currentTick + 1);
+        buckets[(int) (tick & mask)].add(entry);
+    }
+
+    /**
+     * Expires every entry whose deadline is at or before {@code nowMillis}.
+     * Must only be called from a single thread (the ticker, or a test).
+     */
+    void advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        long steps = Math.min(targetTick - currentTick + 1, buckets.length);
+        List<Entry> pending = new ArrayList<>();
+
+        for (long i = 0; i < steps; i++) {
+            ConcurrentLinkedQueue<Entry> bucket = buckets[(int) ((currentTick + i) & mask)];
+            Entry entry;
+            while ((entry = bucket.poll()) != null) {
+                if (entry.isDone()) {
+                    continue;
+                }
+                if (entry.getDeadlineMillis() <= nowMillis) {
+                    entry.expire();
+                } else {
+                    pending.add(entry);
+                }
+            }
+        }
+
+        if (targetTick > currentTick) {
+            currentTick = targetTick;
+        }
+        pending.forEach(this::schedule);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package co.com.validate.license.service;
+
+import java.time.Instant;
+import java.util.Date;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import co.com.validate.license.cluster.service.ClusterChangeLog;
+import co.com.validate.license.model.RevokedToken;
+import co.com.validate.license.repository.RevokedTokenRepository;
+import co.com.validate.license.security.TokenDenylist;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revocation of API tokens before they expire. Revoked ids are stored in the revoked_token table
+ * and mirrored in the in-memory {@link TokenDenylist} checked by token validation; the table is
+ * reloaded into the denylist at startup and both are purged once the tokens have expired. In
+ * cluster mode the other instances pick the revocation up through the {@link ClusterChangeLog}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final ClusterChangeLog clusterChangeLog;
+
+    @PostConstruct
+    public void load() {
+        int loaded = 0;
+        for (RevokedToken revoked : revokedTokenRepository.findByExpiresAtAfter(Instant.now())) {
+            tokenDenylist.add(revoked.getJti(), Date.from(revoked.getExpiresAt()));
+            loaded++;
+        }
+        if (loaded > 0) {
+            log.info("Loaded {} revoked tokens into the denylist", loaded);
+        }
+    }
+
+    /**
+     * Revokes a validated token
+     *
+     * @throws IllegalArgumentException if the token has no jti or no expiration
+     */
+    @Transactional
+    public void revoke(JWTClaimsSet claims) {
+        if (claims.getJWTID() == null || claims.getExpirationTime() == null) {
+            throw new IllegalArgumentException("El token no tiene jti o expiración y no puede revocarse");
+        }
+        RevokedToken revoked = new RevokedToken();
+        revoked.setJti(claims.getJWTID());
+        revoked.setSubject(claims.getSubject());
+        revoked.setExpiresAt(claims.getExpirationTime().toInstant());
+        revoked.setRevokedAt(Instant.now());
+        revokedTokenRepository.save(revoked);
+        clusterChangeLog.recordRevokedToken(revoked.getJti());
+        tokenDenylist.add(revoked.getJti(), claims.getExpirationTime());
+        log.info("Revoked token {} of subject {}", revoked.getJti(), revoked.getSubject());
+    }
+
+    /**
+     * Drops revocations of tokens that have expired since
+     */
+    @Scheduled(fixedDelayString = "${security.jwe.revocation-purge-interval-ms:60000}")
+    public void purgeExpired() {
+        int dropped = tokenDenylist.dropExpired(System.currentTimeMillis());
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        if (dropped > 0 || deleted > 0) {
+            log.debug("Purged {} expired revocations ({} rows)", dropped, deleted);
+        }
+    }
+}
@@ -16,6 +16,5 @@ public class BotSession {
     }
 
     private Estado estado = Estado.IDLE;
-    private String licenseKey;
     private String email;
 }
@@ -3,7 +3,6 @@ package co.com.validate.license.telegram.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,8 +18,7 @@ import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
 import co.com.validate.license.model.License;
-import co.com.validate.license.repository.LicenseRepository;
-import co.com.validate.license.service.EmailService;
+import co.com.validate.license.service.LicenseCreationService;
 import co.com.validate.license.telegram.config.TelegramBotProperties;
 import co.com.validate.license.telegram.model.BotSession;
 import co.com.validate.license.telegram.model.TelegramAuthorizedUser;
@@ -34,8 +32,7 @@ public class TelegramBotService implements SpringLongPollingBot, LongPollingSing
 
     private final TelegramBotProperties botProperties;
     private final TelegramAuthorizedUserRepository authorizedUserRepository;
-    private final LicenseRepository licenseRepository;
-    private final EmailService emailService;
+    private final LicenseCreationService licenseCreationService;
     private final TelegramClient telegramClient;
 
     private final ConcurrentHashMap<Long, BotSession> sessions = new ConcurrentHashMap<>();
@@ -43,25 +40,21 @@ public class TelegramBotService implements SpringLongPollingBot, LongPollingSing
     @Autowired
     public TelegramBotService(TelegramBotProperties botProperties,
                                TelegramAuthorizedUserRepository authorizedUserRepository,
-                               LicenseRepository licenseRepository,
-                               EmailService emailService) {
+                               LicenseCreationService licenseCreationService) {
         this.botProperties = botProperties;
         this.authorizedUserRepository = authorizedUserRepository;
-        this.licenseRepository = licenseRepository;
-        this.emailService = emailService;
+        this.licenseCreationService = licenseCreationService;
         this.telegramClient = new OkHttpTelegramClient(botProperties.getToken());
     }
 
     // Package-private constructor for testing — accepts injected TelegramClient
     TelegramBotService(TelegramBotProperties botProperties,
                        TelegramAuthorizedUserRepository authorizedUserRepository,
-                       LicenseRepository licenseRepository,
-                       EmailService emailService,
+                       LicenseCreationService licenseCreationService,
                        TelegramClient telegramClient) {
         this.botProperties = botProperties;
         this.authorizedUserRepository = authorizedUserRepository;
-        this.licenseRepository = licenseRepository;
-        this.emailService = emailService;
+        this.licenseCreationService = licenseCreationService;
         this.telegramClient = telegramClient;
     }
 
@@ -157,15 +150,12 @@ public class TelegramBotService implements SpringLongPollingBot, LongPollingSing
             sendMessage(chatId, "🚫 No estás autorizado para crear licencias.");
             return;
         }
-        String generatedKey = UUID.randomUUID().toString().toUpperCase();
-        session.setLicenseKey(generatedKey);
         session.setEstado(BotSession.Estado.ESPERANDO_EMAIL);
         sendMessage(chatId, "📧 Ingresa el email del cliente:");
     }
 
     private void handleCancelar(Long chatId, BotSession session) {
         session.setEstado(BotSession.Estado.IDLE);
-        session.setLicenseKey(null);
         session.setEmail(null);
         sendMessage(chatId, "❌ Operación cancelada.");
     }
@@ -250,18 +240,12 @@ public class TelegramBotService implements SpringLongPollingBot, LongPollingSing
         int days = months * 30;
 
         License license = new License();
-        license.setLicenseKey(session.getLicenseKey());
         license.setEmail(session.getEmail());
         license.setExpirationDate(LocalDate.now().plusDays(days));
         license.setActive(false);
 
-        licenseRepository.save(license);
-
-        emailService.sendLicenseCreationEmail(
-                license.getEmail(),
-                license.getLicenseKey(),
-                license.getExpirationDate()
-        );
+        // Key generated server-side at creation time (retried on the rare collision)
+        license = licenseCreationService.createGenerated(license);
 
         String successMsg = String.format(
                 "🎉 ¡Licencia creada exitosamente!\n\n🔑 Clave: %s\n📧 Email: %s\n📅 Válida hasta: %s",
@@ -273,7 +257,6 @@ public class TelegramBotService implements SpringLongPollingBot, LongPollingSing
         sendMessage(chatId, successMsg);
 
         session.setEstado(BotSession.Estado.IDLE);
-        session.setLicenseKey(null);
         session.setEmail(null);
     }
 
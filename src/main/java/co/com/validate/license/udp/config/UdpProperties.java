@@ -0,0 +1,31 @@
+package co.com.validate.license.udp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "license.udp")
+@Getter
+@Setter
+public class UdpProperties {
+
+    private boolean enabled = false;
+    private String bindAddress = "0.0.0.0";
+    private int port = 8299;
+    private int workerThreads = 4;
+
+    /** Sustained requests per second allowed from one source address */
+    private double rateLimitPerSecond = 20;
+
+    /** Burst size allowed from one source address */
+    private int rateLimitBurst = 40;
+
+    /** Accepted clock skew of request timestamps; nonces are remembered for this long */
+    private long replayWindowSeconds = 30;
+
+    /** Upper bound of rate limiter buckets kept in memory */
+    private int maxTrackedSources = 100_000;
+}
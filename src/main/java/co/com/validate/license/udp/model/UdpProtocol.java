@@ -0,0 +1,146 @@
+package co.com.validate.license.udp.model;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Arrays;
+
+import co.com.validate.license.model.License;
+import co.com.validate.license.security.ActivationSignatureVerifier;
+
+/**
+ * Wire format of the UDP license check (all integers big-endian).
+ *
+ * <pre>
+ * request  (92 bytes): magic "LV" | version 1 | type 1 | nonce[16] | timestamp epoch seconds (8)
+ *                      | sha256(licenseKey)[32] | sha256(hwid)[32]
+ * response (96 bytes): magic "LV" | version 1 | status (1) | nonce[16] | expiration epoch day (4, -1 if unknown)
+ *                      | server time epoch seconds (8) | Ed25519 signature[64] over the first 32 bytes
+ * </pre>
+ *
+ * The response echoes the request nonce, so a client only accepts a response to its own request.
+ * The signature uses the key published at /api/license/signing-key.
+ */
+public final class UdpProtocol {
+
+    public static final byte MAGIC_0 = 'L';
+    public static final byte MAGIC_1 = 'V';
+    public static final byte VERSION = 1;
+    public static final byte TYPE_CHECK = 1;
+
+    public static final int NONCE_LENGTH = 16;
+    public static final int HASH_LENGTH = 32;
+    public static final int REQUEST_LENGTH = 4 + NONCE_LENGTH + 8 + HASH_LENGTH * 2;
+    public static final int SIGNED_LENGTH = 4 + NONCE_LENGTH + 4 + 8;
+    public static final int SIGNATURE_LENGTH = 64;
+    public static final int RESPONSE_LENGTH = SIGNED_LENGTH + SIGNATURE_LENGTH;
+
+    public enum Status {
+        OK(0),
+        NOT_FOUND(1),
+        OTHER_HWID(2),
+        EXPIRED(3),
+        NOT_ACTIVATED(4),
+        REVOKED(5);
+
+        private final byte code;
+
+        Status(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+        public static Status fromCode(byte code) {
+            for (Status status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown status " + code);
+        }
+    }
+
+    public record Request(byte[] nonce, long timestamp, byte[] licenseKeyHash, byte[] hwidHash) {
+    }
+
+    public record Response(Status status, byte[] nonce, int expirationEpochDay, long serverTime) {
+    }
+
+    private UdpProtocol() {
+    }
+
+    /**
+     * @return the decoded request, or null when the datagram is not a well-formed v1 check
+     */
+    public static Request decodeRequest(ByteBuffer buffer) {
+        if (buffer.remaining() != REQUEST_LENGTH
+                || buffer.get() != MAGIC_0 || buffer.get() != MAGIC_1
+                || buffer.get() != VERSION || buffer.get() != TYPE_CHECK) {
+            return null;
+        }
+        byte[] nonce = new byte[NONCE_LENGTH];
+        buffer.get(nonce);
+        long timestamp = buffer.getLong();
+        byte[] keyHash = new byte[HASH_LENGTH];
+        buffer.get(keyHash);
+        byte[] hwidHash = new byte[HASH_LENGTH];
+        buffer.get(hwidHash);
+        return new Request(nonce, timestamp, keyHash, hwidHash);
+    }
+
+    public static byte[] encodeRequest(String licenseKey, String hwid, byte[] nonce, long timestamp) {
+        return ByteBuffer.allocate(REQUEST_LENGTH)
+                .put(MAGIC_0).put(MAGIC_1).put(VERSION).put(TYPE_CHECK)
+                .put(nonce)
+                .putLong(timestamp)
+                .put(License.sha256(licenseKey))
+                .put(License.sha256(hwid))
+                .array();
+    }
+
+    /**
+     * Bytes of a response that are covered by the signature
+     */
+    public static byte[] encodeResponseBody(Status status, byte[] nonce, int expirationEpochDay, long serverTime) {
+        return ByteBuffer.allocate(SIGNED_LENGTH)
+                .put(MAGIC_0).put(MAGIC_1).put(VERSION).put(status.getCode())
+                .put(nonce)
+                .putInt(expirationEpochDay)
+                .putLong(serverTime)
+                .array();
+    }
+
+    /**
+     * Parses a response and checks its signature
+     *
+     * @return the response, or null if it is malformed or the signature does not verify
+     */
+    public static Response decodeResponse(byte[] datagram, int length, PublicKey publicKey) {
+        if (length != RESPONSE_LENGTH) {
+            return null;
+        }
+        try {
+            Signature verifier = Signature.getInstance(ActivationSignatureVerifier.ALGORITHM);
+            verifier.initVerify(publicKey);
+            verifier.update(datagram, 0, SIGNED_LENGTH);
+            if (!verifier.verify(Arrays.copyOfRange(datagram, SIGNED_LENGTH, RESPONSE_LENGTH))) {
+                return null;
+            }
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(datagram, 0, SIGNED_LENGTH);
+        if (buffer.get() != MAGIC_0 || buffer.get() != MAGIC_1 || buffer.get() != VERSION) {
+            return null;
+        }
+        Status status = Status.fromCode(buffer.get());
+        byte[] nonce = new byte[NONCE_LENGTH];
+        buffer.get(nonce);
+        return new Response(status, nonce, buffer.getInt(), buffer.getLong());
+    }
+}
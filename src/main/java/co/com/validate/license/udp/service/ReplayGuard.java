@@ -0,0 +1,55 @@
+package co.com.validate.license.udp.service;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects stale requests and repeated nonces.
+ *
+ * A request is accepted only if its timestamp is within the window of the server clock and its
+ * nonce was not seen before. Nonces are kept in two generations that rotate every window, so
+ * every nonce is remembered for at least one window and cleanup is a constant-time swap.
+ */
+public class ReplayGuard {
+
+    private final long windowSeconds;
+    private volatile Set<Nonce> current = ConcurrentHashMap.newKeySet();
+    private volatile Set<Nonce> previous = ConcurrentHashMap.newKeySet();
+    private volatile long generationStart;
+
+    public ReplayGuard(long windowSeconds, long nowSeconds) {
+        this.windowSeconds = windowSeconds;
+        this.generationStart = nowSeconds;
+    }
+
+    public boolean accept(byte[] nonce, long timestampSeconds, long nowSeconds) {
+        if (Math.abs(nowSeconds - timestampSeconds) > windowSeconds) {
+            return false;
+        }
+        rotateIfNeeded(nowSeconds);
+
+        ByteBuffer buffer = ByteBuffer.wrap(nonce);
+        Nonce key = new Nonce(buffer.getLong(), buffer.getLong());
+        if (previous.contains(key)) {
+            return false;
+        }
+        return current.add(key);
+    }
+
+    private void rotateIfNeeded(long nowSeconds) {
+        if (nowSeconds - generationStart < windowSeconds * 2) {
+            return;
+        }
+        synchronized (this) {
+            if (nowSeconds - generationStart >= windowSeconds * 2) {
+                previous = current;
+                current = ConcurrentHashMap.newKeySet();
+                generationStart = nowSeconds;
+            }
+        }
+    }
+
+    private record Nonce(long high, long low) {
+    }
+}
@@ -0,0 +1,77 @@
+package co.com.validate.license.udp.service;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket per source address. A bucket is refilled lazily from the elapsed time when it is
+ * used, so idle sources cost nothing. Past maxSources the map drops the buckets that have
+ * refilled completely, then the least recently used ones: datagrams from spoofed addresses
+ * cannot reset the bucket of a source that is still sending.
+ */
+public class SourceRateLimiter {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final int maxSources;
+    private final ConcurrentHashMap<InetAddress, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public SourceRateLimiter(double perSecond, int burst, int maxSources) {
+        this.tokensPerNano = perSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.maxSources = maxSources;
+    }
+
+    public boolean tryAcquire(InetAddress source, long nowNanos) {
+        if (buckets.size() > maxSources) {
+            evict(nowNanos);
+        }
+        Bucket bucket = buckets.computeIfAbsent(source, s -> new Bucket(burst, nowNanos));
+        synchronized (bucket) {
+            bucket.tokens = Math.min(burst, bucket.tokens + (nowNanos - bucket.lastRefill) * tokensPerNano);
+            bucket.lastRefill = nowNanos;
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens -= 1;
+            return true;
+        }
+    }
+
+    /**
+     * Brings the map back to 90% of its bound: full buckets first, then least recently used
+     */
+    private synchronized void evict(long nowNanos) {
+        if (buckets.size() <= maxSources) {
+            return;
+        }
+        List<Map.Entry<InetAddress, Long>> lastUsed = new ArrayList<>();
+        buckets.forEach((source, bucket) -> {
+            synchronized (bucket) {
+                if (bucket.tokens + (nowNanos - bucket.lastRefill) * tokensPerNano >= burst) {
+                    buckets.remove(source, bucket);
+                } else {
+                    lastUsed.add(Map.entry(source, bucket.lastRefill));
+                }
+            }
+        });
+        int excess = buckets.size() - maxSources * 9 / 10;
+        if (excess > 0) {
+            lastUsed.sort(Map.Entry.comparingByValue());
+            lastUsed.subList(0, Math.min(excess, lastUsed.size())).forEach(entry -> buckets.remove(entry.getKey()));
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+}
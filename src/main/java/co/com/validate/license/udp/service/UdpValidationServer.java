@@ -0,0 +1,151 @@
+package co.com.validate.license.udp.service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import co.com.validate.license.security.ActivationSigner;
+import co.com.validate.license.service.LicenseValidationService;
+import co.com.validate.license.udp.config.UdpProperties;
+import co.com.validate.license.udp.model.UdpProtocol;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional UDP listener answering compact license checks (see {@link UdpProtocol}) with the same
+ * rules as the REST activation endpoint.
+ *
+ * One receiver thread reads datagrams and applies the cheap rejections (malformed, rate limited,
+ * replayed) inline; valid requests are handed to a bounded worker pool that runs the validation
+ * and sends the signed answer. Rejected and overflowing datagrams are dropped without a reply.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "license.udp.enabled", havingValue = "true")
+public class UdpValidationServer {
+
+    private final UdpProperties properties;
+    private final LicenseValidationService licenseValidationService;
+    private final ActivationSigner activationSigner;
+    private final SourceRateLimiter rateLimiter;
+    private final ReplayGuard replayGuard;
+
+    private final AtomicLong answered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private DatagramChannel channel;
+    private ThreadPoolExecutor workers;
+    private Thread receiver;
+
+    public UdpValidationServer(UdpProperties properties, LicenseValidationService licenseValidationService,
+                               ActivationSigner activationSigner) {
+        this.properties = properties;
+        this.licenseValidationService = licenseValidationService;
+        this.activationSigner = activationSigner;
+        this.rateLimiter = new SourceRateLimiter(properties.getRateLimitPerSecond(),
+                properties.getRateLimitBurst(), properties.getMaxTrackedSources());
+        this.replayGuard = new ReplayGuard(properties.getReplayWindowSeconds(), System.currentTimeMillis() / 1000);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(properties.getBindAddress(), properties.getPort()));
+
+        int threads = Math.max(1, properties.getWorkerThreads());
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 256),
+                r -> {
+                    Thread thread = new Thread(r, "udp-validation-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (r, executor) -> dropped.incrementAndGet());
+
+        receiver = new Thread(this::receiveLoop, "udp-validation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+        log.info("UDP license validation listening on {}", channel.getLocalAddress());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    public int getLocalPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    public long getAnswered() {
+        return answered.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void receiveLoop() {
+        ByteBuffer buffer = ByteBuffer.allocate(UdpProtocol.REQUEST_LENGTH + 1);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress source = channel.receive(buffer);
+                buffer.flip();
+                handleDatagram(buffer, (InetSocketAddress) source);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (Exception e) {
+                log.warn("UDP receive failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handleDatagram(ByteBuffer buffer, InetSocketAddress source) {
+        UdpProtocol.Request request = UdpProtocol.decodeRequest(buffer);
+        if (request == null
+                || !rateLimiter.tryAcquire(source.getAddress(), System.nanoTime())
+                || !replayGuard.accept(request.nonce(), request.timestamp(), System.currentTimeMillis() / 1000)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        workers.execute(() -> answer(request, source));
+    }
+
+    private void answer(UdpProtocol.Request request, InetSocketAddress source) {
+        try {
+            LicenseValidationService.Result result =
+                    licenseValidationService.check(request.licenseKeyHash(), request.hwidHash());
+
+            UdpProtocol.Status status = UdpProtocol.Status.valueOf(result.getOutcome().name());
+            // Expiration is only disclosed to the bound hwid, as in the REST response
+            boolean disclose = status == UdpProtocol.Status.OK || status == UdpProtocol.Status.EXPIRED;
+            int expiration = disclose ? (int) result.getLicense().getExpirationDate().toEpochDay() : -1;
+            byte[] body = UdpProtocol.encodeResponseBody(status, request.nonce(), expiration,
+                    System.currentTimeMillis() / 1000);
+
+            ByteBuffer response = ByteBuffer.allocate(UdpProtocol.RESPONSE_LENGTH);
+            response.put(body).put(activationSigner.signDirect(body)).flip();
+            channel.send(response, source);
+            answered.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("UDP license check failed for {}: {}", source, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Cluster mode counts the live leases of a license across instances on every checkout
+
+create index idx_seat_lease_license on seat_lease (license_key, expires_at);
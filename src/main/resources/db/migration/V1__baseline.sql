@@ -0,0 +1,22 @@
+-- Schema as Hibernate generated it with ddl-auto=update before Flyway took over: License and
+-- TelegramAuthorizedUser only, both with IDENTITY ids.
+-- Databases created that way are baselined at this version and skip this script.
+
+create table license (
+    active boolean not null,
+    expiration_date date,
+    id bigint generated by default as identity,
+    email varchar(255) not null,
+    hwid varchar(255),
+    license_key varchar(255) not null unique,
+    primary key (id)
+);
+
+create table telegram_authorized_user (
+    added_at timestamp(6),
+    added_by_chat_id bigint,
+    chat_id bigint not null unique,
+    id bigint generated by default as identity,
+    username varchar(255),
+    primary key (id)
+);
@@ -0,0 +1,74 @@
+-- Objects added while the schema was still managed by ddl-auto=update: email outbox,
+-- idempotency records, revoked tokens, seat leases, and the seats/revoked/key_hash columns
+-- and pooled id sequence of license.
+-- IF NOT EXISTS keeps this safe on databases that ddl-auto=update already extended.
+
+create sequence if not exists email_outbox_seq start with 1 increment by 50;
+
+-- LicenseSequenceInitializer moves it past the ids assigned by IDENTITY after every migration
+create sequence if not exists license_seq start with 1 increment by 50;
+
+alter table license alter column id drop identity;
+
+alter table license add column if not exists revoked boolean default false not null;
+
+alter table license add column if not exists seats integer default 1 not null;
+
+alter table license add column if not exists key_hash varbinary(32);
+
+create table if not exists email_outbox (
+    attempts integer not null,
+    expiration_date date,
+    priority integer not null,
+    created_at timestamp(6) with time zone not null,
+    id bigint not null,
+    next_attempt_at timestamp(6) with time zone not null,
+    sent_at timestamp(6) with time zone,
+    last_error varchar(1000),
+    dedup_key varchar(255) not null,
+    license_key varchar(255) not null,
+    recipient varchar(255) not null,
+    status enum ('DEAD','PENDING','SENDING','SENT') not null,
+    type enum ('EXPIRATION_WARNING','LICENSE_CREATION') not null,
+    primary key (id),
+    constraint idx_email_outbox_dedup unique (dedup_key)
+);
+
+create table if not exists idempotency_record (
+    status integer not null,
+    created_at timestamp(6) with time zone not null,
+    expires_at timestamp(6) with time zone not null,
+    request_hash varchar(64) not null,
+    content_type varchar(100),
+    idempotency_key varchar(255) not null,
+    response_body clob,
+    primary key (idempotency_key)
+);
+
+create table if not exists revoked_token (
+    expires_at timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    jti varchar(64) not null,
+    subject varchar(255),
+    primary key (jti)
+);
+
+create table if not exists seat_lease (
+    expires_at timestamp(6) with time zone not null,
+    hwid varchar(255) not null,
+    lease_id varchar(255) not null,
+    license_key varchar(255) not null,
+    primary key (lease_id)
+);
+
+create index if not exists idx_email_outbox_due on email_outbox (status, priority, next_attempt_at);
+
+create index if not exists idx_idempotency_expires on idempotency_record (expires_at);
+
+create index if not exists idx_license_key_hash on license (key_hash);
+
+create index if not exists idx_license_email on license (email);
+
+create index if not exists idx_license_expiration on license (expiration_date);
+
+create index if not exists idx_revoked_token_expires on revoked_token (expires_at);
@@ -0,0 +1,12 @@
+-- The expiration scheduler filters on expiration_date AND active; the composite index covers
+-- both predicates and makes the single-column expiration index redundant.
+-- IF [NOT] EXISTS keeps this safe on databases baselined from ddl-auto=update, which may or
+-- may not have the annotation indexes yet.
+
+create index if not exists idx_license_expiration_active on license (expiration_date, active);
+
+drop index if exists idx_license_expiration;
+
+create index if not exists idx_license_email on license (email);
+
+create index if not exists idx_license_hwid on license (hwid);
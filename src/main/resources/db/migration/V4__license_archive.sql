@@ -0,0 +1,18 @@
+-- Cold storage for licenses expired longer than license.archive.retention-days.
+-- Rows keep their original id; archived_at records when the archiver moved them.
+
+create table license_archive (
+    active boolean not null,
+    expiration_date date,
+    revoked boolean not null,
+    seats integer not null,
+    archived_at timestamp(6) with time zone not null,
+    id bigint not null,
+    key_hash varbinary(32),
+    email varchar(255) not null,
+    hwid varchar(255),
+    license_key varchar(255) not null unique,
+    primary key (id)
+);
+
+create index idx_license_archive_key_hash on license_archive (key_hash);
@@ -0,0 +1,12 @@
+-- Keys in canonical upper-case UUID form move to a 16-byte UUID column with its own unique
+-- index; license_key keeps only free-form legacy keys and becomes nullable.
+
+alter table license add column key_uuid uuid;
+
+alter table license alter column license_key set null;
+
+update license
+   set key_uuid = cast(license_key as uuid), license_key = null
+ where regexp_like(license_key, '^[0-9A-F]{8}-[0-9A-F]{4}-[0-9A-F]{4}-[0-9A-F]{4}-[0-9A-F]{12}$');
+
+create unique index uk_license_key_uuid on license (key_uuid);
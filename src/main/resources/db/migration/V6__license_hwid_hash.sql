@@ -0,0 +1,9 @@
+-- Support looks licenses up by hwid; a 32-byte hash of the normalized hwid keeps that index
+-- fixed-width instead of indexing the free-form varchar. Existing rows are hashed on startup
+-- by LicenseKeyHashBackfill, since the normalization lives in License.hwidHash.
+
+alter table license add column hwid_hash varbinary(32);
+
+create index idx_license_hwid_hash on license (hwid_hash);
+
+drop index if exists idx_license_hwid;
@@ -0,0 +1,20 @@
+-- Invalidation channel between instances sharing one database (license.cluster.enabled).
+-- Writers add a row in the same transaction as the change; every other instance polls
+-- the rows newer than its last poll and refreshes its in-memory copies.
+
+create sequence cluster_change_seq start with 1 increment by 1;
+
+create table cluster_change (
+    id bigint not null,
+    changed_at timestamp(6) with time zone not null,
+    kind varchar(16) not null,
+    origin varchar(64) not null,
+    item varchar(255) not null,
+    primary key (id)
+);
+
+create index idx_cluster_change_changed_at on cluster_change (changed_at);
+
+-- Live seat leases belong to the instance holding them; each instance checkpoints and
+-- restores only its own rows. Rows written before this migration have no owner
+alter table seat_lease add column owner varchar(64);
@@ -0,0 +1,6 @@
+-- Day the current hwid was bound (cleared with it), for the activations-per-day statistic.
+-- Licenses activated before this migration have no date and are not counted per day.
+
+alter table license add column activated_at date;
+
+create index idx_license_activated_at on license (activated_at);
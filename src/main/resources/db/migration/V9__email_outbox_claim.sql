@@ -0,0 +1,7 @@
+-- Instance that moved the row to SENDING and when, so an instance only recovers its own
+-- in-flight emails, or claims older than email.outbox.claim-timeout-ms.
+-- Rows claimed before this migration have no owner and are recovered by any instance.
+
+alter table email_outbox add column claimed_by varchar(255);
+
+alter table email_outbox add column claimed_at timestamp(6) with time zone;
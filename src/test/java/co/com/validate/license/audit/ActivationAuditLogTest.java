@@ -0,0 +1,249 @@
+package co.com.validate.license.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import co.com.validate.license.audit.config.AuditProperties;
+import co.com.validate.license.audit.model.ActivationAuditEvent;
+import co.com.validate.license.audit.service.ActivationAuditLog;
+import co.com.validate.license.audit.service.RingBuffer;
+
+class ActivationAuditLogTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path directory;
+
+    private ActivationAuditLog auditLog;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+    }
+
+    private AuditProperties properties() {
+        AuditProperties properties = new AuditProperties();
+        properties.setDirectory(directory.toString());
+        properties.setFlushIntervalMillis(10);
+        return properties;
+    }
+
+    private ActivationAuditLog start(AuditProperties properties) throws Exception {
+        auditLog = new ActivationAuditLog(properties, OBJECT_MAPPER);
+        auditLog.start();
+        return auditLog;
+    }
+
+    private static ActivationAuditEvent event(long epochMillis, String key) {
+        return new ActivationAuditEvent(Instant.ofEpochMilli(epochMillis), key, "HWID", "OK", "10.0.0.1");
+    }
+
+    private List<ActivationAuditEvent> query(Instant from, Instant to) throws Exception {
+        List<ActivationAuditEvent> events = new ArrayList<>();
+        auditLog.query(from, to, e -> true, events::add);
+        return events;
+    }
+
+    private void awaitWritten(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (auditLog.getStats().written() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, auditLog.getStats().written());
+    }
+
+    @Test
+    void testRingBuffer_ConcurrentProducersKeepPerProducerOrder() throws Exception {
+        RingBuffer<long[]> buffer = new RingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            pool.submit(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(new long[] { producer, i })) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        long[] next = new long[producers];
+        List<long[]> batch = new ArrayList<>();
+        int received = 0;
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (received < producers * perProducer && System.currentTimeMillis() < deadline) {
+            batch.clear();
+            received += buffer.drainTo(batch, 256);
+            for (long[] item : batch) {
+                assertEquals(next[(int) item[0]]++, item[1]);
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(producers * perProducer, received);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testRingBuffer_FullBufferRejects() {
+        RingBuffer<String> buffer = new RingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer("e" + i));
+        }
+        assertFalse(buffer.offer("overflow"));
+
+        List<String> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 10));
+        assertEquals(List.of("e0", "e1", "e2", "e3"), drained);
+        assertTrue(buffer.offer("again"));
+    }
+
+    @Test
+    void testEvents_WrittenAndQueriedByTimeRange() throws Exception {
+        start(properties());
+        long t0 = 1_800_000_000_000L;
+        for (int i = 0; i < 100; i++) {
+            auditLog.record(event(t0 + i * 1_000L, "KEY-" + i));
+        }
+        awaitWritten(100);
+
+        List<ActivationAuditEvent> range = query(Instant.ofEpochMilli(t0 + 10_000), Instant.ofEpochMilli(t0 + 20_000));
+
+        assertEquals(10, range.size());
+        assertEquals("KEY-10", range.get(0).licenseKey());
+        assertEquals("KEY-19", range.get(9).licenseKey());
+        assertEquals("10.0.0.1", range.get(0).ip());
+    }
+
+    @Test
+    void testSegments_RollBySizeAndQuerySkipsOthers() throws Exception {
+        AuditProperties properties = properties();
+        properties.setSegmentMaxBytes(1_000);
+        properties.setBatchSize(5);
+        start(properties);
+        long t0 = 1_800_000_000_000L;
+        for (int i = 0; i < 200; i++) {
+            auditLog.record(event(t0 + i * 3_600_000L, "KEY-" + i));
+            if (i % 5 == 4) {
+                awaitWritten(i + 1);
+            }
+        }
+
+        long segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.count();
+        }
+        assertTrue(segments > 10, "expected several segments, got " + segments);
+        assertEquals(segments, auditLog.getStats().segments());
+
+        List<ActivationAuditEvent> range = query(Instant.ofEpochMilli(t0 + 150 * 3_600_000L),
+                Instant.ofEpochMilli(t0 + 153 * 3_600_000L));
+        assertEquals(List.of("KEY-150", "KEY-151", "KEY-152"), range.stream().map(ActivationAuditEvent::licenseKey).toList());
+    }
+
+    @Test
+    void testOverflow_DropPolicyCounts() throws Exception {
+        AuditProperties properties = properties();
+        properties.setBufferCapacity(4);
+        // Writer parks long enough for the buffer to fill up
+        properties.setFlushIntervalMillis(60_000);
+        start(properties);
+        Thread.sleep(50);
+
+        for (int i = 0; i < 20; i++) {
+            auditLog.record(event(System.currentTimeMillis(), "DROP-" + i));
+        }
+
+        ActivationAuditLog.Stats stats = auditLog.getStats();
+        assertEquals(20, stats.published() + stats.dropped());
+        assertTrue(stats.dropped() >= 16 - stats.written(), "dropped " + stats.dropped());
+    }
+
+    @Test
+    void testOverflow_BlockPolicyWaitsForWriter() throws Exception {
+        AuditProperties properties = properties();
+        properties.setBufferCapacity(4);
+        properties.setBatchSize(2);
+        properties.setOverflowPolicy(AuditProperties.OverflowPolicy.BLOCK);
+        properties.setBlockTimeoutMillis(5_000);
+        start(properties);
+
+        for (int i = 0; i < 200; i++) {
+            auditLog.record(event(1_800_000_000_000L + i, "BLOCK-" + i));
+        }
+        awaitWritten(200);
+
+        assertEquals(0, auditLog.getStats().dropped());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkSustainedThroughput() throws Exception {
+        AuditProperties properties = properties();
+        properties.setOverflowPolicy(AuditProperties.OverflowPolicy.BLOCK);
+        properties.setBlockTimeoutMillis(10_000);
+        start(properties);
+        int threads = 4;
+        int perThread = 100_000;
+
+        for (int round = 0; round < 3; round++) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch done = new CountDownLatch(threads);
+            long[] publishNanos = new long[threads];
+            long before = auditLog.getStats().written();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        long s = System.nanoTime();
+                        auditLog.record(event(System.currentTimeMillis(), "BENCH"));
+                        publishNanos[thread] += System.nanoTime() - s;
+                    }
+                    done.countDown();
+                });
+            }
+            done.await();
+            awaitWritten(before + (long) threads * perThread);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            pool.shutdown();
+
+            long totalPublish = 0;
+            for (long nanos : publishNanos) {
+                totalPublish += nanos;
+            }
+            System.out.printf("round %d: %d events written in %.2f s -> %.0f events/s, avg publish %d ns, dropped %d%n",
+                    round, threads * perThread, seconds, threads * perThread / seconds,
+                    totalPublish / ((long) threads * perThread), auditLog.getStats().dropped());
+        }
+    }
+}
@@ -13,19 +13,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.nimbusds.jose.JOSEException;
 
+import co.com.validate.license.security.AuthRejectionGuard;
+import co.com.validate.license.security.AuthRejectionProperties;
 import co.com.validate.license.security.JweAuthenticationEntryPoint;
 import co.com.validate.license.security.JweAuthenticationFilter;
 import co.com.validate.license.security.JweService;
 import co.com.validate.license.security.SecurityConfig;
+import co.com.validate.license.service.TokenRevocationService;
 
 @WebMvcTest(AuthController.class)
 @ActiveProfiles("test")
-@Import({SecurityConfig.class, JweAuthenticationFilter.class, JweAuthenticationEntryPoint.class})
+@Import({SecurityConfig.class, JweAuthenticationFilter.class, JweAuthenticationEntryPoint.class,
+        AuthRejectionGuard.class, AuthRejectionProperties.class})
 class AuthControllerTest {
 
     @Autowired
@@ -35,6 +40,10 @@ class AuthControllerTest {
 	@MockBean
     private JweService jweService;
 
+    @SuppressWarnings("removal")
+	@MockBean
+    private TokenRevocationService tokenRevocationService;
+
     @Test
     void testGenerateToken_Success() throws Exception {
         // Given
@@ -87,4 +96,28 @@ class AuthControllerTest {
         verify(jweService).generateToken(subject);
     }
 
+    @Test
+    void testGenerateTokenBatch_Anonymous_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/auth/token/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"subjects\": [\"s1\"]}"))
+            .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(jweService);
+    }
+
+    @Test
+    @WithMockUser
+    void testGenerateTokenBatch_OverLimit_ReturnsBadRequest() throws Exception {
+        StringBuilder subjects = new StringBuilder();
+        for (int i = 0; i < 1001; i++) {
+            subjects.append(i == 0 ? "" : ",").append("\"s").append(i).append('"');
+        }
+
+        mockMvc.perform(post("/api/auth/token/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"subjects\": [" + subjects + "]}"))
+            .andExpect(status().isBadRequest());
+    }
+
 }
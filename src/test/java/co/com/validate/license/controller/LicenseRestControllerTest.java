@@ -7,6 +7,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -14,22 +16,39 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import co.com.validate.license.audit.service.ActivationAuditLog;
 import co.com.validate.license.model.License;
+import co.com.validate.license.model.LicenseSearchCriteria;
+import co.com.validate.license.model.LicenseSearchPage;
+import co.com.validate.license.repository.ArchivedLicenseRepository;
+import co.com.validate.license.repository.JpaLicenseStore;
 import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.security.ActivationSigner;
+import co.com.validate.license.security.AuthRejectionGuard;
+import co.com.validate.license.security.AuthRejectionProperties;
 import co.com.validate.license.security.JweAuthenticationEntryPoint;
 import co.com.validate.license.security.JweAuthenticationFilter;
 import co.com.validate.license.security.JweService;
 import co.com.validate.license.security.SecurityConfig;
-import co.com.validate.license.service.EmailService;
+import co.com.validate.license.service.IdempotencyStore;
+import co.com.validate.license.service.LicenseBulkService;
+import co.com.validate.license.service.LicenseCreationService;
+import co.com.validate.license.service.LicenseExportService;
+import co.com.validate.license.service.LicenseSearchService;
+import co.com.validate.license.service.LicenseStatsService;
+import co.com.validate.license.service.LicenseValidationService;
 
 @WebMvcTest(LicenseRestController.class)
 @ActiveProfiles("test")
-@Import({SecurityConfig.class, JweAuthenticationFilter.class, JweAuthenticationEntryPoint.class})
+@Import({SecurityConfig.class, JweAuthenticationFilter.class, JweAuthenticationEntryPoint.class,
+        AuthRejectionGuard.class, AuthRejectionProperties.class, LicenseValidationService.class,
+        JpaLicenseStore.class})
 class LicenseRestControllerTest {
 
     @Autowired
@@ -39,13 +58,45 @@ class LicenseRestControllerTest {
 	@MockBean
     private LicenseRepository licenseRepository;
 
+    @SuppressWarnings("removal")
+	@MockBean
+    private ArchivedLicenseRepository archivedLicenseRepository;
+
     @SuppressWarnings("removal")
 	@MockBean
     private JweService jweService;
 
     @SuppressWarnings("removal")
 	@MockBean
-    private EmailService emailService;
+    private LicenseCreationService licenseCreationService;
+
+    @SuppressWarnings("removal")
+	@MockBean
+    private ActivationSigner activationSigner;
+
+    @SuppressWarnings("removal")
+	@MockBean
+    private LicenseBulkService licenseBulkService;
+
+    @SuppressWarnings("removal")
+	@MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @SuppressWarnings("removal")
+	@MockBean
+    private LicenseSearchService licenseSearchService;
+
+    @SuppressWarnings("removal")
+	@MockBean
+    private LicenseExportService licenseExportService;
+
+    @SuppressWarnings("removal")
+	@MockBean
+    private ActivationAuditLog activationAuditLog;
+
+    @SuppressWarnings("removal")
+	@MockBean
+    private LicenseStatsService licenseStatsService;
 
     @Test
     @WithMockUser
@@ -53,7 +104,7 @@ class LicenseRestControllerTest {
         // Given
         String licenseKey = "ABC-123-XYZ";
         String email = "user@example.com";
-        int validDays = 365;
+        int validDays = 360;
 
         License savedLicense = new License();
         savedLicense.setId(1L);
@@ -62,8 +113,7 @@ class LicenseRestControllerTest {
         savedLicense.setExpirationDate(LocalDate.now().plusDays(validDays));
         savedLicense.setActive(false);
 
-        when(licenseRepository.existsByLicenseKey(licenseKey)).thenReturn(false);
-        when(licenseRepository.save(any(License.class))).thenReturn(savedLicense);
+        when(licenseCreationService.create(any(License.class))).thenReturn(savedLicense);
 
         // When & Then
         mockMvc.perform(post("/api/license/create")
@@ -75,9 +125,7 @@ class LicenseRestControllerTest {
             .andExpect(jsonPath("$.email").value(email))
             .andExpect(jsonPath("$.active").value(false));
 
-        verify(licenseRepository).existsByLicenseKey(licenseKey);
-        verify(licenseRepository).save(any(License.class));
-        verify(emailService).sendLicenseCreationEmail(eq(email), eq(licenseKey), any(LocalDate.class));
+        verify(licenseCreationService).create(any(License.class));
     }
 
     @Test
@@ -86,9 +134,10 @@ class LicenseRestControllerTest {
         // Given
         String licenseKey = "ABC-123-XYZ";
         String email = "user@example.com";
-        int validDays = 365;
+        int validDays = 360;
 
-        when(licenseRepository.existsByLicenseKey(licenseKey)).thenReturn(true);
+        when(licenseCreationService.create(any(License.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate license_key"));
 
         // When & Then
         mockMvc.perform(post("/api/license/create")
@@ -97,9 +146,7 @@ class LicenseRestControllerTest {
                 .content("{\"licenseKey\": \"" + licenseKey + "\", \"email\": \"" + email + "\", \"validDays\": " + validDays + "}"))
             .andExpect(status().isBadRequest());
 
-        verify(licenseRepository).existsByLicenseKey(licenseKey);
-        verify(licenseRepository, never()).save(any(License.class));
-        verify(emailService, never()).sendLicenseCreationEmail(anyString(), anyString(), any(LocalDate.class));
+        verify(licenseCreationService).create(any(License.class));
     }
 
     @Test
@@ -110,8 +157,7 @@ class LicenseRestControllerTest {
                 .content("{\"licenseKey\": \"ABC-123\", \"email\": \"user@example.com\", \"validDays\": 365}"))
             .andExpect(status().isUnauthorized());
 
-        verify(licenseRepository, never()).existsByLicenseKey(anyString());
-        verify(emailService, never()).sendLicenseCreationEmail(anyString(), anyString(), any(LocalDate.class));
+        verify(licenseCreationService, never()).create(any(License.class));
     }
 
     @Test
@@ -129,7 +175,7 @@ class LicenseRestControllerTest {
         license.setHwid(null);
 
         when(licenseRepository.findByLicenseKey(licenseKey)).thenReturn(Optional.of(license));
-        when(licenseRepository.save(any(License.class))).thenReturn(license);
+        when(licenseRepository.bindHwid(eq(1L), eq(hwid), any(byte[].class), any(LocalDate.class))).thenReturn(1);
 
         // When & Then
         mockMvc.perform(post("/api/license/activate")
@@ -140,7 +186,7 @@ class LicenseRestControllerTest {
             .andExpect(jsonPath("$.description").value("LICENCIA_OK"));
 
         verify(licenseRepository).findByLicenseKey(licenseKey);
-        verify(licenseRepository).save(any(License.class));
+        verify(licenseRepository).bindHwid(eq(1L), eq(hwid), any(byte[].class), any(LocalDate.class));
     }
 
     @Test
@@ -161,7 +207,7 @@ class LicenseRestControllerTest {
             .andExpect(jsonPath("$.description").value("Licencia no existe"));
 
         verify(licenseRepository).findByLicenseKey(licenseKey);
-        verify(licenseRepository, never()).save(any(License.class));
+        verify(licenseRepository, never()).bindHwid(anyLong(), any(), any(), any());
     }
 
     @Test
@@ -190,7 +236,7 @@ class LicenseRestControllerTest {
             .andExpect(jsonPath("$.description").value("Licencia usada en otro PC"));
 
         verify(licenseRepository).findByLicenseKey(licenseKey);
-        verify(licenseRepository, never()).save(any(License.class));
+        verify(licenseRepository, never()).bindHwid(anyLong(), any(), any(), any());
     }
 
     @Test
@@ -218,7 +264,7 @@ class LicenseRestControllerTest {
             .andExpect(jsonPath("$.description").value("Licencia vencida"));
 
         verify(licenseRepository).findByLicenseKey(licenseKey);
-        verify(licenseRepository, never()).save(any(License.class));
+        verify(licenseRepository, never()).bindHwid(anyLong(), any(), any(), any());
     }
 
     @Test
@@ -249,4 +295,89 @@ class LicenseRestControllerTest {
         verify(licenseRepository).findByLicenseKey(licenseKey);
     }
 
+    @Test
+    @WithMockUser
+    void testSearch_BindsFiltersAndCursor() throws Exception {
+        when(licenseSearchService.isSupported()).thenReturn(true);
+        when(licenseSearchService.search(any())).thenReturn(new LicenseSearchPage(List.of(), null, 20));
+
+        mockMvc.perform(get("/api/license")
+                .param("email", "user@example.com")
+                .param("status", "EXPIRED")
+                .param("expiresTo", "2030-01-31")
+                .param("hwidPresent", "true")
+                .param("after", "1200")
+                .param("limit", "20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.limit").value(20))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(licenseSearchService).search(argThat(criteria -> "user@example.com".equals(criteria.getEmail())
+                && criteria.getStatus() == LicenseSearchCriteria.Status.EXPIRED
+                && LocalDate.of(2030, 1, 31).equals(criteria.getExpiresTo())
+                && Boolean.TRUE.equals(criteria.getHwidPresent())
+                && criteria.getAfter() == 1200L
+                && criteria.getLimit() == 20));
+    }
+
+    @Test
+    @WithMockUser
+    void testSearch_NonSqlStore_ReturnsNotImplemented() throws Exception {
+        when(licenseSearchService.getStoreBackend()).thenReturn("mvstore");
+
+        mockMvc.perform(get("/api/license").param("email", "user@example.com"))
+            .andExpect(status().isNotImplemented());
+        mockMvc.perform(get("/api/license/by-hwid/HWID-1"))
+            .andExpect(status().isNotImplemented());
+
+        verify(licenseSearchService, never()).search(any());
+        verify(licenseSearchService, never()).findByHwid(any());
+    }
+
+    @Test
+    @WithMockUser
+    void testSearch_InvalidLimit_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/license").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(licenseSearchService);
+    }
+
+    @Test
+    @WithMockUser
+    void testExport_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/license/export").param("format", "XML"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(licenseExportService);
+    }
+
+    @Test
+    @WithMockUser
+    void testFindByHwids_OverLimit_ReturnsBadRequest() throws Exception {
+        StringBuilder hwids = new StringBuilder();
+        for (int i = 0; i <= 1000; i++) {
+            hwids.append(i == 0 ? "" : ",").append("\"HWID-").append(i).append('"');
+        }
+
+        mockMvc.perform(post("/api/license/by-hwid")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"hwids\": [" + hwids + "]}"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(licenseSearchService);
+    }
+
+    @Test
+    @WithMockUser
+    void testStats_ReturnsCounters() throws Exception {
+        when(licenseStatsService.isSupported()).thenReturn(true);
+        when(licenseStatsService.getStats()).thenReturn(Map.of("active", 3L, "expired", 1L));
+
+        mockMvc.perform(get("/api/license/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.active").value(3))
+            .andExpect(jsonPath("$.expired").value(1));
+    }
 }
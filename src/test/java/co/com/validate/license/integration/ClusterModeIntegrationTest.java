@@ -0,0 +1,290 @@
+package co.com.validate.license.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import co.com.validate.license.RunServer;
+import co.com.validate.license.cluster.service.ClusterChangePoller;
+import co.com.validate.license.model.BulkMutationRequest;
+import co.com.validate.license.model.License;
+import co.com.validate.license.security.JweService;
+import co.com.validate.license.service.LicenseBulkMutationService;
+import co.com.validate.license.service.LicenseCreationService;
+import co.com.validate.license.service.LicenseStatsService;
+import co.com.validate.license.service.SeatLeaseService;
+import co.com.validate.license.service.TokenRevocationService;
+
+/**
+ * Several application instances on localhost sharing one H2 database served over TCP, as in
+ * cluster mode with DATABASE_URL=jdbc:h2:tcp://...
+ */
+class ClusterModeIntegrationTest {
+
+    private static final int INSTANCES = 3;
+    private static final long POLL_INTERVAL_MS = 200;
+    // One poll interval plus the poll itself; the slack absorbs a busy test machine
+    private static final long STALENESS_BOUND_MS = POLL_INTERVAL_MS + 2_000;
+
+    private static Server h2Server;
+    private static Path auditDir;
+    private static String url;
+    private static final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+
+    @BeforeAll
+    static void startCluster() throws Exception {
+        h2Server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        auditDir = Files.createTempDirectory("cluster-audit");
+        url = "jdbc:h2:tcp://localhost:" + h2Server.getPort() + "/mem:cluster-" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1";
+        for (int i = 0; i < INSTANCES; i++) {
+            instances.add(new SpringApplicationBuilder(RunServer.class)
+                    .profiles("test")
+                    .run("--spring.datasource.url=" + url,
+                            "--spring.jpa.show-sql=false",
+                            "--logging.level.co.com.validate.license=WARN",
+                            "--license.cluster.enabled=true",
+                            "--license.cluster.instance-id=node-" + i,
+                            "--license.cluster.poll-interval-ms=" + POLL_INTERVAL_MS,
+                            "--license.stats.query-cache-ms=0",
+                            "--license.audit.directory=" + auditDir.resolve("node-" + i)));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() throws Exception {
+        instances.forEach(ConfigurableApplicationContext::close);
+        instances.clear();
+        if (h2Server != null) {
+            h2Server.stop();
+        }
+        FileSystemUtils.deleteRecursively(auditDir);
+    }
+
+    private static <T> T bean(int instance, Class<T> type) {
+        return instances.get(instance).getBean(type);
+    }
+
+    private static void insertLicense(String key, String hwid, int seats) {
+        bean(0, JdbcTemplate.class).update(
+                "INSERT INTO license (id, license_key, email, hwid, expiration_date, active, seats, revoked) "
+                        + "VALUES (NEXT VALUE FOR license_seq, ?, 'cluster@example.com', ?, ?, ?, ?, FALSE)",
+                key, hwid, Date.valueOf(LocalDate.now().plusDays(30)), hwid != null, seats);
+    }
+
+    /**
+     * Polls the condition and returns how long it took to hold
+     */
+    private static long millisUntil(BooleanSupplier condition) throws InterruptedException {
+        long start = System.nanoTime();
+        while (!condition.getAsBoolean()) {
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            if (elapsed > STALENESS_BOUND_MS * 5) {
+                return elapsed;
+            }
+            Thread.sleep(10);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Test
+    void testDeactivation_ReachesSeatPoolsOfOtherInstancesWithinWindow() throws Exception {
+        String key = "CLUSTER-SEATS-" + UUID.randomUUID();
+        insertLicense(key, null, 100);
+        for (int i = 1; i < INSTANCES; i++) {
+            // Primes the cached pool, later checkouts no longer read the license row
+            assertEquals(SeatLeaseService.Status.GRANTED, bean(i, SeatLeaseService.class).checkout(key, "PC-" + i).getStatus());
+        }
+
+        BulkMutationRequest request = new BulkMutationRequest();
+        request.setLicenseKeys(List.of(key));
+        bean(0, LicenseBulkMutationService.class).apply(LicenseBulkMutationService.Operation.DEACTIVATE, request);
+
+        for (int i = 1; i < INSTANCES; i++) {
+            SeatLeaseService seats = bean(i, SeatLeaseService.class);
+            AtomicLong hwid = new AtomicLong();
+            long stale = millisUntil(() -> seats.checkout(key, "PC-X" + hwid.incrementAndGet()).getStatus()
+                    == SeatLeaseService.Status.NOT_FOUND);
+            assertTrue(stale <= STALENESS_BOUND_MS, "node-" + i + " served the revoked license for " + stale + " ms");
+            Map<String, Object> stats = bean(i, ClusterChangePoller.class).getStats();
+            assertTrue((Long) stats.get("licenseChangesApplied") >= 1);
+        }
+    }
+
+    @Test
+    void testTokenRevocation_ReachesOtherInstancesWithinWindow() throws Exception {
+        String token = bean(0, JweService.class).generateToken("cluster-client");
+        for (int i = 1; i < INSTANCES; i++) {
+            // Cached as validated on every instance
+            bean(i, JweService.class).validateToken(token);
+        }
+
+        JWTClaimsSet claims = bean(0, JweService.class).validateToken(token);
+        bean(0, TokenRevocationService.class).revoke(claims);
+        assertThrows(SecurityException.class, () -> bean(0, JweService.class).validateToken(token));
+
+        for (int i = 1; i < INSTANCES; i++) {
+            JweService jweService = bean(i, JweService.class);
+            long stale = millisUntil(() -> {
+                try {
+                    jweService.validateToken(token);
+                    return false;
+                } catch (SecurityException e) {
+                    return true;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(stale <= STALENESS_BOUND_MS, "node-" + i + " accepted the revoked token for " + stale + " ms");
+        }
+    }
+
+    @Test
+    void testOwnChanges_AreNotReapplied() throws Exception {
+        String key = "CLUSTER-OWN-" + UUID.randomUUID();
+        insertLicense(key, null, 1);
+        BulkMutationRequest request = new BulkMutationRequest();
+        request.setLicenseKeys(List.of(key));
+        request.setDays(1);
+        long before = (Long) bean(0, ClusterChangePoller.class).getStats().get("licenseChangesApplied");
+
+        bean(0, LicenseBulkMutationService.class).apply(LicenseBulkMutationService.Operation.EXTEND, request);
+        Thread.sleep(POLL_INTERVAL_MS * 3);
+
+        assertEquals(before, bean(0, ClusterChangePoller.class).getStats().get("licenseChangesApplied"));
+        Integer rows = bean(0, JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(*) FROM cluster_change WHERE item = ? AND origin = 'node-0'", Integer.class, key);
+        assertEquals(1, rows);
+    }
+
+    @Test
+    void testSeatCount_IsEnforcedAcrossInstances() {
+        String key = "CLUSTER-SEATS-SHARED-" + UUID.randomUUID();
+        insertLicense(key, null, 2);
+
+        assertEquals(SeatLeaseService.Status.GRANTED, bean(0, SeatLeaseService.class).checkout(key, "PC-1").getStatus());
+        SeatLeaseService.Checkout second = bean(1, SeatLeaseService.class).checkout(key, "PC-2");
+        assertEquals(SeatLeaseService.Status.GRANTED, second.getStatus());
+        assertEquals(SeatLeaseService.Status.NO_SEATS_AVAILABLE,
+                bean(2, SeatLeaseService.class).checkout(key, "PC-3").getStatus());
+        // PC-1 already holds a seat, whichever instance it reaches
+        assertEquals(SeatLeaseService.Status.GRANTED, bean(2, SeatLeaseService.class).checkout(key, "PC-1").getStatus());
+
+        assertTrue(bean(1, SeatLeaseService.class).release(key, second.getLease().getLeaseId()));
+        assertEquals(SeatLeaseService.Status.GRANTED, bean(2, SeatLeaseService.class).checkout(key, "PC-3").getStatus());
+    }
+
+    @Test
+    void testStats_CountLicensesCreatedOnOtherInstances() {
+        long before = (Long) bean(1, LicenseStatsService.class).getStats().get("total");
+        License license = new License();
+        license.setLicenseKey("CLUSTER-STATS-" + UUID.randomUUID());
+        license.setEmail("cluster@example.com");
+        license.setExpirationDate(LocalDate.now().plusDays(30));
+
+        bean(0, LicenseCreationService.class).create(license);
+
+        assertEquals(before + 1, bean(1, LicenseStatsService.class).getStats().get("total"));
+    }
+
+    @Test
+    void testPerInstanceSigningKey_FailsStartup() {
+        Exception e = assertThrows(Exception.class, () -> new SpringApplicationBuilder(RunServer.class)
+                .profiles("test")
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.show-sql=false",
+                        "--license.cluster.enabled=true",
+                        "--license.cluster.instance-id=node-unsigned",
+                        "--security.signing.enabled=true",
+                        "--license.audit.directory=" + auditDir.resolve("node-unsigned")).close());
+
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        assertTrue(root.getMessage().contains("security.signing.private-key"), root.getMessage());
+    }
+
+    /**
+     * Activation throughput over HTTP when the load is spread over 1..INSTANCES instances. All
+     * instances run in this JVM, so the numbers only show scaling on a machine with spare cores.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkActivationThroughputByInstances() throws Exception {
+        int licenses = 2_000;
+        List<String[]> bound = new ArrayList<>(licenses);
+        for (int i = 0; i < licenses; i++) {
+            String key = "CLUSTER-BENCH-" + i + "-" + UUID.randomUUID();
+            insertLicense(key, "HW-" + i, 1);
+            bound.add(new String[] { key, "HW-" + i });
+        }
+        String token = bean(0, JweService.class).generateToken("cluster-bench");
+        HttpClient client = HttpClient.newHttpClient();
+        int threadsPerInstance = 4;
+        int requestsPerThread = 500;
+
+        for (int round = 0; round < 2; round++) {
+            for (int active = 1; active <= INSTANCES; active++) {
+                ExecutorService executor = Executors.newFixedThreadPool(active * threadsPerInstance);
+                List<Future<?>> futures = new ArrayList<>();
+                long start = System.nanoTime();
+                for (int t = 0; t < active * threadsPerInstance; t++) {
+                    String port = instances.get(t % active).getEnvironment().getProperty("local.server.port");
+                    int offset = t * requestsPerThread;
+                    futures.add(executor.submit(() -> {
+                        for (int r = 0; r < requestsPerThread; r++) {
+                            String[] license = bound.get((offset + r) % licenses);
+                            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/license/activate"))
+                                    .header("Authorization", "Bearer " + token)
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(
+                                            "{\"licenseKey\":\"" + license[0] + "\",\"hwid\":\"" + license[1] + "\"}"))
+                                    .build();
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            assertEquals(200, response.statusCode());
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                executor.shutdown();
+                System.out.printf("round %d, %d instance(s): %.0f activations/s%n",
+                        round, active, active * threadsPerInstance * requestsPerThread / seconds);
+            }
+        }
+    }
+}
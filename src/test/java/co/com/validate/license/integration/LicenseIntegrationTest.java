@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.time.Instant;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -124,6 +126,87 @@ class LicenseIntegrationTest {
             .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void testInvalidTokenFlood_ThrottlesSource() throws Exception {
+        String knownToken = token();
+        mockMvc.perform(get("/api/admin/token-cache/stats").header("Authorization", "Bearer " + knownToken))
+            .andExpect(status().isOk());
+
+        for (int i = 0; i < 25; i++) {
+            mockMvc.perform(get("/api/admin/token-cache/stats")
+                    .with(request -> { request.setRemoteAddr("10.9.9.9"); return request; })
+                    .header("Authorization", "Bearer " + (i % 2 == 0 ? "aaaa.bbbb.cccc" : "not a token")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.mensaje").value("No autorizado - Token JWE requerido"))
+                .andExpect(jsonPath("$.timestamp").isNumber());
+        }
+
+        // A new valid token is refused while the source is throttled, one validated before is not
+        mockMvc.perform(get("/api/admin/token-cache/stats")
+                .with(request -> { request.setRemoteAddr("10.9.9.9"); return request; })
+                .header("Authorization", "Bearer " + token()))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/admin/token-cache/stats")
+                .with(request -> { request.setRemoteAddr("10.9.9.9"); return request; })
+                .header("Authorization", "Bearer " + knownToken))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void testRevokedToken_IsRejected() throws Exception {
+        String jweToken = token();
+        mockMvc.perform(get("/api/admin/token-cache/stats").header("Authorization", "Bearer " + jweToken))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/revoke")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"token\": \"" + jweToken + "\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.revoked").value(true));
+
+        // Rejected even though the token is in the validated-token cache
+        mockMvc.perform(get("/api/admin/token-cache/stats").header("Authorization", "Bearer " + jweToken))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/revoke")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"token\": \"" + jweToken + "\"}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testTokenBatch_StreamsNdjsonInOrder() throws Exception {
+        StringBuilder subjects = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            subjects.append(i == 0 ? "" : ",").append("\"fleet-").append(i).append('"');
+        }
+
+        MvcResult tokenResult = mockMvc.perform(post("/api/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"subject\": \"provisioner\"}"))
+            .andExpect(status().isOk())
+            .andReturn();
+        String jweToken = objectMapper.readTree(tokenResult.getResponse().getContentAsString())
+            .get("token").asText();
+
+        MvcResult pending = mockMvc.perform(post("/api/auth/token/batch")
+                .header("Authorization", "Bearer " + jweToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"subjects\": [" + subjects + "]}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(pending))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(300, lines.length);
+        JsonNode last = objectMapper.readTree(lines[299]);
+        assertEquals("fleet-299", last.get("subject").asText());
+        mockMvc.perform(get("/api/admin/token-cache/stats").header("Authorization", "Bearer " + last.get("token").asText()))
+            .andExpect(status().isOk());
+    }
+
     @Test
     void testDuplicateLicenseKey_ReturnsBadRequest() throws Exception {
         // Generate token
@@ -175,4 +258,186 @@ class LicenseIntegrationTest {
             .andExpect(jsonPath("$.description").value("Licencia no existe"));
     }
 
+
+    private String token() throws Exception {
+        MvcResult tokenResult = mockMvc.perform(post("/api/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"subject\": \"bulk-client\"}"))
+            .andExpect(status().isOk())
+            .andReturn();
+        return objectMapper.readTree(tokenResult.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    @Test
+    void testBulkCreate_Ndjson_ReportsEachRow() throws Exception {
+        String jweToken = token();
+        mockMvc.perform(post("/api/license/create")
+                .header("Authorization", "Bearer " + jweToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"licenseKey\": \"BULK-EXISTING\", \"email\": \"bulk@example.com\", \"validDays\": 30}"))
+            .andExpect(status().isOk());
+
+        String body = String.join("\n",
+                "{\"licenseKey\": \"BULK-1\", \"email\": \"bulk@example.com\", \"validDays\": 30}",
+                "{\"licenseKey\": \"BULK-EXISTING\", \"email\": \"bulk@example.com\", \"validDays\": 30}",
+                "{\"licenseKey\": \"BULK-1\", \"email\": \"bulk@example.com\", \"validDays\": 60}",
+                "{\"licenseKey\": \"BULK-2\", \"email\": \"not-an-email\", \"validDays\": 45}",
+                "{\"licenseKey\": \"BULK-3\", \"email\": \"bulk@example.com\", \"validDays\": 90, \"seats\": 3}");
+
+        mockMvc.perform(post("/api/license/create/bulk")
+                .header("Authorization", "Bearer " + jweToken)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.received").value(5))
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.failed").value(3))
+            .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.results[1].status").value("DUPLICATE"))
+            .andExpect(jsonPath("$.results[2].status").value("DUPLICATE"))
+            .andExpect(jsonPath("$.results[3].status").value("INVALID"))
+            .andExpect(jsonPath("$.results[4].status").value("CREATED"))
+            .andExpect(jsonPath("$.results[4].index").value(4));
+
+        assertEquals(3, licenseRepository.findByLicenseKey("BULK-3").orElseThrow().getSeats());
+        assertFalse(licenseRepository.existsByLicenseKey("BULK-2"));
+    }
+
+    @Test
+    void testBulkCreate_JsonArray_InsertsAcrossChunks() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 1_200; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"licenseKey\": \"ARRAY-").append(i).append("\", \"email\": \"bulk@example.com\", \"validDays\": 30}");
+        }
+        body.append(']');
+
+        mockMvc.perform(post("/api/license/create/bulk")
+                .header("Authorization", "Bearer " + token())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1_200))
+            .andExpect(jsonPath("$.truncated").value(false));
+
+        assertEquals(1_200, licenseRepository.count());
+    }
+
+    @Test
+    void testExport_StreamsCsvAttachment() throws Exception {
+        mockMvc.perform(post("/api/license/create/bulk")
+                .header("Authorization", "Bearer " + token())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"licenseKey\": \"EXPORT-1\", \"email\": \"a@example.com\", \"validDays\": 30}\n"
+                        + "{\"licenseKey\": \"EXPORT-2\", \"email\": \"b@example.com\", \"validDays\": 30}\n"))
+            .andExpect(status().isOk());
+
+        MvcResult pending = mockMvc.perform(get("/api/license/export")
+                .header("Authorization", "Bearer " + token())
+                .param("format", "CSV"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(pending))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"licenses.csv\""))
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].contains(",EXPORT-1,a@example.com,"));
+        assertTrue(lines[2].contains(",EXPORT-2,b@example.com,"));
+    }
+
+    @Test
+    void testActivation_IsAudited() throws Exception {
+        String licenseKey = "AUDIT-" + System.nanoTime();
+        String from = Instant.now().minusSeconds(1).toString();
+        mockMvc.perform(post("/api/license/create")
+                .header("Authorization", "Bearer " + token())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"licenseKey\": \"" + licenseKey + "\", \"email\": \"audit@example.com\", \"validDays\": 30}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/license/activate")
+                .header("Authorization", "Bearer " + token())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"licenseKey\": \"" + licenseKey + "\", \"hwid\": \"AUDIT-HWID\"}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/license/activate")
+                .header("Authorization", "Bearer " + token())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"licenseKey\": \"" + licenseKey + "\", \"hwid\": \"OTHER-HWID\"}"))
+            .andExpect(status().isForbidden());
+
+        String[] lines = new String[0];
+        for (int attempt = 0; attempt < 50 && lines.length < 2; attempt++) {
+            Thread.sleep(100);
+            MvcResult pending = mockMvc.perform(get("/api/admin/audit/activations")
+                    .header("Authorization", "Bearer " + token())
+                    .param("from", from)
+                    .param("licenseKey", licenseKey))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String body = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            lines = body.isEmpty() ? new String[0] : body.split("\n");
+        }
+
+        assertEquals(2, lines.length);
+        assertEquals("OK", objectMapper.readTree(lines[0]).get("outcome").asText());
+        JsonNode rejected = objectMapper.readTree(lines[1]);
+        assertEquals("OTHER_HWID", rejected.get("outcome").asText());
+        assertEquals("OTHER-HWID", rejected.get("hwid").asText());
+        assertEquals("127.0.0.1", rejected.get("ip").asText());
+    }
+
+    @Test
+    void testBulkCreate_MalformedBody_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/license/create/bulk")
+                .header("Authorization", "Bearer " + token())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"licenseKey\": \"BROKEN\""))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCreateLicense_WithoutKey_GeneratesOne() throws Exception {
+        mockMvc.perform(post("/api/license/create")
+                .header("Authorization", "Bearer " + token())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"generated@example.com\", \"validDays\": 30}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.licenseKey").value(org.hamcrest.Matchers.matchesPattern("[0-9A-F-]{36}")));
+
+        assertEquals(1, licenseRepository.count());
+    }
+
+    @Test
+    void testCreateLicense_IdempotencyKey_RetryReturnsSameLicense() throws Exception {
+        String jweToken = token();
+        String body = "{\"email\": \"retry@example.com\", \"validDays\": 30}";
+
+        String first = mockMvc.perform(post("/api/license/create")
+                .header("Authorization", "Bearer " + jweToken)
+                .header("Idempotency-Key", "provisioning-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        String retry = mockMvc.perform(post("/api/license/create")
+                .header("Authorization", "Bearer " + jweToken)
+                .header("Idempotency-Key", "provisioning-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.readTree(first).get("licenseKey"), objectMapper.readTree(retry).get("licenseKey"));
+        assertEquals(1, licenseRepository.count());
+    }
 }
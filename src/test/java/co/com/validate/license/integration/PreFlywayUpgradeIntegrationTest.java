@@ -0,0 +1,91 @@
+package co.com.validate.license.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import co.com.validate.license.RunServer;
+import co.com.validate.license.model.License;
+import co.com.validate.license.service.LicenseCreationService;
+import co.com.validate.license.service.LicenseValidationService;
+import co.com.validate.license.service.LicenseValidationService.Outcome;
+import co.com.validate.license.service.SeatLeaseService;
+
+/**
+ * Starts the application on a database created by ddl-auto=update before Flyway, as a
+ * production database from before the migrations would be
+ */
+class PreFlywayUpgradeIntegrationTest {
+
+    // As Hibernate generated it for License and TelegramAuthorizedUser
+    private static final String[] PRE_FLYWAY_SCHEMA = {
+            "create table license (active boolean not null, expiration_date date, "
+                    + "id bigint generated by default as identity, email varchar(255) not null, hwid varchar(255), "
+                    + "license_key varchar(255) not null unique, primary key (id))",
+            "create table telegram_authorized_user (added_at timestamp(6), added_by_chat_id bigint, "
+                    + "chat_id bigint not null unique, id bigint generated by default as identity, "
+                    + "username varchar(255), primary key (id))",
+            "insert into license (active, expiration_date, email, hwid, license_key) "
+                    + "values (true, DATEADD(DAY, 30, CURRENT_DATE), 'old@example.com', 'HW-OLD', 'OLD-BOUND')",
+            "insert into license (active, expiration_date, email, license_key) "
+                    + "values (false, DATEADD(DAY, 30, CURRENT_DATE), 'old@example.com', 'OLD-UNBOUND')",
+            "insert into telegram_authorized_user (chat_id, username) values (42, 'admin')"
+    };
+
+    @Test
+    void testBaselinedDatabase_ReceivesEveryLaterMigration() throws Exception {
+        String url = "jdbc:h2:mem:pre-flyway-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        // Keeps the in-memory database open until the application has started
+        try (Connection keepAlive = DriverManager.getConnection(url, "sa", "");
+             Statement statement = keepAlive.createStatement()) {
+            for (String sql : PRE_FLYWAY_SCHEMA) {
+                statement.execute(sql);
+            }
+
+            Path auditDir = Files.createTempDirectory("pre-flyway-audit");
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RunServer.class)
+                    .profiles("test")
+                    .run("--spring.datasource.url=" + url,
+                            "--spring.jpa.show-sql=false",
+                            "--license.audit.directory=" + auditDir)) {
+                JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                assertEquals("BASELINE", jdbcTemplate.queryForObject(
+                        "SELECT \"type\" FROM \"flyway_schema_history\" WHERE \"version\" = '1'", String.class));
+                assertEquals(0, jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = FALSE", Integer.class));
+
+                // Existing rows keep working under the new columns
+                LicenseValidationService validation = context.getBean(LicenseValidationService.class);
+                assertEquals(Outcome.OK, validation.activate("OLD-BOUND", "HW-OLD").getOutcome());
+                assertEquals(Outcome.OK, validation.activate("OLD-UNBOUND", "HW-NEW").getOutcome());
+                assertEquals(SeatLeaseService.Status.GRANTED,
+                        context.getBean(SeatLeaseService.class).checkout("OLD-BOUND", "HW-OLD").getStatus());
+
+                // The pooled sequence starts past the IDENTITY ids
+                License created = new License();
+                created.setLicenseKey("NEW-AFTER-UPGRADE");
+                created.setEmail("new@example.com");
+                created.setExpirationDate(LocalDate.now().plusDays(30));
+                created = context.getBean(LicenseCreationService.class).create(created);
+                assertTrue(created.getId() > 2, "id " + created.getId() + " collides with a pre-Flyway row");
+                assertEquals(1, jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM telegram_authorized_user WHERE chat_id = 42", Integer.class));
+            } finally {
+                FileSystemUtils.deleteRecursively(auditDir);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package co.com.validate.license.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase();
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), "expected " + index + " in plan:\n" + plan);
+    }
+
+    @Test
+    void testMigrations_AreApplied() {
+        Integer failed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = FALSE", Integer.class);
+        String latest = jdbcTemplate.queryForObject(
+                "SELECT \"version\" FROM \"flyway_schema_history\" ORDER BY \"installed_rank\" DESC LIMIT 1", String.class);
+
+        assertEquals(0, failed);
+        assertEquals("10", latest);
+    }
+
+    @Test
+    void testExpirationScheduler_UsesCompositeIndex() {
+        assertUsesIndex("idx_license_expiration_active",
+                "SELECT * FROM license WHERE expiration_date = DATE '2030-01-01' AND active = TRUE");
+    }
+
+    @Test
+    void testEmailAndHwidLookups_UseIndexes() {
+        assertUsesIndex("idx_license_email", "SELECT * FROM license WHERE email = 'user@example.com'");
+        assertUsesIndex("idx_license_hwid_hash", "SELECT * FROM license WHERE hwid_hash = X'00'");
+    }
+
+    @Test
+    void testOutboxPoller_UsesDueIndex() {
+        assertUsesIndex("idx_email_outbox_due",
+                "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= CURRENT_TIMESTAMP"
+                        + " ORDER BY priority, id");
+    }
+
+    @Test
+    void testUuidKeyLookup_UsesUuidIndex() {
+        assertUsesIndex("uk_license_key_uuid",
+                "SELECT * FROM license WHERE key_uuid = UUID '00000000-0000-0000-0000-000000000001'");
+    }
+
+    /**
+     * Unique key index as VARCHAR(255) text (before V5) versus a 16-byte UUID (after), on a
+     * file database so the size on disk is real
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTextVersusUuidKeyIndex() throws Exception {
+        int rows = 500_000;
+        UUID[] keys = new UUID[rows];
+        for (int i = 0; i < rows; i++) {
+            keys[i] = UUID.randomUUID();
+        }
+        for (String type : new String[] { "VARCHAR(255)", "UUID" }) {
+            Path dir = Files.createTempDirectory("key-index-bench");
+            try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + dir.resolve("bench"), "sa", "")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE k (id BIGINT PRIMARY KEY, license_key " + type + ")");
+                    statement.execute("CREATE UNIQUE INDEX uk_k ON k (license_key)");
+                }
+                connection.setAutoCommit(false);
+                try (PreparedStatement insert = connection.prepareStatement("INSERT INTO k VALUES (?, ?)")) {
+                    for (int i = 0; i < rows; i++) {
+                        insert.setLong(1, i);
+                        insert.setObject(2, type.equals("UUID") ? keys[i] : keys[i].toString().toUpperCase());
+                        insert.addBatch();
+                        if (i % 10_000 == 9_999) {
+                            insert.executeBatch();
+                        }
+                    }
+                }
+                connection.commit();
+                // Table plus its indexes; H2 does not report an index on its own
+                long bytes;
+                try (Statement statement = connection.createStatement();
+                        ResultSet rs = statement.executeQuery("CALL DISK_SPACE_USED('K')")) {
+                    rs.next();
+                    bytes = rs.getLong(1);
+                }
+                for (int round = 0; round < 3; round++) {
+                    long start = System.nanoTime();
+                    int lookups = 200_000;
+                    try (PreparedStatement select = connection.prepareStatement("SELECT id FROM k WHERE license_key = ?")) {
+                        for (int i = 0; i < lookups; i++) {
+                            UUID key = keys[(int) ((i * 7_919L) % rows)];
+                            select.setObject(1, type.equals("UUID") ? key : key.toString().toUpperCase());
+                            try (ResultSet rs = select.executeQuery()) {
+                                assertTrue(rs.next());
+                            }
+                        }
+                    }
+                    System.out.printf("%s round %d: table+index %d MB, %.2f us per lookup%n", type, round,
+                            bytes / (1024 * 1024), (System.nanoTime() - start) / 1e3 / lookups);
+                }
+            } finally {
+                FileSystemUtils.deleteRecursively(dir);
+            }
+        }
+    }
+}
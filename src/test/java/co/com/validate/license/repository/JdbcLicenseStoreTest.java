@@ -0,0 +1,31 @@
+package co.com.validate.license.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JdbcLicenseStoreTest extends LicenseStoreConformanceTest {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    private JdbcLicenseStore store;
+
+    @BeforeEach
+    void setUp() {
+        licenseRepository.deleteAll();
+        store = new JdbcLicenseStore(jdbcTemplate);
+    }
+
+    @Override
+    protected LicenseStore store() {
+        return store;
+    }
+}
@@ -0,0 +1,27 @@
+package co.com.validate.license.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JpaLicenseStoreTest extends LicenseStoreConformanceTest {
+
+    @Autowired
+    private JpaLicenseStore jpaLicenseStore;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @BeforeEach
+    void setUp() {
+        licenseRepository.deleteAll();
+    }
+
+    @Override
+    protected LicenseStore store() {
+        return jpaLicenseStore;
+    }
+}
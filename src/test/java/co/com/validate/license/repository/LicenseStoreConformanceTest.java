@@ -0,0 +1,224 @@
+package co.com.validate.license.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import co.com.validate.license.model.License;
+
+/**
+ * Behaviour every {@link LicenseStore} backend must share; one subclass per backend
+ */
+abstract class LicenseStoreConformanceTest {
+
+    // Far from the dates other tests use, so range scans only see this suite's rows
+    private static final LocalDate BASE = LocalDate.of(2090, 1, 1);
+
+    protected abstract LicenseStore store();
+
+    protected static License newLicense(String key, LocalDate expiration) {
+        License license = new License();
+        license.setLicenseKey(key);
+        license.setEmail("store@example.com");
+        license.setExpirationDate(expiration);
+        return license;
+    }
+
+    @Test
+    void testInsert_AssignsIdAndRoundTrips() {
+        String uuidKey = UUID.randomUUID().toString().toUpperCase();
+        License uuid = store().insert(newLicense(uuidKey, BASE));
+        License legacy = newLicense("STORE-LEGACY", BASE.plusDays(1));
+        legacy.setSeats(3);
+        store().insert(legacy);
+
+        assertNotNull(uuid.getId());
+        License found = store().findByLicenseKey(uuidKey).orElseThrow();
+        assertEquals(uuid.getId(), found.getId());
+        assertEquals("store@example.com", found.getEmail());
+        assertEquals(BASE, found.getExpirationDate());
+        assertFalse(found.isActive());
+        assertEquals(3, store().findByLicenseKey("STORE-LEGACY").orElseThrow().getSeats());
+        assertTrue(store().findByLicenseKey("STORE-MISSING").isEmpty());
+    }
+
+    @Test
+    void testFindByKeyHash() {
+        License inserted = store().insert(newLicense("STORE-HASH", BASE));
+
+        License found = store().findByKeyHash(License.sha256("STORE-HASH")).orElseThrow();
+
+        assertEquals(inserted.getId(), found.getId());
+        assertArrayEquals(License.sha256("STORE-HASH"), found.getKeyHash());
+        assertTrue(store().findByKeyHash(License.sha256("STORE-OTHER")).isEmpty());
+    }
+
+    @Test
+    void testFindByLicenseKeys_ReturnsOnlyExistingOnes() {
+        String uuidKey = UUID.randomUUID().toString().toUpperCase();
+        store().insert(newLicense(uuidKey, BASE));
+        store().insert(newLicense("STORE-MANY-1", BASE));
+        store().insert(newLicense("STORE-MANY-2", BASE));
+
+        List<String> found = store().findByLicenseKeys(List.of(uuidKey, "STORE-MANY-2", "STORE-MISSING")).stream()
+                .map(License::getLicenseKey).sorted().toList();
+
+        assertEquals(List.of(uuidKey, "STORE-MANY-2").stream().sorted().toList(), found);
+        assertTrue(store().findByLicenseKeys(List.of()).isEmpty());
+    }
+
+    @Test
+    void testFindExistingKeys() {
+        String uuidKey = UUID.randomUUID().toString().toUpperCase();
+        store().insert(newLicense(uuidKey, BASE));
+        store().insert(newLicense("STORE-EXISTS", BASE));
+
+        List<String> existing = store().findExistingKeys(List.of("STORE-EXISTS", "STORE-NEW", uuidKey));
+
+        assertEquals(List.of("STORE-EXISTS", uuidKey).stream().sorted().toList(), existing.stream().sorted().toList());
+        assertTrue(store().findExistingKeys(List.of()).isEmpty());
+    }
+
+    @Test
+    void testInsert_DuplicateKeyFails() {
+        store().insert(newLicense("STORE-DUP", BASE));
+
+        assertThrows(DataIntegrityViolationException.class, () -> store().insert(newLicense("STORE-DUP", BASE)));
+    }
+
+    @Test
+    void testInsertAll_StoresEveryLicenseOrNone() {
+        List<License> batch = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batch.add(newLicense("STORE-BATCH-" + i, BASE.plusDays(i % 3)));
+        }
+        batch.add(newLicense(UUID.randomUUID().toString().toUpperCase(), BASE));
+
+        List<License> inserted = store().insertAll(batch);
+
+        assertEquals(21, inserted.stream().map(License::getId).distinct().count());
+        for (License license : inserted) {
+            assertEquals(license.getId(), store().findByLicenseKey(license.getLicenseKey()).orElseThrow().getId());
+        }
+
+        List<License> withDuplicate = List.of(newLicense("STORE-BATCH-NEW", BASE), newLicense("STORE-BATCH-7", BASE));
+        assertThrows(DataIntegrityViolationException.class, () -> store().insertAll(withDuplicate));
+        assertTrue(store().findByLicenseKey("STORE-BATCH-NEW").isEmpty());
+    }
+
+    @Test
+    void testBindHwid_OnlyOnceAndNeverWhenRevoked() {
+        long id = store().insert(newLicense("STORE-BIND", BASE)).getId();
+        License revoked = newLicense("STORE-REVOKED", BASE);
+        revoked.setRevoked(true);
+        long revokedId = store().insert(revoked).getId();
+
+        assertTrue(store().bindHwid(id, "PC-1"));
+        assertFalse(store().bindHwid(id, "PC-2"));
+        assertFalse(store().bindHwid(revokedId, "PC-1"));
+        assertFalse(store().bindHwid(Long.MAX_VALUE, "PC-1"));
+
+        License bound = store().findByLicenseKey("STORE-BIND").orElseThrow();
+        assertEquals("PC-1", bound.getHwid());
+        assertTrue(bound.isActive());
+    }
+
+    @Test
+    void testBindHwid_ConcurrentFirstActivationsHaveOneWinner() throws Exception {
+        long id = store().insert(newLicense("STORE-RACE", BASE)).getId();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String hwid = "PC-" + i;
+                Callable<Boolean> bind = () -> {
+                    start.await();
+                    return store().bindHwid(id, hwid);
+                };
+                results.add(executor.submit(bind));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                winners += result.get() ? 1 : 0;
+            }
+            assertEquals(1, winners);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExpiringRange_InclusiveActiveOnlyOrdered() {
+        long late = store().insert(newLicense("STORE-EXP-2", BASE.plusDays(2))).getId();
+        long early = store().insert(newLicense("STORE-EXP-0", BASE)).getId();
+        long middle = store().insert(newLicense("STORE-EXP-1", BASE.plusDays(1))).getId();
+        store().insert(newLicense("STORE-EXP-INACTIVE", BASE.plusDays(1)));
+        long outside = store().insert(newLicense("STORE-EXP-3", BASE.plusDays(3))).getId();
+        for (long id : new long[] { late, early, middle, outside }) {
+            store().bindHwid(id, "PC-" + id);
+        }
+
+        List<Long> ids = store().findActiveExpiringBetween(BASE, BASE.plusDays(2)).stream().map(License::getId).toList();
+
+        assertEquals(List.of(early, middle, late), ids);
+        assertEquals(List.of(middle),
+                store().findActiveExpiringBetween(BASE.plusDays(1), BASE.plusDays(1)).stream().map(License::getId).toList());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkHotPath() {
+        int rows = 100_000;
+        String backend = getClass().getSimpleName();
+        String prefix = "BENCH-" + System.nanoTime() + "-";
+        long start = System.nanoTime();
+        long[] ids = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            ids[i] = store().insert(newLicense(prefix + i, BASE.plusDays(i % 365))).getId();
+        }
+        double insertUs = (System.nanoTime() - start) / 1e3 / rows;
+
+        for (int round = 0; round < 3; round++) {
+            int lookups = 100_000;
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                assertTrue(store().findByLicenseKey(prefix + (i * 7_919L % rows)).isPresent());
+            }
+            double lookupUs = (System.nanoTime() - start) / 1e3 / lookups;
+
+            int binds = 10_000;
+            start = System.nanoTime();
+            for (int i = round * binds; i < (round + 1) * binds; i++) {
+                assertTrue(store().bindHwid(ids[i], "PC-" + i));
+            }
+            double bindUs = (System.nanoTime() - start) / 1e3 / binds;
+
+            start = System.nanoTime();
+            int expiring = store().findActiveExpiringBetween(BASE, BASE.plusDays(30)).size();
+            double scanMs = (System.nanoTime() - start) / 1e6;
+
+            System.out.printf("%s round %d: insert %.1f us, lookup %.1f us, bind %.1f us, 31-day scan %.1f ms (%d rows)%n",
+                    backend, round, insertUs, lookupUs, bindUs, scanMs, expiring);
+        }
+    }
+}
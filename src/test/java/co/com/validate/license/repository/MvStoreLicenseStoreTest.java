@@ -0,0 +1,49 @@
+package co.com.validate.license.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.h2.mvstore.MVStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MvStoreLicenseStoreTest extends LicenseStoreConformanceTest {
+
+    private MvStoreLicenseStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new MvStoreLicenseStore(new MVStore.Builder().open());
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Override
+    protected LicenseStore store() {
+        return store;
+    }
+
+    @Test
+    void testReopen_KeepsLicensesAndIdSequence(@TempDir Path dir) {
+        String file = dir.resolve("licenses.mv.db").toString();
+        MvStoreLicenseStore first = new MvStoreLicenseStore(file);
+        long id = first.insert(newLicense("STORE-DURABLE", LocalDate.of(2090, 1, 1))).getId();
+        first.bindHwid(id, "PC-1");
+        first.close();
+
+        MvStoreLicenseStore reopened = new MvStoreLicenseStore(file);
+        try {
+            assertEquals("PC-1", reopened.findByLicenseKey("STORE-DURABLE").orElseThrow().getHwid());
+            assertEquals(id + 1, reopened.insert(newLicense("STORE-NEXT", LocalDate.of(2090, 1, 1))).getId());
+        } finally {
+            reopened.close();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package co.com.validate.license.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import co.com.validate.license.cluster.config.ClusterProperties;
+import co.com.validate.license.config.LicenseShardProperties;
+import co.com.validate.license.model.License;
+import co.com.validate.license.service.LicenseExportService;
+import co.com.validate.license.service.LicenseStatsService;
+
+class ShardedLicenseStoreTest extends LicenseStoreConformanceTest {
+
+    private static final int SHARDS = 4;
+
+    private LicenseShards shards;
+    private ShardedLicenseStore store;
+
+    static LicenseShardProperties properties(String urlPattern, int count) {
+        LicenseShardProperties properties = new LicenseShardProperties();
+        properties.setUrlPattern(urlPattern);
+        properties.setCount(count);
+        return properties;
+    }
+
+    @BeforeEach
+    void setUp() {
+        shards = new LicenseShards(properties("jdbc:h2:mem:shard-" + UUID.randomUUID() + "-%d;DB_CLOSE_DELAY=-1", SHARDS));
+        store = new ShardedLicenseStore(shards);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.fanOut(shard -> shards.jdbcTemplate(shard).getJdbcTemplate().update("SHUTDOWN"));
+        shards.close();
+    }
+
+    @Override
+    protected LicenseStore store() {
+        return store;
+    }
+
+    @Test
+    void testRouting_KeyLivesInOneShardAndIdTellsWhich() {
+        for (int i = 0; i < 40; i++) {
+            String key = "ROUTE-" + i;
+            long id = store.insert(newLicense(key, LocalDate.of(2090, 1, 1))).getId();
+            int shard = shards.shardOfKeyHash(License.sha256(key));
+
+            assertEquals(shard, shards.shardOfId(id));
+            List<Integer> holders = shards.fanOut(s -> shards.jdbcTemplate(s).getJdbcTemplate()
+                    .queryForObject("SELECT COUNT(*) FROM license WHERE license_key = ?", Integer.class, key));
+            for (int s = 0; s < SHARDS; s++) {
+                assertEquals(s == shard ? 1 : 0, holders.get(s));
+            }
+        }
+        List<Integer> perShard = shards.fanOut(s -> shards.jdbcTemplate(s).getJdbcTemplate()
+                .queryForObject("SELECT COUNT(*) FROM license", Integer.class));
+        assertEquals(40, perShard.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void testChangedShardCount_IsRefusedOnceLicensesExist(@TempDir Path dir) {
+        String pattern = "jdbc:h2:file:" + dir.resolve("shard-%d").toString().replace('\\', '/');
+        LicenseShards two = new LicenseShards(properties(pattern, 2));
+        for (int i = 0; i < 10; i++) {
+            new ShardedLicenseStore(two).insert(newLicense("RESHARD-" + i, LocalDate.of(2090, 1, 1)));
+        }
+        two.close();
+
+        assertThrows(IllegalStateException.class, () -> new LicenseShards(properties(pattern, 3)));
+    }
+
+    private ObjectProvider<LicenseShards> shardsProvider() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("licenseShards", shards);
+        return beans.getBeanProvider(LicenseShards.class);
+    }
+
+    private LicenseExportService export() {
+        return new LicenseExportService(shards.dataSource(0), new DataSourceTransactionManager(shards.dataSource(0)),
+                new ObjectMapper().registerModule(new JavaTimeModule()), shardsProvider(), 10);
+    }
+
+    @Test
+    void testStats_SumEveryShard() {
+        LicenseStatsService stats = new LicenseStatsService(null, shardsProvider(), new ClusterProperties(),
+                "sharded", 30, 0);
+        stats.load();
+        for (int i = 0; i < 40; i++) {
+            long id = store.insert(newLicense("STATS-" + i, LocalDate.now().plusDays(10))).getId();
+            if (i < 10) {
+                store.bindHwid(id, "PC-" + i);
+            }
+        }
+
+        Map<String, Object> counts = stats.getStats();
+
+        assertEquals(40L, counts.get("total"));
+        assertEquals(10L, counts.get("active"));
+        assertEquals(30L, counts.get("inactive"));
+    }
+
+    @Test
+    void testExport_MergesShardsInIdOrder() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            store.insert(newLicense("EXPORT-" + i, LocalDate.of(2090, 1, 1)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = export().export(LicenseExportService.Format.CSV, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(100, rows);
+        assertEquals(101, lines.length);
+        long previous = 0;
+        for (int i = 1; i < lines.length; i++) {
+            long id = Long.parseLong(lines[i].substring(0, lines[i].indexOf(',')));
+            assertEquals(true, id > previous, "ids out of order at line " + i);
+            previous = id;
+        }
+    }
+
+    @Test
+    void testExport_AbortedMidStreamReleasesEveryShardProducer() throws Exception {
+        // Enough rows per shard to fill each producer's queue
+        List<License> licenses = new ArrayList<>();
+        for (int i = 0; i < 8_000; i++) {
+            licenses.add(newLicense("ABORT-" + i, LocalDate.of(2090, 1, 1)));
+        }
+        store.insertAll(licenses);
+        OutputStream clientGone = new OutputStream() {
+            private int written;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (++written > 4_096) {
+                    // Lets every producer fill its queue and block on it first
+                    try {
+                        Thread.sleep(1_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+
+        assertThrows(IOException.class, () -> export().export(LicenseExportService.Format.CSV, false, clientGone));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (shardProducers() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, shardProducers());
+    }
+
+    private static long shardProducers() {
+        return Thread.getAllStackTraces().values().stream()
+                .filter(stack -> Arrays.stream(stack).anyMatch(frame -> frame.getClassName().endsWith("ShardCursor")))
+                .count();
+    }
+
+    /**
+     * Concurrent inserts: one H2 file (every write serialized on it) versus four shard files
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkConcurrentInserts(@TempDir Path dir) throws Exception {
+        for (int count : new int[] { 1, SHARDS }) {
+            String pattern = "jdbc:h2:file:" + dir.resolve("bench-" + count + "-%d").toString().replace('\\', '/');
+            LicenseShards benchShards = new LicenseShards(properties(pattern, count));
+            try {
+                ShardedLicenseStore benchStore = new ShardedLicenseStore(benchShards);
+                for (int round = 0; round < 3; round++) {
+                    int threads = 8;
+                    int perThread = 5_000;
+                    AtomicInteger next = new AtomicInteger();
+                    String prefix = "BENCH-" + round + "-";
+                    ExecutorService executor = Executors.newFixedThreadPool(threads);
+                    long start = System.nanoTime();
+                    List<Future<?>> futures = new ArrayList<>();
+                    for (int t = 0; t < threads; t++) {
+                        futures.add(executor.submit(() -> {
+                            for (int i = 0; i < perThread; i++) {
+                                benchStore.insert(newLicense(prefix + next.getAndIncrement(), LocalDate.of(2090, 1, 1)));
+                            }
+                        }));
+                    }
+                    for (Future<?> future : futures) {
+                        future.get();
+                    }
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    executor.shutdown();
+                    System.out.printf("%d shard(s) round %d: %.0f inserts/s with %d threads%n",
+                            count, round, threads * perThread / seconds, threads);
+                }
+            } finally {
+                benchShards.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package co.com.validate.license.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import co.com.validate.license.model.ActivationSignature;
+
+class ActivationSignerTest {
+
+    private ActivationSigningProperties properties;
+    private ActivationSigner signer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new ActivationSigningProperties();
+        properties.setEnabled(true);
+        properties.setBatchWindowMillis(20);
+        properties.setMaxBatchSize(64);
+        properties.setMaxLatencyMillis(2000);
+        signer = new ActivationSigner(properties);
+        signer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        signer.shutdown();
+    }
+
+    private static byte[] payload(int i) {
+        return ActivationSignatureVerifier.canonicalPayload("KEY-" + i, "HWID-" + i, "LICENCIA_OK",
+                LocalDate.of(2030, 1, 1), 1_000L + i);
+    }
+
+    @Test
+    void testConcurrentResponses_ShareBatchesAndVerify() throws Exception {
+        int responses = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(responses);
+        List<Future<ActivationSignature>> futures = new ArrayList<>();
+        for (int i = 0; i < responses; i++) {
+            int index = i;
+            futures.add(pool.submit(() -> signer.sign(payload(index), 1_000L + index)));
+        }
+
+        for (int i = 0; i < responses; i++) {
+            ActivationSignature signature = futures.get(i).get();
+            assertTrue(ActivationSignatureVerifier.verify(signer.getPublicKey(), payload(i), signature));
+        }
+        pool.shutdown();
+
+        assertEquals(responses, signer.getLeavesSigned());
+        assertTrue(signer.getBatchesSigned() < responses, "signatures should be amortised across batches");
+    }
+
+    @Test
+    void testTamperedPayload_FailsVerification() {
+        ActivationSignature signature = signer.sign(payload(1), 1_001L);
+
+        assertTrue(ActivationSignatureVerifier.verify(signer.getPublicKey(), payload(1), signature));
+        assertFalse(ActivationSignatureVerifier.verify(signer.getPublicKey(), payload(2), signature));
+    }
+
+    @Test
+    void testCanonicalPayload_FieldBoundariesCannotShift() {
+        LocalDate expiration = LocalDate.of(2030, 1, 1);
+
+        assertFalse(Arrays.equals(
+                ActivationSignatureVerifier.canonicalPayload("a|b", "c", "LICENCIA_OK", expiration, 1L),
+                ActivationSignatureVerifier.canonicalPayload("a", "b|c", "LICENCIA_OK", expiration, 1L)));
+        assertFalse(Arrays.equals(
+                ActivationSignatureVerifier.canonicalPayload("KEY", null, "LICENCIA_OK", expiration, 1L),
+                ActivationSignatureVerifier.canonicalPayload("KEY", "", "LICENCIA_OK", expiration, 1L)));
+    }
+
+    @Test
+    void testMerkleProofs_OddSizedTree() {
+        List<byte[]> leaves = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            leaves.add(MerkleTree.leafHash(payload(i)));
+        }
+        MerkleTree tree = MerkleTree.build(leaves);
+
+        for (int i = 0; i < leaves.size(); i++) {
+            assertArrayEquals(tree.getRoot(), MerkleTree.rootFromProof(leaves.get(i), tree.getProof(i)));
+        }
+    }
+
+    @Test
+    void testDisabled_SignsIndividually() throws Exception {
+        properties.setEnabled(false);
+        ActivationSigner direct = new ActivationSigner(properties);
+        direct.init();
+
+        ActivationSignature signature = direct.sign(payload(3), 1_003L);
+
+        assertTrue(signature.getProof().isEmpty());
+        assertTrue(ActivationSignatureVerifier.verify(direct.getPublicKey(), payload(3), signature));
+    }
+}
@@ -0,0 +1,140 @@
+package co.com.validate.license.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class AuthRejectionGuardTest {
+
+    private AuthRejectionProperties properties;
+    private AuthRejectionGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuthRejectionProperties();
+        properties.setInvalidTokenBurst(3);
+        properties.setInvalidTokensPerMinute(60);
+        properties.setMaxTokenLength(64);
+        guard = new AuthRejectionGuard(properties);
+    }
+
+    @Test
+    void testTokenShape() {
+        assertTrue(guard.hasTokenShape("eyJhbGciOiJkaXIifQ..iv_-.cipher.tag"));
+        assertTrue(guard.hasTokenShape("eyJhbGciOiJIUzI1NiJ9.payload.sig"));
+        assertFalse(guard.hasTokenShape(""));
+        assertFalse(guard.hasTokenShape("only.two"));
+        assertFalse(guard.hasTokenShape(".a.b"));
+        assertFalse(guard.hasTokenShape("a.b.c d"));
+        assertFalse(guard.hasTokenShape("a.b.c+/="));
+        assertFalse(guard.hasTokenShape("a".repeat(61) + ".b.c"));
+    }
+
+    @Test
+    void testInvalidTokens_ThrottleSourceUntilRefill() {
+        long t0 = 1_000_000_000L;
+        for (int i = 0; i < 3; i++) {
+            assertFalse(guard.isThrottled("10.0.0.1", t0));
+            guard.recordInvalid("10.0.0.1", t0);
+        }
+
+        assertTrue(guard.isThrottled("10.0.0.1", t0));
+        assertFalse(guard.isThrottled("10.0.0.2", t0));
+        // 60 per minute: one attempt back after a second
+        assertFalse(guard.isThrottled("10.0.0.1", t0 + 1_000_000_000L));
+    }
+
+    @Test
+    void testFullTable_KeepsThrottledSourcesThatAreStillSending() {
+        properties.setMaxTrackedSources(100);
+        guard = new AuthRejectionGuard(properties);
+        long t0 = 1_000_000_000L;
+        for (int i = 0; i < 3; i++) {
+            guard.recordInvalid("10.0.0.1", t0);
+        }
+
+        // One new source per millisecond; the throttled source keeps trying meanwhile
+        for (int i = 0; i < 1000; i++) {
+            long now = t0 + i * 1_000_000L;
+            guard.recordInvalid("192.168." + (i / 256) + "." + (i % 256), now);
+            if (i % 10 == 0) {
+                guard.isThrottled("10.0.0.1", now);
+            }
+        }
+
+        assertTrue(guard.isThrottled("10.0.0.1", t0 + 1_000_000_000L - 1));
+    }
+
+    @Test
+    void testSourceOf_UsesForwardedClientOnlyBehindTrustedProxy() {
+        properties.setTrustedProxies(List.of("10.1.0.1", "10.1.0.2"));
+        guard = new AuthRejectionGuard(properties);
+        MockHttpServletRequest proxied = new MockHttpServletRequest();
+        proxied.setRemoteAddr("10.1.0.1");
+        proxied.addHeader("X-Forwarded-For", "1.2.3.4, 203.0.113.7, 10.1.0.2");
+        MockHttpServletRequest direct = new MockHttpServletRequest();
+        direct.setRemoteAddr("198.51.100.3");
+        direct.addHeader("X-Forwarded-For", "1.2.3.4");
+
+        assertEquals("203.0.113.7", guard.sourceOf(proxied));
+        assertEquals("198.51.100.3", guard.sourceOf(direct));
+    }
+
+    @Test
+    void testEntryPoint_WritesPreSerializedBody() throws Exception {
+        JweAuthenticationEntryPoint entryPoint = new JweAuthenticationEntryPoint(guard);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        entryPoint.commence(new MockHttpServletRequest(), response, new InsufficientAuthenticationException("test"));
+
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getContentAsString().matches(
+                "\\{\"timestamp\":\\d+,\"mensaje\":\"No autorizado - Token JWE requerido\",\"detalles\":\".+\"}"));
+        assertEquals(1, guard.getTotal(AuthRejectionGuard.Reason.MISSING_TOKEN));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkRejectionPath() throws Exception {
+        properties.setMaxTokenLength(4096);
+        JweAuthenticationEntryPoint entryPoint = new JweAuthenticationEntryPoint(guard);
+        String token = "eyJhbGciOiJkaXIiLCJlbmMiOiJBMjU2R0NNIn0..".repeat(4) + "x";
+        int iterations = 200_000;
+
+        for (int round = 0; round < 3; round++) {
+            // Previous path: a new ObjectMapper serializing the error body per response
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                response.getWriter().write(new ObjectMapper().writeValueAsString(
+                        Map.of("timestamp", new Date(), "mensaje", "No autorizado")));
+            }
+            double before = (double) (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                String source = "10.0." + (i & 255) + ".1";
+                long now = System.nanoTime();
+                if (guard.isThrottled(source, now) || !guard.hasTokenShape(token)) {
+                    guard.recordInvalid(source, now);
+                }
+                entryPoint.writeUnauthorized(new MockHttpServletResponse());
+            }
+            double nanosPerRequest = (double) (System.nanoTime() - start) / iterations;
+            System.out.printf("Rejection round %d: %.2f -> %.2f us per request%n", round, before / 1_000, nanosPerRequest / 1_000);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package co.com.validate.license.security;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -17,6 +19,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -37,6 +40,9 @@ class JweAuthenticationFilterTest {
     @Mock
     private FilterChain filterChain;
 
+    @Spy
+    private AuthRejectionGuard authRejectionGuard = new AuthRejectionGuard(new AuthRejectionProperties());
+
     @InjectMocks
     private JweAuthenticationFilter jweAuthenticationFilter;
 
@@ -122,4 +128,23 @@ class JweAuthenticationFilterTest {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void testDoFilterInternal_ThrottledSource_NotValidatedButChainContinues() throws Exception {
+        // Given
+        when(request.getHeader("Authorization")).thenReturn("Bearer not.a.token");
+        when(request.getRemoteAddr()).thenReturn("10.0.0.9");
+        for (int i = 0; i < 20; i++) {
+            authRejectionGuard.recordInvalid("10.0.0.9", System.nanoTime());
+        }
+
+        // When
+        jweAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(jweService, never()).validateToken(any());
+        verify(request).setAttribute(AuthRejectionGuard.REASON_ATTRIBUTE, AuthRejectionGuard.Reason.THROTTLED);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+    }
+
 }
@@ -4,14 +4,33 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.JOSEObject;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.DirectDecrypter;
+import com.nimbusds.jose.crypto.DirectEncrypter;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
 
 @SpringBootTest
@@ -72,17 +91,189 @@ class JweServiceTest {
         String subject = "test-user";
         String token = jweService.generateToken(subject);
 
-        // Change the secret key
-        String originalSecret = jweProperties.getSecretKey();
-        jweProperties.setSecretKey("different-secret-key-that-is-32-characters-long-for-aes");
+        // A service configured with a different secret under the same kid
+        JweService other = service(properties("different-secret-key-32-chars-ok", "primary", Map.of(), null));
 
         // When & Then
         assertThrows(Exception.class, () -> {
-            jweService.validateToken(token);
+            other.validateToken(token);
         });
+    }
+
+    @Test
+    void testGenerateToken_CarriesActiveKeyId() throws Exception {
+        String token = jweService.generateToken("test-user");
+
+        assertEquals(jweProperties.getActiveKeyId(), JWEObject.parse(token).getHeader().getKeyID());
+    }
+
+    @Test
+    void testKeyRotation_OldTokensStillValidate() throws Exception {
+        String oldSecret = "old-secret-key-0123456789abcdef!";
+        String newSecret = "new-secret-key-0123456789abcdef!";
+        JweService before = service(properties(oldSecret, "k1", Map.of(), null));
+        JweService after = service(properties(oldSecret, "k1", Map.of("k2", newSecret), "k2"));
+        JweService retired = service(properties(newSecret, "k2", Map.of(), null));
+
+        String oldToken = before.generateToken("client");
+        String newToken = after.generateToken("client");
+
+        assertEquals("k2", JWEObject.parse(newToken).getHeader().getKeyID());
+        assertEquals("client", after.validateToken(oldToken).getSubject());
+        assertEquals("client", after.validateToken(newToken).getSubject());
+        assertEquals("client", retired.validateToken(newToken).getSubject());
+        assertThrows(SecurityException.class, () -> retired.validateToken(oldToken));
+    }
+
+    @Test
+    void testTokenWithoutKeyId_UsesDefaultKey() throws Exception {
+        JWEObject legacy = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM),
+                new Payload(new JWTClaimsSet.Builder()
+                        .subject("legacy")
+                        .issuer(jweProperties.getIssuer())
+                        .build()
+                        .toJSONObject()));
+        legacy.encrypt(new DirectEncrypter(jweProperties.getSecretKey().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("legacy", jweService.validateToken(legacy.serialize()).getSubject());
+    }
+
+    @Test
+    void testSignedModes_RoundTrip() throws Exception {
+        for (TokenMode mode : List.of(TokenMode.HS256, TokenMode.EDDSA)) {
+            JweProperties props = properties(SECRET, "primary", Map.of(), null);
+            props.setMode(mode);
+            JweService service = service(props);
+
+            String token = service.generateToken("client");
+
+            assertEquals(3, token.split("\\.").length, mode + " tokens are compact JWS");
+            assertEquals(mode, TokenMode.of(JOSEObject.parse(token)));
+            assertEquals("client", service.validateToken(token).getSubject());
+        }
+    }
+
+    @Test
+    void testHs256_DoesNotSignWithTheRawEncryptionKey() throws Exception {
+        JweProperties props = properties(SECRET, "primary", Map.of(), null);
+        props.setMode(TokenMode.HS256);
+
+        JWSObject token = JWSObject.parse(service(props).generateToken("client"));
+
+        assertFalse(token.verify(new MACVerifier(SECRET.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(token.verify(new MACVerifier(HmacTokenCodec.deriveKey(SECRET.getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    @Test
+    void testModeSwitch_AcceptsBothDuringTransition() throws Exception {
+        JweService jweOnly = service(properties(SECRET, "primary", Map.of(), null));
+        JweProperties switching = properties(SECRET, "primary", Map.of(), null);
+        switching.setMode(TokenMode.HS256);
+        switching.setAcceptModes(List.of(TokenMode.JWE));
+        JweProperties switched = properties(SECRET, "primary", Map.of(), null);
+        switched.setMode(TokenMode.HS256);
+
+        String jweToken = jweOnly.generateToken("client");
+        String jwsToken = service(switching).generateToken("client");
+
+        assertEquals("client", service(switching).validateToken(jweToken).getSubject());
+        assertEquals("client", service(switching).validateToken(jwsToken).getSubject());
+        assertThrows(SecurityException.class, () -> service(switched).validateToken(jweToken));
+        assertThrows(SecurityException.class, () -> jweOnly.validateToken(jwsToken));
+    }
+
+    @Test
+    void testSignedToken_TamperedPayloadRejected() throws Exception {
+        for (TokenMode mode : List.of(TokenMode.HS256, TokenMode.EDDSA)) {
+            JweProperties props = properties(SECRET, "primary", Map.of(), null);
+            props.setMode(mode);
+            JweService service = service(props);
+            String[] parts = service.generateToken("client").split("\\.");
+            String forgedPayload = Base64URL.encode(new JWTClaimsSet.Builder()
+                    .subject("admin")
+                    .issuer("test-issuer")
+                    .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                    .build()
+                    .toString())
+                    .toString();
+
+            assertThrows(SecurityException.class,
+                    () -> service.validateToken(parts[0] + "." + forgedPayload + "." + parts[2]), mode.name());
+        }
+    }
+
+    @Test
+    void testGenerateTokens_KeepsSubjectOrder() throws Exception {
+        List<String> subjects = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            subjects.add("fleet-" + i);
+        }
 
-        // Restore original secret
-        jweProperties.setSecretKey(originalSecret);
+        List<String> tokens = jweService.generateTokens(subjects);
+
+        assertEquals(100, tokens.size());
+        for (int i = 0; i < subjects.size(); i++) {
+            assertEquals(subjects.get(i), jweService.validateToken(tokens.get(i)).getSubject());
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkBatchMinting() throws Exception {
+        List<String> subjects = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            subjects.add("fleet-" + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (String subject : subjects) {
+                jweService.generateToken(subject);
+            }
+            double sequential = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            jweService.generateTokens(subjects);
+            double batch = (System.nanoTime() - start) / 1e6;
+
+            System.out.printf("Batch round %d: 1000 tokens sequential %.1f ms, fork-join %.1f ms (%d cores)%n",
+                    round, sequential, batch, Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    @Test
+    void testRepeatedToken_ServedFromCache() throws Exception {
+        JweService service = service(properties("cache-secret-key-0123456789abcd!", "primary", Map.of(), null));
+        String token = service.generateToken("client");
+
+        JWTClaimsSet first = service.validateToken(token);
+        JWTClaimsSet second = service.validateToken(token);
+
+        assertSame(first, second);
+        assertEquals(1L, service.getTokenCacheStats().get("hits"));
+        assertEquals(1L, service.getTokenCacheStats().get("misses"));
+    }
+
+    @Test
+    void testTokenCache_ExpiredAndCollidingEntriesMiss() {
+        ValidatedTokenCache cache = new ValidatedTokenCache(1);
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("client")
+                .expirationTime(new Date(10_000))
+                .build();
+
+        cache.put("token-a", claims, 1_000);
+
+        assertSame(claims, cache.get("token-a", 9_999));
+        // Single slot: any other token maps to it but must not match
+        assertNull(cache.get("token-b", 9_999));
+        assertNull(cache.get("token-a", 10_000));
+        assertNull(cache.get("token-a", 1));
+    }
+
+    @Test
+    void testInvalidKeyLength_FailsAtStartup() {
+        assertThrows(IllegalStateException.class,
+                () -> service(properties("this-secret-is-longer-than-32-bytes", "primary", Map.of(), null)));
     }
 
     @Test
@@ -128,5 +319,92 @@ class JweServiceTest {
         // Verify expiration is in the future
         assertTrue(claims.getExpirationTime().getTime() > System.currentTimeMillis());
     }
-    
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkGenerateAndValidate() throws Exception {
+        byte[] secret = jweProperties.getSecretKey().getBytes(StandardCharsets.UTF_8);
+        int iterations = 50_000;
+        String token = jweService.generateToken("bench");
+
+        // Previous behaviour: encrypter/decrypter built from the secret on every call
+        for (int round = 0; round < 4; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                JWEObject jwe = new JWEObject(new JWEHeader(JWEAlgorithm.DIR, EncryptionMethod.A256GCM),
+                        new Payload(new JWTClaimsSet.Builder()
+                                .subject("bench")
+                                .issuer(jweProperties.getIssuer())
+                                .issueTime(new Date())
+                                .build()
+                                .toJSONObject()));
+                jwe.encrypt(new DirectEncrypter(jweProperties.getSecretKey().getBytes(StandardCharsets.UTF_8)));
+            }
+            double perCallGenerate = iterations / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                JWEObject jwe = JWEObject.parse(token);
+                jwe.decrypt(new DirectDecrypter(secret));
+                JWTClaimsSet.parse(jwe.getPayload().toJSONObject());
+            }
+            double perCallValidate = iterations / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                jweService.validateToken(token);
+            }
+            double cacheHitValidate = iterations / ((System.nanoTime() - start) / 1e9);
+
+            System.out.printf("JWE round %d: per-call generate %.0f ops/s, validate %.0f ops/s, repeated token %.0f ops/s%n",
+                    round, perCallGenerate, perCallValidate, cacheHitValidate);
+        }
+
+        // Issue/verify cost per token mode, token cache disabled (JDK Ed25519 is slow, fewer iterations)
+        int modeIterations = 5_000;
+        for (int round = 0; round < 3; round++) {
+            for (TokenMode mode : TokenMode.values()) {
+                JweProperties props = properties(SECRET, "primary", Map.of(), null);
+                props.setMode(mode);
+                props.setTokenCacheSize(0);
+                JweService service = service(props);
+                String modeToken = service.generateToken("bench");
+
+                long start = System.nanoTime();
+                for (int i = 0; i < modeIterations; i++) {
+                    service.generateToken("bench");
+                }
+                double issue = modeIterations / ((System.nanoTime() - start) / 1e9);
+
+                start = System.nanoTime();
+                for (int i = 0; i < modeIterations; i++) {
+                    service.validateToken(modeToken);
+                }
+                double verify = modeIterations / ((System.nanoTime() - start) / 1e9);
+
+                System.out.printf("Token mode %s round %d: issue %.0f ops/s, validate %.0f ops/s%n", mode, round, issue, verify);
+            }
+        }
+    }
+
+    private static final String SECRET = "mode-secret-key-0123456789abcde!";
+
+    /**
+     * A service outside the context, with its own empty denylist
+     */
+    private static JweService service(JweProperties properties) {
+        return new JweService(properties, new TokenDenylist(properties));
+    }
+
+    private static JweProperties properties(String secret, String keyId, Map<String, String> keys, String activeKeyId) {
+        JweProperties properties = new JweProperties();
+        properties.setSecretKey(secret);
+        properties.setKeyId(keyId);
+        properties.setKeys(keys);
+        properties.setActiveKeyId(activeKeyId);
+        properties.setIssuer("test-issuer");
+        properties.validate();
+        return properties;
+    }
+
 }
@@ -0,0 +1,89 @@
+package co.com.validate.license.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class TokenDenylistTest {
+
+    private static final long NOW = 1_800_000_000_000L;
+
+    private JweProperties properties;
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JweProperties();
+        properties.setRevocationBucketSeconds(60);
+        denylist = new TokenDenylist(properties);
+    }
+
+    @Test
+    void testRevokedIds_FoundInTheirExpiryBucket() {
+        Date expiresAt = new Date(NOW + 3_600_000);
+        denylist.add("jti-1", expiresAt);
+
+        assertTrue(denylist.isRevoked("jti-1", expiresAt));
+        assertFalse(denylist.isRevoked("jti-2", expiresAt));
+        assertFalse(denylist.isRevoked(null, expiresAt));
+        assertEquals(1, denylist.size());
+    }
+
+    @Test
+    void testDropExpired_RemovesWholeBucketsOnly() {
+        Date soon = new Date(NOW + 30_000);
+        Date later = new Date(NOW + 600_000);
+        for (int i = 0; i < 100; i++) {
+            denylist.add("soon-" + i, soon);
+        }
+        denylist.add("later", later);
+
+        assertEquals(0, denylist.dropExpired(NOW));
+        assertEquals(100, denylist.dropExpired(NOW + 120_000));
+
+        assertEquals(1, denylist.size());
+        assertEquals(1, denylist.bucketCount());
+        assertFalse(denylist.isRevoked("soon-1", soon));
+        assertTrue(denylist.isRevoked("later", later));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkValidationOverhead() throws Exception {
+        properties.setSecretKey("bench-secret-key-0123456789abcd!");
+        properties.setKeys(Map.of());
+        Date expiresAt = new Date(System.currentTimeMillis() + 3_600_000);
+        for (int i = 0; i < 100_000; i++) {
+            denylist.add(UUID.randomUUID().toString(), expiresAt);
+        }
+        JweService empty = new JweService(properties, new TokenDenylist(properties));
+        JweService loaded = new JweService(properties, denylist);
+        String token = empty.generateToken("bench");
+        int iterations = 2_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                empty.validateToken(token);
+            }
+            double emptyNanos = (double) (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                loaded.validateToken(token);
+            }
+            double loadedNanos = (double) (System.nanoTime() - start) / iterations;
+
+            System.out.printf("Cached validation round %d: empty denylist %.0f ns, 100k revoked %.0f ns%n",
+                    round, emptyNanos, loadedNanos);
+        }
+    }
+}
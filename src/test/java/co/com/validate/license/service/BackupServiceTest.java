@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -14,6 +15,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +28,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import co.com.validate.license.config.BackupProperties;
+import co.com.validate.license.config.LicenseShardProperties;
+import co.com.validate.license.repository.LicenseShards;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -162,6 +166,32 @@ class BackupServiceTest {
         assertEquals("licenses-old-1.zip", captor.getValue().key());
     }
 
+    @Test
+    void testPerformBackup_OneFilePerShard() {
+        mockJdbcToCreateBackupFile();
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+        when(s3Client.listObjectsV2(any(ListObjectsV2Request.class)))
+                .thenReturn(ListObjectsV2Response.builder().contents(Collections.emptyList()).build());
+        LicenseShardProperties shardProperties = new LicenseShardProperties();
+        shardProperties.setCount(2);
+        shardProperties.setUrlPattern("jdbc:h2:file:" + tempDir.resolve("shards/shard-%d").toString().replace('\\', '/'));
+        LicenseShards shards = new LicenseShards(shardProperties);
+        ReflectionTestUtils.setField(backupService, "licenseShards", shards);
+
+        try {
+            backupService.performBackup();
+        } finally {
+            shards.close();
+        }
+
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client, times(3)).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals(List.of("license-shard-0-", "license-shard-1-", "licenses-"), captor.getAllValues().stream()
+                .map(request -> request.key().replaceFirst("\\d{8}-\\d{6}\\.zip$", ""))
+                .sorted().collect(Collectors.toList()));
+    }
+
     private S3Object buildS3Object(String key, Instant lastModified) {
         return S3Object.builder().key(key).lastModified(lastModified).build();
     }
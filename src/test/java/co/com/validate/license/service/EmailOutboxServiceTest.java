@@ -0,0 +1,179 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import co.com.validate.license.exception.EmailException;
+import co.com.validate.license.model.EmailOutbox;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.EmailOutboxRepository;
+import co.com.validate.license.repository.LicenseRepository;
+
+@SpringBootTest(properties = {
+        // Own database: pollers of other cached test contexts would otherwise claim these rows
+        "spring.datasource.url=jdbc:h2:mem:outboxtest",
+        "email.outbox.poll-interval-ms=3600000",
+        "email.outbox.worker-threads=1",
+        "email.outbox.max-attempts=2"
+})
+@ActiveProfiles("test")
+class EmailOutboxServiceTest {
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private LicenseCreationService licenseCreationService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @SuppressWarnings("removal")
+    @MockBean
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        licenseRepository.deleteAll();
+    }
+
+    private License newLicense(String key, String email) {
+        License license = new License();
+        license.setLicenseKey(key);
+        license.setEmail(email);
+        license.setExpirationDate(LocalDate.now().plusDays(1));
+        return license;
+    }
+
+    private EmailOutbox only() {
+        List<EmailOutbox> all = emailOutboxRepository.findAll();
+        assertEquals(1, all.size());
+        return all.get(0);
+    }
+
+    @Test
+    void testCreate_WritesOutboxRowInSameTransaction() {
+        licenseCreationService.create(newLicense("OUTBOX-1", "a@example.com"));
+
+        EmailOutbox email = only();
+        assertEquals(EmailOutbox.Type.LICENSE_CREATION, email.getType());
+        assertEquals(EmailOutbox.Status.PENDING, email.getStatus());
+
+        // Duplicate key: the license insert fails and no second email is left behind
+        assertThrows(DataIntegrityViolationException.class,
+                () -> licenseCreationService.create(newLicense("OUTBOX-1", "b@example.com")));
+        assertEquals(1, emailOutboxRepository.count());
+    }
+
+    @Test
+    void testExpirationWarning_DeduplicatedPerRecipient() {
+        License license = licenseRepository.save(newLicense("OUTBOX-2", "a@example.com"));
+
+        assertTrue(emailOutboxService.enqueueExpirationWarning(license));
+        assertFalse(emailOutboxService.enqueueExpirationWarning(license));
+        assertEquals(1, emailOutboxRepository.count());
+    }
+
+    @Test
+    void testFailedDelivery_RetriesThenDeadThenReplay() {
+        License license = licenseRepository.save(newLicense("OUTBOX-3", "fail@example.com"));
+        emailOutboxService.enqueueExpirationWarning(license);
+        doThrow(new EmailException("provider down"))
+                .when(emailService).deliverLicenseExpirationWarning(anyString(), anyString(), any());
+
+        emailOutboxService.deliver(only());
+        EmailOutbox retry = only();
+        assertEquals(EmailOutbox.Status.PENDING, retry.getStatus());
+        assertEquals(1, retry.getAttempts());
+        assertTrue(retry.getNextAttemptAt().isAfter(Instant.now()));
+        assertEquals("provider down", retry.getLastError());
+
+        emailOutboxService.deliver(retry);
+        EmailOutbox dead = only();
+        assertEquals(EmailOutbox.Status.DEAD, dead.getStatus());
+        assertEquals(1, emailOutboxService.stats().get(EmailOutbox.Status.DEAD));
+
+        assertTrue(emailOutboxService.replay(dead.getId()).isPresent());
+        assertEquals(EmailOutbox.Status.PENDING, only().getStatus());
+        assertEquals(0, only().getAttempts());
+        assertFalse(emailOutboxService.replay(dead.getId()).isPresent());
+    }
+
+    @Test
+    void testDispatch_CreationBeforeExpiryWarnings() throws Exception {
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> delivered.add("warning:" + inv.getArgument(1)))
+                .when(emailService).deliverLicenseExpirationWarning(anyString(), anyString(), any());
+        doAnswer(inv -> delivered.add("creation:" + inv.getArgument(1)))
+                .when(emailService).deliverLicenseCreationEmail(anyString(), anyString(), any());
+
+        emailOutboxService.enqueueExpirationWarning(licenseRepository.save(newLicense("OUTBOX-OLD", "a@example.com")));
+        licenseCreationService.create(newLicense("OUTBOX-NEW", "b@example.com"));
+
+        emailOutboxService.dispatch();
+        for (int i = 0; i < 100 && emailOutboxRepository.countByStatus(EmailOutbox.Status.SENT) < 2; i++) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(List.of("creation:OUTBOX-NEW", "warning:OUTBOX-OLD"), delivered);
+        assertEquals(2, emailOutboxRepository.countByStatus(EmailOutbox.Status.SENT));
+    }
+
+    @Test
+    void testRecoverInFlight_LeavesOtherLiveInstancesClaims() {
+        Instant now = Instant.now();
+        claimed("OUTBOX-MINE", "local", now);
+        claimed("OUTBOX-OTHER", "node-2", now);
+        claimed("OUTBOX-STALE", "node-3", now.minusSeconds(3_600));
+        claimed("OUTBOX-UNOWNED", null, null);
+
+        emailOutboxService.recoverInFlight();
+
+        for (EmailOutbox email : emailOutboxRepository.findAll()) {
+            assertEquals(email.getLicenseKey().equals("OUTBOX-OTHER") ? EmailOutbox.Status.SENDING : EmailOutbox.Status.PENDING,
+                    email.getStatus(), email.getLicenseKey());
+        }
+    }
+
+    private void claimed(String key, String claimedBy, Instant claimedAt) {
+        EmailOutbox email = EmailOutbox.of(EmailOutbox.Type.LICENSE_CREATION, newLicense(key, "claim@example.com"));
+        email.setStatus(EmailOutbox.Status.SENDING);
+        email.setClaimedBy(claimedBy);
+        email.setClaimedAt(claimedAt);
+        emailOutboxRepository.save(email);
+    }
+
+    @Test
+    void testBackoff_GrowsAndIsCapped() {
+        long first = emailOutboxService.backoffMillis(1);
+        long third = emailOutboxService.backoffMillis(3);
+        long huge = emailOutboxService.backoffMillis(40);
+
+        assertTrue(first >= 30_000 && first <= 36_000);
+        assertTrue(third >= 120_000 && third <= 144_000);
+        assertTrue(huge <= 3_600_000 + 720_000);
+    }
+}
@@ -0,0 +1,190 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import co.com.validate.license.repository.IdempotencyRecordRepository;
+
+@SpringBootTest(properties = {
+        "license.idempotency.max-entries=2",
+        "license.idempotency.ttl=1h"
+})
+@ActiveProfiles("test")
+class IdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    /**
+     * Placeholder as another instance leaves it while its request runs
+     */
+    private void insertPending(String key, String body, Instant expiresAt) {
+        jdbcTemplate.update("INSERT INTO idempotency_record (idempotency_key, request_hash, status, created_at, expires_at) "
+                        + "VALUES (?, ?, 0, ?, ?)",
+                key, requestHash(body), Timestamp.from(Instant.now()), Timestamp.from(expiresAt));
+    }
+
+    private String requestHash(String body) {
+        // Same hash as the store computes, taken from a completed record
+        idempotencyStore.execute("hash-of-" + body, body, () -> ResponseEntity.ok("x"));
+        return idempotencyRecordRepository.findById("hash-of-" + body).orElseThrow().getRequestHash();
+    }
+
+    private static ResponseEntity<Object> ok(AtomicInteger calls) {
+        return ResponseEntity.ok(Map.of("call", calls.incrementAndGet()));
+    }
+
+    @Test
+    void testRepeatedKey_ReplaysFirstResponse() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<Object> first = idempotencyStore.execute("key-1", Map.of("a", 1), () -> ok(calls));
+        ResponseEntity<Object> second = idempotencyStore.execute("key-1", Map.of("a", 1), () -> ok(calls));
+
+        assertEquals(1, calls.get());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("{\"call\":1}", second.getBody());
+    }
+
+    @Test
+    void testSameKeyDifferentBody_Rejected() {
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyStore.execute("key-2", Map.of("a", 1), () -> ok(calls));
+
+        ResponseEntity<Object> reused = idempotencyStore.execute("key-2", Map.of("a", 2), () -> ok(calls));
+
+        assertEquals(422, reused.getStatusCode().value());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testEvictedFromMemory_ServedFromTable() {
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyStore.execute("key-3", "body", () -> ok(calls));
+        idempotencyStore.execute("key-4", "body", () -> ok(calls));
+        idempotencyStore.execute("key-5", "body", () -> ok(calls));
+
+        long storeHits = (long) idempotencyStore.getStats().get("storeHits");
+        ResponseEntity<Object> replay = idempotencyStore.execute("key-3", "body", () -> ok(calls));
+
+        assertEquals(3, calls.get());
+        assertEquals("{\"call\":1}", replay.getBody());
+        assertEquals(storeHits + 1, idempotencyStore.getStats().get("storeHits"));
+    }
+
+    @Test
+    void testServerError_NotStored() {
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyStore.execute("key-6", "body", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(503).body("down");
+        });
+        idempotencyStore.execute("key-6", "body", () -> ok(calls));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testConcurrentDuplicates_SingleFlighted() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return idempotencyStore.execute("key-7", "body", () -> {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ok(calls);
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<ResponseEntity<Object>> future : futures) {
+            assertEquals(200, future.get().getStatusCode().value());
+        }
+        pool.shutdown();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testPlaceholderOfAnotherInstance_WaitsAndReplaysItsResponse() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        insertPending("key-8", "body", Instant.now().plusSeconds(60));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        Future<ResponseEntity<Object>> waiting = pool.submit(() -> idempotencyStore.execute("key-8", "body", () -> ok(calls)));
+        Thread.sleep(300);
+        jdbcTemplate.update("UPDATE idempotency_record SET status = 201, content_type = 'text/plain', "
+                + "response_body = 'created elsewhere' WHERE idempotency_key = 'key-8'");
+        ResponseEntity<Object> response = waiting.get();
+        pool.shutdown();
+
+        assertEquals(0, calls.get());
+        assertEquals(201, response.getStatusCode().value());
+        assertEquals("created elsewhere", response.getBody());
+    }
+
+    @Test
+    void testExpiredPlaceholder_TakenOver() {
+        AtomicInteger calls = new AtomicInteger();
+        insertPending("key-9", "body", Instant.now().minusSeconds(1));
+
+        ResponseEntity<Object> response = idempotencyStore.execute("key-9", "body", () -> ok(calls));
+
+        assertEquals(1, calls.get());
+        assertNull(response.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(200, idempotencyRecordRepository.findById("key-9").orElseThrow().getStatus());
+    }
+
+    @Test
+    void testFailedAction_ReleasesPlaceholder() {
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            idempotencyStore.execute("key-10", "body", () -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException expected) {
+            // rethrown to the caller
+        }
+
+        assertEquals(200, idempotencyStore.execute("key-10", "body", () -> ok(calls)).getStatusCode().value());
+        assertEquals(1, calls.get());
+    }
+}
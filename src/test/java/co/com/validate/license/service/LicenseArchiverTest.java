@@ -0,0 +1,110 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.ArchivedLicenseRepository;
+import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.service.LicenseValidationService.Outcome;
+
+@SpringBootTest(properties = {
+        "license.archive.chunk-size=2",
+        "license.archive.pause-ms=0"
+})
+@ActiveProfiles("test")
+class LicenseArchiverTest {
+
+    private static final LocalDate CUTOFF = LocalDate.now().minusDays(365);
+
+    @Autowired
+    private LicenseArchiver licenseArchiver;
+
+    @Autowired
+    private LicenseValidationService licenseValidationService;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private ArchivedLicenseRepository archivedLicenseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        licenseRepository.deleteAll();
+        archivedLicenseRepository.deleteAll();
+    }
+
+    private void insertLicense(String key, String hwid, LocalDate expiration, boolean revoked) {
+        jdbcTemplate.update("INSERT INTO license (id, license_key, email, hwid, expiration_date, active, seats, revoked, key_hash) "
+                + "VALUES (NEXT VALUE FOR license_seq, ?, 'archive@example.com', ?, ?, ?, 1, ?, ?)",
+                key, hwid, Date.valueOf(expiration), hwid != null, revoked, License.sha256(key));
+    }
+
+    @Test
+    void testArchive_MovesOnlyLongExpiredInChunks() {
+        for (int i = 0; i < 5; i++) {
+            insertLicense("OLD-" + i, "HWID-" + i, CUTOFF.minusDays(1 + i), false);
+        }
+        insertLicense("RECENT", "HWID-R", CUTOFF.plusDays(1), false);
+        insertLicense("CURRENT", "HWID-C", LocalDate.now().plusDays(30), false);
+
+        long moved = licenseArchiver.archiveExpiredBefore(CUTOFF);
+
+        assertEquals(5, moved);
+        assertEquals(2, licenseRepository.count());
+        assertEquals(5, archivedLicenseRepository.count());
+        assertFalse(licenseRepository.existsByLicenseKey("OLD-0"));
+        assertTrue(archivedLicenseRepository.findByLicenseKey("OLD-0").orElseThrow().getArchivedAt() != null);
+        assertEquals(0, licenseArchiver.archiveExpiredBefore(CUTOFF));
+    }
+
+    @Test
+    void testLookup_FallsBackToArchiveOnHotMiss() {
+        insertLicense("ARCH-BOUND", "HWID-1", CUTOFF.minusDays(10), false);
+        insertLicense("ARCH-NEW", null, CUTOFF.minusDays(10), false);
+        insertLicense("ARCH-REVOKED", "HWID-1", CUTOFF.minusDays(10), true);
+        licenseArchiver.archiveExpiredBefore(CUTOFF);
+
+        assertEquals(Outcome.EXPIRED, licenseValidationService.activate("ARCH-BOUND", "HWID-1").getOutcome());
+        assertEquals(Outcome.OTHER_HWID, licenseValidationService.activate("ARCH-BOUND", "HWID-2").getOutcome());
+        assertEquals(Outcome.REVOKED, licenseValidationService.activate("ARCH-REVOKED", "HWID-1").getOutcome());
+        assertEquals(Outcome.NOT_FOUND, licenseValidationService.activate("NEVER-EXISTED", "HWID-1").getOutcome());
+
+        // An archived, never activated license is not bound on activation
+        assertEquals(Outcome.EXPIRED, licenseValidationService.activate("ARCH-NEW", "HWID-9").getOutcome());
+        assertFalse(licenseRepository.existsByLicenseKey("ARCH-NEW"));
+        assertNull(archivedLicenseRepository.findByLicenseKey("ARCH-NEW").orElseThrow().getHwid());
+
+        LicenseValidationService.Result check =
+                licenseValidationService.check(License.sha256("ARCH-BOUND"), License.sha256("HWID-1"));
+        assertEquals(Outcome.EXPIRED, check.getOutcome());
+        assertEquals(CUTOFF.minusDays(10), check.getLicense().getExpirationDate());
+    }
+
+    @Test
+    void testReusedKey_ReplacesOlderArchivedCopy() {
+        insertLicense("REUSED", "HWID-1", CUTOFF.minusDays(100), false);
+        licenseArchiver.archiveExpiredBefore(CUTOFF);
+        insertLicense("REUSED", "HWID-2", CUTOFF.minusDays(1), false);
+
+        assertEquals(1, licenseArchiver.archiveExpiredBefore(CUTOFF));
+
+        assertEquals("HWID-2", archivedLicenseRepository.findByLicenseKey("REUSED").orElseThrow().getHwid());
+    }
+}
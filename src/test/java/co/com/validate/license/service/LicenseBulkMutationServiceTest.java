@@ -0,0 +1,148 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import co.com.validate.license.model.BulkMutationRequest;
+import co.com.validate.license.model.BulkMutationResult;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.service.LicenseBulkMutationService.Operation;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LicenseBulkMutationServiceTest {
+
+    private static final LocalDate EXPIRATION = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private LicenseBulkMutationService licenseBulkMutationService;
+
+    @Autowired
+    private LicenseValidationService licenseValidationService;
+
+    @Autowired
+    private SeatLeaseService seatLeaseService;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        licenseRepository.deleteAll();
+    }
+
+    private void insertLicenses(String prefix, int count, String email, String hwid) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { prefix + i, email, hwid, Date.valueOf(EXPIRATION) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO license (id, license_key, email, hwid, expiration_date, active, seats, revoked) "
+                + "VALUES (NEXT VALUE FOR license_seq, ?, ?, ?, ?, TRUE, 1, FALSE)", rows);
+    }
+
+    private static BulkMutationRequest keys(String... licenseKeys) {
+        BulkMutationRequest request = new BulkMutationRequest();
+        request.setLicenseKeys(List.of(licenseKeys));
+        return request;
+    }
+
+    @Test
+    void testExtendByFilter_TenThousandLicenses() {
+        insertLicenses("BULK-EXT-", 10_000, "fleet@example.com", "HW");
+        insertLicenses("OTHER-", 10, "other@example.com", "HW");
+
+        BulkMutationRequest request = new BulkMutationRequest();
+        request.setEmail("fleet@example.com");
+        request.setExpiresFrom(EXPIRATION);
+        request.setExpiresTo(EXPIRATION);
+        request.setDays(30);
+        BulkMutationResult result = licenseBulkMutationService.apply(Operation.EXTEND, request);
+
+        assertEquals(10_000, result.getAffected());
+        assertEquals(10, result.getChunks());
+        assertTrue(result.getElapsedMs() < 30_000, "took " + result.getElapsedMs() + " ms");
+        assertEquals(EXPIRATION.plusDays(30), licenseRepository.findByLicenseKey("BULK-EXT-9999").orElseThrow().getExpirationDate());
+        assertEquals(EXPIRATION, licenseRepository.findByLicenseKey("OTHER-0").orElseThrow().getExpirationDate());
+    }
+
+    @Test
+    void testDeactivateByKeys_FailsValidation() {
+        insertLicenses("REV-", 3, "rev@example.com", "HW-1");
+
+        BulkMutationResult result = licenseBulkMutationService.apply(Operation.DEACTIVATE, keys("REV-0", "REV-1", "MISSING"));
+
+        assertEquals(2, result.getAffected());
+        assertEquals(LicenseValidationService.Outcome.REVOKED, licenseValidationService.activate("REV-0", "HW-1").getOutcome());
+        assertEquals(LicenseValidationService.Outcome.OK, licenseValidationService.activate("REV-2", "HW-1").getOutcome());
+    }
+
+    @Test
+    void testResetHwid_AllowsRebinding() {
+        insertLicenses("RESET-", 2, "reset@example.com", "OLD-PC");
+        BulkMutationRequest request = new BulkMutationRequest();
+        request.setEmail("reset@example.com");
+
+        assertEquals(2, licenseBulkMutationService.apply(Operation.RESET_HWID, request).getAffected());
+
+        assertNull(licenseRepository.findByLicenseKey("RESET-0").orElseThrow().getHwid());
+        assertEquals(LicenseValidationService.Outcome.OK, licenseValidationService.activate("RESET-0", "NEW-PC").getOutcome());
+    }
+
+    @Test
+    void testSeatPoolCache_RefreshedAndEvicted() {
+        License license = new License();
+        license.setLicenseKey("SEAT-BULK");
+        license.setEmail("seat@example.com");
+        license.setExpirationDate(EXPIRATION);
+        license.setSeats(2);
+        licenseRepository.save(license);
+
+        SeatLeaseService.Checkout checkout = seatLeaseService.checkout("SEAT-BULK", "PC-1");
+        assertNotNull(checkout.getLease());
+
+        BulkMutationRequest extend = keys("SEAT-BULK");
+        extend.setDays(15);
+        licenseBulkMutationService.apply(Operation.EXTEND, extend);
+        assertEquals(EXPIRATION.plusDays(15), seatLeaseService.getTable().getPool("SEAT-BULK").getExpirationDate());
+        assertTrue(seatLeaseService.heartbeat("SEAT-BULK", checkout.getLease().getLeaseId()).isPresent());
+
+        licenseBulkMutationService.apply(Operation.DEACTIVATE, keys("SEAT-BULK"));
+        assertNull(seatLeaseService.getTable().getPool("SEAT-BULK"));
+        assertEquals(SeatLeaseService.Status.NOT_FOUND, seatLeaseService.checkout("SEAT-BULK", "PC-1").getStatus());
+    }
+
+    @Test
+    void testNonSqlStore_IsRefused() {
+        insertLicenses("BULK-STORE-", 1, "store@example.com", "HW");
+        ReflectionTestUtils.setField(licenseBulkMutationService, "storeBackend", "mvstore");
+        try {
+            assertFalse(licenseBulkMutationService.isSupported());
+            assertThrows(IllegalStateException.class,
+                    () -> licenseBulkMutationService.apply(Operation.RESET_HWID, keys("BULK-STORE-0")));
+        } finally {
+            ReflectionTestUtils.setField(licenseBulkMutationService, "storeBackend", "jpa");
+        }
+        assertEquals("HW", licenseRepository.findByLicenseKey("BULK-STORE-0").orElseThrow().getHwid());
+    }
+}
@@ -0,0 +1,111 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.EmailOutboxRepository;
+import co.com.validate.license.repository.LicenseRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LicenseCreationServiceTest {
+
+    @Autowired
+    private LicenseCreationService licenseCreationService;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SuppressWarnings("removal")
+    @MockBean
+    private LicenseKeyGenerator licenseKeyGenerator;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        licenseRepository.deleteAll();
+        License existing = newLicense();
+        existing.setLicenseKey("TAKEN-KEY");
+        licenseRepository.save(existing);
+    }
+
+    private static License newLicense() {
+        License license = new License();
+        license.setEmail("gen@example.com");
+        license.setExpirationDate(LocalDate.now().plusDays(30));
+        return license;
+    }
+
+    @Test
+    void testCreateGenerated_RetriesOnKeyCollision() {
+        when(licenseKeyGenerator.nextKey()).thenReturn("TAKEN-KEY", "FRESH-KEY");
+
+        License created = licenseCreationService.createGenerated(newLicense());
+
+        assertEquals("FRESH-KEY", created.getLicenseKey());
+        assertEquals(2, licenseRepository.count());
+        // Only the committed attempt left an email behind
+        assertEquals(1, emailOutboxRepository.count());
+    }
+
+    @Test
+    void testCreateGenerated_GivesUpAfterMaxAttempts() {
+        when(licenseKeyGenerator.nextKey()).thenReturn("TAKEN-KEY");
+
+        assertThrows(DataIntegrityViolationException.class, () -> licenseCreationService.createGenerated(newLicense()));
+        assertEquals(1, licenseRepository.count());
+        assertEquals(0, emailOutboxRepository.count());
+    }
+
+    @Test
+    void testUuidKey_StoredAsBinaryAndFoundByText() {
+        String key = UUID.randomUUID().toString().toUpperCase();
+        when(licenseKeyGenerator.nextKey()).thenReturn(key);
+
+        License created = licenseCreationService.createGenerated(newLicense());
+
+        assertEquals(key, created.getLicenseKey());
+        assertNull(jdbcTemplate.queryForObject("SELECT license_key FROM license WHERE id = ?", String.class, created.getId()));
+        assertEquals(key, licenseRepository.findByLicenseKey(key).orElseThrow().getLicenseKey());
+        assertEquals(2, licenseRepository.findByLicenseKeyIn(List.of(key, "TAKEN-KEY")).size());
+        assertEquals(Set.of(key, "TAKEN-KEY"), Set.copyOf(licenseRepository.findExistingLicenseKeys(List.of(key, "TAKEN-KEY", "MISSING"))));
+        // Only the canonical upper-case form maps to the binary column
+        assertFalse(licenseRepository.existsByLicenseKey(key.toLowerCase()));
+    }
+
+    @Test
+    void testCreateGenerated_RetriesOnUuidKeyCollision() {
+        String taken = UUID.randomUUID().toString().toUpperCase();
+        License existing = newLicense();
+        existing.setLicenseKey(taken);
+        licenseRepository.save(existing);
+        when(licenseKeyGenerator.nextKey()).thenReturn(taken, "FRESH-KEY");
+
+        assertEquals("FRESH-KEY", licenseCreationService.createGenerated(newLicense()).getLicenseKey());
+        assertEquals(3, licenseRepository.count());
+    }
+}
@@ -1,7 +1,6 @@
 package co.com.validate.license.service;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -21,22 +20,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import co.com.validate.license.model.License;
-import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.repository.LicenseStore;
 
 @ExtendWith(MockitoExtension.class)
 class LicenseExpirationSchedulerTest {
 
     @Mock
-    private LicenseRepository licenseRepository;
+    private LicenseStore licenseStore;
 
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
 
     private LicenseExpirationScheduler scheduler;
 
     @BeforeEach
     void setUp() {
-        scheduler = new LicenseExpirationScheduler(licenseRepository, emailService);
+        scheduler = new LicenseExpirationScheduler(licenseStore, emailOutboxService);
         ReflectionTestUtils.setField(scheduler, "schedulerEnabled", true);
     }
 
@@ -61,21 +60,17 @@ class LicenseExpirationSchedulerTest {
 
         List<License> expiringLicenses = Arrays.asList(license1, license2);
 
-        when(licenseRepository.findByExpirationDateAndActiveTrue(tomorrow))
+        when(licenseStore.findActiveExpiringBetween(tomorrow, tomorrow))
             .thenReturn(expiringLicenses);
 
         // Act
         scheduler.checkExpiringLicenses();
 
         // Assert
-        verify(licenseRepository).findByExpirationDateAndActiveTrue(tomorrow);
-        verify(emailService, times(2)).sendLicenseExpirationWarning(
-            any(String.class),
-            any(String.class),
-            eq(tomorrow)
-        );
-        verify(emailService).sendLicenseExpirationWarning("user1@example.com", "LICENSE-001", tomorrow);
-        verify(emailService).sendLicenseExpirationWarning("user2@example.com", "LICENSE-002", tomorrow);
+        verify(licenseStore).findActiveExpiringBetween(tomorrow, tomorrow);
+        verify(emailOutboxService, times(2)).enqueueExpirationWarning(any(License.class));
+        verify(emailOutboxService).enqueueExpirationWarning(license1);
+        verify(emailOutboxService).enqueueExpirationWarning(license2);
     }
 
     @Test
@@ -83,19 +78,15 @@ class LicenseExpirationSchedulerTest {
         // Arrange
         LocalDate tomorrow = LocalDate.now().plusDays(1);
 
-        when(licenseRepository.findByExpirationDateAndActiveTrue(tomorrow))
+        when(licenseStore.findActiveExpiringBetween(tomorrow, tomorrow))
             .thenReturn(Collections.emptyList());
 
         // Act
         scheduler.checkExpiringLicenses();
 
         // Assert
-        verify(licenseRepository).findByExpirationDateAndActiveTrue(tomorrow);
-        verify(emailService, never()).sendLicenseExpirationWarning(
-            any(String.class),
-            any(String.class),
-            any(LocalDate.class)
-        );
+        verify(licenseStore).findActiveExpiringBetween(tomorrow, tomorrow);
+        verify(emailOutboxService, never()).enqueueExpirationWarning(any(License.class));
     }
 
     @Test
@@ -107,12 +98,8 @@ class LicenseExpirationSchedulerTest {
         scheduler.checkExpiringLicenses();
 
         // Assert
-        verify(licenseRepository, never()).findByExpirationDateAndActiveTrue(any(LocalDate.class));
-        verify(emailService, never()).sendLicenseExpirationWarning(
-            any(String.class),
-            any(String.class),
-            any(LocalDate.class)
-        );
+        verify(licenseStore, never()).findActiveExpiringBetween(any(LocalDate.class), any(LocalDate.class));
+        verify(emailOutboxService, never()).enqueueExpirationWarning(any(License.class));
     }
 
     @Test
@@ -136,20 +123,20 @@ class LicenseExpirationSchedulerTest {
 
         List<License> expiringLicenses = Arrays.asList(license1, license2);
 
-        when(licenseRepository.findByExpirationDateAndActiveTrue(tomorrow))
+        when(licenseStore.findActiveExpiringBetween(tomorrow, tomorrow))
             .thenReturn(expiringLicenses);
 
         // Make first email fail, second should still be sent
-        doThrow(new RuntimeException("Email service error"))
-            .when(emailService).sendLicenseExpirationWarning(eq("user1@example.com"), any(), any());
+        doThrow(new RuntimeException("Email outbox error"))
+            .when(emailOutboxService).enqueueExpirationWarning(license1);
 
         // Act - should not throw exception
         scheduler.checkExpiringLicenses();
 
         // Assert - both attempts should be made despite first failure
-        verify(licenseRepository).findByExpirationDateAndActiveTrue(tomorrow);
-        verify(emailService).sendLicenseExpirationWarning("user1@example.com", "LICENSE-001", tomorrow);
-        verify(emailService).sendLicenseExpirationWarning("user2@example.com", "LICENSE-002", tomorrow);
+        verify(licenseStore).findActiveExpiringBetween(tomorrow, tomorrow);
+        verify(emailOutboxService).enqueueExpirationWarning(license1);
+        verify(emailOutboxService).enqueueExpirationWarning(license2);
     }
 
     @Test
@@ -157,18 +144,14 @@ class LicenseExpirationSchedulerTest {
         // Arrange
         LocalDate tomorrow = LocalDate.now().plusDays(1);
 
-        when(licenseRepository.findByExpirationDateAndActiveTrue(tomorrow))
+        when(licenseStore.findActiveExpiringBetween(tomorrow, tomorrow))
             .thenThrow(new RuntimeException("Database error"));
 
         // Act - should not throw exception
         scheduler.checkExpiringLicenses();
 
         // Assert
-        verify(licenseRepository).findByExpirationDateAndActiveTrue(tomorrow);
-        verify(emailService, never()).sendLicenseExpirationWarning(
-            any(String.class),
-            any(String.class),
-            any(LocalDate.class)
-        );
+        verify(licenseStore).findActiveExpiringBetween(tomorrow, tomorrow);
+        verify(emailOutboxService, never()).enqueueExpirationWarning(any(License.class));
     }
 }
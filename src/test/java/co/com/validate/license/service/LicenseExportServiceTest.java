@@ -0,0 +1,151 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.service.LicenseExportService.Format;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LicenseExportServiceTest {
+
+    private static final LocalDate EXPIRATION = LocalDate.of(2030, 1, 31);
+
+    @Autowired
+    private LicenseExportService licenseExportService;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        licenseRepository.deleteAll();
+    }
+
+    private void insertLicenses(String prefix, int count, String email) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { prefix + i, email, Date.valueOf(EXPIRATION) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO license (id, license_key, email, hwid, expiration_date, active, seats, revoked) "
+                + "VALUES (NEXT VALUE FOR license_seq, ?, ?, NULL, ?, FALSE, 1, FALSE)", rows);
+    }
+
+    @Test
+    void testNdjson_OneLinePerLicenseInIdOrder() throws Exception {
+        insertLicenses("EXP-", 30, "export@example.com");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = licenseExportService.export(Format.NDJSON, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(30, rows);
+        assertEquals(30, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("EXP-0", first.get("licenseKey").asText());
+        assertEquals("2030-01-31", first.get("expirationDate").asText());
+        assertTrue(objectMapper.readTree(lines[29]).get("id").asLong() > first.get("id").asLong());
+    }
+
+    @Test
+    void testCsv_HeaderAndQuoting() throws Exception {
+        insertLicenses("CSV-", 1, "\"Doe, John\" <john@example.com>");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        licenseExportService.export(Format.CSV, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("id,licenseKey,email,hwid,expirationDate,active,revoked,seats", lines[0]);
+        assertTrue(lines[1].endsWith(",CSV-0,\"\"\"Doe, John\"\" <john@example.com>\",,2030-01-31,false,false,1"), lines[1]);
+    }
+
+    @Test
+    void testGzip_DecompressesToSameContent() throws Exception {
+        insertLicenses("GZ-", 50, "gzip@example.com");
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        licenseExportService.export(Format.CSV, false, plain);
+        licenseExportService.export(Format.CSV, true, compressed);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertEquals(plain.toString(StandardCharsets.UTF_8), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkThroughputAndHeap() throws Exception {
+        for (int round = 0; round < 3; round++) {
+            insertLicenses("BENCH-" + round + "-", 200_000, "bench@example.com");
+            long total = licenseRepository.count();
+            // The in-memory test database itself grows with every round
+            System.gc();
+            long baseline = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+
+            HeapSampler sampler = new HeapSampler();
+            sampler.start();
+            long start = System.nanoTime();
+            long rows = licenseExportService.export(Format.NDJSON, false, OutputStream.nullOutputStream());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            sampler.interrupt();
+            sampler.join();
+
+            assertEquals(total, rows);
+            System.out.printf("round %d: %d rows in %.2f s -> %.0f rows/s, live heap above baseline %d MB%n",
+                    round, rows, seconds, rows / seconds, Math.max(0, sampler.peak - baseline) / (1024 * 1024));
+        }
+    }
+
+    private static final class HeapSampler extends Thread {
+        private volatile long peak;
+
+        HeapSampler() {
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            Runtime runtime = Runtime.getRuntime();
+            while (!isInterrupted()) {
+                // Live set only: garbage from already written rows does not count
+                System.gc();
+                peak = Math.max(peak, runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
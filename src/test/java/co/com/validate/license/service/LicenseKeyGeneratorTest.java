@@ -0,0 +1,117 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class LicenseKeyGeneratorTest {
+
+    private LicenseKeyGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new LicenseKeyGenerator(1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.stop();
+    }
+
+    @Test
+    void testGenerate_UuidV4Format() {
+        String key = generator.generate();
+
+        assertTrue(key.matches("[0-9A-F]{8}-[0-9A-F]{4}-4[0-9A-F]{3}-[89AB][0-9A-F]{3}-[0-9A-F]{12}"), key);
+        assertEquals(4, UUID.fromString(key).version());
+    }
+
+    @Test
+    void testGenerate_UniqueAcrossThreads() throws Exception {
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    keys.add(generator.generate());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(80_000, keys.size());
+    }
+
+    @Test
+    void testNextKey_ServedFromPoolOnceRefilled() throws Exception {
+        generator.start();
+        for (int i = 0; i < 100 && generator.getPoolSize() < 1024; i++) {
+            Thread.sleep(10);
+        }
+
+        generator.nextKey();
+
+        assertEquals(1, generator.getPoolHits());
+        assertEquals(0, generator.getPoolMisses());
+    }
+
+    private static final AtomicLong sink = new AtomicLong();
+
+    private static double keysPerSecond(int threads, int perThread, Supplier<String> source) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                // Consumed so the JIT cannot drop the key building
+                long checksum = 0;
+                for (int i = 0; i < perThread; i++) {
+                    checksum += source.get().charAt(i & 7);
+                }
+                sink.addAndGet(checksum);
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        return threads * (double) perThread / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Prints several rounds; only the last ones are warm. Threads add throughput only up to the
+     * available processors.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkKeysPerSecond() throws Exception {
+        // Same total work at every thread count, so fixed costs weigh the same
+        int total = 1_600_000;
+        System.out.printf("%d available processor(s)%n", Runtime.getRuntime().availableProcessors());
+        for (int round = 0; round < 3; round++) {
+            for (int threads : new int[] { 1, 4, 16 }) {
+                double striped = keysPerSecond(threads, total / threads, generator::generate);
+                double uuid = keysPerSecond(threads, total / threads, () -> UUID.randomUUID().toString().toUpperCase());
+                System.out.printf("round %d, %2d threads: striped DRBG %,.0f keys/s, UUID.randomUUID %,.0f keys/s%n",
+                        round, threads, striped, uuid);
+            }
+        }
+    }
+}
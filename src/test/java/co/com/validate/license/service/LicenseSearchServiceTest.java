@@ -0,0 +1,244 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import co.com.validate.license.model.License;
+import co.com.validate.license.model.LicenseSearchCriteria;
+import co.com.validate.license.model.LicenseSearchPage;
+import co.com.validate.license.model.LicenseSummary;
+import co.com.validate.license.repository.LicenseRepository;
+
+@SpringBootTest(properties = "license.search.max-page-size=100")
+@ActiveProfiles("test")
+class LicenseSearchServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 1);
+
+    @Autowired
+    private LicenseSearchService licenseSearchService;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        licenseRepository.deleteAll();
+    }
+
+    private void insertLicenses(String prefix, int count, String email, String hwid, LocalDate expiration, boolean revoked) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { prefix + i, email, hwid, hwid == null ? null : License.hwidHash(hwid),
+                    Date.valueOf(expiration), hwid != null, revoked });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO license (id, license_key, email, hwid, hwid_hash, expiration_date, active, seats, revoked) "
+                + "VALUES (NEXT VALUE FOR license_seq, ?, ?, ?, ?, ?, ?, 1, ?)", rows);
+    }
+
+    private static LicenseSearchCriteria criteria(int limit) {
+        LicenseSearchCriteria criteria = new LicenseSearchCriteria();
+        criteria.setLimit(limit);
+        return criteria;
+    }
+
+    @Test
+    void testKeysetPages_VisitEveryRowOnceInIdOrder() {
+        insertLicenses("PAGE-", 25, "page@example.com", null, TODAY.plusDays(10), false);
+
+        LicenseSearchCriteria criteria = criteria(10);
+        Set<String> seen = new HashSet<>();
+        long lastId = 0;
+        int pages = 0;
+        do {
+            LicenseSearchPage page = licenseSearchService.search(criteria, TODAY);
+            for (LicenseSummary summary : page.getItems()) {
+                assertTrue(summary.getId() > lastId);
+                lastId = summary.getId();
+                assertTrue(seen.add(summary.getLicenseKey()));
+            }
+            criteria.setAfter(page.getNextCursor());
+            pages++;
+        } while (criteria.getAfter() != null);
+
+        assertEquals(25, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testFilters_EmailStatusExpiryAndHwid() {
+        insertLicenses("OK-", 3, "a@example.com", "HWID", TODAY.plusDays(5), false);
+        insertLicenses("NEW-", 2, "a@example.com", null, TODAY.plusDays(5), false);
+        insertLicenses("OLD-", 4, "b@example.com", "HWID", TODAY.minusDays(1), false);
+        insertLicenses("REV-", 1, "b@example.com", "HWID", TODAY.plusDays(5), true);
+
+        LicenseSearchCriteria byEmail = criteria(50);
+        byEmail.setEmail("a@example.com");
+        assertEquals(5, licenseSearchService.search(byEmail, TODAY).getItems().size());
+
+        LicenseSearchCriteria withoutHwid = criteria(50);
+        withoutHwid.setHwidPresent(false);
+        assertEquals(2, licenseSearchService.search(withoutHwid, TODAY).getItems().size());
+
+        LicenseSearchCriteria expiringSoon = criteria(50);
+        expiringSoon.setExpiresFrom(TODAY);
+        expiringSoon.setExpiresTo(TODAY.plusDays(5));
+        assertEquals(6, licenseSearchService.search(expiringSoon, TODAY).getItems().size());
+
+        assertEquals(3, countByStatus(LicenseSearchCriteria.Status.ACTIVE));
+        assertEquals(2, countByStatus(LicenseSearchCriteria.Status.NOT_ACTIVATED));
+        assertEquals(4, countByStatus(LicenseSearchCriteria.Status.EXPIRED));
+        assertEquals(1, countByStatus(LicenseSearchCriteria.Status.REVOKED));
+    }
+
+    private int countByStatus(LicenseSearchCriteria.Status status) {
+        LicenseSearchCriteria criteria = criteria(50);
+        criteria.setStatus(status);
+        return licenseSearchService.search(criteria, TODAY).getItems().size();
+    }
+
+    @Test
+    void testPageSize_IsCapped() {
+        insertLicenses("CAP-", 150, "cap@example.com", null, TODAY, false);
+
+        LicenseSearchPage page = licenseSearchService.search(criteria(10_000), TODAY);
+
+        assertEquals(100, page.getLimit());
+        assertEquals(100, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void testLastPage_HasNoCursor() {
+        insertLicenses("END-", 5, "end@example.com", null, TODAY, false);
+
+        LicenseSearchPage page = licenseSearchService.search(criteria(5), TODAY);
+
+        assertEquals(5, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testNonSqlStore_IsRefused() {
+        LicenseSearchService mvStoreSearch = new LicenseSearchService(new NamedParameterJdbcTemplate(jdbcTemplate),
+                50, 100, "mvstore");
+
+        assertFalse(mvStoreSearch.isSupported());
+        assertThrows(IllegalStateException.class, () -> mvStoreSearch.search(criteria(10)));
+        assertThrows(IllegalStateException.class, () -> mvStoreSearch.findByHwids(List.of("HWID-1")));
+    }
+
+    @Test
+    void testFindByHwid_NormalizesWhitespaceAndCase() {
+        insertLicenses("PC1-", 2, "hw@example.com", "AB12-CD34", TODAY, false);
+        insertLicenses("PC2-", 1, "hw@example.com", "EF56", TODAY, false);
+        insertLicenses("FREE-", 1, "hw@example.com", null, TODAY, false);
+
+        List<LicenseSummary> bound = licenseSearchService.findByHwid(" ab12-cd34 ");
+
+        assertEquals(List.of("PC1-0", "PC1-1"), bound.stream().map(LicenseSummary::getLicenseKey).toList());
+        assertTrue(licenseSearchService.findByHwid("UNKNOWN").isEmpty());
+    }
+
+    @Test
+    void testFindByHwids_OneEntryPerRequestedHwid() {
+        insertLicenses("PC1-", 2, "hw@example.com", "HWID-1", TODAY, false);
+        insertLicenses("PC2-", 1, "hw@example.com", "HWID-2", TODAY, false);
+
+        Map<String, List<LicenseSummary>> found =
+                licenseSearchService.findByHwids(List.of("HWID-2", "hwid-1", "HWID-1", "MISSING"));
+
+        assertEquals(List.of("HWID-2", "hwid-1", "HWID-1", "MISSING"), List.copyOf(found.keySet()));
+        assertEquals(1, found.get("HWID-2").size());
+        assertEquals(2, found.get("hwid-1").size());
+        assertEquals(2, found.get("HWID-1").size());
+        assertTrue(found.get("MISSING").isEmpty());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkHwidLookup() {
+        int rows = 2_000_000;
+        for (int from = 0; from < rows; from += 10_000) {
+            List<Object[]> batch = new ArrayList<>(10_000);
+            for (int i = from; i < from + 10_000; i++) {
+                String hwid = "HWID-" + i;
+                batch.add(new Object[] { "HWB-" + i, hwid, License.hwidHash(hwid), Date.valueOf(TODAY) });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO license (id, license_key, email, hwid, hwid_hash, expiration_date, active, seats, revoked) "
+                    + "VALUES (NEXT VALUE FOR license_seq, ?, 'bench@example.com', ?, ?, ?, TRUE, 1, FALSE)", batch);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            int lookups = 20_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                assertEquals(1, licenseSearchService.findByHwid("HWID-" + (i * 97L % rows)).size());
+            }
+            long single = (System.nanoTime() - start) / lookups;
+
+            List<String> hwids = new ArrayList<>(1000);
+            for (int i = 0; i < 1000; i++) {
+                hwids.add("HWID-" + (i * 1_999L % rows));
+            }
+            start = System.nanoTime();
+            assertEquals(1000, licenseSearchService.findByHwids(hwids).size());
+            long bulk = System.nanoTime() - start;
+
+            System.out.printf("round %d: %d rows, single lookup %d us, 1000 hwids in %d ms%n",
+                    round, rows, single / 1000, bulk / 1_000_000);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkFirstVersusDeepPage() {
+        int rows = 500_000;
+        for (int from = 0; from < rows; from += 10_000) {
+            insertLicenses("BENCH-" + from + "-", 10_000, "bench@example.com", null, TODAY, false);
+        }
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM license", Long.class);
+
+        for (int round = 0; round < 3; round++) {
+            long first = timePage(null);
+            // Page 10,000 at 50 rows per page
+            long deep = timePage(minId + 10_000L * 50 - 1);
+            System.out.printf("round %d: page 1 %d us, page 10,000 %d us%n", round, first / 1000, deep / 1000);
+        }
+    }
+
+    private long timePage(Long after) {
+        LicenseSearchCriteria criteria = criteria(50);
+        criteria.setAfter(after);
+        long start = System.nanoTime();
+        int iterations = 200;
+        for (int i = 0; i < iterations; i++) {
+            assertEquals(50, licenseSearchService.search(criteria, TODAY).getItems().size());
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
@@ -0,0 +1,128 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import co.com.validate.license.model.BulkMutationRequest;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.service.LicenseBulkMutationService.Operation;
+import co.com.validate.license.service.LicenseStats.State;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LicenseStatsServiceTest {
+
+    @Autowired
+    private LicenseStatsService licenseStatsService;
+
+    @Autowired
+    private LicenseCreationService licenseCreationService;
+
+    @Autowired
+    private LicenseValidationService licenseValidationService;
+
+    @Autowired
+    private LicenseBulkMutationService licenseBulkMutationService;
+
+    @Autowired
+    private LicenseArchiver licenseArchiver;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @BeforeEach
+    void setUp() {
+        licenseRepository.deleteAll();
+        // Other tests insert rows behind the counters' back
+        licenseStatsService.reconcile();
+    }
+
+    private License create(String key, LocalDate expirationDate) {
+        License license = new License();
+        license.setLicenseKey(key);
+        license.setEmail("stats@example.com");
+        license.setExpirationDate(expirationDate);
+        return licenseCreationService.create(license);
+    }
+
+    private static BulkMutationRequest keys(String... licenseKeys) {
+        BulkMutationRequest request = new BulkMutationRequest();
+        request.setLicenseKeys(List.of(licenseKeys));
+        return request;
+    }
+
+    @Test
+    void testCounters_FollowEveryChangeWithoutDrift() {
+        LocalDate today = LocalDate.now();
+        create("STATS-1", today.plusDays(3));
+        create("STATS-2", today.plusDays(3));
+        create("STATS-3", today.plusDays(20));
+        create("STATS-4", today.plusDays(20));
+        create("STATS-OLD", today.minusDays(1));
+
+        licenseValidationService.activate("STATS-1", "HW-1");
+        licenseValidationService.activate("STATS-2", "HW-2");
+        BulkMutationRequest extend = keys("STATS-3");
+        extend.setDays(100);
+        licenseBulkMutationService.apply(Operation.EXTEND, extend);
+        licenseBulkMutationService.apply(Operation.DEACTIVATE, keys("STATS-4"));
+        licenseBulkMutationService.apply(Operation.RESET_HWID, keys("STATS-2"));
+        licenseArchiver.archiveExpiredBefore(today);
+
+        Map<String, Object> stats = licenseStatsService.getStats();
+        assertEquals(4L, stats.get("total"));
+        assertEquals(1L, stats.get("active"));
+        assertEquals(2L, stats.get("inactive"));
+        assertEquals(0L, stats.get("expired"));
+        assertEquals(1L, stats.get("revoked"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> weeks = (List<Map<String, Object>>) stats.get("expirationsPerWeek");
+        assertEquals(2L, weeks.get(0).get("licenses"));
+        assertEquals(0L, weeks.get(2).get("licenses"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> days = (List<Map<String, Object>>) stats.get("activationsPerDay");
+        // STATS-2 lost its activation with the hwid reset
+        assertEquals(today, days.get(days.size() - 1).get("date"));
+        assertEquals(1L, days.get(days.size() - 1).get("activations"));
+
+        assertEquals(0, licenseStatsService.reconcile());
+    }
+
+    @Test
+    void testRollover_MovesLicensesExpiredOvernight() {
+        LocalDate today = LocalDate.of(2030, 3, 1);
+        LicenseStats stats = new LicenseStats(today, 2);
+        stats.add(new State(today, true, false, today));
+        stats.add(new State(today, false, false, null));
+        stats.add(new State(today.plusDays(1), false, false, null));
+        stats.add(new State(today.minusDays(5), true, false, null));
+
+        assertEquals(1, stats.active());
+        assertEquals(2, stats.inactive());
+        assertEquals(1, stats.expired());
+        assertEquals(List.of(0L, 1L), stats.activationsPerDay());
+
+        stats.rollover(today.plusDays(1));
+
+        assertEquals(0, stats.active());
+        assertEquals(1, stats.inactive());
+        assertEquals(3, stats.expired());
+        assertEquals(1, stats.expirationsPerWeek().get(0));
+        assertEquals(List.of(1L, 0L), stats.activationsPerDay());
+
+        stats.rollover(today.plusDays(2));
+
+        assertEquals(4, stats.expired());
+        assertEquals(List.of(0L, 0L), stats.activationsPerDay());
+    }
+}
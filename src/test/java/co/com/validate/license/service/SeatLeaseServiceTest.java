@@ -0,0 +1,232 @@
+package co.com.validate.license.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import co.com.validate.license.cluster.config.ClusterProperties;
+import co.com.validate.license.config.SeatLeaseProperties;
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.repository.LicenseStore;
+import co.com.validate.license.repository.MvStoreLicenseStore;
+import co.com.validate.license.repository.SeatLeaseRepository;
+import co.com.validate.license.service.SeatLeaseTable.Lease;
+import co.com.validate.license.service.SeatLeaseTable.SeatPool;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatLeaseServiceTest {
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @Autowired
+    private LicenseStore licenseStore;
+
+    @Autowired
+    private SeatLeaseRepository seatLeaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SeatLeaseProperties seatLeaseProperties;
+
+    @Autowired
+    private ClusterProperties clusterProperties;
+
+    @Autowired
+    private SeatLeaseService seatLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        seatLeaseRepository.deleteAll();
+        licenseRepository.deleteAll();
+    }
+
+    private License saveLicense(String key, int seats, LocalDate expiration) {
+        License license = new License();
+        license.setLicenseKey(key);
+        license.setEmail("seats@example.com");
+        license.setExpirationDate(expiration);
+        license.setSeats(seats);
+        return licenseRepository.save(license);
+    }
+
+    @Test
+    void testCheckout_GrantsUpToSeatCount() {
+        saveLicense("FLOAT-2", 2, LocalDate.now().plusDays(30));
+
+        SeatLeaseService.Checkout first = seatLeaseService.checkout("FLOAT-2", "PC-1");
+        SeatLeaseService.Checkout second = seatLeaseService.checkout("FLOAT-2", "PC-2");
+        SeatLeaseService.Checkout third = seatLeaseService.checkout("FLOAT-2", "PC-3");
+
+        assertEquals(SeatLeaseService.Status.GRANTED, first.getStatus());
+        assertEquals(SeatLeaseService.Status.GRANTED, second.getStatus());
+        assertEquals(SeatLeaseService.Status.NO_SEATS_AVAILABLE, third.getStatus());
+        assertEquals(2, third.getPool().getSeatsInUse());
+    }
+
+    @Test
+    void testCheckout_SameHwidReusesLease() {
+        saveLicense("FLOAT-1", 1, LocalDate.now().plusDays(30));
+
+        Lease first = seatLeaseService.checkout("FLOAT-1", "PC-1").getLease();
+        Lease again = seatLeaseService.checkout("FLOAT-1", "PC-1").getLease();
+
+        assertSame(first, again);
+        assertEquals(1, first.getPool().getSeatsInUse());
+    }
+
+    @Test
+    void testCheckout_UnknownAndExpiredLicenses() {
+        saveLicense("FLOAT-OLD", 3, LocalDate.now().minusDays(1));
+
+        assertEquals(SeatLeaseService.Status.NOT_FOUND, seatLeaseService.checkout("MISSING", "PC-1").getStatus());
+        assertEquals(SeatLeaseService.Status.EXPIRED, seatLeaseService.checkout("FLOAT-OLD", "PC-1").getStatus());
+    }
+
+    @Test
+    void testReleaseAndHeartbeat() {
+        saveLicense("FLOAT-R", 1, LocalDate.now().plusDays(30));
+        Lease lease = seatLeaseService.checkout("FLOAT-R", "PC-1").getLease();
+
+        assertTrue(seatLeaseService.heartbeat("FLOAT-R", lease.getLeaseId()).isPresent());
+        assertTrue(seatLeaseService.release("FLOAT-R", lease.getLeaseId()));
+        assertFalse(seatLeaseService.release("FLOAT-R", lease.getLeaseId()));
+        assertTrue(seatLeaseService.heartbeat("FLOAT-R", lease.getLeaseId()).isEmpty());
+        assertEquals(SeatLeaseService.Status.GRANTED, seatLeaseService.checkout("FLOAT-R", "PC-2").getStatus());
+    }
+
+    @Test
+    void testTimingWheel_ExpiresUnrenewedLeases() {
+        TimingWheel wheel = new TimingWheel(100, 8, 0);
+        SeatLeaseTable table = new SeatLeaseTable(wheel);
+        SeatPool pool = table.registerPool("WHEEL", 2, LocalDate.now().plusDays(1));
+
+        Lease stale = table.checkout(pool, "PC-1", 1_000);
+        Lease renewed = table.checkout(pool, "PC-2", 1_000);
+        renewed.renew(5_000);
+
+        wheel.advance(1_100);
+        assertTrue(stale.isDone());
+        assertFalse(renewed.isDone());
+        assertEquals(1, pool.getSeatsInUse());
+
+        wheel.advance(5_100);
+        assertTrue(renewed.isDone());
+        assertEquals(0, pool.getSeatsInUse());
+    }
+
+    @Test
+    void testCheckpoint_SurvivesRestart() {
+        saveLicense("FLOAT-CP", 3, LocalDate.now().plusDays(30));
+        Lease lease = seatLeaseService.checkout("FLOAT-CP", "PC-1").getLease();
+
+        seatLeaseService.checkpoint();
+        assertTrue(seatLeaseRepository.existsById(lease.getLeaseId()));
+
+        SeatLeaseService restarted = new SeatLeaseService(licenseStore, seatLeaseRepository,
+                jdbcTemplate, transactionTemplate, seatLeaseProperties, clusterProperties);
+        restarted.restore();
+
+        Lease restored = restarted.getTable().findLease("FLOAT-CP", lease.getLeaseId());
+        assertNotNull(restored);
+        assertEquals("PC-1", restored.getHwid());
+        assertEquals(1, restored.getPool().getSeatsInUse());
+        assertNull(restarted.getTable().findLease("FLOAT-CP", "unknown"));
+    }
+
+    @Test
+    void testCheckpoint_KeepsLeasesOfOtherInstances() {
+        saveLicense("FLOAT-OWNER", 3, LocalDate.now().plusDays(30));
+        jdbcTemplate.update("INSERT INTO seat_lease (lease_id, license_key, hwid, expires_at, owner) VALUES (?, ?, ?, ?, ?)",
+                "other-lease", "FLOAT-OWNER", "PC-OTHER", Timestamp.from(Instant.now().plusSeconds(300)), "node-b");
+        Lease lease = seatLeaseService.checkout("FLOAT-OWNER", "PC-1").getLease();
+
+        seatLeaseService.checkpoint();
+        assertTrue(seatLeaseRepository.existsById("other-lease"));
+        assertTrue(seatLeaseRepository.existsById(lease.getLeaseId()));
+
+        SeatLeaseService restarted = new SeatLeaseService(licenseStore, seatLeaseRepository,
+                jdbcTemplate, transactionTemplate, seatLeaseProperties, clusterProperties);
+        restarted.restore();
+
+        assertNotNull(restarted.getTable().findLease("FLOAT-OWNER", lease.getLeaseId()));
+        assertNull(restarted.getTable().findLease("FLOAT-OWNER", "other-lease"));
+        assertEquals(1, restarted.getTable().getPool("FLOAT-OWNER").getSeatsInUse());
+    }
+
+    @Test
+    void testRestore_KeepsOnlyTheSeatsTheLicenseStillHas() {
+        License license = saveLicense("FLOAT-LOWERED", 3, LocalDate.now().plusDays(30));
+        for (int i = 1; i <= 3; i++) {
+            seatLeaseService.checkout("FLOAT-LOWERED", "PC-" + i);
+        }
+        seatLeaseService.checkpoint();
+        license.setSeats(1);
+        licenseRepository.save(license);
+
+        SeatLeaseService restarted = new SeatLeaseService(licenseStore, seatLeaseRepository,
+                jdbcTemplate, transactionTemplate, seatLeaseProperties, clusterProperties);
+        restarted.restore();
+
+        assertEquals(1, restarted.getTable().getPool("FLOAT-LOWERED").getSeatsInUse());
+    }
+
+    @Test
+    void testGrant_TellsRenewalsFromNewLeases() {
+        SeatLeaseTable table = new SeatLeaseTable(new TimingWheel(100, 8, 0));
+        SeatPool pool = table.registerPool("GRANT", 1, LocalDate.now().plusDays(1));
+
+        SeatLeaseTable.Grant first = table.grant(pool, "PC-1", 1_000);
+        SeatLeaseTable.Grant again = table.grant(pool, "PC-1", 2_000);
+
+        assertTrue(first.created());
+        assertFalse(again.created());
+        assertSame(first.lease(), again.lease());
+        assertNull(table.grant(pool, "PC-2", 1_000));
+    }
+
+    @Test
+    void testCheckout_ReadsLicensesOutsideTheLicenseTable(@TempDir Path dir) {
+        MvStoreLicenseStore mvStore = new MvStoreLicenseStore(dir.resolve("licenses.mv.db").toString());
+        try {
+            License license = new License();
+            license.setLicenseKey("FLOAT-MVSTORE");
+            license.setEmail("seats@example.com");
+            license.setExpirationDate(LocalDate.now().plusDays(30));
+            license.setSeats(1);
+            mvStore.insert(license);
+            SeatLeaseService seats = new SeatLeaseService(mvStore, seatLeaseRepository,
+                    jdbcTemplate, transactionTemplate, seatLeaseProperties, clusterProperties);
+
+            assertEquals(SeatLeaseService.Status.GRANTED, seats.checkout("FLOAT-MVSTORE", "PC-1").getStatus());
+            assertEquals(SeatLeaseService.Status.NO_SEATS_AVAILABLE, seats.checkout("FLOAT-MVSTORE", "PC-2").getStatus());
+            assertEquals(SeatLeaseService.Status.NOT_FOUND, seats.checkout("FLOAT-MISSING", "PC-1").getStatus());
+        } finally {
+            mvStore.close();
+        }
+    }
+}
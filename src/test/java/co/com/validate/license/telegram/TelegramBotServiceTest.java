@@ -25,8 +25,7 @@ import org.telegram.telegrambots.meta.api.objects.User;
 import org.telegram.telegrambots.meta.api.objects.message.Message;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
-import co.com.validate.license.repository.LicenseRepository;
-import co.com.validate.license.service.EmailService;
+import co.com.validate.license.service.LicenseCreationService;
 import co.com.validate.license.telegram.config.TelegramBotProperties;
 import co.com.validate.license.telegram.model.TelegramAuthorizedUser;
 import co.com.validate.license.telegram.repository.TelegramAuthorizedUserRepository;
@@ -52,10 +51,7 @@ class TelegramBotServiceTest {
     private TelegramAuthorizedUserRepository authorizedUserRepository;
 
     @Mock
-    private LicenseRepository licenseRepository;
-
-    @Mock
-    private EmailService emailService;
+    private LicenseCreationService licenseCreationService;
 
     @Mock
     private TelegramClient telegramClient;
@@ -76,12 +72,11 @@ class TelegramBotServiceTest {
         var constructor = TelegramBotService.class.getDeclaredConstructor(
                 TelegramBotProperties.class,
                 TelegramAuthorizedUserRepository.class,
-                LicenseRepository.class,
-                EmailService.class,
+                LicenseCreationService.class,
                 TelegramClient.class);
         constructor.setAccessible(true);
         botService = (TelegramBotService) constructor.newInstance(
-                botProperties, authorizedUserRepository, licenseRepository, emailService, telegramClient);
+                botProperties, authorizedUserRepository, licenseCreationService, telegramClient);
 
         sentMessages.clear();
         when(telegramClient.execute(any(SendMessage.class))).thenAnswer(inv -> {
@@ -126,7 +121,7 @@ class TelegramBotServiceTest {
 
         assertEquals(1, sentMessages.size());
         assert sentMessages.get(0).contains("autorizado");
-        verify(licenseRepository, never()).save(any());
+        verify(licenseCreationService, never()).createGenerated(any());
     }
 
     // ---------- /crear — clave se genera automáticamente ----------
@@ -165,7 +160,7 @@ class TelegramBotServiceTest {
         // msg[0] = clave generada + pide email; msg[1] = error email
         assertEquals(2, sentMessages.size());
         assert sentMessages.get(1).contains("nválido");
-        verify(licenseRepository, never()).save(any());
+        verify(licenseCreationService, never()).createGenerated(any());
     }
 
     // ---------- Email: valid → moves to ESPERANDO_VALID_DAYS ----------
@@ -179,7 +174,7 @@ class TelegramBotServiceTest {
 
         assertEquals(2, sentMessages.size());
         assert sentMessages.get(1).contains("meses");
-        verify(licenseRepository, never()).save(any());
+        verify(licenseCreationService, never()).createGenerated(any());
     }
 
     // ---------- Valid months: zero → stays in ESPERANDO_VALID_DAYS ----------
@@ -194,7 +189,7 @@ class TelegramBotServiceTest {
 
         assertEquals(3, sentMessages.size());
         assert sentMessages.get(2).contains("entre 1 y 12");
-        verify(licenseRepository, never()).save(any());
+        verify(licenseCreationService, never()).createGenerated(any());
     }
 
     // ---------- Valid days: non-integer → stays in ESPERANDO_VALID_DAYS ----------
@@ -209,14 +204,19 @@ class TelegramBotServiceTest {
 
         assertEquals(3, sentMessages.size());
         assert sentMessages.get(2).contains("número entero");
-        verify(licenseRepository, never()).save(any());
+        verify(licenseCreationService, never()).createGenerated(any());
     }
 
-    // ---------- Full flow: creates license + sends email ----------
+    // ---------- Full flow: creates license (email queued by LicenseCreationService) ----------
 
     @Test
     void testFullFlow_creaLicenciaConClaveGenerada_enviaEmail() {
         when(authorizedUserRepository.existsByChatId(AUTHORIZED_CHAT_ID)).thenReturn(true);
+        when(licenseCreationService.createGenerated(any())).thenAnswer(inv -> {
+            co.com.validate.license.model.License license = inv.getArgument(0);
+            license.setLicenseKey("GENERATED-KEY-0001");
+            return license;
+        });
 
         botService.consume(buildUpdate(AUTHORIZED_CHAT_ID, "/crear"));
         botService.consume(buildUpdate(AUTHORIZED_CHAT_ID, "user@example.com"));
@@ -224,16 +224,10 @@ class TelegramBotServiceTest {
 
         // Capturar la licencia guardada para obtener la clave generada
         var captor = org.mockito.ArgumentCaptor.forClass(co.com.validate.license.model.License.class);
-        verify(licenseRepository).save(captor.capture());
+        verify(licenseCreationService).createGenerated(captor.capture());
         String generatedKey = captor.getValue().getLicenseKey();
         assertEquals("user@example.com", captor.getValue().getEmail());
 
-        // Verificar que se envió el email con la clave generada
-        verify(emailService).sendLicenseCreationEmail(
-                org.mockito.ArgumentMatchers.eq("user@example.com"),
-                org.mockito.ArgumentMatchers.eq(generatedKey),
-                any());
-
         assertEquals(3, sentMessages.size());
         // La clave NO aparece en el primer mensaje
         assert !sentMessages.get(0).contains(generatedKey) : "La clave no debe mostrarse al inicio";
@@ -253,7 +247,7 @@ class TelegramBotServiceTest {
         botService.consume(buildUpdate(AUTHORIZED_CHAT_ID, "algo")); // ignored in IDLE
 
         assert sentMessages.get(1).contains("cancelada");
-        verify(licenseRepository, never()).save(any());
+        verify(licenseCreationService, never()).createGenerated(any());
     }
 
     @Test
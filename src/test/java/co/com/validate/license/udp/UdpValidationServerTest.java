@@ -0,0 +1,200 @@
+package co.com.validate.license.udp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import co.com.validate.license.model.License;
+import co.com.validate.license.repository.LicenseRepository;
+import co.com.validate.license.security.ActivationSigner;
+import co.com.validate.license.udp.model.UdpProtocol;
+import co.com.validate.license.udp.service.SourceRateLimiter;
+import co.com.validate.license.udp.service.UdpValidationServer;
+
+@SpringBootTest(properties = {
+        "license.udp.enabled=true",
+        "license.udp.bind-address=127.0.0.1",
+        "license.udp.port=0",
+        "license.udp.rate-limit-per-second=1000000",
+        "license.udp.rate-limit-burst=1000000"
+})
+@ActiveProfiles("test")
+class UdpValidationServerTest {
+
+    @Autowired
+    private UdpValidationServer server;
+
+    @Autowired
+    private ActivationSigner activationSigner;
+
+    @Autowired
+    private LicenseRepository licenseRepository;
+
+    @BeforeEach
+    void setUp() {
+        licenseRepository.deleteAll();
+        saveLicense("UDP-OK", "HWID-1", LocalDate.now().plusDays(30));
+        saveLicense("UDP-OLD", "HWID-2", LocalDate.now().minusDays(1));
+        saveLicense("UDP-NEW", null, LocalDate.now().plusDays(30));
+    }
+
+    private void saveLicense(String key, String hwid, LocalDate expiration) {
+        License license = new License();
+        license.setLicenseKey(key);
+        license.setEmail("udp@example.com");
+        license.setHwid(hwid);
+        license.setExpirationDate(expiration);
+        licenseRepository.save(license);
+    }
+
+    private static byte[] nonce() {
+        byte[] nonce = new byte[UdpProtocol.NONCE_LENGTH];
+        ThreadLocalRandom.current().nextBytes(nonce);
+        return nonce;
+    }
+
+    private UdpProtocol.Response exchange(DatagramSocket socket, byte[] request) throws Exception {
+        socket.send(new DatagramPacket(request, request.length, InetAddress.getLoopbackAddress(), server.getLocalPort()));
+        byte[] buffer = new byte[512];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        try {
+            socket.receive(packet);
+        } catch (SocketTimeoutException e) {
+            return null;
+        }
+        return UdpProtocol.decodeResponse(buffer, packet.getLength(), activationSigner.getPublicKey());
+    }
+
+    private UdpProtocol.Response check(String licenseKey, String hwid) throws Exception {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.setSoTimeout(2000);
+            byte[] nonce = nonce();
+            UdpProtocol.Response response = exchange(socket,
+                    UdpProtocol.encodeRequest(licenseKey, hwid, nonce, System.currentTimeMillis() / 1000));
+            assertNotNull(response);
+            assertArrayEquals(nonce, response.nonce());
+            return response;
+        }
+    }
+
+    @Test
+    void testCheck_StatusesMatchRestRules() throws Exception {
+        UdpProtocol.Response ok = check("UDP-OK", "HWID-1");
+        assertEquals(UdpProtocol.Status.OK, ok.status());
+        assertEquals(LocalDate.now().plusDays(30).toEpochDay(), ok.expirationEpochDay());
+
+        assertEquals(UdpProtocol.Status.OTHER_HWID, check("UDP-OK", "HWID-X").status());
+        assertEquals(-1, check("UDP-OK", "HWID-X").expirationEpochDay());
+        assertEquals(UdpProtocol.Status.EXPIRED, check("UDP-OLD", "HWID-2").status());
+        assertEquals(UdpProtocol.Status.NOT_ACTIVATED, check("UDP-NEW", "HWID-3").status());
+        assertEquals(UdpProtocol.Status.NOT_FOUND, check("UDP-MISSING", "HWID-1").status());
+    }
+
+    @Test
+    void testReplayedAndStaleRequests_AreDropped() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.setSoTimeout(500);
+            long now = System.currentTimeMillis() / 1000;
+            byte[] request = UdpProtocol.encodeRequest("UDP-OK", "HWID-1", nonce(), now);
+
+            assertNotNull(exchange(socket, request));
+            assertNull(exchange(socket, request));
+            assertNull(exchange(socket, UdpProtocol.encodeRequest("UDP-OK", "HWID-1", nonce(), now - 3600)));
+        }
+    }
+
+    @Test
+    void testMalformedDatagram_IsDropped() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.setSoTimeout(500);
+            assertNull(exchange(socket, new byte[] { 'L', 'V', 9 }));
+        }
+    }
+
+    @Test
+    void testRateLimiter_PerSourceBurstAndRefill() throws Exception {
+        SourceRateLimiter limiter = new SourceRateLimiter(2, 3, 100);
+        InetAddress first = InetAddress.getByName("10.0.0.1");
+        InetAddress second = InetAddress.getByName("10.0.0.2");
+        long t0 = 1_000_000_000L;
+
+        assertTrue(limiter.tryAcquire(first, t0));
+        assertTrue(limiter.tryAcquire(first, t0));
+        assertTrue(limiter.tryAcquire(first, t0));
+        assertFalse(limiter.tryAcquire(first, t0));
+        assertTrue(limiter.tryAcquire(second, t0));
+        assertTrue(limiter.tryAcquire(first, t0 + 500_000_000L));
+    }
+
+    @Test
+    void testRateLimiter_SpoofedSourcesDoNotResetALimitedOne() throws Exception {
+        SourceRateLimiter limiter = new SourceRateLimiter(2, 3, 100);
+        InetAddress flooder = InetAddress.getByName("10.0.0.1");
+        long t0 = 1_000_000_000L;
+        while (limiter.tryAcquire(flooder, t0)) {
+            // drain the burst
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            long now = t0 + i * 100L;
+            limiter.tryAcquire(InetAddress.getByAddress(new byte[] { (byte) 192, (byte) 168, (byte) (i >> 8), (byte) i }), now);
+            if (i % 10 == 0) {
+                assertFalse(limiter.tryAcquire(flooder, now));
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkThroughput() throws Exception {
+        int clients = 8;
+        int requestsPerClient = 5_000;
+        AtomicLong ok = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            pool.submit(() -> {
+                try (DatagramSocket socket = new DatagramSocket()) {
+                    socket.setSoTimeout(1000);
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        byte[] request = UdpProtocol.encodeRequest("UDP-OK", "HWID-1", nonce(), System.currentTimeMillis() / 1000);
+                        UdpProtocol.Response response = exchange(socket, request);
+                        if (response != null && response.status() == UdpProtocol.Status.OK) {
+                            ok.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("UDP checks: %d ok of %d in %.2f s -> %.0f checks/s%n",
+                ok.get(), clients * requestsPerClient, seconds, ok.get() / seconds);
+        assertTrue(ok.get() > 0);
+    }
+}